@@ -25,6 +25,7 @@ import static org.zkoss.ganttz.i18n.I18nHelper._;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.zkoss.ganttz.data.Dependency;
@@ -112,7 +113,17 @@ public class DependencyList extends XulElement implements AfterCompose {
         }
 
         boolean dependencyMustBeVisible() {
-            return source.isVisible() && destination.isVisible();
+            return source.isVisible() && destination.isVisible()
+                    && isRendered(dependencyComponent.getSource())
+                    && isRendered(dependencyComponent.getDestination());
+        }
+
+        /**
+         * The row of a visible task isn't rendered if it's far from the
+         * viewport of a virtualized {@link TaskList}
+         */
+        private boolean isRendered(TaskComponent taskComponent) {
+            return taskComponent.getParent() != null && taskComponent.getParent().getParent() != null;
         }
     }
 
@@ -124,6 +135,8 @@ public class DependencyList extends XulElement implements AfterCompose {
 
     private Menupopup limitingContextMenu;
 
+    private List<DependencyVisibilityToggler> visibilityTogglers = new ArrayList<>();
+
     public DependencyList(FunctionalityExposedForExtensions<?> context) {
         this.context = context;
     }
@@ -143,6 +156,7 @@ public class DependencyList extends XulElement implements AfterCompose {
         source.getTask().addVisibilityPropertiesChangeListener(visibilityToggler);
         destination.getTask().addVisibilityPropertiesChangeListener(visibilityToggler);
         dependencyComponent.setVisibilityChangeListener(visibilityToggler);
+        visibilityTogglers.add(visibilityToggler);
 
         boolean dependencyMustBeVisible = visibilityToggler.dependencyMustBeVisible();
         visibilityToggler.toggleDependencyExistence(dependencyMustBeVisible);
@@ -246,6 +260,22 @@ public class DependencyList extends XulElement implements AfterCompose {
         return getGanttPanel().getTimeTrackerComponent();
     }
 
+    /**
+     * Shows the dependencies whose tasks have been rendered and hides the ones
+     * with some task no longer rendered.
+     */
+    void renderedTasksChanged() {
+        for (DependencyVisibilityToggler each : visibilityTogglers) {
+            boolean mustBeVisible = each.dependencyMustBeVisible();
+            if ( mustBeVisible != each.isDependencyNowVisible() ) {
+                each.toggleDependencyExistence(mustBeVisible);
+                if ( mustBeVisible ) {
+                    each.dependencyComponent.redrawDependency();
+                }
+            }
+        }
+    }
+
     void redrawDependencies() {
         redrawDependencyComponents(getDependencyComponents());
     }
@@ -256,8 +286,20 @@ public class DependencyList extends XulElement implements AfterCompose {
         }
     }
 
+    /**
+     * Returns the dependency components including the ones not shown
+     */
+    private List<DependencyComponent> getAllDependencyComponents() {
+        List<DependencyComponent> result = new ArrayList<>();
+        for (DependencyVisibilityToggler each : visibilityTogglers) {
+            result.add(each.dependencyComponent);
+        }
+
+        return result;
+    }
+
     void taskRemoved(Task task) {
-        for (DependencyComponent dependencyComponent : DependencyList.this.getDependencyComponents()) {
+        for (DependencyComponent dependencyComponent : getAllDependencyComponents()) {
             if ( dependencyComponent.contains(task) ) {
                 removeDependencyComponent(dependencyComponent);
             }
@@ -265,7 +307,7 @@ public class DependencyList extends XulElement implements AfterCompose {
     }
 
     public void remove(Dependency dependency) {
-        for (DependencyComponent dependencyComponent : DependencyList.this.getDependencyComponents()) {
+        for (DependencyComponent dependencyComponent : getAllDependencyComponents()) {
             if ( dependencyComponent.hasSameSourceAndDestination(dependency) ) {
                 removeDependencyComponent(dependencyComponent);
             }
@@ -280,6 +322,7 @@ public class DependencyList extends XulElement implements AfterCompose {
 
         source.getTask().removeVisibilityPropertiesChangeListener(listener);
         destination.getTask().removeVisibilityPropertiesChangeListener(listener);
+        visibilityTogglers.remove(listener);
 
         // Remove other change listeners
         dependencyComponent.removeChangeListeners();
@@ -183,6 +183,12 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
 
     private final GanttZKDiagramGraph diagramGraph;
 
+    /**
+     * Kept while the planner is shown, so the critical path is only calculated
+     * again when the graph has changed
+     */
+    private final CriticalPathCalculator<Task, Dependency> criticalPathCalculator;
+
     private TimeTracker timeTracker;
 
     private final PlannerConfiguration<T> configuration;
@@ -195,6 +201,7 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
         this.adapter = configuration.getAdapter();
         this.navigator = configuration.getNavigator();
         this.diagramGraph = diagramGraph;
+        this.criticalPathCalculator = CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
 
         final IDetailItemModifier firstLevelModifiers = configuration.getFirstLevelModifiers();
         final IDetailItemModifier secondLevelModifiers = configuration.getSecondLevelModifiers();
@@ -422,9 +429,6 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
 
     @Override
     public void showCriticalPath() {
-        CriticalPathCalculator<Task, Dependency> criticalPathCalculator =
-                CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
-
         List<Task> criticalPath = criticalPathCalculator.calculateCriticalPath(diagramGraph);
 
         for (Task task : diagramGraph.getTasks()) {
@@ -445,10 +449,6 @@ public class FunctionalityExposedForExtensions<T> implements IContext<T> {
     @Override
     public List<T> getCriticalPath() {
         List<T> result = new ArrayList<>();
-
-        CriticalPathCalculator<Task, Dependency> criticalPathCalculator =
-                CriticalPathCalculator.create(configuration.isDependenciesConstraintsHavePriority());
-
         for (Task each : criticalPathCalculator.calculateCriticalPath(diagramGraph)) {
             result.add(mapper.findAssociatedDomainObject(each));
         }
@@ -38,10 +38,18 @@ import org.zkoss.ganttz.timetracker.zoom.IZoomLevelChangedListener;
 import org.zkoss.ganttz.timetracker.zoom.ZoomLevel;
 import org.zkoss.ganttz.util.Interval;
 import org.zkoss.ganttz.util.MenuBuilder;
+import org.zkoss.zk.au.AuRequest;
+import org.zkoss.zk.au.AuService;
+import org.zkoss.zk.au.out.AuInvoke;
+import org.zkoss.zk.mesg.MZk;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.UiException;
 import org.zkoss.zk.ui.ext.AfterCompose;
+import org.zkoss.zk.ui.sys.ContentRenderer;
 import org.zkoss.zul.Menupopup;
 import org.zkoss.zul.impl.XulElement;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
@@ -55,10 +63,31 @@ import java.util.Collections;
 /**
  * Component to show the list of task in the planner.
  *
+ * When there are many tasks the list is virtualized: only the rows near the
+ * viewport of the browser have their {@link TaskComponent} rendered, the rest
+ * are {@link TaskRowPlaceholder TaskRowPlaceholders}. The browser notifies the
+ * rows in its viewport when it's scrolled or resized.
+ *
  * @author Javier Moran Rua <jmoran@igalia.com>
  */
 public class TaskList extends XulElement implements AfterCompose {
 
+    /**
+     * Number of tasks from which the list is virtualized
+     */
+    private static final int MIN_TASKS_TO_VIRTUALIZE = 500;
+
+    /**
+     * Rows rendered before and after the viewport. Rows are only replaced
+     * again by placeholders when they are twice this distance away.
+     */
+    private static final int ROWS_BUFFER = 30;
+
+    /**
+     * Rows assumed to be in the viewport until the browser notifies them
+     */
+    private static final int INITIAL_ROWS_IN_VIEWPORT = 60;
+
     private transient IZoomLevelChangedListener zoomLevelChangedListener;
 
     private List<Task> currentTotalTasks;
@@ -81,6 +110,16 @@ public class TaskList extends XulElement implements AfterCompose {
 
     private Map<TaskComponent, Menupopup> contextMenus = new HashMap<>();
 
+    private Set<TaskComponent> componentsWithListeners = new HashSet<>();
+
+    private boolean virtualized = false;
+
+    private Map<Task, TaskRowPlaceholder> placeholders = new HashMap<>();
+
+    private int firstRowInViewport = 0;
+
+    private int lastRowInViewport = INITIAL_ROWS_IN_VIEWPORT;
+
     public TaskList(
             FunctionalityExposedForExtensions<?> context,
             CommandOnTaskContextualized<?> doubleClickCommand,
@@ -141,18 +180,115 @@ public class TaskList extends XulElement implements AfterCompose {
     }
 
     private synchronized void addTaskComponent(
-            TaskRow beforeThis, final TaskComponent taskComponent, boolean relocate) {
-
-        insertBefore(taskComponent.getRow(), beforeThis);
-        addContextMenu(taskComponent);
-        addListenerForTaskComponentEditForm(taskComponent);
-        taskComponent.afterCompose();
+            Component beforeThis, final TaskComponent taskComponent, boolean relocate) {
+
+        if ( virtualized ) {
+            // It will be rendered if it's near the viewport when updating the rendered rows
+            insertBefore(placeholderFor(taskComponent.getTask()), beforeThis);
+        } else {
+            insertBefore(taskComponent.getRow(), beforeThis);
+            prepare(taskComponent);
+        }
 
         if ( relocate ) {
             getGanttPanel().adjustZoomColumnsHeight();
         }
     }
 
+    /**
+     * The listeners are added only the first time the component is shown, as
+     * it's shown again each time its row is rendered or its parent expanded.
+     */
+    private void prepare(TaskComponent taskComponent) {
+        if ( componentsWithListeners.add(taskComponent) ) {
+            addContextMenu(taskComponent);
+            addListenerForTaskComponentEditForm(taskComponent);
+            taskComponent.afterCompose();
+        } else {
+            taskComponent.updateProperties();
+        }
+    }
+
+    private TaskRowPlaceholder placeholderFor(Task task) {
+        TaskRowPlaceholder result = placeholders.get(task);
+        if ( result == null ) {
+            result = new TaskRowPlaceholder(task);
+            placeholders.put(task, result);
+        }
+
+        return result;
+    }
+
+    public boolean isVirtualized() {
+        return virtualized;
+    }
+
+    /**
+     * Renders the rows near the viewport and replaces by placeholders the ones
+     * far from it.
+     *
+     * @return if some row has been rendered
+     */
+    private boolean updateRenderedRows() {
+        if ( !virtualized ) {
+            return false;
+        }
+
+        int firstToRender = firstRowInViewport - ROWS_BUFFER;
+        int lastToRender = lastRowInViewport + ROWS_BUFFER;
+        int firstToKeep = firstRowInViewport - 2 * ROWS_BUFFER;
+        int lastToKeep = lastRowInViewport + 2 * ROWS_BUFFER;
+
+        boolean rendered = false;
+        boolean changed = false;
+
+        List<Component> rows = new ArrayList<>(getChildren());
+        for (int i = 0; i < rows.size(); i++) {
+            Component row = rows.get(i);
+
+            if ( row instanceof TaskRowPlaceholder && i >= firstToRender && i <= lastToRender ) {
+                renderRow((TaskRowPlaceholder) row);
+                rendered = changed = true;
+            } else if ( row instanceof TaskRow && (i < firstToKeep || i > lastToKeep) ) {
+                replaceByPlaceholder((TaskRow) row);
+                changed = true;
+            }
+        }
+
+        if ( changed ) {
+            getGanttPanel().getDependencyList().renderedTasksChanged();
+        }
+
+        return rendered;
+    }
+
+    private void renderRow(TaskRowPlaceholder placeholder) {
+        TaskComponent taskComponent = taskComponentByTask.get(placeholder.getTask());
+        insertBefore(taskComponent.getRow(), placeholder);
+        removeChild(placeholder);
+        prepare(taskComponent);
+    }
+
+    private void replaceByPlaceholder(TaskRow row) {
+        insertBefore(placeholderFor(row.getChild().getTask()), row);
+        removeChild(row);
+    }
+
+    private void viewportChanged(int firstRow, int lastRow) {
+        firstRowInViewport = Math.max(0, firstRow);
+        lastRowInViewport = Math.max(firstRowInViewport, lastRow);
+        if ( updateRenderedRows() ) {
+            // The labels and resources shown in the new rows are set in the browser
+            response(new AuInvoke(this, "refreshTooltips"));
+        }
+    }
+
+    @Override
+    protected void renderProperties(ContentRenderer renderer) throws IOException {
+        super.renderProperties(renderer);
+        render(renderer, "virtualized", virtualized);
+    }
+
     public void addTasks(Position position, Collection<? extends Task> newTasks) {
         createAndPublishComponentsIfNeeded(newTasks);
 
@@ -214,16 +350,63 @@ public class TaskList extends XulElement implements AfterCompose {
     }
 
     public int getTasksNumber() {
-        return getTaskComponents().size();
+        int result = 0;
+        for (Object child : getChildren()) {
+            if ( child instanceof TaskRow || child instanceof TaskRowPlaceholder ) {
+                result++;
+            }
+        }
+
+        return result;
     }
 
     @Override
     public void afterCompose() {
         publishOriginalTasksAsComponents();
         registerZoomLevelChangedListener();
+        virtualized = countTasks(currentTotalTasks) >= MIN_TASKS_TO_VIRTUALIZE;
+        if ( virtualized ) {
+            registerViewportChangeService();
+        }
         reload(false);
     }
 
+    private static int countTasks(Collection<? extends Task> tasks) {
+        int result = 0;
+        for (Task each : tasks) {
+            result++;
+            if ( each.isContainer() ) {
+                result += countTasks(each.getTasks());
+            }
+        }
+
+        return result;
+    }
+
+    private void registerViewportChangeService() {
+        setAuService(new AuService() {
+            @Override
+            public boolean service(AuRequest request, boolean everError) {
+                if ( "onViewportChange".equals(request.getCommand()) ) {
+                    viewportChanged(retrieveRow(request, "first"), retrieveRow(request, "last"));
+
+                    return true;
+                }
+
+                return false;
+            }
+
+            private int retrieveRow(AuRequest request, String key) {
+                Object value = request.getData().get(key);
+                if ( !(value instanceof Number) ) {
+                    throw new UiException(MZk.ILLEGAL_REQUEST_WRONG_DATA, new Object[] { key, this });
+                }
+
+                return ((Number) value).intValue();
+            }
+        });
+    }
+
     private void publishOriginalTasksAsComponents() {
         taskComponentByTask = new HashMap<>();
         createAndPublishComponentsIfNeeded(currentTotalTasks);
@@ -328,6 +511,7 @@ public class TaskList extends XulElement implements AfterCompose {
 
     public void remove(Task task) {
         currentTotalTasks.remove(task);
+        removePlaceholders(task);
         for (TaskComponent taskComponent : getTaskComponents()) {
             if ( taskComponent.getTask().equals(task) ) {
                 taskComponent.remove();
@@ -337,6 +521,18 @@ public class TaskList extends XulElement implements AfterCompose {
         }
     }
 
+    private void removePlaceholders(Task task) {
+        TaskRowPlaceholder placeholder = placeholders.remove(task);
+        if ( placeholder != null ) {
+            placeholder.detach();
+        }
+        if ( task.isContainer() ) {
+            for (Task each : task.getTasks()) {
+                removePlaceholders(each);
+            }
+        }
+    }
+
     public void addDependency(TaskComponent source, TaskComponent destination) {
         context.addDependency(new Dependency(source.getTask(), destination.getTask(), DependencyType.END_START));
     }
@@ -349,6 +545,7 @@ public class TaskList extends XulElement implements AfterCompose {
         ArrayList<Task> tasksPendingToAdd = new ArrayList<>();
         reload(currentTotalTasks, tasksPendingToAdd, relocate);
         addPendingTasks(tasksPendingToAdd, null, relocate);
+        updateRenderedRows();
         getGanttPanel().getDependencyList().redrawDependencies();
     }
 
@@ -375,18 +572,26 @@ public class TaskList extends XulElement implements AfterCompose {
     }
 
     private void makeDisappear(Task task) {
-        TaskComponent taskComponent = find(task);
-        removeChild(taskComponent.getRow());
+        removeChild(rowFor(task));
         visibleTasks.remove(task);
         task.setVisible(false);
     }
 
-    private TaskRow rowFor(Task task) {
+    /**
+     * Returns the {@link TaskRow} of the task, or its
+     * {@link TaskRowPlaceholder} if it isn't rendered
+     */
+    private Component rowFor(Task task) {
+        TaskRowPlaceholder placeholder = placeholders.get(task);
+        if ( placeholder != null && placeholder.getParent() == this ) {
+            return placeholder;
+        }
+
         TaskComponent taskComponent = find(task);
         return taskComponent == null ? null : taskComponent.getRow();
     }
 
-    private void addPendingTasks(List<Task> tasksPendingToAdd, TaskRow insertBefore, boolean relocate) {
+    private void addPendingTasks(List<Task> tasksPendingToAdd, Component insertBefore, boolean relocate) {
         if ( tasksPendingToAdd.isEmpty() ) {
             return;
         }
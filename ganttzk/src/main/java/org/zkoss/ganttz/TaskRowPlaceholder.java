@@ -1,9 +1,7 @@
 /*
  * This file is part of LibrePlan
  *
- * Copyright (C) 2009-2010 Fundación para o Fomento da Calidade Industrial e
- *                         Desenvolvemento Tecnolóxico de Galicia
- * Copyright (C) 2010-2011 Igalia, S.L.
+ * Copyright (C) 2026 LibrePlan
  *
  * This program is free software: you can redistribute it and/or modify
  * it under the terms of the GNU Affero General Public License as published by
@@ -18,23 +16,26 @@
  * You should have received a copy of the GNU Affero General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
+package org.zkoss.ganttz;
 
-package org.zkoss.ganttz.data.criticalpath;
-
-import java.util.Set;
-
-import org.zkoss.ganttz.data.IDependency;
-
+import org.zkoss.ganttz.data.Task;
+import org.zkoss.zul.impl.XulElement;
 
 /**
- * Class that represents the initial node of the graph.
- *
- * @author Manuel Rego Casasnovas <mrego@igalia.com>
+ * Empty row taking the place of the {@link TaskRow} of a task that is far
+ * from the viewport when the {@link TaskList} is virtualized. It keeps the
+ * height of the row so the rest of rows are in the same position.
  */
-public class InitialNode<T, D extends IDependency<T>> extends Node<T, D> {
+public class TaskRowPlaceholder extends XulElement {
+
+    private final Task task;
+
+    public TaskRowPlaceholder(Task task) {
+        this.task = task;
+    }
 
-    public InitialNode(Set<? extends T> nextTasks) {
-        super(null, null, nextTasks, null, null);
+    public Task getTask() {
+        return task;
     }
 
-}
\ No newline at end of file
+}
@@ -23,10 +23,13 @@ package org.zkoss.ganttz.data;
 
 import static java.util.Arrays.asList;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -292,10 +295,15 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
     private final ReentranceGuard positionsUpdatingGuard = new ReentranceGuard();
 
+    private long version = 0;
+
+    private long dependenciesVersion = 0;
+
     private final PreAndPostNotReentrantActionsWrapper preAndPostActions = new PreAndPostNotReentrantActionsWrapper() {
 
         @Override
         protected void postAction() {
+            version++;
             executeGraphChangeListeners(new ArrayList<>(postGraphChangeListeners));
         }
 
@@ -419,109 +427,176 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
     }
 
     /**
-     * This class is designed for performing topological sorting of nodes.
-     * Topological sorting is used to make graph nodes not to be mixed, because
-     * parent and child nodes ({@link TaskPoint}) must be placed in the correct order.
-     * Also during topological sorting nodes are placed on appropriate levels.
-     * Topological sorting can be done using different algorithms, but here is used Khan's algorithm.
+     * Keeps a topological order of the {@link TaskPoint task points}, so the
+     * recalculations can be sorted without traversing the whole graph. Each
+     * task has two task points: the one modifying all the points of the task
+     * and the one modifying only the point that is not dominating. They are
+     * created once and reused, so their successors and predecessors are
+     * cached while the dependencies of the graph and whether the task is a
+     * container stay the same.
+     *
+     * The order is kept up to date incrementally when tasks and dependencies
+     * are added, using the algorithm of Pearce and Kelly: when a new
+     * dependency goes against the order, only the task points between the
+     * source and the destination are reordered. Removing tasks or dependencies
+     * doesn't invalidate the order.
      */
     class TopologicalSorter {
 
-        private Map<TaskPoint, Integer> taskPointsByDepthCached = null;
+        /**
+         * The task point modifying all the points of each task, followed by
+         * the one modifying only the point that is not dominating
+         */
+        private final Map<V, List<TaskPoint>> pointsByTask = new HashMap<>();
+
+        private int nextRank = 0;
 
         /**
-         * This method is used to place each node on appropriate level.
-         *
-         * @return map of TaskPoints with appropriate levels
+         * @return the task point of the task for the entry point or
+         *         <code>null</code> if the task isn't in the graph
          */
-        private Map<TaskPoint, Integer> taskPointsByDepth() {
-            if ( taskPointsByDepthCached != null ) {
-                return taskPointsByDepthCached;
+        private TaskPoint getPoint(V task, Point entryPoint) {
+            List<TaskPoint> points = pointsByTask.get(task);
+            if ( points == null ) {
+                return null;
             }
 
-            Map<TaskPoint, Integer> result = new HashMap<>();
-            Map<TaskPoint, Set<TaskPoint>> visitedBy = new HashMap<>();
+            return points.get(isDominatingPoint(entryPoint) ? 0 : 1);
+        }
 
-            /*
-             * Here are stored taskpoints that we have visited.
-             * This need to be done because we need to check have we visited this taskpoint, or not.
-             * Described above need to be done to avoid loop between taskpoints.
-             */
-            Set<TaskPoint> visitedTaskPoints = new HashSet ();
+        private void taskAdded(V task) {
+            if ( pointsByTask.containsKey(task) ) {
+                return;
+            }
+
+            TaskPoint all = new TaskPoint(task, getDominatingPoint());
+            TaskPoint other = new TaskPoint(task, getDominatingPoint().getOther());
+            all.rank = nextRank++;
+            other.rank = nextRank++;
+            pointsByTask.put(task, asList(all, other));
+        }
+
+        private void taskRemoved(V task) {
+            pointsByTask.remove(task);
+        }
 
-            Queue<TaskPoint> withoutIncoming = getInitial(withoutVisibleIncomingDependencies(getTopLevelTasks()));
-            for (TaskPoint each : withoutIncoming) {
-                initializeIfNeededForKey(result, each, 0);
+        /**
+         * The dependency must be in the graph and counted in
+         * {@link GanttDiagramGraph#getDependenciesVersion()} already, so the
+         * neighbours of the task points include it
+         */
+        private void dependencyAdded(D dependency) {
+            List<TaskPoint> sourcePoints = pointsByTask.get(getDependencySource(dependency));
+            TaskPoint destination = destinationPoint(dependency);
+            if ( sourcePoints == null || !destination.isIndexed() ) {
+                return;
             }
 
-            while (!withoutIncoming.isEmpty()) {
+            for (TaskPoint each : sourcePoints) {
+                if ( each.sendsModificationsThrough(dependency) ) {
+                    keepOrderAfterAdding(each, destination);
+                }
+            }
+        }
 
-                TaskPoint current = withoutIncoming.poll();
+        /**
+         * Reorders the task points affected by the new arc from the source to
+         * the destination, if it goes against the current order.
+         */
+        private void keepOrderAfterAdding(TaskPoint source, TaskPoint destination) {
+            if ( source.rank < destination.rank ) {
+                return;
+            }
 
-                visitedTaskPoints.add(current); // Marking taskpoint as visited
+            List<TaskPoint> forward = new ArrayList<>();
+            if ( !collectForward(destination, source.rank, source, forward, new HashSet<TaskPoint>()) ) {
+                LOG.warn("there is a loop between " + source + " and " + destination);
+                return;
+            }
 
-                // Taking all child elements
-                for (TaskPoint each : current.getImmediateSuccessors()) {
+            List<TaskPoint> backward = new ArrayList<>();
+            collectBackward(source, destination.rank, backward, new HashSet<TaskPoint>());
 
-                    if (!visitedTaskPoints.contains(each)) {
+            Comparator<TaskPoint> byRank = new Comparator<TaskPoint>() {
+                @Override
+                public int compare(TaskPoint o1, TaskPoint o2) {
+                    return Integer.compare(o1.rank, o2.rank);
+                }
+            };
+            Collections.sort(forward, byRank);
+            Collections.sort(backward, byRank);
 
-                        initializeIfNeededForKey(visitedBy, each, new HashSet<TaskPoint>());
+            int[] ranks = new int[forward.size() + backward.size()];
+            int i = 0;
+            for (TaskPoint each : backward) {
+                ranks[i++] = each.rank;
+            }
+            for (TaskPoint each : forward) {
+                ranks[i++] = each.rank;
+            }
+            Arrays.sort(ranks);
 
-                        Set<TaskPoint> visitors = visitedBy.get(each);
-                        visitors.add(current);
+            i = 0;
+            for (TaskPoint each : backward) {
+                each.rank = ranks[i++];
+            }
+            for (TaskPoint each : forward) {
+                each.rank = ranks[i++];
+            }
+        }
 
-                        // Taking parent elements
-                        Set<TaskPoint> predecessorsRequired = each.getImmediatePredecessors();
+        /**
+         * @return <code>false</code> if the forbidden task point is reached
+         */
+        private boolean collectForward(TaskPoint current, int upperBound, TaskPoint forbidden,
+                                       List<TaskPoint> result, Set<TaskPoint> visited) {
+            Deque<TaskPoint> pending = new ArrayDeque<>();
+            pending.push(current);
+            visited.add(current);
 
-                        if ( visitors.containsAll(predecessorsRequired) ) {
+            while (!pending.isEmpty()) {
+                TaskPoint each = pending.pop();
+                result.add(each);
 
-                            initializeIfNeededForKey(result, each, result.get(current) + 1);
+                for (TaskPoint successor : each.getImmediateSuccessors()) {
+                    if ( successor == forbidden ) {
+                        return false;
+                    }
 
-                            withoutIncoming.offer(each);
-                        }
+                    if ( successor.rank < upperBound && visited.add(successor) ) {
+                        pending.push(successor);
                     }
                 }
             }
 
-            return taskPointsByDepthCached = Collections.unmodifiableMap(result);
-        }
-
-        private <K, T> void initializeIfNeededForKey(Map<K, T> map, K key, T initialValue) {
-            if ( !map.containsKey(key) ) {
-                map.put(key, initialValue);
-            }
+            return true;
         }
 
-        private LinkedList<TaskPoint> getInitial(List<V> initial) {
-            LinkedList<TaskPoint> result = new LinkedList<>();
-            for (V each : initial) {
-                result.add(allPointsPotentiallyModified(each));
-            }
+        private void collectBackward(TaskPoint current, int lowerBound, List<TaskPoint> result,
+                                     Set<TaskPoint> visited) {
+            Deque<TaskPoint> pending = new ArrayDeque<>();
+            pending.push(current);
+            visited.add(current);
 
-            return result;
-        }
+            while (!pending.isEmpty()) {
+                TaskPoint each = pending.pop();
+                result.add(each);
 
-        public void recalculationNeeded() {
-            taskPointsByDepthCached = null;
+                for (TaskPoint predecessor : each.getImmediatePredecessors()) {
+                    if ( predecessor.rank > lowerBound && visited.add(predecessor) ) {
+                        pending.push(predecessor);
+                    }
+                }
+            }
         }
 
         public List<Recalculation> sort(Collection<? extends Recalculation> recalculationsToBeSorted) {
-
             List<Recalculation> result = new ArrayList<>(recalculationsToBeSorted);
-            final Map<TaskPoint, Integer> taskPointsByDepth = taskPointsByDepth();
             Collections.sort(result, new Comparator<Recalculation>() {
 
                 @Override
                 public int compare(Recalculation o1, Recalculation o2) {
-                    int o1Depth = onNullDefault(
-                            taskPointsByDepth.get(o1.taskPoint),
-                            Integer.MAX_VALUE, "no depth value for " + o1.taskPoint);
-
-                    int o2Depth = onNullDefault(
-                            taskPointsByDepth.get(o2.taskPoint),
-                            Integer.MAX_VALUE, "no depth value for " + o2.taskPoint);
-
-                    int result = o1Depth - o2Depth;
+                    int result = Integer.compare(rankOf(o1), rankOf(o2));
 
                     if ( result == 0 ) {
                         return asInt(o1.parentRecalculation) - asInt(o2.parentRecalculation);
@@ -530,6 +605,14 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
                     return result;
                 }
 
+                private int rankOf(Recalculation recalculation) {
+                    TaskPoint taskPoint = recalculation.taskPoint;
+
+                    return taskPoint.isIndexed()
+                            ? taskPoint.rank
+                            : onNullDefault(null, Integer.MAX_VALUE, "no depth value for " + taskPoint);
+                }
+
                 private int asInt(boolean b) {
                     return b ? 1 : 0;
                 }
@@ -560,7 +643,8 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
             V task = stack.remove(0);
             graph.addVertex(task);
-            topologicalSorter.recalculationNeeded();
+            topologicalSorter.taskAdded(task);
+            dependenciesModified();
             adapter.registerDependenciesEnforcerHookOn(task, enforcer);
 
             if ( adapter.isContainer(task) ) {
@@ -1174,8 +1258,8 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         Queue<Recalculation> pendingOfVisit = new LinkedList<>();
         pendingOfVisit.offer(first);
 
-        Map<Recalculation, Recalculation> alreadyVisited = new HashMap<>();
-        alreadyVisited.put(first, first);
+        Map<TaskPoint, Recalculation> alreadyVisited = new HashMap<>();
+        alreadyVisited.put(first.taskPoint, first);
 
         while (!pendingOfVisit.isEmpty()) {
 
@@ -1187,31 +1271,21 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
                     continue;
                 }
 
-                Recalculation recalculationToAdd = getRecalcualtionToAdd(each, alreadyVisited);
-                recalculationToAdd.comesFromPredecessor(current);
-
-                if ( !alreadyVisited.containsKey(recalculationToAdd) ) {
+                Recalculation recalculationToAdd = alreadyVisited.get(each);
+                if ( recalculationToAdd == null ) {
+                    recalculationToAdd = recalculationFor(each);
                     result.addAll(getParentsRecalculations(parentRecalculationsAlreadyDone, each));
                     result.add(recalculationToAdd);
                     pendingOfVisit.offer(recalculationToAdd);
-                    alreadyVisited.put(recalculationToAdd, recalculationToAdd);
+                    alreadyVisited.put(each, recalculationToAdd);
                 }
+                recalculationToAdd.comesFromPredecessor(current);
             }
         }
 
         return topologicalSorter.sort(result);
     }
 
-    private Recalculation getRecalcualtionToAdd(TaskPoint taskPoint, Map<Recalculation, Recalculation> alreadyVisited) {
-        Recalculation result = recalculationFor(taskPoint);
-
-        if ( alreadyVisited.containsKey(result) ) {
-            return alreadyVisited.get(result);
-        } else {
-            return result;
-        }
-    }
-
     private List<Recalculation> getParentsRecalculations(Set<Recalculation> parentRecalculationsAlreadyDone,
                                                          TaskPoint taskPoint) {
         List<Recalculation> result = new ArrayList<>();
@@ -1979,13 +2053,14 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
             }
         }
 
-        topologicalSorter.recalculationNeeded();
+        topologicalSorter.taskRemoved(task);
+        dependenciesModified();
         enforcer.enforceRestrictionsOn(needingEnforcing);
     }
 
     public void removeDependency(D dependency) {
         graph.removeEdge(dependency);
-        topologicalSorter.recalculationNeeded();
+        dependenciesModified();
         V destination = adapter.getDestination(dependency);
         V source = adapter.getSource(dependency);
         enforcer.enforceRestrictionsOn(destination);
@@ -2030,7 +2105,8 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         V source = adapter.getSource(dependency);
         V destination = adapter.getDestination(dependency);
         graph.addEdge(source, destination, dependency);
-        topologicalSorter.recalculationNeeded();
+        dependenciesModified();
+        topologicalSorter.dependencyAdded(dependency);
         if ( enforceRestrictions ) {
             enforceRestrictions(destination);
         }
@@ -2040,6 +2116,19 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         enforcer.taskPositionModified(task);
     }
 
+    private void dependenciesModified() {
+        dependenciesVersion++;
+        version++;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getDependenciesVersion() {
+        return dependenciesVersion;
+    }
+
     public DeferedNotifier manualNotificationOn(IAction action) {
         return enforcer.manualNotification(action);
     }
@@ -2208,7 +2297,7 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
     TaskPoint destinationPoint(D dependency) {
         V destination = getDependencyDestination(dependency);
-        return new TaskPoint(destination, getDestinationPoint(dependency.getType()));
+        return pointFor(destination, getDestinationPoint(dependency.getType()));
     }
 
     private Point getDestinationPoint(DependencyType type) {
@@ -2217,7 +2306,7 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
     TaskPoint sourcePoint(D dependency) {
         V source = getDependencySource(dependency);
-        return new TaskPoint(source, getSourcePoint(dependency.getType()));
+        return pointFor(source, getSourcePoint(dependency.getType()));
     }
 
     /**
@@ -2246,19 +2335,34 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
     }
 
     TaskPoint allPointsPotentiallyModified(V task) {
-        return new TaskPoint(task, getDominatingPoint());
+        return pointFor(task, getDominatingPoint());
+    }
+
+    /**
+     * @return the task point kept by the {@link TopologicalSorter} or a new
+     *         one if the task isn't in the graph
+     */
+    private TaskPoint pointFor(V task, Point entryPoint) {
+        TaskPoint result = topologicalSorter.getPoint(task, entryPoint);
+
+        return result != null ? result : new TaskPoint(task, entryPoint);
     }
 
     private class TaskPoint {
 
-        private final V task;
+        private static final int NOT_INDEXED = -1;
 
-        private final boolean isContainer;
+        private final V task;
 
         private final Set<Point> pointsModified;
 
         private final Point entryPoint;
 
+        /**
+         * Position in the order kept by the {@link TopologicalSorter}
+         */
+        private int rank = NOT_INDEXED;
+
         TaskPoint(V task, Point entryPoint) {
             Validate.notNull(task);
             Validate.notNull(entryPoint);
@@ -2267,10 +2371,30 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
             this.pointsModified =
                     isDominatingPoint(entryPoint) ? EnumSet.of(Point.START, Point.END) : EnumSet.of(entryPoint);
+        }
 
-            this.isContainer = adapter.isContainer(task);
+        boolean isIndexed() {
+            return rank != NOT_INDEXED;
         }
 
+        /**
+         * The neighbours depend on the dependencies of the graph and, for the
+         * successors, on whether the task is a container, which can change
+         * while the task is in the graph
+         */
+        private long neighboursVersion = -1;
+
+        private boolean neighboursOfContainer;
+
+        private void discardNeighboursIfOutdated() {
+            boolean container = adapter.isContainer(task);
+            if ( neighboursVersion != dependenciesVersion || neighboursOfContainer != container ) {
+                cachedInmmediateSuccesors = null;
+                cachedImmediatePredecessors = null;
+                neighboursVersion = dependenciesVersion;
+                neighboursOfContainer = container;
+            }
+        }
 
         @Override
         public String toString() {
@@ -2279,6 +2403,10 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
 
         @Override
         public boolean equals(Object obj) {
+            if ( this == obj ) {
+                return true;
+            }
+
             if ( TaskPoint.class.isInstance(obj) ) {
                 TaskPoint other = TaskPoint.class.cast(obj);
 
@@ -2336,6 +2464,7 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         private Set<TaskPoint> cachedInmmediateSuccesors = null;
 
         public Set<TaskPoint> getImmediateSuccessors() {
+            discardNeighboursIfOutdated();
             if ( cachedInmmediateSuccesors != null ) {
                 return cachedInmmediateSuccesors;
             }
@@ -2356,6 +2485,7 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         private Set<TaskPoint> cachedImmediatePredecessors = null;
 
         public Set<TaskPoint> getImmediatePredecessors() {
+            discardNeighboursIfOutdated();
             if ( cachedImmediatePredecessors != null ) {
                 return cachedImmediatePredecessors;
             }
@@ -2381,7 +2511,7 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
         private Collection<TaskPoint> getImmediatelyDerivedOnSameTask() {
             for (Point each : pointsModified) {
                 if ( isDominatingPoint(each) ) {
-                    return Collections.singletonList(new TaskPoint(task, each.getOther()));
+                    return Collections.singletonList(pointFor(task, each.getOther()));
                 }
             }
 
@@ -2400,7 +2530,7 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements ICritical
             V source = getDependencySource(dependency);
             Point dependencySourcePoint = getSourcePoint(adapter.getType(dependency));
 
-            return source.equals(task) && (!isContainer || pointsModified.contains(dependencySourcePoint));
+            return source.equals(task) && (!adapter.isContainer(task) || pointsModified.contains(dependencySourcePoint));
         }
 
         private Point getSourcePoint(DependencyType type) {
@@ -0,0 +1,132 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.zkoss.ganttz.data.criticalpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Result of the critical path method over a graph calculated by
+ * {@link CriticalPathCalculator}.
+ *
+ * The values are kept for the tasks that are not containers and are measured
+ * in days since the start of the earliest task of the graph. The instances
+ * are immutable, so they can be shared by all the views showing information
+ * of the critical path.
+ */
+public class CriticalPath<T> {
+
+    static <T> CriticalPath<T> empty() {
+        return new CriticalPath<>(null, Collections.<T> emptyList(), Collections.<T, Integer> emptyMap(),
+                new int[0], new int[0], 0);
+    }
+
+    private final LocalDate initDate;
+
+    private final List<T> tasks;
+
+    private final Map<T, Integer> indexes;
+
+    private final int[] earliestStart;
+
+    private final int[] latestStart;
+
+    private final int projectDuration;
+
+    private final List<T> tasksOnCriticalPath;
+
+    CriticalPath(LocalDate initDate, List<T> tasks, Map<T, Integer> indexes, int[] earliestStart,
+                 int[] latestStart, int projectDuration) {
+
+        this.initDate = initDate;
+        this.tasks = tasks;
+        this.indexes = indexes;
+        this.earliestStart = earliestStart;
+        this.latestStart = latestStart;
+        this.projectDuration = projectDuration;
+        this.tasksOnCriticalPath = Collections.unmodifiableList(calculateTasksOnCriticalPath());
+    }
+
+    private List<T> calculateTasksOnCriticalPath() {
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if ( latestStart[i] == earliestStart[i] ) {
+                result.add(tasks.get(i));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the tasks that cannot be delayed without delaying the end of
+     *         the project
+     */
+    public List<T> getTasks() {
+        return tasksOnCriticalPath;
+    }
+
+    public boolean isCritical(T task) {
+        Integer index = indexes.get(task);
+
+        return index != null && latestStart[index] == earliestStart[index];
+    }
+
+    /**
+     * @return the day the calculated values are relative to or
+     *         <code>null</code> if the graph has no tasks
+     */
+    public LocalDate getInitDate() {
+        return initDate;
+    }
+
+    /**
+     * @return the days from the start of the project to the end of the last
+     *         task
+     */
+    public int getProjectDuration() {
+        return projectDuration;
+    }
+
+    /**
+     * @return <code>null</code> if the task is a container or is not part of
+     *         the calculated graph
+     */
+    public Integer getEarliestStart(T task) {
+        Integer index = indexes.get(task);
+
+        return index != null ? earliestStart[index] : null;
+    }
+
+    /**
+     * @return <code>null</code> if the task is a container or is not part of
+     *         the calculated graph
+     */
+    public Integer getLatestStart(T task) {
+        Integer index = indexes.get(task);
+
+        return index != null ? latestStart[index] : null;
+    }
+
+}
@@ -27,9 +27,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
 
 import org.joda.time.Days;
 import org.joda.time.LocalDate;
@@ -41,10 +45,28 @@ import org.zkoss.ganttz.data.constraint.Constraint;
 /**
  * Class that calculates the critical path of a Gantt diagram graph.
  *
+ * The tasks that are not containers are numbered and grouped in levels, so
+ * the tasks of a level only depend on tasks of previous levels. The forward
+ * and backward passes go level by level, each task taking its values from its
+ * already calculated neighbours, so the tasks of a big level are calculated in
+ * parallel.
+ *
+ * The last result is kept and returned again while the
+ * {@link ICriticalPathCalculable#getVersion() version} of the graph doesn't
+ * change. If only the positions of the tasks have changed the levels are
+ * reused and only the passes are done again.
+ *
  * @author Manuel Rego Casasnovas <mrego@igalia.com>
  */
 public class CriticalPathCalculator<T, D extends IDependency<T>> {
 
+    /**
+     * The levels with less tasks are calculated in the calling thread
+     */
+    private static final int PARALLEL_LEVEL_SIZE = 512;
+
+    private static final int TASKS_PER_FORK = 128;
+
     private final boolean dependenciesConstraintsHavePriority;
 
     public static <T, D extends IDependency<T>> CriticalPathCalculator<T, D> create(
@@ -59,303 +81,512 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
 
     private ICriticalPathCalculable<T> graph;
 
-    private LocalDate initDate;
+    private long dependenciesVersion;
 
-    private Map<T, Node<T, D>> nodes;
+    private long version;
 
-    private InitialNode<T, D> bop;
-    private LastNode<T, D> eop;
+    private Structure structure;
 
-    private Map<T, Map<T, DependencyType>> dependencies;
+    private CriticalPath<T> result;
 
-    private class VisitorTracker {
+    public List<T> calculateCriticalPath(ICriticalPathCalculable<T> graph) {
+        return calculate(graph).getTasks();
+    }
 
-        private Map<T, Set<T>> visitorsOn = new HashMap<T, Set<T>>();
+    public synchronized CriticalPath<T> calculate(ICriticalPathCalculable<T> graph) {
+        long currentVersion = graph.getVersion();
+        long currentDependenciesVersion = graph.getDependenciesVersion();
 
-        void visit(T visited, T visitor) {
-            if (!visitorsOn.containsKey(visited)) {
-                visitorsOn.put(visited, new HashSet<T>());
-            }
-            visitorsOn.get(visited).add(visitor);
-        }
-
-        boolean hasBeenVisitedByAll(T current,
-                Collection<? extends T> collection) {
-            return visitorsOn.containsKey(current)
-                    && visitorsOn.get(current).containsAll(collection);
+        if ( this.graph != graph || structure == null || dependenciesVersion != currentDependenciesVersion ) {
+            this.graph = graph;
+            this.dependenciesVersion = currentDependenciesVersion;
+            this.structure = new Structure();
+            this.result = null;
+        } else if ( result != null && version == currentVersion ) {
+            return result;
         }
+        this.version = currentVersion;
+        this.result = new Passes(structure).calculate();
 
+        return result;
     }
 
-    public List<T> calculateCriticalPath(ICriticalPathCalculable<T> graph) {
-        this.graph = graph;
+    /**
+     * The tasks that are not containers and the dependencies among them. The
+     * dependencies of the containers are replaced by dependencies of all their
+     * descendants.
+     */
+    private class Structure {
 
-        dependencies = new HashMap<T, Map<T, DependencyType>>();
+        private final List<T> tasks = new ArrayList<T>();
 
-        initDate = calculateInitDate();
+        private final Map<T, Integer> indexes = new HashMap<T, Integer>();
 
-        bop = createBeginningOfProjectNode();
-        eop = createEndOfProjectNode();
+        private final int[][] previous;
 
-        nodes = createGraphNodes();
+        private final DependencyType[][] previousTypes;
 
-        forward(bop, null, new VisitorTracker());
-        eop.updateLatestValues();
+        private final int[][] next;
 
-        backward(eop, null, new VisitorTracker());
+        private final DependencyType[][] nextTypes;
 
-        return getTasksOnCriticalPath();
-    }
+        /**
+         * The tasks that start the project, following the beginning of the
+         * project node
+         */
+        private final boolean[] initial;
 
-    private LocalDate calculateInitDate() {
-        if (graph.getTasks().isEmpty()) {
-            return null;
-        }
-        GanttDate ganttDate = Collections.min(getStartDates());
-        return LocalDate.fromDateFields(ganttDate.toDayRoundedDate());
-    }
+        /**
+         * The tasks that finish the project, preceding the end of the project
+         * node
+         */
+        private final boolean[] last;
 
-    private List<GanttDate> getStartDates() {
-        List<GanttDate> result = new ArrayList<GanttDate>();
-        for (T task : graph.getTasks()) {
-            result.add(graph.getStartDate(task));
-        }
-        return result;
-    }
+        private final int[][] levels;
 
-    private Collection<T> removeContainers(Collection<T> tasks) {
-        if (tasks == null) {
-            return Collections.emptyList();
+        Structure() {
+            for (T task : graph.getTasks()) {
+                if (!graph.isContainer(task)) {
+                    indexes.put(task, tasks.size());
+                    tasks.add(task);
+                }
+            }
+
+            Map<T, Set<T>> previousTasks = new HashMap<T, Set<T>>();
+            Map<T, Set<T>> nextTasks = new HashMap<T, Set<T>>();
+            Map<T, Map<T, DependencyType>> dependencies = new HashMap<T, Map<T, DependencyType>>();
+            for (T task : tasks) {
+                previousTasks.put(task, withoutContainers(graph.getIncomingTasksFor(task)));
+                nextTasks.put(task, withoutContainers(graph.getOutgoingTasksFor(task)));
+            }
+            for (T task : graph.getTasks()) {
+                if (graph.isContainer(task)) {
+                    addDependenciesOfContainer(task, previousTasks, nextTasks, dependencies);
+                }
+            }
+
+            int size = tasks.size();
+            previous = new int[size][];
+            previousTypes = new DependencyType[size][];
+            next = new int[size][];
+            nextTypes = new DependencyType[size][];
+            for (int i = 0; i < size; i++) {
+                T task = tasks.get(i);
+                Set<T> in = previousTasks.get(task);
+                previous[i] = new int[in.size()];
+                previousTypes[i] = new DependencyType[in.size()];
+                int j = 0;
+                for (T each : in) {
+                    previous[i][j] = indexes.get(each);
+                    previousTypes[i][j] = getDependencyTypeEndStartByDefault(dependencies, each, task);
+                    j++;
+                }
+
+                Set<T> out = nextTasks.get(task);
+                next[i] = new int[out.size()];
+                nextTypes[i] = new DependencyType[out.size()];
+                j = 0;
+                for (T each : out) {
+                    next[i][j] = indexes.get(each);
+                    nextTypes[i][j] = getDependencyTypeEndStartByDefault(dependencies, task, each);
+                    j++;
+                }
+            }
+
+            initial = asFlags(removeWithVisibleIncomingDependencies(removeContainers(graph.getInitialTasks())));
+            last = asFlags(removeWithVisibleOutcomingDependencies(removeContainers(graph.getLatestTasks())));
+            levels = calculateLevels();
         }
-        List<T> noConatinersTasks = new ArrayList<T>();
-        for (T t : tasks) {
-            if (graph.isContainer(t)) {
-                List<T> children = graph.getChildren(t);
-                noConatinersTasks.addAll(removeContainers(children));
-            } else {
-                noConatinersTasks.add(t);
+
+        private Set<T> withoutContainers(Set<T> tasks) {
+            Set<T> result = new LinkedHashSet<T>();
+            for (T t : tasks) {
+                if (indexes.containsKey(t)) {
+                    result.add(t);
+                }
             }
+            return result;
         }
-        return noConatinersTasks;
-    }
 
-    private InitialNode<T, D> createBeginningOfProjectNode() {
-        return new InitialNode<T, D>(
-                removeWithVisibleIncomingDependencies(removeContainers(graph
-                .getInitialTasks())));
-    }
+        private void addDependenciesOfContainer(T container, Map<T, Set<T>> previousTasks,
+                Map<T, Set<T>> nextTasks, Map<T, Map<T, DependencyType>> dependencies) {
+            Collection<T> allChildren = removeContainers(Arrays.asList(container));
 
+            for (T t : removeChildrenAndParents(container, graph.getIncomingTasksFor(container))) {
+                IDependency<T> dependency = graph.getDependencyFrom(t, container);
+                DependencyType type = dependency != null ? dependency.getType() : DependencyType.END_START;
+                addDependencies(previousTasks, nextTasks, dependencies,
+                        removeContainers(Arrays.asList(t)), allChildren, type);
+            }
 
-    private Set<T> removeWithVisibleIncomingDependencies(Collection<T> tasks) {
-        Set<T> result = new HashSet<T>();
-        for (T each : tasks) {
-            if (!graph.hasVisibleIncomingDependencies(each)) {
-                result.add(each);
+            for (T t : removeChildrenAndParents(container, graph.getOutgoingTasksFor(container))) {
+                IDependency<T> dependency = graph.getDependencyFrom(container, t);
+                DependencyType type = dependency != null ? dependency.getType() : DependencyType.END_START;
+                addDependencies(previousTasks, nextTasks, dependencies,
+                        allChildren, removeContainers(Arrays.asList(t)), type);
             }
         }
-        return result;
-    }
 
-    private LastNode<T, D> createEndOfProjectNode() {
-        return new LastNode<T, D>(
-                removeWithVisibleOutcomingDependencies(removeContainers(graph
-                        .getLatestTasks())));
-    }
+        private void addDependencies(Map<T, Set<T>> previousTasks, Map<T, Set<T>> nextTasks,
+                Map<T, Map<T, DependencyType>> dependencies, Collection<T> origins, Collection<T> destinations,
+                DependencyType type) {
+            for (T origin : origins) {
+                for (T destination : destinations) {
+                    nextTasks.get(origin).add(destination);
+                    previousTasks.get(destination).add(origin);
+
+                    Map<T, DependencyType> destinationsTypes = dependencies.get(origin);
+                    if (destinationsTypes == null) {
+                        destinationsTypes = new HashMap<T, DependencyType>();
+                        dependencies.put(origin, destinationsTypes);
+                    }
+                    destinationsTypes.put(destination, type);
+                }
+            }
+        }
 
-    private Set<T> removeWithVisibleOutcomingDependencies(
-            Collection<T> removeContainers) {
-        Set<T> result = new HashSet<T>();
-        for (T each : removeContainers) {
-            if (!graph.hasVisibleOutcomingDependencies(each)) {
-                result.add(each);
+        private Set<T> removeChildrenAndParents(T task, Set<T> tasks) {
+            Set<T> result = new HashSet<T>();
+            for (T t : tasks) {
+                if (!graph.contains(task, t) && !graph.contains(t, task)) {
+                    result.add(t);
+                }
             }
+            return result;
         }
-        return result;
-    }
 
-    private Map<T, Node<T, D>> createGraphNodes() {
-        Map<T, Node<T, D>> result = new HashMap<T, Node<T, D>>();
+        private DependencyType getDependencyTypeEndStartByDefault(Map<T, Map<T, DependencyType>> dependencies,
+                T from, T to) {
+            IDependency<T> dependency = graph.getDependencyFrom(from, to);
+            if (dependency != null) {
+                return dependency.getType();
+            }
+            Map<T, DependencyType> destinations = dependencies.get(from);
+            if (destinations != null) {
+                DependencyType type = destinations.get(to);
+                if (type != null) {
+                    return type;
+                }
+            }
+            return DependencyType.END_START;
+        }
 
-        for (T task : graph.getTasks()) {
-            if (!graph.isContainer(task)) {
-                Set<T> in = withoutContainers(task, graph
-                        .getIncomingTasksFor(task));
-                Set<T> out = withoutContainers(task, graph
-                        .getOutgoingTasksFor(task));
+        private Set<T> removeWithVisibleIncomingDependencies(Collection<T> tasks) {
+            Set<T> result = new HashSet<T>();
+            for (T each : tasks) {
+                if (!graph.hasVisibleIncomingDependencies(each)) {
+                    result.add(each);
+                }
+            }
+            return result;
+        }
 
-                Node<T, D> node = new Node<T, D>(task, in, out, graph
-                        .getStartDate(task), graph.getEndDateFor(task));
+        private Set<T> removeWithVisibleOutcomingDependencies(Collection<T> tasks) {
+            Set<T> result = new HashSet<T>();
+            for (T each : tasks) {
+                if (!graph.hasVisibleOutcomingDependencies(each)) {
+                    result.add(each);
+                }
+            }
+            return result;
+        }
 
-                result.put(task, node);
+        private boolean[] asFlags(Set<T> flagged) {
+            boolean[] result = new boolean[tasks.size()];
+            for (T each : flagged) {
+                Integer index = indexes.get(each);
+                if (index != null) {
+                    result[index] = true;
+                }
             }
+            return result;
         }
 
-        for (T task : graph.getTasks()) {
-            if (graph.isContainer(task)) {
-                Collection<T> allChildren = removeContainers(Arrays
-                        .asList(task));
-
-                Set<T> in = removeChildrenAndParents(task, graph
-                        .getIncomingTasksFor(task));
-                for (T t : in) {
-                    IDependency<T> dependency = graph
-                            .getDependencyFrom(t, task);
-                    DependencyType type = DependencyType.END_START;
-                    if (dependency != null) {
-                        type = dependency.getType();
-                    }
-                    addDepedenciesAndRelatedTasks(result,
-                            removeContainers(Arrays.asList(t)), allChildren,
-                            type);
+        /**
+         * Each task is put in the level following the deepest level of its
+         * previous tasks. The tasks in a loop, if any, are put after all the
+         * others so the passes can be done anyway.
+         */
+        private int[][] calculateLevels() {
+            int size = tasks.size();
+            int[] pendingPrevious = new int[size];
+            int[] level = new int[size];
+            List<Integer> ordered = new ArrayList<Integer>(size);
+            for (int i = 0; i < size; i++) {
+                pendingPrevious[i] = previous[i].length;
+                if (pendingPrevious[i] == 0) {
+                    ordered.add(i);
                 }
+            }
 
-                Set<T> out = removeChildrenAndParents(task, graph
-                        .getOutgoingTasksFor(task));
-                for (T t : out) {
-                    IDependency<T> dependency = graph
-                            .getDependencyFrom(task, t);
-                    DependencyType type = DependencyType.END_START;
-                    if (dependency != null) {
-                        type = dependency.getType();
+            int maxLevel = 0;
+            for (int k = 0; k < ordered.size(); k++) {
+                int current = ordered.get(k);
+                maxLevel = Math.max(maxLevel, level[current]);
+                for (int each : next[current]) {
+                    level[each] = Math.max(level[each], level[current] + 1);
+                    if (--pendingPrevious[each] == 0) {
+                        ordered.add(each);
                     }
-                    addDepedenciesAndRelatedTasks(result, allChildren,
-                            removeContainers(Arrays.asList(t)), type);
                 }
             }
+            for (int i = 0; i < size; i++) {
+                if (pendingPrevious[i] > 0) {
+                    level[i] = ++maxLevel;
+                }
+            }
+
+            int[] levelSizes = new int[size == 0 ? 0 : maxLevel + 1];
+            for (int i = 0; i < size; i++) {
+                levelSizes[level[i]]++;
+            }
+            int[][] result = new int[levelSizes.length][];
+            for (int l = 0; l < levelSizes.length; l++) {
+                result[l] = new int[levelSizes[l]];
+                levelSizes[l] = 0;
+            }
+            for (int i = 0; i < size; i++) {
+                result[level[i]][levelSizes[level[i]]++] = i;
+            }
+            return result;
         }
 
-        return result;
     }
 
-    private void addDepedenciesAndRelatedTasks(Map<T, Node<T, D>> graph,
-            Collection<T> origins,
-            Collection<T> destinations, DependencyType type) {
-        for (T origin : origins) {
-            for (T destination : destinations) {
-                graph.get(origin).addNextTask(destination);
-                graph.get(destination).addPreviousTask(origin);
-                addDependency(origin, destination, type);
+    /**
+     * The forward and backward passes over the current positions of the
+     * tasks. Every task only writes its own values, so the tasks of a level can
+     * be calculated concurrently.
+     */
+    private class Passes {
+
+        private final Structure structure;
+
+        private final LocalDate initDate;
+
+        private final int[] duration;
+
+        private final List<Constraint<GanttDate>> constraints;
+
+        private final int[] earliestStart;
+
+        private final int[] latestFinish;
+
+        private int endOfProject;
+
+        Passes(Structure structure) {
+            this.structure = structure;
+            this.initDate = calculateInitDate();
+
+            int size = structure.tasks.size();
+            this.duration = new int[size];
+            this.constraints = new ArrayList<Constraint<GanttDate>>(size);
+            for (T task : structure.tasks) {
+                duration[constraints.size()] = getDuration(task);
+                constraints.add(getDateConstraints(task));
             }
+            this.earliestStart = new int[size];
+            this.latestFinish = new int[size];
         }
-    }
 
-    private Set<T> withoutContainers(T task, Set<T> tasks) {
-        Set<T> result = new HashSet<T>();
-        for (T t : tasks) {
-            if (!graph.isContainer(t)) {
-                result.add(t);
+        private LocalDate calculateInitDate() {
+            if (graph.getTasks().isEmpty()) {
+                return null;
             }
+            List<GanttDate> startDates = new ArrayList<GanttDate>();
+            for (T task : graph.getTasks()) {
+                startDates.add(graph.getStartDate(task));
+            }
+            GanttDate ganttDate = Collections.min(startDates);
+            return LocalDate.fromDateFields(ganttDate.toDayRoundedDate());
         }
-        return result;
-    }
 
-    private Set<T> removeChildrenAndParents(T task, Set<T> tasks) {
-        Set<T> result = new HashSet<T>();
-        if (!graph.isContainer(task)) {
-            return result;
+        private int getDuration(T task) {
+            LocalDate beginDate = new LocalDate(graph.getStartDate(task).toDayRoundedDate());
+            LocalDate endDate = new LocalDate(graph.getEndDateFor(task).toDayRoundedDate());
+            return Days.daysBetween(beginDate, endDate).getDays();
         }
 
-        for (T t : tasks) {
-            if (!graph.contains(task, t) && !graph.contains(t, task)) {
-                result.add(t);
+        CriticalPath<T> calculate() {
+            if (structure.tasks.isEmpty()) {
+                return CriticalPath.empty();
             }
-        }
 
-        return result;
-    }
+            for (int[] level : structure.levels) {
+                forEach(level, new IntConsumer() {
+                    @Override
+                    public void accept(int task) {
+                        forward(task);
+                    }
+                });
+            }
+            endOfProject = calculateEndOfProject();
+
+            for (int l = structure.levels.length - 1; l >= 0; l--) {
+                forEach(structure.levels[l], new IntConsumer() {
+                    @Override
+                    public void accept(int task) {
+                        backward(task);
+                    }
+                });
+            }
 
-    private void addDependency(T from, T destination, DependencyType type) {
-        Map<T, DependencyType> destinations = dependencies.get(from);
-        if (destinations == null) {
-            destinations = new HashMap<T, DependencyType>();
-            dependencies.put(from, destinations);
+            int[] latestStart = new int[latestFinish.length];
+            for (int i = 0; i < latestStart.length; i++) {
+                latestStart[i] = latestFinish[i] - duration[i];
+            }
+            return new CriticalPath<T>(initDate, Collections.unmodifiableList(structure.tasks),
+                    Collections.unmodifiableMap(structure.indexes), earliestStart, latestStart, endOfProject);
         }
-        destinations.put(destination, type);
-    }
 
-    private DependencyType getDependencyTypeEndStartByDefault(T from, T to) {
-        if ((from != null) && (to != null)) {
-            IDependency<T> dependency = graph.getDependencyFrom(from, to);
-            if (dependency != null) {
-                return dependency.getType();
-            } else {
-                Map<T, DependencyType> destinations = dependencies.get(from);
-                if (destinations != null) {
-                    DependencyType type = destinations.get(to);
-                    if (type != null) {
-                        return type;
-                    }
+        private void forward(int task) {
+            Constraint<GanttDate> constraint = constraints.get(task);
+            int result = 0;
+            if (structure.initial[task]) {
+                result = Math.max(result, applyToStart(constraint, 0));
+            }
+
+            int[] previous = structure.previous[task];
+            for (int j = 0; j < previous.length; j++) {
+                int each = previous[j];
+                int earliestFinish = earliestStart[each] + duration[each];
+                switch (structure.previousTypes[task][j]) {
+                case START_START:
+                    result = Math.max(result, applyToStart(constraint, earliestStart[each]));
+                    break;
+                case END_END:
+                    result = Math.max(result, applyToStart(constraint, earliestFinish - duration[task]));
+                    break;
+                case END_START:
+                default:
+                    result = Math.max(result, applyToStart(constraint, earliestFinish));
+                    break;
                 }
             }
+            earliestStart[task] = result;
         }
-        return DependencyType.END_START;
-    }
-
-    private void forward(Node<T, D> currentNode, T previousTask,
-            VisitorTracker visitorTracker) {
-        T currentTask = currentNode.getTask();
-        int earliestStart = currentNode.getEarliestStart();
-        int earliestFinish = currentNode.getEarliestFinish();
 
-        Set<T> nextTasks = currentNode.getNextTasks();
-        if (nextTasks.isEmpty()) {
-            eop.setEarliestStart(earliestFinish);
-        } else {
-            int countStartStart = 0;
-
-            for (T task : nextTasks) {
-                visitorTracker.visit(task, currentTask);
-                if (graph.isContainer(currentTask)) {
-                    if (graph.contains(currentTask, previousTask)) {
-                        if (graph.contains(currentTask, task)) {
-                            continue;
-                        }
-                    }
+        /**
+         * The project ends with the latest finish of the tasks without next
+         * tasks or only followed by start-start dependencies
+         */
+        private int calculateEndOfProject() {
+            int result = 0;
+            for (int i = 0; i < earliestStart.length; i++) {
+                if (onlyStartStartNextTasks(i)) {
+                    result = Math.max(result, earliestStart[i] + duration[i]);
                 }
+            }
+            return result;
+        }
 
-                Node<T, D> node = nodes.get(task);
-                DependencyType dependencyType = getDependencyTypeEndStartByDefault(
-                        currentTask, task);
-                Constraint<GanttDate> constraint = getDateConstraints(task);
+        private boolean onlyStartStartNextTasks(int task) {
+            for (DependencyType each : structure.nextTypes[task]) {
+                if (each != DependencyType.START_START) {
+                    return false;
+                }
+            }
+            return true;
+        }
 
-                switch (dependencyType) {
+        private void backward(int task) {
+            Constraint<GanttDate> constraint = constraints.get(task);
+            int taskDuration = duration[task];
+            int[] next = structure.next[task];
+            boolean endsProject = structure.last[task] || next.length == 0;
+
+            int result = endsProject ? applyToFinish(constraint, endOfProject, taskDuration) : Integer.MAX_VALUE;
+            for (int j = 0; j < next.length; j++) {
+                int each = next[j];
+                int latestStart = latestFinish[each] - duration[each];
+                switch (structure.nextTypes[task][j]) {
                 case START_START:
-                    setEarliestStart(node, earliestStart, constraint);
-                    countStartStart++;
+                    result = Math.min(result, applyToFinish(constraint, latestStart + taskDuration, taskDuration));
                     break;
                 case END_END:
-                    setEarliestStart(node, earliestFinish - node.getDuration(),
-                            constraint);
+                    result = Math.min(result, applyToFinish(constraint, latestFinish[each], taskDuration));
                     break;
                 case END_START:
                 default:
-                    setEarliestStart(node, earliestFinish, constraint);
+                    result = Math.min(result, applyToFinish(constraint, latestStart, taskDuration));
                     break;
                 }
+            }
+            latestFinish[task] = result;
+        }
 
-                if (visitorTracker.hasBeenVisitedByAll(task,
-                        node.getPreviousTasks())) {
-                    forward(node, currentTask, visitorTracker);
-                }
+        private int applyToStart(Constraint<GanttDate> constraint, int start) {
+            if (constraint == null) {
+                return start;
+            }
+            GanttDate date = constraint.applyTo(GanttDate.createFrom(initDate.plusDays(start)));
+            return Days.daysBetween(initDate, LocalDate.fromDateFields(date.toDayRoundedDate())).getDays();
+        }
+
+        private int applyToFinish(Constraint<GanttDate> constraint, int finish, int duration) {
+            if (constraint == null) {
+                return finish;
             }
+            return applyToStart(constraint, finish - duration) + duration;
+        }
+
+    }
+
+    private static void forEach(int[] level, IntConsumer action) {
+        if (level.length < PARALLEL_LEVEL_SIZE) {
+            for (int each : level) {
+                action.accept(each);
+            }
+        } else {
+            ForkJoinPool.commonPool().invoke(new LevelAction(level, 0, level.length, action));
+        }
+    }
+
+    private static class LevelAction extends RecursiveAction {
+
+        private final int[] level;
+
+        private final int from;
+
+        private final int to;
 
-            if (nextTasks.size() == countStartStart) {
-                eop.setEarliestStart(earliestFinish);
+        private final IntConsumer action;
+
+        LevelAction(int[] level, int from, int to, IntConsumer action) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TASKS_PER_FORK) {
+                for (int i = from; i < to; i++) {
+                    action.accept(level[i]);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new LevelAction(level, from, middle, action), new LevelAction(level, middle, to, action));
             }
         }
+
     }
 
-    private void setEarliestStart(Node<T, D> node, int earliestStart,
-            Constraint<GanttDate> constraint) {
-        if (constraint != null) {
-            GanttDate date = GanttDate.createFrom(initDate
-                    .plusDays(earliestStart));
-            date = constraint.applyTo(date);
-            earliestStart = Days.daysBetween(initDate,
-                    LocalDate.fromDateFields(date.toDayRoundedDate()))
-                    .getDays();
+    private Collection<T> removeContainers(Collection<T> tasks) {
+        if (tasks == null) {
+            return Collections.emptyList();
+        }
+        List<T> noConatinersTasks = new ArrayList<T>();
+        for (T t : tasks) {
+            if (graph.isContainer(t)) {
+                List<T> children = graph.getChildren(t);
+                noConatinersTasks.addAll(removeContainers(children));
+            } else {
+                noConatinersTasks.add(t);
+            }
         }
-        node.setEarliestStart(earliestStart);
+        return noConatinersTasks;
     }
 
     private Constraint<GanttDate> getDateConstraints(T task) {
@@ -377,88 +608,9 @@ public class CriticalPathCalculator<T, D extends IDependency<T>> {
         if (endConstraints == null || endConstraints.isEmpty()) {
             return Constraint.coalesce(startConstraints);
         }
-        startConstraints.addAll(endConstraints);
-        return Constraint.coalesce(startConstraints);
-    }
-
-    private void backward(Node<T, D> currentNode, T nextTask,
-            VisitorTracker visitorTracker) {
-        T currentTask = currentNode.getTask();
-        int latestStart = currentNode.getLatestStart();
-        int latestFinish = currentNode.getLatestFinish();
-
-        Set<T> previousTasks = currentNode.getPreviousTasks();
-        if (previousTasks.isEmpty()) {
-            bop.setLatestFinish(latestStart);
-        } else {
-            int countEndEnd = 0;
-
-            for (T task : previousTasks) {
-                visitorTracker.visit(task, currentTask);
-                if (graph.isContainer(currentTask)) {
-                    if (graph.contains(currentTask, nextTask)) {
-                        if (graph.contains(currentTask, task)) {
-                            continue;
-                        }
-                    }
-                }
-
-                Node<T, D> node = nodes.get(task);
-                DependencyType dependencyType = getDependencyTypeEndStartByDefault(
-                        task, currentTask);
-                Constraint<GanttDate> constraint = getDateConstraints(task);
-
-                switch (dependencyType) {
-                case START_START:
-                    setLatestFinish(node, latestStart + node.getDuration(),
-                            constraint);
-                    break;
-                case END_END:
-                    setLatestFinish(node, latestFinish, constraint);
-                    countEndEnd++;
-                    break;
-                case END_START:
-                default:
-                    setLatestFinish(node, latestStart, constraint);
-                    break;
-                }
-
-                if (visitorTracker.hasBeenVisitedByAll(task,
-                        node.getNextTasks())) {
-                    backward(node, currentTask, visitorTracker);
-                }
-            }
-
-            if (previousTasks.size() == countEndEnd) {
-                bop.setLatestFinish(latestStart);
-            }
-        }
-    }
-
-    private void setLatestFinish(Node<T, D> node, int latestFinish,
-            Constraint<GanttDate> constraint) {
-        if (constraint != null) {
-            int duration = node.getDuration();
-            GanttDate date = GanttDate.createFrom(initDate.plusDays(latestFinish - duration));
-            date = constraint.applyTo(date);
-            int daysBetween = Days.daysBetween(initDate,
-                    LocalDate.fromDateFields(date.toDayRoundedDate()))
-                    .getDays();
-            latestFinish = daysBetween + duration;
-        }
-        node.setLatestFinish(latestFinish);
-    }
-
-    private List<T> getTasksOnCriticalPath() {
-        List<T> result = new ArrayList<T>();
-
-        for (Node<T, D> node : nodes.values()) {
-            if (node.getLatestStart() == node.getEarliestStart()) {
-                result.add(node.getTask());
-            }
-        }
-
-        return result;
+        List<Constraint<GanttDate>> all = new ArrayList<Constraint<GanttDate>>(startConstraints);
+        all.addAll(endConstraints);
+        return Constraint.coalesce(all);
     }
 
 }
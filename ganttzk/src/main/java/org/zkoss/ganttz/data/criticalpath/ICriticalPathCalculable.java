@@ -68,4 +68,16 @@ public interface ICriticalPathCalculable<T> {
 
     List<T> getChildren(T task);
 
+    /**
+     * @return a value that changes whenever a task or a dependency is added or
+     *         removed, or the position of some task is modified
+     */
+    long getVersion();
+
+    /**
+     * @return a value that changes whenever a task or a dependency is added or
+     *         removed
+     */
+    long getDependenciesVersion();
+
 }
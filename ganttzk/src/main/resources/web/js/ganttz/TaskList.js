@@ -3,11 +3,78 @@ zk.$package("ganttz");
 ganttz.TaskList = zk.$extends(
     zk.Widget,
     {
+        $define : {
+            virtualized : null
+        },
+
         $init : function() {
             this.$supers('$init', arguments);
             this.$class.setInstance(this);
         },
 
+        bind_ : function(evt) {
+            this.$supers('bind_', arguments);
+
+            if (this._virtualized) {
+                this._scroller = jq('.rightpanel-layout div:first');
+                this.domListen_(this._scroller, 'onScroll', '_scheduleViewportChange');
+                zWatch.listen({onSize : this});
+                this._notifyViewportChange();
+            }
+        },
+
+        unbind_ : function(evt) {
+            if (this._virtualized) {
+                zWatch.unlisten({onSize : this});
+                this.domUnlisten_(this._scroller, 'onScroll', '_scheduleViewportChange');
+                clearTimeout(this._viewportTimeout);
+            }
+            this.$supers('unbind_', arguments);
+        },
+
+        onSize : function() {
+            this._scheduleViewportChange();
+        },
+
+        /*
+         * The server is notified once the scroll stops for a moment, so it
+         * doesn't receive a request for each scroll event.
+         */
+        _scheduleViewportChange : function() {
+            clearTimeout(this._viewportTimeout);
+            this._viewportTimeout = setTimeout(this.proxy(this._notifyViewportChange), 150);
+        },
+
+        /*
+         * Sends the first and last rows in the viewport, calculated from the
+         * scroll position as all rows have the same height.
+         */
+        _notifyViewportChange : function() {
+            var rows = jq(this.$n()).find('.row');
+            if (rows.length === 0) {
+                return;
+            }
+
+            var rowHeight = rows.length > 1
+                ? rows[1].offsetTop - rows[0].offsetTop
+                : jq(rows[0]).outerHeight(true);
+
+            if (rowHeight <= 0) {
+                return;
+            }
+
+            var listTop = jq(rows[0]).offset().top - this._scroller.offset().top + this._scroller.scrollTop();
+            var scrollTop = this._scroller.scrollTop() - listTop;
+            var first = Math.max(0, Math.floor(scrollTop / rowHeight));
+            var last = Math.ceil((scrollTop + this._scroller.innerHeight()) / rowHeight);
+
+            if (first !== this._firstRow || last !== this._lastRow) {
+                this._firstRow = first;
+                this._lastRow = last;
+                zAu.send(new zk.Event(this, 'onViewportChange', { first : first, last : last }));
+            }
+        },
+
         showAllTaskLabels : function() {
             for (var child = this.firstChild; child; child = child.nextSibling)
                 child.showLabels();
@@ -0,0 +1,20 @@
+zk.$package("ganttz");
+
+/*
+ * Empty row in the place of a task row that hasn't been rendered.
+ * It ignores the requests to show or hide the labels and tooltips of the task.
+ */
+ganttz.TaskRowPlaceholder = zk.$extends(zk.Widget, {
+
+    showLabels : function() {
+    },
+
+    hideLabels : function() {
+    },
+
+    showResourceTooltip : function() {
+    },
+
+    hideResourceTooltip : function() {
+    }
+});
@@ -0,0 +1,3 @@
+function(out){
+    out.push('<div id="'+ this.uuid + '" class="row row-placeholder"></div>');
+}
@@ -0,0 +1,312 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.zkoss.ganttz.data;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.zkoss.ganttz.data.DependencyType.Point;
+import org.zkoss.ganttz.data.GanttDiagramGraph.IAdapter;
+import org.zkoss.ganttz.data.GanttDiagramGraph.IDependenciesEnforcerHookFactory;
+import org.zkoss.ganttz.data.constraint.Constraint;
+
+/**
+ * Tests for the enforcement of dependencies of {@link GanttDiagramGraph}.
+ */
+public class GanttDiagramGraphTest {
+
+    private static final LocalDate START = new LocalDate(2011, 3, 1);
+
+    private static class SimpleTask {
+
+        private final int durationDays;
+
+        private GanttDate start;
+
+        private GanttDate end;
+
+        SimpleTask(int durationDays) {
+            this.durationDays = durationDays;
+            moveTo(START);
+        }
+
+        void moveTo(LocalDate newStart) {
+            start = GanttDate.createFrom(newStart);
+            end = GanttDate.createFrom(newStart.plusDays(durationDays));
+        }
+
+        LocalDate getStart() {
+            return start.toLocalDate();
+        }
+
+    }
+
+    private static class SimpleDependency implements IDependency<SimpleTask> {
+
+        private final SimpleTask source;
+
+        private final SimpleTask destination;
+
+        private final DependencyType type;
+
+        SimpleDependency(SimpleTask source, SimpleTask destination) {
+            this(source, destination, DependencyType.END_START);
+        }
+
+        SimpleDependency(SimpleTask source, SimpleTask destination, DependencyType type) {
+            this.source = source;
+            this.destination = destination;
+            this.type = type;
+        }
+
+        @Override
+        public SimpleTask getSource() {
+            return source;
+        }
+
+        @Override
+        public SimpleTask getDestination() {
+            return destination;
+        }
+
+        @Override
+        public DependencyType getType() {
+            return type;
+        }
+
+    }
+
+    private static class SimpleAdapter implements IAdapter<SimpleTask, SimpleDependency> {
+
+        private final Set<SimpleTask> containers = new HashSet<>();
+
+        @Override
+        public List<SimpleTask> getChildren(SimpleTask task) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public SimpleTask getOwner(SimpleTask task) {
+            return null;
+        }
+
+        @Override
+        public boolean isContainer(SimpleTask task) {
+            return containers.contains(task);
+        }
+
+        @Override
+        public void registerDependenciesEnforcerHookOn(SimpleTask task,
+                                                       IDependenciesEnforcerHookFactory<SimpleTask> hookFactory) {
+        }
+
+        @Override
+        public GanttDate getStartDate(SimpleTask task) {
+            return task.start;
+        }
+
+        @Override
+        public void setStartDateFor(SimpleTask task, GanttDate newStart) {
+            task.moveTo(newStart.toLocalDate());
+        }
+
+        @Override
+        public GanttDate getEndDateFor(SimpleTask task) {
+            return task.end;
+        }
+
+        @Override
+        public void setEndDateFor(SimpleTask task, GanttDate newEnd) {
+            task.end = newEnd;
+        }
+
+        @Override
+        public List<Constraint<GanttDate>> getConstraints(ConstraintCalculator<SimpleTask> calculator,
+                                                          Set<SimpleDependency> withDependencies, Point point) {
+            List<Constraint<GanttDate>> result = new ArrayList<>();
+            for (SimpleDependency each : withDependencies) {
+                result.addAll(calculator.getConstraints(each, point));
+            }
+
+            return result;
+        }
+
+        @Override
+        public List<Constraint<GanttDate>> getStartConstraintsFor(SimpleTask task) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Constraint<GanttDate>> getEndConstraintsFor(SimpleTask task) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public SimpleTask getSource(SimpleDependency dependency) {
+            return dependency.getSource();
+        }
+
+        @Override
+        public SimpleTask getDestination(SimpleDependency dependency) {
+            return dependency.getDestination();
+        }
+
+        @Override
+        public Class<SimpleDependency> getDependencyType() {
+            return SimpleDependency.class;
+        }
+
+        @Override
+        public SimpleDependency createInvisibleDependency(SimpleTask origin, SimpleTask destination,
+                                                          DependencyType type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DependencyType getType(SimpleDependency dependency) {
+            return dependency.getType();
+        }
+
+        @Override
+        public boolean isVisible(SimpleDependency dependency) {
+            return true;
+        }
+
+        @Override
+        public boolean isFixed(SimpleTask task) {
+            return false;
+        }
+
+    }
+
+    private SimpleAdapter adapter;
+
+    private GanttDiagramGraph<SimpleTask, SimpleDependency> graph;
+
+    private SimpleTask a;
+
+    private SimpleTask b;
+
+    private SimpleTask c;
+
+    private SimpleTask d;
+
+    @Before
+    public void createGraph() {
+        adapter = new SimpleAdapter();
+        graph = GanttDiagramGraph.create(false, adapter,
+                Collections.<Constraint<GanttDate>> emptyList(),
+                Collections.<Constraint<GanttDate>> emptyList(), false);
+        a = new SimpleTask(2);
+        b = new SimpleTask(3);
+        c = new SimpleTask(1);
+        d = new SimpleTask(4);
+        graph.addTopLevel(Arrays.asList(a, b, c, d));
+    }
+
+    private SimpleDependency dependency(SimpleTask source, SimpleTask destination) {
+        SimpleDependency result = new SimpleDependency(source, destination);
+        graph.addWithoutEnforcingConstraints(result);
+
+        return result;
+    }
+
+    @Test
+    public void dependenciesAddedAgainstTheInsertionOrderAreEnforced() {
+        dependency(c, b);
+        dependency(b, a);
+        dependency(d, c);
+
+        graph.enforceAllRestrictions();
+
+        assertThat(d.getStart(), equalTo(START));
+        assertThat(c.getStart(), equalTo(START.plusDays(4)));
+        assertThat(b.getStart(), equalTo(START.plusDays(5)));
+        assertThat(a.getStart(), equalTo(START.plusDays(8)));
+    }
+
+    @Test
+    public void movingATaskMovesOnlyItsSuccessors() {
+        dependency(a, b);
+        dependency(b, c);
+        graph.enforceAllRestrictions();
+
+        a.moveTo(START.plusDays(10));
+        graph.enforceRestrictions(a);
+
+        assertThat(b.getStart(), equalTo(START.plusDays(12)));
+        assertThat(c.getStart(), equalTo(START.plusDays(15)));
+        assertThat(d.getStart(), equalTo(START));
+    }
+
+    @Test
+    public void theRemovedDependenciesAreNotEnforced() {
+        SimpleDependency fromAToB = dependency(a, b);
+        dependency(b, c);
+        graph.enforceAllRestrictions();
+        graph.removeDependency(fromAToB);
+
+        a.moveTo(START.plusDays(10));
+        graph.enforceRestrictions(a);
+
+        assertThat(b.getStart(), equalTo(START.plusDays(2)));
+        assertThat(c.getStart(), equalTo(START.plusDays(5)));
+    }
+
+    @Test
+    public void theOrderIsKeptWhenADependencyIsAddedBetweenEnforcedTasks() {
+        dependency(a, b);
+        graph.enforceAllRestrictions();
+
+        graph.add(new SimpleDependency(d, a));
+
+        assertThat(a.getStart(), equalTo(START.plusDays(4)));
+        assertThat(b.getStart(), equalTo(START.plusDays(6)));
+    }
+
+    /**
+     * The end of a container doesn't send modifications through the
+     * dependencies from its start, so the loop found while it was a leaf
+     * is gone
+     */
+    @Test
+    public void theNeighboursOfATaskChangeWhenItBecomesAContainer() {
+        graph.addWithoutEnforcingConstraints(new SimpleDependency(a, b, DependencyType.START_START));
+        SimpleDependency fromBToA = new SimpleDependency(b, a, DependencyType.END_END);
+        assertFalse(graph.doesNotProvokeLoop(fromBToA));
+
+        adapter.containers.add(a);
+
+        assertTrue(graph.doesNotProvokeLoop(fromBToA));
+    }
+
+}
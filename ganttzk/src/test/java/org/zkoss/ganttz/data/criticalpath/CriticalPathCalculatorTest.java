@@ -27,6 +27,7 @@ import static org.easymock.EasyMock.replay;
 import static org.hamcrest.CoreMatchers.anyOf;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.zkoss.ganttz.data.constraint.ConstraintOnComparableValues.biggerOrEqualThan;
 
@@ -3082,4 +3083,74 @@ public class CriticalPathCalculatorTest {
         }
     }
 
+    @Test
+    public void theLatestStartIsTheDelayAllowedWithoutDelayingTheProject() {
+        givenTwoTasksNotConnected(5, 10);
+        CriticalPath<ITaskFundamentalProperties> criticalPath = buildCalculator().calculate(diagramGraphExample);
+
+        ITaskFundamentalProperties shortTask = diagramGraphExample.getTasks().get(0);
+        ITaskFundamentalProperties longTask = diagramGraphExample.getTasks().get(1);
+        assertThat(criticalPath.getProjectDuration(), equalTo(10));
+        assertThat(criticalPath.getEarliestStart(shortTask), equalTo(0));
+        assertThat(criticalPath.getLatestStart(shortTask), equalTo(5));
+        assertThat(criticalPath.getEarliestStart(longTask), equalTo(0));
+        assertThat(criticalPath.getLatestStart(longTask), equalTo(0));
+    }
+
+    @Test
+    public void theResultIsReusedWhileTheGraphIsNotModified() {
+        givenPairOfTasks(10, 5);
+        CriticalPathCalculator<ITaskFundamentalProperties, IDependency<ITaskFundamentalProperties>> calculator =
+                buildCalculator();
+
+        assertSame(calculator.calculate(diagramGraphExample), calculator.calculate(diagramGraphExample));
+    }
+
+    /**
+     * <pre>
+     * #### T1 ####
+     *
+     * #### T2 ####
+     * </pre>
+     *
+     * And then T2 is made to depend on T1.
+     */
+    @Test
+    public void theResultIsCalculatedAgainWhenTheDependenciesChange() {
+        final ITaskFundamentalProperties task1 = createTask(START, 10);
+        final ITaskFundamentalProperties task2 = createTask(START, 5);
+        final List<ITaskFundamentalProperties> listOfTasks = Arrays.asList(task1, task2);
+        final boolean[] connected = { false };
+
+        diagramGraphExample = createNiceMock(ICriticalPathCalculable.class);
+        expect(diagramGraphExample.getTasks()).andReturn(listOfTasks).anyTimes();
+        expect(diagramGraphExample.getInitialTasks())
+                .andAnswer(() -> connected[0] ? Collections.singletonList(task1) : listOfTasks)
+                .anyTimes();
+        expect(diagramGraphExample.getLatestTasks())
+                .andAnswer(() -> connected[0] ? Collections.singletonList(task2) : listOfTasks)
+                .anyTimes();
+        expect(diagramGraphExample.getIncomingTasksFor(task1)).andAnswer(HashSet::new).anyTimes();
+        expect(diagramGraphExample.getIncomingTasksFor(task2))
+                .andAnswer(() -> connected[0] ? new HashSet<>(Collections.singletonList(task1)) : new HashSet<>())
+                .anyTimes();
+        expect(diagramGraphExample.getOutgoingTasksFor(task1))
+                .andAnswer(() -> connected[0] ? new HashSet<>(Collections.singletonList(task2)) : new HashSet<>())
+                .anyTimes();
+        expect(diagramGraphExample.getOutgoingTasksFor(task2)).andAnswer(HashSet::new).anyTimes();
+        expect(diagramGraphExample.getVersion()).andAnswer(() -> connected[0] ? 1L : 0L).anyTimes();
+        expect(diagramGraphExample.getDependenciesVersion()).andAnswer(() -> connected[0] ? 1L : 0L).anyTimes();
+        addTaskMethods(listOfTasks);
+        replay(diagramGraphExample);
+
+        CriticalPathCalculator<ITaskFundamentalProperties, IDependency<ITaskFundamentalProperties>> calculator =
+                buildCalculator();
+        assertThat(calculator.calculateCriticalPath(diagramGraphExample),
+                equalTo(Collections.singletonList(task1)));
+
+        connected[0] = true;
+
+        assertThat(calculator.calculateCriticalPath(diagramGraphExample), equalTo(listOfTasks));
+    }
+
 }
@@ -0,0 +1,149 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.calendars;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Construction and queries of {@link AvailabilityTimeLine}, as done for the
+ * calendars and criteria of the resources when allocating: the availability
+ * of resource calendars, the combination of the availabilities of several
+ * resources and the checking of each day of the horizon.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityTimeLineBenchmark {
+
+    private static final int RESOURCES = 20;
+
+    @Param({ "1", "5", "10" })
+    public int years;
+
+    private ResourceCalendar resourceCalendar;
+
+    private List<AvailabilityTimeLine> timeLines;
+
+    private AvailabilityTimeLine combined;
+
+    private LocalDate end;
+
+    @Setup
+    public void createTimeLines() {
+        CalendarsGenerator generator = new CalendarsGenerator(1L);
+        BaseCalendar companyCalendar = generator.companyCalendar(years);
+        resourceCalendar = generator.resourceCalendar(companyCalendar, years);
+        end = CalendarsGenerator.START.plusYears(years);
+
+        Random random = new Random(1L);
+        timeLines = new ArrayList<>();
+        for (int i = 0; i < RESOURCES; i++) {
+            timeLines.add(randomTimeLine(random));
+        }
+        combined = and(timeLines);
+    }
+
+    /**
+     * @return a time line with an invalid period of some days about every
+     *         month
+     */
+    private AvailabilityTimeLine randomTimeLine(Random random) {
+        AvailabilityTimeLine result = AvailabilityTimeLine.allValid();
+        for (LocalDate month = CalendarsGenerator.START; month.isBefore(end); month = month.plusMonths(1)) {
+            LocalDate start = month.plusDays(random.nextInt(28));
+            result.invalidAt(start, start.plusDays(random.nextInt(5)));
+        }
+
+        return result;
+    }
+
+    private static AvailabilityTimeLine and(List<AvailabilityTimeLine> timeLines) {
+        AvailabilityTimeLine result = AvailabilityTimeLine.allValid();
+        for (AvailabilityTimeLine each : timeLines) {
+            result = result.and(each);
+        }
+
+        return result;
+    }
+
+    private static AvailabilityTimeLine or(List<AvailabilityTimeLine> timeLines) {
+        AvailabilityTimeLine result = AvailabilityTimeLine.createAllInvalid();
+        for (AvailabilityTimeLine each : timeLines) {
+            result = result.or(each);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public AvailabilityTimeLine availabilityOfResourceCalendar() {
+        return resourceCalendar.getAvailability();
+    }
+
+    @Benchmark
+    public AvailabilityTimeLine andOfResources() {
+        return and(timeLines);
+    }
+
+    @Benchmark
+    public AvailabilityTimeLine orOfResources() {
+        return or(timeLines);
+    }
+
+    @Benchmark
+    public int validPeriodsOfCombination() {
+        return combined.getValidPeriods().size();
+    }
+
+    @Benchmark
+    public int validDaysOfCombination() {
+        int result = 0;
+        for (LocalDate day = CalendarsGenerator.START; day.isBefore(end); day = day.plusDays(1)) {
+            if (combined.isValid(day)) {
+                result++;
+            }
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.calendars;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Capacities of {@link BaseCalendar calendars} spanning several years, as
+ * asked by the allocation algorithms and the resource load charts: day by day
+ * over the whole horizon and month by month.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BaseCalendarBenchmark {
+
+    @Param({ "1", "5", "10" })
+    public int years;
+
+    private BaseCalendar companyCalendar;
+
+    private ResourceCalendar resourceCalendar;
+
+    private LocalDate end;
+
+    @Setup
+    public void createCalendars() {
+        CalendarsGenerator generator = new CalendarsGenerator(1L);
+        companyCalendar = generator.companyCalendar(years);
+        resourceCalendar = generator.resourceCalendar(companyCalendar, years);
+        end = CalendarsGenerator.START.plusYears(years);
+    }
+
+    @Benchmark
+    public long capacityOfEachDayOfCompanyCalendar() {
+        return sumCapacitiesOfEachDay(companyCalendar);
+    }
+
+    @Benchmark
+    public long capacityOfEachDayOfResourceCalendar() {
+        return sumCapacitiesOfEachDay(resourceCalendar);
+    }
+
+    @Benchmark
+    public long workableDurationOfEachMonthOfResourceCalendar() {
+        long result = 0;
+        for (LocalDate month = CalendarsGenerator.START; month.isBefore(end); month = month.plusMonths(1)) {
+            result += resourceCalendar.getWorkableDuration(month, month.plusMonths(1).minusDays(1)).getSeconds();
+        }
+
+        return result;
+    }
+
+    private long sumCapacitiesOfEachDay(BaseCalendar calendar) {
+        long result = 0;
+        for (LocalDate day = CalendarsGenerator.START; day.isBefore(end); day = day.plusDays(1)) {
+            result += calendar.getCapacityOn(PartialDay.wholeDay(day)).getSeconds();
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.calendars;
+
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.CalendarData.Days;
+import org.libreplan.business.calendars.entities.CalendarException;
+import org.libreplan.business.calendars.entities.CalendarExceptionType;
+import org.libreplan.business.calendars.entities.CalendarExceptionTypeColor;
+import org.libreplan.business.calendars.entities.Capacity;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Generates calendars spanning several years, similar to the ones of a real
+ * company: a company calendar with a version per year and some holidays each
+ * year, and resource calendars derived from it with vacations.
+ *
+ * The same seed always generates the same calendars.
+ */
+public class CalendarsGenerator {
+
+    public static final LocalDate START = new LocalDate(2020, 1, 1);
+
+    private static final int HOLIDAYS_PER_YEAR = 12;
+
+    private static final int VACATION_PERIODS_PER_YEAR = 3;
+
+    private static final int VACATION_PERIOD_DAYS = 7;
+
+    private final Random random;
+
+    private final CalendarExceptionType holiday = CalendarExceptionType.create("HOLIDAY",
+            CalendarExceptionTypeColor.DEFAULT, true);
+
+    private final CalendarExceptionType vacation = CalendarExceptionType.create("VACATION",
+            CalendarExceptionTypeColor.DEFAULT, true);
+
+    public CalendarsGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @return a calendar with a new version each year, alternating a week of
+     *         forty hours with one of thirty-five hours, and holidays
+     */
+    public BaseCalendar companyCalendar(int years) {
+        BaseCalendar result = BaseCalendar.createBasicCalendar();
+        for (int year = 0; year < years; year++) {
+            LocalDate yearStart = START.plusYears(year);
+            if (year > 0) {
+                result.newVersion(yearStart);
+            }
+            EffortDuration workingDay = year % 2 == 0 ? hours(8) : hours(7);
+            for (Days each : Days.values()) {
+                boolean weekend = each == Days.SATURDAY || each == Days.SUNDAY;
+                result.setCapacityAt(each, Capacity.create(weekend ? EffortDuration.zero() : workingDay)
+                        .overAssignableWithoutLimit(), yearStart);
+            }
+            for (LocalDate each : randomDaysOf(year, HOLIDAYS_PER_YEAR)) {
+                result.addExceptionDay(CalendarException.create(each, EffortDuration.zero(), holiday));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return a calendar derived from the parent with some periods of
+     *         vacations each year
+     */
+    public ResourceCalendar resourceCalendar(BaseCalendar parent, int years) {
+        ResourceCalendar result = parent.newDerivedResourceCalendar();
+        Set<LocalDate> vacations = new HashSet<>();
+        for (int year = 0; year < years; year++) {
+            for (LocalDate periodStart : randomDaysOf(year, VACATION_PERIODS_PER_YEAR)) {
+                for (int i = 0; i < VACATION_PERIOD_DAYS; i++) {
+                    vacations.add(periodStart.plusDays(i));
+                }
+            }
+        }
+        for (LocalDate each : vacations) {
+            result.addExceptionDay(CalendarException.create(each, EffortDuration.zero(), vacation));
+        }
+
+        return result;
+    }
+
+    private Set<LocalDate> randomDaysOf(int year, int days) {
+        Set<LocalDate> result = new HashSet<>();
+        LocalDate yearStart = START.plusYears(year);
+        int daysOfYear = yearStart.dayOfYear().getMaximumValue();
+        while (result.size() < days) {
+            result.add(yearStart.plusDays(random.nextInt(daysOfYear)));
+        }
+
+        return result;
+    }
+
+}
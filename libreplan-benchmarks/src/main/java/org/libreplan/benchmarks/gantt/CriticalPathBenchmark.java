@@ -0,0 +1,72 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.gantt;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.libreplan.benchmarks.gantt.SyntheticNetwork.Link;
+import org.libreplan.benchmarks.gantt.SyntheticNetwork.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zkoss.ganttz.data.GanttDiagramGraph;
+import org.zkoss.ganttz.data.criticalpath.CriticalPathCalculator;
+
+/**
+ * Calculation of the critical path with {@link CriticalPathCalculator} over a
+ * {@link GanttDiagramGraph} whose dependencies have already been enforced.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CriticalPathBenchmark {
+
+    @Param({ "100", "1000", "5000", "20000" })
+    public int tasks;
+
+    @Param({ "4" })
+    public int maxPredecessors;
+
+    private GanttDiagramGraph<Node, Link> graph;
+
+    @Setup
+    public void createGraph() {
+        graph = SyntheticNetwork.generate(tasks, maxPredecessors, 1L).createGraph();
+        graph.enforceAllRestrictions();
+    }
+
+    @Benchmark
+    public List<Node> calculateCriticalPath() {
+        return CriticalPathCalculator.<Node, Link> create(false).calculateCriticalPath(graph);
+    }
+
+}
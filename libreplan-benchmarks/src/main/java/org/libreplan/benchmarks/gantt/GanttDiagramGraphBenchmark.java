@@ -0,0 +1,120 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.gantt;
+
+import java.util.concurrent.TimeUnit;
+
+import org.libreplan.benchmarks.gantt.SyntheticNetwork.Link;
+import org.libreplan.benchmarks.gantt.SyntheticNetwork.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zkoss.ganttz.data.GanttDiagramGraph;
+
+/**
+ * Enforcement of the dependencies of a {@link GanttDiagramGraph}: all of them,
+ * as done when a project is opened, and the ones affected when the first task
+ * of the project is moved, as done when the user drags a task.
+ *
+ * When enforcing all of them, the tasks are moved back to the start before
+ * each invocation, so every invocation has to move all the tasks again. That
+ * takes milliseconds for the smallest network, so the per invocation setup
+ * doesn't distort the results.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GanttDiagramGraphBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Network {
+
+        @Param({ "100", "1000", "5000", "20000" })
+        public int tasks;
+
+        @Param({ "4" })
+        public int maxPredecessors;
+
+        SyntheticNetwork network;
+
+        GanttDiagramGraph<Node, Link> graph;
+
+        @Setup(Level.Trial)
+        public void createGraph() {
+            network = SyntheticNetwork.generate(tasks, maxPredecessors, 1L);
+            graph = network.createGraph();
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class NotEnforcedNetwork extends Network {
+
+        @Setup(Level.Invocation)
+        public void resetDates() {
+            network.resetDates();
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class EnforcedNetwork extends Network {
+
+        boolean firstTaskDelayed = false;
+
+        @Setup(Level.Trial)
+        public void enforceAllRestrictions() {
+            graph.enforceAllRestrictions();
+        }
+
+    }
+
+    @Benchmark
+    public GanttDiagramGraph<Node, Link> enforceAllRestrictions(NotEnforcedNetwork state) {
+        state.graph.enforceAllRestrictions();
+
+        return state.graph;
+    }
+
+    /**
+     * Moves the first task a day forward or backward, alternately
+     */
+    @Benchmark
+    public GanttDiagramGraph<Node, Link> enforceRestrictionsAfterMovingFirstTask(EnforcedNetwork state) {
+        Node first = state.network.getNodes().get(0);
+        state.firstTaskDelayed = !state.firstTaskDelayed;
+        state.network.move(first, SyntheticNetwork.START.plusDays(state.firstTaskDelayed ? 1 : 0));
+        state.graph.enforceRestrictions(first);
+
+        return state.graph;
+    }
+
+}
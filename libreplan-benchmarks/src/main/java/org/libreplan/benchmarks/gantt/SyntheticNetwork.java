@@ -0,0 +1,308 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.gantt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.zkoss.ganttz.data.ConstraintCalculator;
+import org.zkoss.ganttz.data.DependencyType;
+import org.zkoss.ganttz.data.DependencyType.Point;
+import org.zkoss.ganttz.data.GanttDate;
+import org.zkoss.ganttz.data.GanttDiagramGraph;
+import org.zkoss.ganttz.data.GanttDiagramGraph.IAdapter;
+import org.zkoss.ganttz.data.GanttDiagramGraph.IDependenciesEnforcerHookFactory;
+import org.zkoss.ganttz.data.IDependency;
+import org.zkoss.ganttz.data.constraint.Constraint;
+
+/**
+ * Network of tasks joined by dependencies, generated at random but always the
+ * same for the same seed, so the algorithms of {@link GanttDiagramGraph} can
+ * be run without the entities nor the ZK components.
+ *
+ * Each task depends on several of the tasks created shortly before it, like
+ * the phases of a big project, so the network is dense and has long chains.
+ * Most dependencies are end-start, with some start-start and end-end ones.
+ */
+public class SyntheticNetwork {
+
+    public static final LocalDate START = new LocalDate(2020, 1, 1);
+
+    /**
+     * How many of the previous tasks can be chosen as predecessors
+     */
+    private static final int PREDECESSORS_WINDOW = 50;
+
+    private static final int MAX_DURATION_DAYS = 20;
+
+    public static class Node {
+
+        private final int index;
+
+        private final int durationDays;
+
+        private GanttDate start;
+
+        private GanttDate end;
+
+        private Node(int index, int durationDays) {
+            this.index = index;
+            this.durationDays = durationDays;
+            resetDates();
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        private void resetDates() {
+            moveTo(START);
+        }
+
+        private void moveTo(LocalDate newStart) {
+            start = GanttDate.createFrom(newStart);
+            end = GanttDate.createFrom(newStart.plusDays(durationDays));
+        }
+
+        @Override
+        public String toString() {
+            return "task" + index;
+        }
+
+    }
+
+    public static class Link implements IDependency<Node> {
+
+        private final Node source;
+
+        private final Node destination;
+
+        private final DependencyType type;
+
+        private Link(Node source, Node destination, DependencyType type) {
+            this.source = source;
+            this.destination = destination;
+            this.type = type;
+        }
+
+        @Override
+        public Node getSource() {
+            return source;
+        }
+
+        @Override
+        public Node getDestination() {
+            return destination;
+        }
+
+        @Override
+        public DependencyType getType() {
+            return type;
+        }
+
+    }
+
+    private static class Adapter implements IAdapter<Node, Link> {
+
+        @Override
+        public List<Node> getChildren(Node task) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Node getOwner(Node task) {
+            return null;
+        }
+
+        @Override
+        public boolean isContainer(Node task) {
+            return false;
+        }
+
+        @Override
+        public void registerDependenciesEnforcerHookOn(Node task, IDependenciesEnforcerHookFactory<Node> hookFactory) {
+            // the positions are only modified by the graph
+        }
+
+        @Override
+        public GanttDate getStartDate(Node task) {
+            return task.start;
+        }
+
+        @Override
+        public void setStartDateFor(Node task, GanttDate newStart) {
+            task.moveTo(newStart.toLocalDate());
+        }
+
+        @Override
+        public GanttDate getEndDateFor(Node task) {
+            return task.end;
+        }
+
+        @Override
+        public void setEndDateFor(Node task, GanttDate newEnd) {
+            task.end = newEnd;
+        }
+
+        @Override
+        public List<Constraint<GanttDate>> getConstraints(ConstraintCalculator<Node> calculator,
+                                                          Set<Link> withDependencies, Point point) {
+            List<Constraint<GanttDate>> result = new ArrayList<>();
+            for (Link each : withDependencies) {
+                result.addAll(calculator.getConstraints(each, point));
+            }
+
+            return result;
+        }
+
+        @Override
+        public List<Constraint<GanttDate>> getStartConstraintsFor(Node task) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Constraint<GanttDate>> getEndConstraintsFor(Node task) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Node getSource(Link dependency) {
+            return dependency.getSource();
+        }
+
+        @Override
+        public Node getDestination(Link dependency) {
+            return dependency.getDestination();
+        }
+
+        @Override
+        public Class<Link> getDependencyType() {
+            return Link.class;
+        }
+
+        @Override
+        public Link createInvisibleDependency(Node origin, Node destination, DependencyType type) {
+            return new Link(origin, destination, type);
+        }
+
+        @Override
+        public DependencyType getType(Link dependency) {
+            return dependency.getType();
+        }
+
+        @Override
+        public boolean isVisible(Link dependency) {
+            return true;
+        }
+
+        @Override
+        public boolean isFixed(Node task) {
+            return false;
+        }
+
+    }
+
+    /**
+     * @param maxPredecessors
+     *            the maximum number of dependencies arriving to each task
+     */
+    public static SyntheticNetwork generate(int tasks, int maxPredecessors, long seed) {
+        Random random = new Random(seed);
+        List<Node> nodes = new ArrayList<>();
+        List<Link> links = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            Node node = new Node(i, 1 + random.nextInt(MAX_DURATION_DAYS));
+            int windowStart = Math.max(0, i - PREDECESSORS_WINDOW);
+            int predecessors = Math.min(i - windowStart, random.nextInt(maxPredecessors + 1));
+            Set<Node> sources = new HashSet<>();
+            while (sources.size() < predecessors) {
+                sources.add(nodes.get(windowStart + random.nextInt(i - windowStart)));
+            }
+            for (Node each : sources) {
+                links.add(new Link(each, node, randomType(random)));
+            }
+            nodes.add(node);
+        }
+
+        return new SyntheticNetwork(nodes, links);
+    }
+
+    private static DependencyType randomType(Random random) {
+        int value = random.nextInt(10);
+        if (value < 8) {
+            return DependencyType.END_START;
+        }
+
+        return value == 8 ? DependencyType.START_START : DependencyType.END_END;
+    }
+
+    private final List<Node> nodes;
+
+    private final List<Link> links;
+
+    private SyntheticNetwork(List<Node> nodes, List<Link> links) {
+        this.nodes = Collections.unmodifiableList(nodes);
+        this.links = Collections.unmodifiableList(links);
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public List<Link> getLinks() {
+        return links;
+    }
+
+    /**
+     * @return a graph with all the tasks and dependencies of the network, and
+     *         without enforcing the dependencies yet
+     */
+    public GanttDiagramGraph<Node, Link> createGraph() {
+        GanttDiagramGraph<Node, Link> result = GanttDiagramGraph.create(false, new Adapter(),
+                Collections.<Constraint<GanttDate>> emptyList(),
+                Collections.<Constraint<GanttDate>> emptyList(), false);
+        result.addTopLevel(nodes);
+        for (Link each : links) {
+            result.addWithoutEnforcingConstraints(each);
+        }
+
+        return result;
+    }
+
+    /**
+     * Moves all the tasks to the start of the network, so the dependencies are
+     * not enforced anymore
+     */
+    public void resetDates() {
+        for (Node each : nodes) {
+            each.resetDates();
+        }
+    }
+
+    public void move(Node node, LocalDate newStart) {
+        node.moveTo(newStart);
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.planner;
+
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.libreplan.benchmarks.calendars.CalendarsGenerator;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.planner.entities.GenericResourceAllocation;
+import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.allocationalgorithms.ResourcesPerDayModification;
+import org.libreplan.business.planner.entities.allocationalgorithms.UntilFillingHoursAllocator;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.IntraDayDate;
+import org.libreplan.business.workingday.ResourcesPerDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocation of {@link ResourceAllocation resource allocations} over the
+ * length of a task and until allocating some effort with
+ * {@link UntilFillingHoursAllocator}.
+ *
+ * The workers have calendars derived from a company calendar of several years
+ * and they are already loaded at half of their capacity by other allocations,
+ * so the load of each day has to be discounted as when allocating a real
+ * project.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllocationBenchmark {
+
+    private static final int YEARS = 4;
+
+    @Param({ "20", "250", "1000" })
+    public int taskDays;
+
+    @Param({ "5", "50" })
+    public int workers;
+
+    private List<Worker> resources;
+
+    private SyntheticTask task;
+
+    @Setup
+    public void createWorkersAndTask() {
+        CalendarsGenerator generator = new CalendarsGenerator(1L);
+        BaseCalendar companyCalendar = generator.companyCalendar(YEARS);
+        Scenario scenario = Scenario.create("benchmark");
+
+        IntraDayDate start = IntraDayDate.startOfDay(CalendarsGenerator.START);
+        SyntheticTask loadingTask = new SyntheticTask(start,
+                IntraDayDate.startOfDay(CalendarsGenerator.START.plusYears(YEARS)), companyCalendar);
+
+        resources = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            Worker worker = Worker.create("WORKER" + i);
+            worker.setCalendar(generator.resourceCalendar(companyCalendar, YEARS));
+            worker.useScenario(scenario);
+            loadWithHalfOfItsCapacity(worker, loadingTask, scenario);
+            resources.add(worker);
+        }
+
+        LocalDate taskStart = CalendarsGenerator.START.plusMonths(1);
+        task = new SyntheticTask(IntraDayDate.startOfDay(taskStart),
+                IntraDayDate.startOfDay(taskStart.plusDays(taskDays)), companyCalendar);
+    }
+
+    private static void loadWithHalfOfItsCapacity(Worker worker, SyntheticTask loadingTask, Scenario scenario) {
+        SpecificResourceAllocation allocation = SpecificResourceAllocation.create(loadingTask);
+        allocation.setResource(worker);
+        allocation.allocate(ResourcesPerDay.amount(new BigDecimal("0.5")));
+        allocation.switchToScenario(scenario);
+    }
+
+    @Benchmark
+    public int specificAllocationOnTaskLength() {
+        SpecificResourceAllocation allocation = SpecificResourceAllocation.create(task);
+        allocation.setResource(resources.get(0));
+        allocation.allocate(ResourcesPerDay.amount(1));
+
+        return allocation.getAssignments().size();
+    }
+
+    @Benchmark
+    public int genericAllocationOnTaskLength() {
+        GenericResourceAllocation allocation = GenericResourceAllocation.create(task);
+        allocation.forResources(resources).allocate(ResourcesPerDay.amount(2));
+
+        return allocation.getAssignments().size();
+    }
+
+    @Benchmark
+    public IntraDayDate specificAllocationUntilAllocating() {
+        SpecificResourceAllocation allocation = SpecificResourceAllocation.create(task);
+        allocation.setResource(resources.get(0));
+
+        return ResourceAllocation.allocating(Collections.singletonList(
+                ResourcesPerDayModification.create(allocation, ResourcesPerDay.amount(1))))
+                .untilAllocating(hours(taskDays * 4));
+    }
+
+    @Benchmark
+    public IntraDayDate genericAllocationUntilAllocating() {
+        return ResourceAllocation.allocating(Collections.singletonList(
+                ResourcesPerDayModification.create(GenericResourceAllocation.create(task),
+                        ResourcesPerDay.amount(2), resources)))
+                .untilAllocating(hours(taskDays * 8));
+    }
+
+}
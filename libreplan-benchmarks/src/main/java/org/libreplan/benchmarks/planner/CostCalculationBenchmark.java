@@ -0,0 +1,260 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.planner;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.joda.time.LocalTime;
+import org.libreplan.benchmarks.calendars.CalendarsGenerator;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.costcategories.daos.CostCategoryDAO;
+import org.libreplan.business.costcategories.entities.CostCategory;
+import org.libreplan.business.costcategories.entities.CostRateIndex;
+import org.libreplan.business.costcategories.entities.HourCost;
+import org.libreplan.business.costcategories.entities.ResourcesCostCategoryAssignment;
+import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DayAssignment.FilterType;
+import org.libreplan.business.planner.entities.HoursCostCalculator;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workingday.IntraDayDate;
+import org.libreplan.business.workingday.ResourcesPerDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Calculation of the estimated cost (BCWS) of a task with
+ * {@link HoursCostCalculator} and of the prices per hour of the work report
+ * lines of a worker.
+ *
+ * Both are compared with the previous implementations: the estimated cost
+ * formatting and parsing again the effort of each day assignment, and the
+ * prices going through all the cost category assignments and hour costs of
+ * the worker for each line.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CostCalculationBenchmark {
+
+    private static final int YEARS = 4;
+
+    private static final int TYPES_OF_WORK_HOURS = 4;
+
+    private static final int LINES = 10000;
+
+    @Param({ "20", "250", "1000" })
+    public int taskDays;
+
+    @Param({ "4", "40" })
+    public int costCategoryAssignments;
+
+    private TaskWithAssignments task;
+
+    private HoursCostCalculator calculator;
+
+    private Worker worker;
+
+    private LocalDate[] lineDays;
+
+    private String[] lineTypes;
+
+    @Setup
+    public void createTaskAndWorker() {
+        CalendarsGenerator generator = new CalendarsGenerator(1L);
+        BaseCalendar companyCalendar = generator.companyCalendar(YEARS);
+
+        Worker assigned = Worker.create("WORKER");
+        assigned.setCalendar(generator.resourceCalendar(companyCalendar, YEARS));
+
+        LocalDate taskStart = CalendarsGenerator.START.plusMonths(1);
+        task = new TaskWithAssignments(IntraDayDate.startOfDay(taskStart),
+                IntraDayDate.startOfDay(taskStart.plusDays(taskDays)), companyCalendar);
+
+        // Not a whole number of hours per day, so the minutes are accumulated
+        SpecificResourceAllocation allocation = SpecificResourceAllocation.create(task);
+        allocation.setResource(assigned);
+        allocation.allocate(ResourcesPerDay.amount(new BigDecimal("0.7")));
+        task.dayAssignments = new ArrayList<DayAssignment>(allocation.getAssignments());
+
+        calculator = new HoursCostCalculator();
+
+        worker = createWorkerWithCostCategories();
+        createLines();
+    }
+
+    /**
+     * Each assignment of the worker uses a different cost category with
+     * prices for all the types of work hours changing every month
+     */
+    private Worker createWorkerWithCostCategories() {
+        List<TypeOfWorkHours> types = new ArrayList<>();
+        for (int i = 0; i < TYPES_OF_WORK_HOURS; i++) {
+            types.add(TypeOfWorkHours.create("TYPE" + i, "Type " + i));
+        }
+
+        Worker result = Worker.create("PRICED");
+        int monthsPerAssignment = YEARS * 12 / costCategoryAssignments;
+        for (int i = 0; i < costCategoryAssignments; i++) {
+            LocalDate start = CalendarsGenerator.START.plusMonths(i * monthsPerAssignment);
+            LocalDate end = start.plusMonths(monthsPerAssignment).minusDays(1);
+
+            CostCategory category = CostCategory.create("CATEGORY" + i);
+            for (TypeOfWorkHours type : types) {
+                for (LocalDate month = start; month.isBefore(end); month = month.plusMonths(1)) {
+                    HourCost hourCost = HourCost.create(new BigDecimal(10 + i), month);
+                    hourCost.setEndDate(month.plusMonths(1).minusDays(1));
+                    hourCost.setType(type);
+                    category.addHourCost(hourCost);
+                }
+            }
+
+            ResourcesCostCategoryAssignment assignment = ResourcesCostCategoryAssignment.create();
+            assignment.setCostCategory(category);
+            assignment.setInitDate(start);
+            assignment.setEndDate(end);
+            result.addResourcesCostCategoryAssignment(assignment);
+        }
+        return result;
+    }
+
+    private void createLines() {
+        Random random = new Random(1L);
+        lineDays = new LocalDate[LINES];
+        lineTypes = new String[LINES];
+        for (int i = 0; i < LINES; i++) {
+            lineDays[i] = CalendarsGenerator.START.plusDays(random.nextInt(YEARS * 365));
+            lineTypes[i] = "TYPE" + random.nextInt(TYPES_OF_WORK_HOURS);
+        }
+    }
+
+    @Benchmark
+    public SortedMap<LocalDate, BigDecimal> estimatedCost() {
+        return calculator.getEstimatedCost(task);
+    }
+
+    @Benchmark
+    public SortedMap<LocalDate, BigDecimal> estimatedCostParsingEfforts() throws ParseException {
+        return parsingEfforts(task.getDayAssignments(FilterType.WITHOUT_DERIVED));
+    }
+
+    @Benchmark
+    public BigDecimal pricesWithRateIndex() {
+        CostRateIndex index = CostRateIndex.forResource(worker);
+        BigDecimal result = BigDecimal.ZERO;
+        for (int i = 0; i < LINES; i++) {
+            result = add(result, index.getPrice(lineDays[i], lineTypes[i]));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BigDecimal pricesWithLookupPerLine() {
+        BigDecimal result = BigDecimal.ZERO;
+        for (int i = 0; i < LINES; i++) {
+            result = add(result, CostCategoryDAO.getPriceByResourceDateAndHourType(worker, lineDays[i], lineTypes[i]));
+        }
+        return result;
+    }
+
+    private static BigDecimal add(BigDecimal result, BigDecimal price) {
+        return price != null ? result.add(price) : result;
+    }
+
+    /**
+     * The estimated cost as it was calculated before working on the seconds
+     * of the efforts
+     */
+    private static SortedMap<LocalDate, BigDecimal> parsingEfforts(List<DayAssignment> dayAssignments)
+            throws ParseException {
+
+        SortedMap<LocalDate, BigDecimal> result = new TreeMap<>();
+        int additionOfAllAssignmentsMinutes = 0;
+
+        for (DayAssignment dayAssignment : dayAssignments) {
+            String currentTime = dayAssignment.getDuration().toFormattedString();
+            SimpleDateFormat format1 = new SimpleDateFormat("hh:mm");
+            SimpleDateFormat format2 = new SimpleDateFormat("hh");
+            Date date = currentTime.contains(":") ? format1.parse(currentTime) : format2.parse(currentTime);
+
+            LocalTime time = new LocalTime(date.getTime());
+            BigDecimal hours = new BigDecimal(time.getHourOfDay());
+            additionOfAllAssignmentsMinutes += time.getMinuteOfHour();
+
+            LocalDate day = dayAssignment.getDay();
+            if ( !result.containsKey(day) ) {
+                result.put(day, BigDecimal.ZERO);
+            }
+            if ( dayAssignment.equals(dayAssignments.get(dayAssignments.size() - 1)) ) {
+                if ( additionOfAllAssignmentsMinutes >= 30 && additionOfAllAssignmentsMinutes <= 60 ) {
+                    hours = BigDecimal.valueOf(hours.intValue() + 1);
+                }
+                if ( additionOfAllAssignmentsMinutes > 60 ) {
+                    hours = BigDecimal.valueOf(hours.intValue() + (additionOfAllAssignmentsMinutes / 60));
+                }
+            }
+            result.put(day, result.get(day).add(hours));
+        }
+        return result;
+    }
+
+    /**
+     * {@link SyntheticTask} answering the day assignments of an allocation
+     * that is not added to it
+     */
+    private static class TaskWithAssignments extends SyntheticTask {
+
+        private List<DayAssignment> dayAssignments;
+
+        TaskWithAssignments(IntraDayDate start, IntraDayDate end, BaseCalendar calendar) {
+            super(start, end, calendar);
+        }
+
+        @Override
+        public List<DayAssignment> getDayAssignments(FilterType filter) {
+            return dayAssignments;
+        }
+
+    }
+
+}
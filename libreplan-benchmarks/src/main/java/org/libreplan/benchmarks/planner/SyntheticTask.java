@@ -0,0 +1,80 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.benchmarks.planner;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.workingday.IntraDayDate;
+
+/**
+ * {@link Task} with fixed dates and calendar that doesn't need an order
+ * element, so the allocation algorithms can be run without a database. It
+ * answers the same that the tasks mocked in the allocation tests.
+ */
+public class SyntheticTask extends Task {
+
+    private final IntraDayDate start;
+
+    private final IntraDayDate end;
+
+    private final BaseCalendar calendar;
+
+    public SyntheticTask(IntraDayDate start, IntraDayDate end, BaseCalendar calendar) {
+        this.start = start;
+        this.end = end;
+        this.calendar = calendar;
+    }
+
+    @Override
+    public Date getStartDate() {
+        return start.toDateTimeAtStartOfDay().toDate();
+    }
+
+    @Override
+    public IntraDayDate getIntraDayStartDate() {
+        return start;
+    }
+
+    @Override
+    public IntraDayDate getIntraDayEndDate() {
+        return end;
+    }
+
+    @Override
+    public IntraDayDate getFirstDayNotConsolidated() {
+        return start;
+    }
+
+    @Override
+    public BaseCalendar getCalendar() {
+        return calendar;
+    }
+
+    @Override
+    public Set<Criterion> getCriterions() {
+        return Collections.emptySet();
+    }
+
+}
@@ -75,6 +75,8 @@ public class AdvanceMeasurement extends BaseEntity {
             resetCommunicationDate();
         }
         this.date = date;
+
+        markProgressOfOrderElementAsDirty();
     }
 
     @NotNull(message = "date not specified")
@@ -92,7 +94,20 @@ public class AdvanceMeasurement extends BaseEntity {
             resetCommunicationDate();
         }
 
-        if (advanceAssignment != null) {
+        markProgressOfOrderElementAsDirty();
+    }
+
+    /**
+     * The measurements of fake assignments are calculated from the ones of the
+     * children, so changing them doesn't change the progress
+     */
+    private void markProgressOfOrderElementAsDirty() {
+        if (advanceAssignment == null || advanceAssignment.getOrderElement() == null) {
+            return;
+        }
+        boolean fake = advanceAssignment instanceof DirectAdvanceAssignment
+                && ((DirectAdvanceAssignment) advanceAssignment).isFake();
+        if (!fake) {
             advanceAssignment.getOrderElement().markAsDirtyLastAdvanceMeasurementForSpreading();
         }
     }
@@ -89,6 +89,9 @@ public class DirectAdvanceAssignment extends AdvanceAssignment {
         if (maxValue != null) {
             this.maxValue.setScale(2);
         }
+        if (!fake && getOrderElement() != null) {
+            getOrderElement().markAsDirtyLastAdvanceMeasurementForSpreading();
+        }
     }
 
     public SortedSet<AdvanceMeasurement> getAdvanceMeasurements() {
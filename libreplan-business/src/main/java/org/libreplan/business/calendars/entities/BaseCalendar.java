@@ -43,9 +43,10 @@ import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.entities.EntitySequence;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.resources.entities.VirtualWorker;
+import org.libreplan.business.util.deepcopy.OnCopy;
+import org.libreplan.business.util.deepcopy.Strategy;
 import org.libreplan.business.workingday.EffortDuration;
-import org.libreplan.business.workingday.EffortDuration.IEffortFrom;
-import org.libreplan.business.workingday.IntraDayDate;
+import org.libreplan.business.workingday.EpochDays;
 import org.libreplan.business.workingday.IntraDayDate.PartialDay;
 import org.libreplan.business.workingday.ResourcesPerDay;
 
@@ -74,6 +75,15 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
     private Integer lastSequenceCode = 0;
 
+    /**
+     * Stamp of the last change done through this calendar or its details that
+     * could modify its capacities.
+     */
+    private long lastModification = 0;
+
+    @OnCopy(Strategy.IGNORE)
+    private volatile CalendarCapacityCache capacityCache;
+
     /**
      * Constructor for hibernate. Do not use!
      */
@@ -170,10 +180,12 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
     public void setParent(BaseCalendar parent) {
         getLastCalendarData().setParent(parent);
+        capacitiesModified();
     }
 
     public void setParent(BaseCalendar parent, LocalDate date) {
         getCalendarData(date).setParent(parent);
+        capacitiesModified();
     }
 
     public boolean isDerived() {
@@ -239,6 +251,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         exceptions.add(day);
+        capacitiesModified();
     }
 
     public void removeExceptionDay(LocalDate date) {
@@ -249,6 +262,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         exceptions.remove(day);
+        capacitiesModified();
     }
 
     public void updateExceptionDay(LocalDate date, Capacity capacity, CalendarExceptionType type) {
@@ -268,13 +282,63 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     }
 
     public CalendarException getExceptionDay(LocalDate date) {
-        for (CalendarException exceptionDay : getExceptions(date)) {
-            if (exceptionDay.getDate().equals(date)) {
-                return exceptionDay;
+        return getCapacityCache().getExceptionDay(date);
+    }
+
+    /**
+     * Called by the methods that could change the capacities of the calendar,
+     * so the capacities cached by it and the calendars derived from it are
+     * calculated again.
+     */
+    void capacitiesModified() {
+        lastModification = CalendarCapacityCache.newModification();
+    }
+
+    private long getLastModificationIncludingParents() {
+        long result = lastModification;
+        for (CalendarData each : calendarDataVersions) {
+            if (each.getParent() != null) {
+                result = Math.max(result, each.getParent().getLastModificationIncludingParents());
             }
         }
 
-        return null;
+        return result;
+    }
+
+    /**
+     * @return a cache of the capacities that is valid for the current state of
+     *         the calendar and its parents
+     */
+    CalendarCapacityCache getCapacityCache() {
+        long stamp = getLastModificationIncludingParents();
+        CalendarCapacityCache result = capacityCache;
+        if (result == null || result.getStamp() != stamp) {
+            dependOnDetails();
+            result = new CalendarCapacityCache(this, stamp);
+            capacityCache = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Registers the calendar and its parents in the {@link CalendarData},
+     * {@link CalendarException} and {@link CalendarAvailability} its capacities
+     * depend on, so modifying them directly invalidates its cache.
+     */
+    private void dependOnDetails() {
+        for (CalendarData each : calendarDataVersions) {
+            each.addDependent(this);
+            if (each.getParent() != null) {
+                each.getParent().dependOnDetails();
+            }
+        }
+        for (CalendarException each : exceptions) {
+            each.addDependent(this);
+        }
+        for (CalendarAvailability each : calendarAvailabilities) {
+            each.addDependent(this);
+        }
     }
 
     @Override
@@ -286,23 +350,14 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     public Capacity getCapacityWithOvertime(LocalDate day) {
         Validate.notNull(day);
 
-        return multiplyByCalendarUnits(findCapacityAt(day));
+        return getCapacityCache().getCapacityWithCalendarUnits(day);
     }
 
     private Capacity findCapacityAt(LocalDate date) {
-        if (!isActive(date)) {
-            return Capacity.zero();
-        }
-
-        CalendarException exceptionDay = getExceptionDay(date);
-        if (exceptionDay != null) {
-            return exceptionDay.getCapacity();
-        }
-
-        return getCapacityConsideringCalendarDataOn(date, getDayFrom(date));
+        return getCapacityCache().getCapacity(date);
     }
 
-    private Days getDayFrom(LocalDate date) {
+    static Days getDayFrom(LocalDate date) {
         return Days.values()[date.getDayOfWeek() - 1];
     }
 
@@ -346,17 +401,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
      * @return Duration of work
      */
     public EffortDuration getWorkableDuration(LocalDate init, LocalDate endInclusive) {
-
-        Iterable<PartialDay> daysBetween =
-                IntraDayDate.startOfDay(init).daysUntil(IntraDayDate.startOfDay(endInclusive).nextDayAtStart());
-
-        return EffortDuration.sum(daysBetween, new IEffortFrom<PartialDay>() {
-            @Override
-            public EffortDuration from(PartialDay each) {
-                return getCapacityOn(each);
-            }
-
-        });
+        return getCapacityCache().getWorkableDuration(EpochDays.of(init), EpochDays.of(endInclusive) + 1);
     }
 
     /**
@@ -405,6 +450,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
 
         CalendarData newCalendarData = createLastVersion(date);
         newCalendarData.setParent(lastParent);
+        capacitiesModified();
     }
 
     public CalendarData createNewVersionInsideIntersection(LocalDate startDate, LocalDate expiringDate) {
@@ -444,6 +490,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
                         }
 
                         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+                        capacitiesModified();
 
                         return newCalendarData;
                     }
@@ -491,6 +538,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         CalendarData newCalendarData = CalendarData.create();
         calendarDataVersions.add(newCalendarData);
         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+        capacitiesModified();
 
         return newCalendarData;
     }
@@ -508,6 +556,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         newCalendarData.setExpiringDate(expiringDate);
         calendarDataVersions.add(newCalendarData);
         Collections.sort(calendarDataVersions, CalendarData.BY_EXPIRING_DATE_COMPARATOR);
+        capacitiesModified();
 
         return newCalendarData;
     }
@@ -545,6 +594,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         resetDefaultCapacities(newCalendarData);
+        capacitiesModified();
     }
 
     private void resetDefaultCapacities(CalendarData version){
@@ -554,6 +604,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     }
 
     public void addNewVersion(CalendarData version){
+        capacitiesModified();
         if (version.getExpiringDate() == null) {
             if (getLastCalendarData().getExpiringDate() == null) {
                 throw new IllegalArgumentException("the date is null and overlaps with the last work week.");
@@ -654,11 +705,13 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     public void setCapacityAt(Days day, Capacity capacity) {
         CalendarData calendarData = getLastCalendarData();
         calendarData.setCapacityAt(day, capacity);
+        capacitiesModified();
     }
 
     public void setCapacityAt(Days day, Capacity capacity, LocalDate date) {
         CalendarData calendarData = getCalendarData(date);
         calendarData.setCapacityAt(day, capacity);
+        capacitiesModified();
     }
 
     private CalendarData getCalendarDataBeforeTheLastIfAny() {
@@ -683,11 +736,13 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
     public void setDefault(Days day) {
         CalendarData calendarData = getLastCalendarData();
         calendarData.setDefault(day);
+        capacitiesModified();
     }
 
     public void setDefault(Days day, LocalDate date) {
         CalendarData calendarData = getCalendarData(date);
         calendarData.setDefault(day);
+        capacitiesModified();
     }
 
     public LocalDate getExpiringDate() {
@@ -721,6 +776,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         }
 
         calendarData.setExpiringDate(expiringDate);
+        capacitiesModified();
     }
 
     private CalendarData getPreviousCalendarData(LocalDate date) {
@@ -813,6 +869,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
         } else {
             calendarDataVersions.remove(calendarData);
         }
+        capacitiesModified();
     }
 
     public LocalDate getValidFrom(CalendarData calendarData) {
@@ -867,11 +924,13 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
                 }
             }
             calendarAvailabilities.add(calendarAvailability);
+            capacitiesModified();
         }
     }
 
     public void removeCalendarAvailability(CalendarAvailability calendarAvailability) {
         calendarAvailabilities.remove(calendarAvailability);
+        capacitiesModified();
     }
 
     public boolean isActive(LocalDate date) {
@@ -948,6 +1007,7 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
             throw new IllegalArgumentException("Start date could not overlap previous calendar availability");
         }
         calendarAvailability.setStartDate(startDate);
+        capacitiesModified();
     }
 
     public void setEndDate(CalendarAvailability calendarAvailability, LocalDate endDate) {
@@ -957,15 +1017,18 @@ public class BaseCalendar extends IntegrationEntity implements ICalendar, IHuman
             throw new IllegalArgumentException("End date could not overlap next calendar availability");
         }
         calendarAvailability.setEndDate(endDate);
+        capacitiesModified();
     }
 
     @Override
     public EffortDuration asDurationOn(PartialDay day, ResourcesPerDay amount) {
-        Capacity capacity = findCapacityAt(day.getDate());
+        CalendarCapacityCache cache = getCapacityCache();
+        Capacity capacity = cache.getCapacity(day.getDate());
         EffortDuration oneResourcePerDayWorkingDuration = day.limitWorkingDay(capacity.getStandardEffort());
         EffortDuration amountRequestedDuration = amount.asDurationGivenWorkingDayOf(oneResourcePerDayWorkingDuration);
 
-        EffortDuration duration = multiplyByCalendarUnits(capacity).limitDuration(amountRequestedDuration);
+        EffortDuration duration = cache.getCapacityWithCalendarUnits(day.getDate())
+                .limitDuration(amountRequestedDuration);
 
         return duration.atNearestMinute();
     }
@@ -30,6 +30,8 @@ import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.daos.ICalendarAvailabilityDAO;
 import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.Registry;
+import org.libreplan.business.util.deepcopy.OnCopy;
+import org.libreplan.business.util.deepcopy.Strategy;
 
 /**
  * Stores information about activating periods, that define the availability of the resource.
@@ -46,6 +48,9 @@ public class CalendarAvailability extends IntegrationEntity {
 
     private LocalDate endDate;
 
+    @OnCopy(Strategy.IGNORE)
+    private final CalendarCapacityCache.Dependents dependents = new CalendarCapacityCache.Dependents();
+
     /**
      * Constructor for hibernate. Do not use!
      */
@@ -81,6 +86,7 @@ public class CalendarAvailability extends IntegrationEntity {
         }
 
         this.startDate = startDate;
+        dependents.modified();
     }
 
     public LocalDate getEndDate() {
@@ -92,6 +98,7 @@ public class CalendarAvailability extends IntegrationEntity {
             throw new IllegalArgumentException("End date must be greater or equal than start date");
         }
         this.endDate = endDate;
+        dependents.modified();
     }
 
     public boolean isActive(LocalDate date) {
@@ -135,4 +142,12 @@ public class CalendarAvailability extends IntegrationEntity {
         return filterPeriod.overlaps(activationPeriod);
     }
 
+    /**
+     * Makes the modifications of this invalidate the capacities cached by the
+     * calendar and the ones derived from it
+     */
+    void addDependent(BaseCalendar calendar) {
+        dependents.add(calendar);
+    }
+
 }
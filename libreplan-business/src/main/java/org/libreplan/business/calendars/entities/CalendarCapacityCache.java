@@ -0,0 +1,292 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.calendars.entities;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.EpochDays;
+
+/**
+ * Capacities of a {@link BaseCalendar} per day, materialized in blocks of
+ * consecutive days. Each block keeps the capacities in dense arrays and the
+ * prefix sums of the standard effort, so the workable duration of a period is
+ * calculated with a subtraction per block. The blocks are kept in a map, so
+ * days far from the usual planning horizon only take the blocks they need.
+ *
+ * The exceptions inherited from the parents are looked up in the caches of the
+ * parents, so they are shared by all the calendars derived from them.
+ *
+ * A cache is only valid for a stamp: the last modification of the calendar or
+ * its parents, see {@link BaseCalendar#getCapacityCache()}. The details of the
+ * calendars notify their {@link Dependents} when they are modified. A cache can
+ * be read from several threads.
+ */
+class CalendarCapacityCache {
+
+    static final int BLOCK_DAYS = 32;
+
+    /**
+     * When this limit is reached, the days of the new blocks are calculated
+     * without caching them.
+     */
+    private static final int MAX_BLOCKS = 512;
+
+    private static final AtomicLong modifications = new AtomicLong();
+
+    /**
+     * @return a number greater than any previous one
+     */
+    static long newModification() {
+        return modifications.incrementAndGet();
+    }
+
+    /**
+     * The calendars whose capacities depend on a {@link CalendarData},
+     * {@link CalendarException} or {@link CalendarAvailability}, so modifying
+     * it only invalidates the caches of them and the calendars derived from
+     * them. A calendar registers itself when it creates a cache. They are
+     * weakly referenced, as the copies of a calendar share its exceptions.
+     */
+    static class Dependents {
+
+        private final List<WeakReference<BaseCalendar>> calendars = new ArrayList<>(1);
+
+        synchronized void add(BaseCalendar calendar) {
+            Iterator<WeakReference<BaseCalendar>> iterator = calendars.iterator();
+            while (iterator.hasNext()) {
+                BaseCalendar each = iterator.next().get();
+                if (each == calendar) {
+                    return;
+                }
+                if (each == null) {
+                    iterator.remove();
+                }
+            }
+            calendars.add(new WeakReference<>(calendar));
+        }
+
+        synchronized void modified() {
+            for (WeakReference<BaseCalendar> each : calendars) {
+                BaseCalendar calendar = each.get();
+                if (calendar != null) {
+                    calendar.capacitiesModified();
+                }
+            }
+        }
+
+    }
+
+    private static class Block {
+
+        private final Capacity[] capacities;
+
+        private final Capacity[] capacitiesWithCalendarUnits;
+
+        /**
+         * Position <code>i</code> holds the seconds of the standard effort of
+         * the days before <code>i</code>, with the calendar units applied.
+         */
+        private final long[] standardEffortSums;
+
+        private Block(Capacity[] capacities, Capacity[] capacitiesWithCalendarUnits, long[] standardEffortSums) {
+            this.capacities = capacities;
+            this.capacitiesWithCalendarUnits = capacitiesWithCalendarUnits;
+            this.standardEffortSums = standardEffortSums;
+        }
+
+    }
+
+    private final BaseCalendar calendar;
+
+    private final long stamp;
+
+    private final ConcurrentMap<Integer, Block> blocks = new ConcurrentHashMap<>();
+
+    private volatile Map<LocalDate, CalendarException> ownExceptions;
+
+    private volatile Map<LocalDate, CalendarException> exceptionsFollowingLastParent;
+
+    CalendarCapacityCache(BaseCalendar calendar, long stamp) {
+        this.calendar = calendar;
+        this.stamp = stamp;
+    }
+
+    long getStamp() {
+        return stamp;
+    }
+
+    /**
+     * @return the capacity of the day without applying the calendar units
+     */
+    Capacity getCapacity(LocalDate date) {
+        int epochDay = EpochDays.of(date);
+        Block block = getBlock(epochDay);
+
+        return block != null ? block.capacities[offset(epochDay)] : calculateCapacity(date);
+    }
+
+    Capacity getCapacityWithCalendarUnits(LocalDate date) {
+        int epochDay = EpochDays.of(date);
+        Block block = getBlock(epochDay);
+
+        return block != null
+                ? block.capacitiesWithCalendarUnits[offset(epochDay)]
+                : calendar.multiplyByCalendarUnits(calculateCapacity(date));
+    }
+
+    EffortDuration getWorkableDuration(int startEpochDay, int endEpochDayExclusive) {
+        long result = 0;
+        int day = startEpochDay;
+        while (day < endEpochDayExclusive) {
+            int from = offset(day);
+            int to = Math.min(BLOCK_DAYS, from + (endEpochDayExclusive - day));
+            Block block = getBlock(day);
+            if (block != null) {
+                result += block.standardEffortSums[to] - block.standardEffortSums[from];
+            } else {
+                for (int i = from; i < to; i++) {
+                    LocalDate date = EpochDays.toLocalDate(day + i - from);
+                    result += calendar.multiplyByCalendarUnits(calculateCapacity(date))
+                            .getStandardEffort().getSeconds();
+                }
+            }
+            day += to - from;
+        }
+
+        return EffortDuration.seconds((int) result);
+    }
+
+    /**
+     * @return the exception of the day taking into account the parent of the
+     *         calendar on that day
+     * @see BaseCalendar#getExceptions(LocalDate)
+     */
+    CalendarException getExceptionDay(LocalDate date) {
+        CalendarException result = getOwnExceptions().get(date);
+        if (result != null) {
+            return result;
+        }
+        BaseCalendar parent = calendar.getParent(date);
+
+        return parent != null ? parent.getCapacityCache().getExceptionsFollowingLastParent().get(date) : null;
+    }
+
+    private Map<LocalDate, CalendarException> getOwnExceptions() {
+        Map<LocalDate, CalendarException> result = ownExceptions;
+        if (result == null) {
+            result = byDate(calendar.getOwnExceptions());
+            ownExceptions = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * @see BaseCalendar#getExceptions()
+     */
+    private Map<LocalDate, CalendarException> getExceptionsFollowingLastParent() {
+        Map<LocalDate, CalendarException> result = exceptionsFollowingLastParent;
+        if (result == null) {
+            BaseCalendar parent = calendar.getParent();
+            if (parent == null) {
+                result = getOwnExceptions();
+            } else {
+                result = new HashMap<>(parent.getCapacityCache().getExceptionsFollowingLastParent());
+                result.putAll(getOwnExceptions());
+            }
+            exceptionsFollowingLastParent = result;
+        }
+
+        return result;
+    }
+
+    private static Map<LocalDate, CalendarException> byDate(Iterable<CalendarException> exceptions) {
+        Map<LocalDate, CalendarException> result = new HashMap<>();
+        for (CalendarException each : exceptions) {
+            result.put(each.getDate(), each);
+        }
+
+        return result;
+    }
+
+    private Capacity calculateCapacity(LocalDate date) {
+        if (!calendar.isActive(date)) {
+            return Capacity.zero();
+        }
+
+        CalendarException exceptionDay = getExceptionDay(date);
+        if (exceptionDay != null) {
+            return exceptionDay.getCapacity();
+        }
+
+        return calendar.getCapacityConsideringCalendarDataOn(date, BaseCalendar.getDayFrom(date));
+    }
+
+    private static int offset(int epochDay) {
+        return Math.floorMod(epochDay, BLOCK_DAYS);
+    }
+
+    /**
+     * @return the block including the day or <code>null</code> if no more
+     *         blocks can be kept or some day of the block has no capacity, for
+     *         example because there is no work week for it
+     */
+    private Block getBlock(int epochDay) {
+        Integer index = Math.floorDiv(epochDay, BLOCK_DAYS);
+        Block result = blocks.get(index);
+        if (result != null || blocks.size() >= MAX_BLOCKS) {
+            return result;
+        }
+        try {
+            result = calculateBlock(index * BLOCK_DAYS);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        Block previous = blocks.putIfAbsent(index, result);
+
+        return previous != null ? previous : result;
+    }
+
+    private Block calculateBlock(int firstEpochDay) {
+        Capacity[] capacities = new Capacity[BLOCK_DAYS];
+        Capacity[] withCalendarUnits = new Capacity[BLOCK_DAYS];
+        long[] sums = new long[BLOCK_DAYS + 1];
+        boolean sameCapacities = true;
+        for (int i = 0; i < BLOCK_DAYS; i++) {
+            capacities[i] = calculateCapacity(EpochDays.toLocalDate(firstEpochDay + i));
+            withCalendarUnits[i] = calendar.multiplyByCalendarUnits(capacities[i]);
+            sameCapacities = sameCapacities && withCalendarUnits[i] == capacities[i];
+            sums[i + 1] = sums[i] + withCalendarUnits[i].getStandardEffort().getSeconds();
+        }
+
+        return new Block(capacities, sameCapacities ? capacities : withCalendarUnits, sums);
+    }
+
+}
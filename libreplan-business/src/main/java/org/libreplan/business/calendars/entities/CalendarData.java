@@ -35,6 +35,8 @@ import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.daos.ICalendarDataDAO;
 import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.Registry;
+import org.libreplan.business.util.deepcopy.OnCopy;
+import org.libreplan.business.util.deepcopy.Strategy;
 import org.libreplan.business.workingday.EffortDuration;
 
 /**
@@ -76,6 +78,7 @@ public class CalendarData extends IntegrationEntity {
         if (parent != null) {
             this.parent = parent;
         }
+        dependents.modified();
     }
 
     public void updateCapacitiesPerDay(Map<Integer, Capacity> capacityPerDay) throws IllegalArgumentException {
@@ -96,6 +99,9 @@ public class CalendarData extends IntegrationEntity {
 
     private BaseCalendar parent;
 
+    @OnCopy(Strategy.IGNORE)
+    private final CalendarCapacityCache.Dependents dependents = new CalendarCapacityCache.Dependents();
+
     public enum Days {
         MONDAY(Calendar.MONDAY),
         TUESDAY(Calendar.TUESDAY),
@@ -126,7 +132,7 @@ public class CalendarData extends IntegrationEntity {
     public CalendarData() {
         capacityPerDay = new HashMap<>();
         for (Days each : Days.values()) {
-            setCapacityAt(each, null);
+            capacityPerDay.put(each.ordinal(), null);
         }
     }
 
@@ -160,6 +166,7 @@ public class CalendarData extends IntegrationEntity {
 
     public void setCapacityAt(Days day, Capacity capacity) {
         capacityPerDay.put(day.ordinal(), capacity);
+        dependents.modified();
     }
 
 
@@ -181,6 +188,7 @@ public class CalendarData extends IntegrationEntity {
 
     public void setExpiringDate(LocalDate expiringDate) {
         this.expiringDate = expiringDate;
+        dependents.modified();
     }
 
     public CalendarData copy() {
@@ -198,10 +206,12 @@ public class CalendarData extends IntegrationEntity {
 
     public void setParent(BaseCalendar parent) {
         this.parent = parent;
+        dependents.modified();
     }
 
     public void removeExpiringDate() {
         this.expiringDate = null;
+        dependents.modified();
     }
 
     public boolean isPosteriorTo(LocalDate date) {
@@ -249,4 +259,12 @@ public class CalendarData extends IntegrationEntity {
         calendar.setCapacityAt(Days.SUNDAY, Capacity.zero());
     }
 
+    /**
+     * Makes the modifications of this invalidate the capacities cached by the
+     * calendar and the ones derived from it
+     */
+    void addDependent(BaseCalendar calendar) {
+        dependents.add(calendar);
+    }
+
 }
@@ -27,6 +27,8 @@ import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.daos.ICalendarExceptionDAO;
 import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.Registry;
+import org.libreplan.business.util.deepcopy.OnCopy;
+import org.libreplan.business.util.deepcopy.Strategy;
 import org.libreplan.business.workingday.EffortDuration;
 
 /**
@@ -82,6 +84,7 @@ public class CalendarException extends IntegrationEntity {
         if (type != null) {
             this.type = type;
         }
+        dependents.modified();
     }
 
     private LocalDate date;
@@ -90,6 +93,9 @@ public class CalendarException extends IntegrationEntity {
 
     private CalendarExceptionType type;
 
+    @OnCopy(Strategy.IGNORE)
+    private final CalendarCapacityCache.Dependents dependents = new CalendarCapacityCache.Dependents();
+
     /**
      * Constructor for hibernate. Do not use!
      */
@@ -129,4 +135,12 @@ public class CalendarException extends IntegrationEntity {
         return Registry.getCalendarExceptionDAO();
     }
 
+    /**
+     * Makes the modifications of this invalidate the capacities cached by the
+     * calendar and the ones derived from it
+     */
+    void addDependent(BaseCalendar calendar) {
+        dependents.add(calendar);
+    }
+
 }
@@ -26,7 +26,7 @@ import org.apache.commons.lang3.BooleanUtils;
 /**
  * This is a singleton that contains the compilation options passed from Maven.
  *
- * Currently we have four options:
+ * Currently we have five options:
  * <ul>
  *     <li>Enable/Disable the warning changing default password</li>
  *     <li>
@@ -35,6 +35,7 @@ import org.apache.commons.lang3.BooleanUtils;
  *     </li>
  *     <li>Enable/Disable E-mail sending functionality</li>
  *     <li>Enable/Disable "Delete all projects" button</li>
+ *     <li>Enable/Disable loading on demand the resources of the planner</li>
  * </ul>
  *
  * @author Susana Montes Pedreira <smontes@wirelessgalicia.com>
@@ -54,6 +55,8 @@ public class Configuration {
 
     private boolean deleteAllProjectsButtonDisabled;
 
+    private boolean plannerResourcesLoadedOnDemand;
+
     private Configuration() {
     }
 
@@ -107,4 +110,20 @@ public class Configuration {
     public void setDeleteAllProjectsButtonDisabled(boolean deleteAllProjectsButtonDisabled) {
         this.deleteAllProjectsButtonDisabled = deleteAllProjectsButtonDisabled;
     }
+
+    /**
+     * If true, the planner of a project only loads the resources allocated in
+     * the project and the rest are loaded when they are needed.
+     */
+    public static boolean isPlannerResourcesLoadedOnDemand() {
+        return singleton.getPlannerResourcesLoadedOnDemand();
+    }
+
+    public boolean getPlannerResourcesLoadedOnDemand() {
+        return plannerResourcesLoadedOnDemand;
+    }
+
+    public void setPlannerResourcesLoadedOnDemand(boolean plannerResourcesLoadedOnDemand) {
+        this.plannerResourcesLoadedOnDemand = plannerResourcesLoadedOnDemand;
+    }
 }
@@ -23,9 +23,11 @@ package org.libreplan.business.common.daos;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
 import org.hibernate.NonUniqueResultException;
+import org.hibernate.StaleStateException;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.common.entities.EntitySequence;
@@ -123,6 +125,45 @@ public class EntitySequenceDAO extends GenericDAOHibernate<EntitySequence, Long>
         return null;
     }
 
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<String> getNextEntityCodes(EntityNameEnum entityName, int count) {
+        for (int i = 0; i < 5; i++) {
+            try {
+                List<String> codes = new ArrayList<>();
+                EntitySequence entitySequence = getActiveEntitySequence(entityName);
+
+                while (codes.size() < count) {
+                    List<String> candidates = new ArrayList<>();
+                    for (int j = codes.size(); j < count; j++) {
+                        entitySequence.incrementLastValue();
+                        candidates.add(entitySequence.getCode());
+                    }
+
+                    Set<String> existing = entityName.getIntegrationEntityDAO().findExistingCodes(candidates);
+                    for (String each : candidates) {
+                        if ( !existing.contains(each) ) {
+                            codes.add(each);
+                        }
+                    }
+                }
+
+                save(entitySequence);
+                // Flushed here so a block reserved meanwhile by another transaction is detected
+                flush();
+                return codes;
+
+            } catch (StaleStateException e) {
+                // Try again with the sequence as stored by the other transaction
+                getSession().clear();
+            } catch (HibernateOptimisticLockingFailureException | InstanceNotFoundException | NonUniqueResultException e) {
+                // Do nothing (optimistic approach 5 attempts)
+            }
+        }
+
+        return null;
+    }
+
     @Override
     public boolean existOtherActiveSequenceByEntityNameForNewObject(EntitySequence entitySequence) {
         Validate.notNull(entitySequence);
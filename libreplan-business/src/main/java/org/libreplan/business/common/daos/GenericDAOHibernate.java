@@ -24,6 +24,8 @@ package org.libreplan.business.common.daos;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.commons.lang3.Validate;
@@ -60,6 +62,8 @@ import org.springframework.transaction.annotation.Transactional;
  */
 public class GenericDAOHibernate<E extends BaseEntity, PK extends Serializable> implements IGenericDAO<E, PK> {
 
+    protected static final int IDS_PER_QUERY = 1000;
+
     private Class<E> entityClass;
 
     @Autowired
@@ -205,6 +209,21 @@ public class GenericDAOHibernate<E extends BaseEntity, PK extends Serializable>
         return getSession().createCriteria(klass).list();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    @Transactional(readOnly = true)
+    public <T extends E> List<T> listByIds(Class<T> klass, Collection<PK> ids) {
+        List<T> result = new ArrayList<>();
+        List<PK> pending = new ArrayList<>(ids);
+
+        for (int i = 0; i < pending.size(); i += IDS_PER_QUERY) {
+            List<PK> chunk = pending.subList(i, Math.min(i + IDS_PER_QUERY, pending.size()));
+            result.addAll(getSession().createCriteria(klass).add(Restrictions.in("id", chunk)).list());
+        }
+
+        return result;
+    }
+
     @Override
     public void flush() {
         getSession().flush();
@@ -53,6 +53,16 @@ public interface IEntitySequenceDAO extends IGenericDAO<EntitySequence, Long> {
 
     String getNextEntityCodeWithoutTransaction(EntityNameEnum entityName);
 
+    /**
+     * Advances the active sequence of <code>entityName</code> in a new
+     * transaction till <code>count</code> codes not used by any entity are
+     * reserved, and returns them in order.
+     *
+     * @return <code>null</code> if the sequence couldn't be updated because of
+     *         concurrency problems
+     */
+    List<String> getNextEntityCodes(EntityNameEnum entityName, int count);
+
     boolean existOtherActiveSequenceByEntityNameForNewObject(EntitySequence entitySequence);
 
     Integer getNumberOfDigitsCode(EntityNameEnum entityName);
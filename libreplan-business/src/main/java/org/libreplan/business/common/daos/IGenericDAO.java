@@ -22,6 +22,7 @@
 package org.libreplan.business.common.daos;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
@@ -154,6 +155,13 @@ public interface IGenericDAO <E, PK extends Serializable>{
 
     <T extends E> List<T> list(Class<T> klass);
 
+    /**
+     * Returns the instances of <code>klass</code> whose identifiers are in <code>ids</code>.
+     * Identifiers without a matching instance are silently ignored.
+     * The identifiers are queried in chunks, so big collections can be used.
+     */
+    <T extends E> List<T> listByIds(Class<T> klass, Collection<PK> ids);
+
     void flush();
 
 }
@@ -21,7 +21,9 @@
 
 package org.libreplan.business.common.daos;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.libreplan.business.common.IntegrationEntity;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
@@ -48,6 +50,13 @@ public interface IIntegrationEntityDAO<E extends IntegrationEntity>
      */
     public boolean existsByCodeAnotherTransaction(String code);
 
+    /**
+     * It returns the elements of <code>codes</code> already used by some
+     * entity. As in {@link #existsByCode(String)}, the codes are compared
+     * ignoring case.
+     */
+    public Set<String> findExistingCodes(Collection<String> codes);
+
     /**
      * If <code>code</code> is blank (whitespace, empty ("") or
      * <code>null</code>), it throws <code>InstanceNotFoundException</code>.
@@ -63,9 +72,23 @@ public interface IIntegrationEntityDAO<E extends IntegrationEntity>
 
     public E findExistingEntityByCode(String code);
 
+    /**
+     * It returns the entities whose code is any of <code>codes</code>. As in
+     * {@link #findByCode(String)}, the codes are compared ignoring case.
+     */
+    public List<E> findByCodes(Collection<String> codes);
+
     /**
      * It returns all entities ordered by ascending code.
      */
     public List<E> findAll();
 
+    /**
+     * It returns at most <code>maxResults</code> entities with code greater
+     * than <code>code</code>, in the same order as {@link #findAll()}. If
+     * <code>code</code> is <code>null</code> it starts from the first entity.
+     * The code of the last entity returned works as cursor for the next call.
+     */
+    public List<E> findAfterCode(String code, int maxResults);
+
 }
@@ -21,9 +21,16 @@
 
 package org.libreplan.business.common.daos;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Criteria;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
 import org.libreplan.business.common.IntegrationEntity;
@@ -57,6 +64,42 @@ public class IntegrationEntityDAO<E extends IntegrationEntity>
         return existsByCode(code);
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public Set<String> findExistingCodes(Collection<String> codes) {
+        Set<String> result = new HashSet<>();
+        if (codes.isEmpty()) {
+            return result;
+        }
+
+        Map<String, String> byLowerCase = new HashMap<>();
+        for (String each : codes) {
+            byLowerCase.put(each.trim().toLowerCase(), each);
+        }
+
+        List<String> found = getSession()
+                .createQuery("SELECT e." + getCodeProperty() + " FROM " + getEntityClass().getName() + " e "
+                        + "WHERE lower(e." + getCodeProperty() + ") IN (:codes)")
+                .setParameterList("codes", byLowerCase.keySet())
+                .list();
+
+        for (String each : found) {
+            String code = byLowerCase.get(each.trim().toLowerCase());
+            if (code != null) {
+                result.add(code);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Name of the property holding the code of the entity in the queries
+     */
+    protected String getCodeProperty() {
+        return "code";
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     @Transactional(readOnly = true)
@@ -94,10 +137,40 @@ public class IntegrationEntityDAO<E extends IntegrationEntity>
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<E> findByCodes(Collection<String> codes) {
+        if (codes.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> lowerCaseCodes = new HashSet<>();
+        for (String each : codes) {
+            lowerCaseCodes.add(each.trim().toLowerCase());
+        }
+
+        return getSession()
+                .createQuery("FROM " + getEntityClass().getName() + " e "
+                        + "WHERE lower(e." + getCodeProperty() + ") IN (:codes)")
+                .setParameterList("codes", lowerCaseCodes)
+                .list();
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<E> findAll() {
         return getSession().createCriteria(getEntityClass()).addOrder(Order.asc("code")).list();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<E> findAfterCode(String code, int maxResults) {
+        Criteria criteria = getSession().createCriteria(getEntityClass());
+        if (code != null) {
+            criteria.add(Restrictions.gt(getCodeProperty(), code));
+        }
+
+        return criteria.addOrder(Order.asc(getCodeProperty())).setMaxResults(maxResults).list();
+    }
+
 }
@@ -0,0 +1,83 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.common.entities;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.libreplan.business.common.daos.IEntitySequenceDAO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default implementation of {@link IEntityCodeAllocator}.<br />
+ *
+ * The blocks are reserved with
+ * {@link IEntitySequenceDAO#getNextEntityCodes(EntityNameEnum, int)}, that
+ * updates the sequence and checks the collisions of the whole block in one
+ * transaction.
+ */
+@Component
+@Scope(BeanDefinition.SCOPE_SINGLETON)
+public class EntityCodeAllocator implements IEntityCodeAllocator {
+
+    /**
+     * Number of codes reserved each time a block runs out
+     */
+    public static final int BLOCK_SIZE = 50;
+
+    @Autowired
+    private IEntitySequenceDAO entitySequenceDAO;
+
+    private final Map<EntityNameEnum, Deque<String>> reservedCodes = new EnumMap<>(EntityNameEnum.class);
+
+    @Override
+    public synchronized String nextCode(EntityNameEnum entityName) {
+        while (true) {
+            Deque<String> codes = reservedCodes.get(entityName);
+            if ( codes == null || codes.isEmpty() ) {
+                List<String> block = entitySequenceDAO.getNextEntityCodes(entityName, BLOCK_SIZE);
+                if ( block == null ) {
+                    return null;
+                }
+                codes = new ArrayDeque<>(block);
+                reservedCodes.put(entityName, codes);
+            }
+
+            // The code could have been given by hand since the block was reserved
+            String code = codes.poll();
+            if ( entityName.getIntegrationEntityDAO().findExistingCodes(Collections.singletonList(code)).isEmpty() ) {
+                return code;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void discardReservedCodes() {
+        reservedCodes.clear();
+    }
+
+}
@@ -21,9 +21,6 @@
 
 package org.libreplan.business.common.entities;
 
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
-
 import org.hibernate.NonUniqueResultException;
 import javax.validation.constraints.AssertTrue;
 import org.hibernate.validator.constraints.NotEmpty;
@@ -164,14 +161,22 @@ public class EntitySequence extends BaseEntity {
         }
     }
 
+    /**
+     * Pads <code>value</code> with zeros on the left till
+     * <code>numberOfDigits</code>. It's called for each generated code, so it
+     * avoids creating a {@link java.text.DecimalFormat} every time.
+     */
     public static String formatValue(int numberOfDigits, int value) {
-        String format = "";
-        for (int i = 0; i < numberOfDigits; i++) {
-            format += "0";
+        String digits = Integer.toString(value);
+        if (value < 0 || digits.length() >= numberOfDigits) {
+            return digits;
         }
 
-        NumberFormat numberFormat = new DecimalFormat(format);
-        return numberFormat.format(value);
+        StringBuilder result = new StringBuilder(numberOfDigits);
+        for (int i = digits.length(); i < numberOfDigits; i++) {
+            result.append('0');
+        }
+        return result.append(digits).toString();
     }
 
     public boolean isAlreadyInUse() {
@@ -0,0 +1,48 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.common.entities;
+
+/**
+ * Hands out the codes of the {@link EntitySequence EntitySequences} from
+ * blocks reserved in advance.<br />
+ *
+ * Intended for the processes creating many entities at once, like imports and
+ * web services, where asking the database for each code is too expensive.
+ * The codes reserved and not used are lost, so the generated codes can have
+ * gaps.
+ */
+public interface IEntityCodeAllocator {
+
+    /**
+     * Returns the next reserved code of the active {@link EntitySequence} for
+     * <code>entityName</code>, reserving a new block if needed.
+     *
+     * @return <code>null</code> if the block couldn't be reserved because of
+     *         concurrency problems
+     */
+    String nextCode(EntityNameEnum entityName);
+
+    /**
+     * Forgets the reserved codes not handed out yet. It has to be called when
+     * the {@link EntitySequence EntitySequences} are modified.
+     */
+    void discardReservedCodes();
+
+}
@@ -23,7 +23,10 @@ package org.libreplan.business.costcategories.daos;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
 import org.hibernate.Criteria;
@@ -77,6 +80,24 @@ public class CostCategoryDAO extends IntegrationEntityDAO<CostCategory>
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<CostCategory> findByNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return new ArrayList<CostCategory>();
+        }
+
+        Set<String> lowerCaseNames = new HashSet<String>();
+        for (String each : names) {
+            lowerCaseNames.add(each.trim().toLowerCase());
+        }
+
+        return getSession()
+                .createQuery("FROM CostCategory c WHERE lower(c.name) IN (:names)")
+                .setParameterList("names", lowerCaseNames)
+                .list();
+    }
+
     @Override
     public CostCategory findUniqueByCode(String code)
             throws InstanceNotFoundException {
@@ -21,6 +21,7 @@
 
 package org.libreplan.business.costcategories.daos;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
@@ -49,4 +50,9 @@ public interface ICostCategoryDAO extends IIntegrationEntityDAO<CostCategory> {
     CostCategory findUniqueByName(String name)
             throws InstanceNotFoundException;
 
+    /**
+     * It returns the cost categories with any of the names, ignoring case.
+     */
+    List<CostCategory> findByNames(Collection<String> names);
+
 }
@@ -0,0 +1,163 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.costcategories.entities;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.resources.entities.Resource;
+
+/**
+ * Prices per hour of a {@link Resource} indexed by {@link TypeOfWorkHours}
+ * code.<br />
+ *
+ * Each {@link HourCost} of the {@link CostCategory} of a
+ * {@link ResourcesCostCategoryAssignment} is stored as the interval in which
+ * both of them are active. As neither the assignments of a resource nor the
+ * hour costs of the same type in a category can overlap, the intervals of a
+ * type are disjoint and the price at a date is found with a binary search
+ * instead of going through all the assignments and hour costs.
+ *
+ * It answers the same as
+ * {@link org.libreplan.business.costcategories.daos.CostCategoryDAO#getPriceByResourceDateAndHourType(Resource, LocalDate, String)}.
+ */
+public class CostRateIndex {
+
+    public static CostRateIndex forResource(Resource resource) {
+        Map<String, List<Rate>> ratesByType = new HashMap<>();
+
+        for (ResourcesCostCategoryAssignment each : resource.getResourcesCostCategoryAssignments()) {
+            if ( each.getInitDate() == null || each.getCostCategory() == null ) {
+                continue;
+            }
+            for (HourCost hourCost : each.getCostCategory().getHourCosts()) {
+                if ( hourCost.getInitDate() == null || hourCost.getType() == null ) {
+                    continue;
+                }
+                LocalDate start = max(each.getInitDate(), hourCost.getInitDate());
+                LocalDate end = min(each.getEndDate(), hourCost.getEndDate());
+                if ( end != null && end.isBefore(start) ) {
+                    continue;
+                }
+
+                String type = hourCost.getType().getCode();
+                List<Rate> rates = ratesByType.get(type);
+                if ( rates == null ) {
+                    rates = new ArrayList<>();
+                    ratesByType.put(type, rates);
+                }
+                rates.add(new Rate(start, end, hourCost.getPriceCost()));
+            }
+        }
+
+        Map<String, Rate[]> result = new HashMap<>();
+        for (Entry<String, List<Rate>> each : ratesByType.entrySet()) {
+            Collections.sort(each.getValue(), BY_START);
+            result.put(each.getKey(), each.getValue().toArray(new Rate[each.getValue().size()]));
+        }
+
+        return new CostRateIndex(result);
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * <code>null</code> dates are open ends, so they are the greatest ones
+     */
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        if ( a == null ) {
+            return b;
+        }
+        if ( b == null ) {
+            return a;
+        }
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static final Comparator<Rate> BY_START = new Comparator<Rate>() {
+        @Override
+        public int compare(Rate o1, Rate o2) {
+            return o1.start.compareTo(o2.start);
+        }
+    };
+
+    private static class Rate {
+
+        private final LocalDate start;
+
+        private final LocalDate end;
+
+        private final BigDecimal price;
+
+        Rate(LocalDate start, LocalDate end, BigDecimal price) {
+            this.start = start;
+            this.end = end;
+            this.price = price;
+        }
+
+        boolean includes(LocalDate date) {
+            return !date.isBefore(start) && (end == null || !date.isAfter(end));
+        }
+
+    }
+
+    private final Map<String, Rate[]> ratesByType;
+
+    private CostRateIndex(Map<String, Rate[]> ratesByType) {
+        this.ratesByType = ratesByType;
+    }
+
+    /**
+     * @return the price per hour of the given type at the date or
+     *         <code>null</code> if the resource has no price for it
+     */
+    public BigDecimal getPrice(LocalDate date, String typeCode) {
+        Rate[] rates = ratesByType.get(typeCode);
+        if ( rates == null ) {
+            return null;
+        }
+
+        // Last rate starting at the date or before
+        int low = 0;
+        int high = rates.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if ( rates[middle].start.isAfter(date) ) {
+                high = middle - 1;
+            } else {
+                found = middle;
+                low = middle + 1;
+            }
+        }
+
+        return found >= 0 && rates[found].includes(date) ? rates[found].price : null;
+    }
+
+}
@@ -65,6 +65,14 @@ public class ResourcesCostCategoryAssignment extends IntegrationEntity {
         CostCategory costCategory = Registry.getCostCategoryDAO().findUniqueByName(
             StringUtils.trim(costCategoryName));
 
+        return createUnvalidated(code, costCategory, resource, initDate, endDate);
+
+    }
+
+    public static ResourcesCostCategoryAssignment createUnvalidated(
+        String code, CostCategory costCategory, Resource resource,
+        LocalDate initDate, LocalDate endDate) {
+
         /* Create instance of ResourcesCostCategoryAssignment. */
         ResourcesCostCategoryAssignment assignment =
             create(new ResourcesCostCategoryAssignment(), code);
@@ -28,7 +28,8 @@ import org.libreplan.business.planner.entities.TaskElement;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-//import java.util.ArrayList;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -41,6 +42,8 @@ public class EmailNotificationDAO
         extends GenericDAOHibernate<EmailNotification, Long>
         implements IEmailNotificationDAO {
 
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
     @Override
     public List<EmailNotification> getAll() {
         return list(EmailNotification.class);
@@ -109,6 +112,25 @@ public class EmailNotificationDAO
                 .uniqueResult() == null;
     }
 
+    @Override
+    public void deleteAll(Collection<EmailNotification> notifications) {
+        List<Long> ids = new ArrayList<>();
+        for (EmailNotification each : notifications) {
+            ids.add(each.getId());
+        }
+
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_QUERY));
+            getSession()
+                    .createQuery("DELETE FROM EmailNotification WHERE id IN (:ids)")
+                    .setParameterList("ids", chunk)
+                    .executeUpdate();
+        }
+        for (EmailNotification each : notifications) {
+            getSession().evict(each);
+        }
+    }
+
     @Override
     public boolean deleteByProject(TaskElement taskElement) {
         List<EmailNotification> notifications = getAllByProject(taskElement);
@@ -25,6 +25,7 @@ import org.libreplan.business.email.entities.EmailTemplateEnum;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.planner.entities.TaskElement;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -48,6 +49,12 @@ public interface IEmailNotificationDAO extends IGenericDAO<EmailNotification, Lo
 
     boolean deleteById(EmailNotification notification);
 
+    /**
+     * Deletes the notifications with a query per chunk of ids, instead of
+     * checking after each one of them
+     */
+    void deleteAll(Collection<EmailNotification> notifications);
+
     boolean deleteByProject(TaskElement taskElement);
 
     boolean deleteByTask(TaskElement taskElement);
@@ -0,0 +1,255 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Immutable summary of the entities inserted, updated and deleted by one or
+ * several committed transactions. It is handed to the snapshots so they can
+ * patch their previous value instead of recalculating it from scratch.
+ *
+ * @see IDeltaUpdater
+ */
+public class DatabaseModifications {
+
+    private enum Kind {
+        INSERTED, UPDATED, DELETED
+    }
+
+    public static DatabaseModifications empty() {
+        return new DatabaseModifications(
+                Collections.<Kind, Map<Class<?>, Set<Long>>> emptyMap());
+    }
+
+    public static DatabaseModifications inserted(Class<?> entityClass,
+            Serializable id) {
+        return single(Kind.INSERTED, entityClass, id);
+    }
+
+    public static DatabaseModifications updated(Class<?> entityClass,
+            Serializable id) {
+        return single(Kind.UPDATED, entityClass, id);
+    }
+
+    public static DatabaseModifications deleted(Class<?> entityClass,
+            Serializable id) {
+        return single(Kind.DELETED, entityClass, id);
+    }
+
+    private static DatabaseModifications single(Kind kind,
+            Class<?> entityClass, Serializable id) {
+        Builder builder = new Builder();
+        builder.add(kind, entityClass, id);
+        return builder.build();
+    }
+
+    /**
+     * Thread safe accumulator of modifications. It is used to record the
+     * modifications done inside a transaction until it completes.
+     */
+    static class Builder {
+
+        private final Map<Kind, Map<Class<?>, Set<Long>>> ids = new HashMap<>();
+
+        private boolean withUnknownIds = false;
+
+        synchronized void inserted(Class<?> entityClass, Serializable id) {
+            add(Kind.INSERTED, entityClass, id);
+        }
+
+        synchronized void updated(Class<?> entityClass, Serializable id) {
+            add(Kind.UPDATED, entityClass, id);
+        }
+
+        synchronized void deleted(Class<?> entityClass, Serializable id) {
+            add(Kind.DELETED, entityClass, id);
+        }
+
+        private void add(Kind kind, Class<?> entityClass, Serializable id) {
+            Map<Class<?>, Set<Long>> byClass = ids.get(kind);
+            if (byClass == null) {
+                byClass = new HashMap<>();
+                ids.put(kind, byClass);
+            }
+            Set<Long> idsForClass = byClass.get(entityClass);
+            if (idsForClass == null) {
+                idsForClass = new HashSet<>();
+                byClass.put(entityClass, idsForClass);
+            }
+            if (id instanceof Long) {
+                idsForClass.add((Long) id);
+            } else {
+                withUnknownIds = true;
+            }
+        }
+
+        synchronized DatabaseModifications build() {
+            Map<Kind, Map<Class<?>, Set<Long>>> copy = new HashMap<>();
+            for (Entry<Kind, Map<Class<?>, Set<Long>>> each : ids.entrySet()) {
+                Map<Class<?>, Set<Long>> byClass = new HashMap<>();
+                for (Entry<Class<?>, Set<Long>> eachClass : each.getValue()
+                        .entrySet()) {
+                    byClass.put(eachClass.getKey(), Collections
+                            .unmodifiableSet(new HashSet<>(eachClass
+                                    .getValue())));
+                }
+                copy.put(each.getKey(), Collections.unmodifiableMap(byClass));
+            }
+            DatabaseModifications result = new DatabaseModifications(
+                    Collections.unmodifiableMap(copy));
+            result.withUnknownIds = withUnknownIds;
+            return result;
+        }
+    }
+
+    private final Map<Kind, Map<Class<?>, Set<Long>>> ids;
+
+    private boolean withUnknownIds = false;
+
+    private DatabaseModifications(Map<Kind, Map<Class<?>, Set<Long>>> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * @return <code>true</code> if some of the modified entities had an
+     *         identifier that could not be recorded. In that case the
+     *         modifications are not reliable enough to apply a delta.
+     */
+    public boolean hasUnknownIds() {
+        return withUnknownIds;
+    }
+
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
+    public Set<Class<?>> getModifiedClasses() {
+        Set<Class<?>> result = new HashSet<>();
+        for (Map<Class<?>, Set<Long>> each : ids.values()) {
+            result.addAll(each.keySet());
+        }
+        return result;
+    }
+
+    /**
+     * @return <code>true</code> if some entity of any of the provided classes
+     *         or their subclasses has been modified
+     */
+    public boolean anyModificationOn(Class<?>... klasses) {
+        for (Class<?> each : getModifiedClasses()) {
+            for (Class<?> klass : klasses) {
+                if (klass.isAssignableFrom(each)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public Set<Long> getInsertedIds(Class<?> klass) {
+        return idsFor(Kind.INSERTED, klass);
+    }
+
+    public Set<Long> getUpdatedIds(Class<?> klass) {
+        return idsFor(Kind.UPDATED, klass);
+    }
+
+    public Set<Long> getDeletedIds(Class<?> klass) {
+        return idsFor(Kind.DELETED, klass);
+    }
+
+    /**
+     * @return the identifiers of the inserted and updated entities of
+     *         <code>klass</code> or its subclasses that still exist
+     */
+    public Set<Long> getInsertedOrUpdatedIds(Class<?> klass) {
+        Set<Long> result = new HashSet<>(getInsertedIds(klass));
+        result.addAll(getUpdatedIds(klass));
+        result.removeAll(getDeletedIds(klass));
+        return result;
+    }
+
+    /**
+     * @return the identifiers of the entities of <code>klass</code> or its
+     *         subclasses that have been modified in any way
+     */
+    public Set<Long> getAllIds(Class<?> klass) {
+        Set<Long> result = new HashSet<>(getInsertedIds(klass));
+        result.addAll(getUpdatedIds(klass));
+        result.addAll(getDeletedIds(klass));
+        return result;
+    }
+
+    private Set<Long> idsFor(Kind kind, Class<?> klass) {
+        Map<Class<?>, Set<Long>> byClass = ids.get(kind);
+        if (byClass == null) {
+            return Collections.emptySet();
+        }
+        Set<Long> result = new HashSet<>();
+        for (Entry<Class<?>, Set<Long>> each : byClass.entrySet()) {
+            if (klass.isAssignableFrom(each.getKey())) {
+                result.addAll(each.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Combines these modifications with the ones happened afterwards.
+     */
+    public DatabaseModifications then(DatabaseModifications next) {
+        Builder builder = new Builder();
+        addAllTo(builder);
+        next.addAllTo(builder);
+        DatabaseModifications result = builder.build();
+        result.withUnknownIds = withUnknownIds || next.withUnknownIds;
+        return result;
+    }
+
+    private void addAllTo(Builder builder) {
+        for (Entry<Kind, Map<Class<?>, Set<Long>>> each : ids.entrySet()) {
+            for (Entry<Class<?>, Set<Long>> eachClass : each.getValue()
+                    .entrySet()) {
+                addAll(builder, each.getKey(), eachClass.getKey(),
+                        eachClass.getValue());
+            }
+        }
+    }
+
+    private static void addAll(Builder builder, Kind kind,
+            Class<?> entityClass, Collection<Long> ids) {
+        for (Long each : ids) {
+            builder.add(kind, entityClass, each);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ids.toString();
+    }
+
+}
@@ -20,6 +20,7 @@
  */
 package org.libreplan.business.hibernate.notification;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -97,15 +98,16 @@ public class HibernateDatabaseModificationsListener implements
     private final class Dispatcher implements Synchronization {
 
         private BlockingQueue<Class<?>> classes = new LinkedBlockingQueue<>();
+        private final DatabaseModifications.Builder modifications = new DatabaseModifications.Builder();
         private final Transaction transaction;
 
-        public Dispatcher(Transaction transaction, Class<?> entityClass) {
-            classes.offer(entityClass);
+        public Dispatcher(Transaction transaction) {
             this.transaction = transaction;
         }
 
-        public void add(Class<?> entityClass) {
+        public void add(Class<?> entityClass, Modification modification, Serializable id) {
             classes.offer(entityClass);
+            modification.record(modifications, entityClass, id);
         }
 
         @Override
@@ -126,7 +128,7 @@ public class HibernateDatabaseModificationsListener implements
                 LOG.debug(
                         "dispatching " + toDispatch + " snapshots to reload due to transaction successful completion");
 
-                dispatch(toDispatch);
+                dispatch(toDispatch, modifications.build());
             }
         }
 
@@ -136,6 +138,29 @@ public class HibernateDatabaseModificationsListener implements
 
     }
 
+    private enum Modification {
+        INSERT {
+            @Override
+            void record(DatabaseModifications.Builder builder, Class<?> entityClass, Serializable id) {
+                builder.inserted(entityClass, id);
+            }
+        },
+        UPDATE {
+            @Override
+            void record(DatabaseModifications.Builder builder, Class<?> entityClass, Serializable id) {
+                builder.updated(entityClass, id);
+            }
+        },
+        DELETE {
+            @Override
+            void record(DatabaseModifications.Builder builder, Class<?> entityClass, Serializable id) {
+                builder.deleted(entityClass, id);
+            }
+        };
+
+        abstract void record(DatabaseModifications.Builder builder, Class<?> entityClass, Serializable id);
+    }
+
     @Autowired
     private SessionFactory sessionFactory;
 
@@ -164,17 +189,20 @@ public class HibernateDatabaseModificationsListener implements
 
     @Override
     public void onPostDelete(PostDeleteEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        modificationOn(
+                inferTransaction(event), inferEntityClass(getEntityObject(event)), Modification.DELETE, event.getId());
     }
 
     @Override
     public void onPostUpdate(PostUpdateEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        modificationOn(
+                inferTransaction(event), inferEntityClass(getEntityObject(event)), Modification.UPDATE, event.getId());
     }
 
     @Override
     public void onPostInsert(PostInsertEvent event) {
-        modificationOn(inferTransaction(event), inferEntityClass(getEntityObject(event)));
+        modificationOn(
+                inferTransaction(event), inferEntityClass(getEntityObject(event)), Modification.INSERT, event.getId());
     }
 
 
@@ -204,41 +232,48 @@ public class HibernateDatabaseModificationsListener implements
         return entity.getClass();
     }
 
-    void modificationOn(Transaction transaction, Class<?> entityClass) {
+    void modificationOn(Transaction transaction, Class<?> entityClass, Modification modification, Serializable id) {
         if ( transaction == null ) {
-            dispatch(snapshotsInterestedOn(entityClass));
+            DatabaseModifications.Builder modifications = new DatabaseModifications.Builder();
+            modification.record(modifications, entityClass, id);
+            dispatch(snapshotsInterestedOn(entityClass), modifications.build());
 
             return;
         }
-        Dispatcher newDispatcher = new Dispatcher(transaction, entityClass);
+        Dispatcher newDispatcher = new Dispatcher(transaction);
         Dispatcher previous;
         previous = pending.putIfAbsent(transaction, newDispatcher);
 
         boolean dispatcherAlreadyExisted = previous != null;
         if ( dispatcherAlreadyExisted ) {
-            previous.add(entityClass);
+            previous.add(entityClass, modification, id);
         } else {
+            newDispatcher.add(entityClass, modification, id);
             transaction.registerSynchronization(newDispatcher);
         }
     }
 
-    private void dispatch(Set<NotBlockingAutoUpdatedSnapshot<?>> toBeDispatched) {
-        toBeDispatched.forEach(this::dispatch);
+    private void dispatch(Set<NotBlockingAutoUpdatedSnapshot<?>> toBeDispatched, DatabaseModifications modifications) {
+        for (NotBlockingAutoUpdatedSnapshot<?> each : toBeDispatched) {
+            each.reloadNeeded(executor, modifications);
+        }
     }
 
-    private void dispatch(NotBlockingAutoUpdatedSnapshot<?> each) {
-        each.reloadNeeded(executor);
+    @Override
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn) {
+        return takeSnapshot(name, callable, null, reloadOn);
     }
 
     @Override
-    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn) {
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, IDeltaUpdater<T> deltaUpdater,
+                                                    ReloadOn reloadOn) {
         if ( !hibernateListenersRegistered ) {
             throw new IllegalStateException(
                     "The hibernate listeners has not been registered. There is some configuration problem.");
         }
 
         final NotBlockingAutoUpdatedSnapshot<T> result;
-        result = new NotBlockingAutoUpdatedSnapshot<>(name, callable);
+        result = new NotBlockingAutoUpdatedSnapshot<>(name, callable, deltaUpdater);
 
         for (Class<?> each : reloadOn.getClassesOnWhichToReload()) {
             interested.putIfAbsent(each, emptyQueue());
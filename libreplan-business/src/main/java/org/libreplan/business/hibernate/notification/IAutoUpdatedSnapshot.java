@@ -27,4 +27,11 @@ package org.libreplan.business.hibernate.notification;
 public interface IAutoUpdatedSnapshot<T> {
 
     T getValue();
+
+    /**
+     * Unlike {@link #getValue()} it waits for the ongoing reload, if any, so
+     * the value returned takes into account all the modifications committed
+     * until now.
+     */
+    T getLatestValue();
 }
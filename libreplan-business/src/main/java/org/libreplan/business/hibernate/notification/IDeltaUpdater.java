@@ -0,0 +1,40 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+/**
+ * Calculates the new value of a snapshot from its previous value and the
+ * {@link DatabaseModifications} done since then.
+ *
+ * @param <T>
+ *            the type of the snapshot value
+ */
+public interface IDeltaUpdater<T> {
+
+    /**
+     * The previous value can be being read concurrently, so it must not be
+     * modified. A new value must be returned instead.
+     *
+     * @return the new value or <code>null</code> if the delta cannot be
+     *         applied. In that case the value is recalculated from scratch.
+     */
+    T applyDelta(T previousValue, DatabaseModifications modifications)
+            throws Exception;
+
+}
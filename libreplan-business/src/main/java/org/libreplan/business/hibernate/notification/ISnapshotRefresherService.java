@@ -30,4 +30,13 @@ public interface ISnapshotRefresherService {
 
     public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn);
 
+    /**
+     * Like {@link #takeSnapshot(String, Callable, ReloadOn)} but the
+     * <code>deltaUpdater</code> is used to patch the previous value with the
+     * modifications done, recalculating with <code>callable</code> only when
+     * the delta cannot be applied.
+     */
+    public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, IDeltaUpdater<T> deltaUpdater,
+                                                    ReloadOn reloadOn);
+
 }
@@ -23,6 +23,7 @@ package org.libreplan.business.hibernate.notification;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang3.Validate;
@@ -40,6 +41,8 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
 
     private final Callable<T> callable;
 
+    private final IDeltaUpdater<T> deltaUpdater;
+
     private final AtomicReference<State> currentState;
 
     private final String name;
@@ -49,6 +52,13 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
     private abstract class State {
         abstract T getValue();
 
+        /**
+         * Unlike {@link #getValue()} it waits for the ongoing calculation, if
+         * any, so the value returned reflects all the reloads requested
+         * until now.
+         */
+        abstract T getLatestValue() throws Exception;
+
         void cancel() {
         }
 
@@ -68,6 +78,11 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        T getLatestValue() {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         State nextState(Future<T> future) {
             return new FirstCalculation(future);
@@ -91,6 +106,11 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         T getValue() {
             return value;
         }
+
+        @Override
+        T getLatestValue() {
+            return value;
+        }
     }
 
     private class PreviousValueAndOngoingCalculation extends State {
@@ -120,6 +140,11 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
             return previousValue.getValue();
         }
 
+        @Override
+        T getLatestValue() throws Exception {
+            return ongoingCalculation.get();
+        }
+
         private T getValueFromFuture() {
             try {
                 return ongoingCalculation.get();
@@ -160,6 +185,11 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
             }
         }
 
+        @Override
+        T getLatestValue() throws Exception {
+            return ongoingCalculation.get();
+        }
+
         @Override
         void cancel() {
             ongoingCalculation.cancel(true);
@@ -168,10 +198,21 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
     }
 
     public NotBlockingAutoUpdatedSnapshot(String name, Callable<T> callable) {
+        this(name, callable, null);
+    }
+
+    /**
+     * @param deltaUpdater
+     *            it can be <code>null</code>. In that case the value is
+     *            always recalculated from scratch.
+     */
+    public NotBlockingAutoUpdatedSnapshot(String name, Callable<T> callable,
+            IDeltaUpdater<T> deltaUpdater) {
         Validate.notNull(callable);
         Validate.notNull(name);
         this.name = "*" + name + "*";
         this.callable = callable;
+        this.deltaUpdater = deltaUpdater;
         this.currentState = new AtomicReference<State>(new NotLaunchState());
         this.executionsReport = new ExecutionsReport();
     }
@@ -181,6 +222,17 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         return currentState.get().getValue();
     }
 
+    @Override
+    public T getLatestValue() {
+        try {
+            return currentState.get().getLatestValue();
+        } catch (Exception e) {
+            LOG.error("error creating new value for " + name
+                    + ", returning the current one", e);
+            return getValue();
+        }
+    }
+
     public void reloadNeeded(ExecutorService executorService) {
         Future<T> future = executorService
                 .submit(callableDecoratedWithStatistics());
@@ -196,6 +248,87 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         previousState.cancel();
     }
 
+    /**
+     * Like {@link #reloadNeeded(ExecutorService)} but, if this snapshot has a
+     * {@link IDeltaUpdater}, the new value is calculated applying the
+     * modifications to the latest value. The ongoing calculation, if any, is
+     * not cancelled since the delta is applied on top of its result. If the
+     * latest value cannot be retrieved or the delta cannot be applied, the
+     * value is recalculated from scratch.
+     */
+    public void reloadNeeded(ExecutorService executorService,
+            DatabaseModifications modifications) {
+        if (deltaUpdater == null || modifications.hasUnknownIds()) {
+            reloadNeeded(executorService);
+            return;
+        }
+        State previousState;
+        State newState;
+        FutureTask<T> task;
+        do {
+            previousState = currentState.get();
+            if (!previousState.hasBeenInitialized()) {
+                reloadNeeded(executorService);
+                return;
+            }
+            task = new FutureTask<T>(
+                    callableDecoratedWithStatistics(applyingDelta(
+                            previousState, modifications)));
+            newState = previousState.nextState(task);
+        } while (!currentState.compareAndSet(previousState, newState));
+        executorService.execute(runAndCompact(task, newState));
+    }
+
+    /**
+     * Once the task is done, the state it was launched for is replaced by a
+     * state without references to the previous ones, so the values they hold
+     * can be garbage collected.
+     */
+    private Runnable runAndCompact(final FutureTask<T> task,
+            final State launchedState) {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                task.run();
+                if (task.isCancelled()) {
+                    return;
+                }
+                try {
+                    currentState.compareAndSet(launchedState,
+                            new NoOngoingCalculation(task.get()));
+                } catch (Exception e) {
+                    LOG.debug(name + " the delta calculation failed", e);
+                }
+            }
+        };
+    }
+
+    private Callable<T> applyingDelta(final State base,
+            final DatabaseModifications modifications) {
+        return new Callable<T>() {
+
+            @Override
+            public T call() throws Exception {
+                T baseValue;
+                try {
+                    baseValue = base.getLatestValue();
+                } catch (Exception e) {
+                    LOG.debug(name + " previous value not available, "
+                            + "recalculating from scratch");
+                    return callable.call();
+                }
+                T result = deltaUpdater.applyDelta(baseValue, modifications);
+                if (result == null) {
+                    LOG.debug(name + " delta cannot be applied, "
+                            + "recalculating from scratch");
+                    return callable.call();
+                }
+                return result;
+            }
+        };
+    }
+
     public void ensureFirstLoad(ExecutorService executorService) {
         if (hasBeenInitialized()) {
             return;
@@ -220,6 +353,11 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
     }
 
     private Callable<T> callableDecoratedWithStatistics() {
+        return callableDecoratedWithStatistics(callable);
+    }
+
+    private Callable<T> callableDecoratedWithStatistics(
+            final Callable<T> callable) {
         final long requestTime = System.currentTimeMillis();
         return new Callable<T>() {
 
@@ -20,19 +20,19 @@
  */
 package org.libreplan.business.hibernate.notification;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.joda.time.LocalDate;
 import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
 import org.libreplan.business.calendars.entities.CalendarAvailability;
 import org.libreplan.business.calendars.entities.CalendarData;
@@ -48,16 +48,24 @@ import org.libreplan.business.labels.daos.ILabelTypeDAO;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.labels.entities.LabelType;
 import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.IOrderElementDAO;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderLineGroup;
 import org.libreplan.business.planner.chart.ResourceLoadChartData;
 import org.libreplan.business.planner.daos.IDayAssignmentDAO;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DerivedDayAssignment;
+import org.libreplan.business.planner.entities.GenericDayAssignment;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
 import org.libreplan.business.planner.entities.ICostCalculator;
 import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
 import org.libreplan.business.planner.entities.SpecificResourceAllocation;
 import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.TaskCosts;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.planner.entities.TaskGroup;
 import org.libreplan.business.resources.daos.ICriterionDAO;
@@ -65,14 +73,17 @@ import org.libreplan.business.resources.daos.ICriterionTypeDAO;
 import org.libreplan.business.resources.daos.IResourceDAO;
 import org.libreplan.business.resources.daos.IWorkerDAO;
 import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.CriterionSatisfaction;
 import org.libreplan.business.resources.entities.CriterionType;
 import org.libreplan.business.resources.entities.Machine;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.VirtualWorker;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.util.SearchIndex;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
 import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.valueobjects.WorkReportLineEffort;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -121,6 +132,9 @@ public class PredefinedDatabaseSnapshots {
     @Autowired
     private IOrderDAO orderDAO;
 
+    @Autowired
+    private IOrderElementDAO orderElementDAO;
+
     @Autowired
     private IDayAssignmentDAO dayAssignmentDAO;
 
@@ -156,11 +170,21 @@ public class PredefinedDatabaseSnapshots {
 
     private IAutoUpdatedSnapshot<ResourceLoadChartData> resourceLoadChartData;
 
-    private IAutoUpdatedSnapshot<List<WorkReportLine>> workReportLines;
+    private IAutoUpdatedSnapshot<List<WorkReportLineEffort>> workReportLines;
+
+    private IAutoUpdatedSnapshot<Map<TaskElement, TaskCosts>> costsPerTask;
+
+    private IAutoUpdatedSnapshot<SearchIndex> orderElementsSearchIndex;
+
+    private IAutoUpdatedSnapshot<SearchIndex> ordersSearchIndex;
+
+    private IAutoUpdatedSnapshot<SearchIndex> labelsSearchIndex;
+
+    private IAutoUpdatedSnapshot<SearchIndex> resourcesSearchIndex;
 
-    private IAutoUpdatedSnapshot<Map<TaskElement,SortedMap<LocalDate, BigDecimal>>> estimatedCostPerTask;
+    private final AtomicLong resourceLoadModifications = new AtomicLong();
 
-    private IAutoUpdatedSnapshot<Map<TaskElement,SortedMap<LocalDate, BigDecimal>>> advanceCostPerTask;
+    private IAutoUpdatedSnapshot<Long> resourceLoadVersion;
 
     private boolean snapshotsRegistered = false;
 
@@ -204,16 +228,50 @@ public class PredefinedDatabaseSnapshots {
         return resourceLoadChartData.getValue();
     }
 
-    public List<WorkReportLine> snapshotWorkReportLines() {
+    public List<WorkReportLineEffort> snapshotWorkReportLines() {
         return workReportLines.getValue();
     }
 
-    public Map<TaskElement,SortedMap<LocalDate, BigDecimal>> snapshotEstimatedCostPerTask() {
-        return estimatedCostPerTask.getValue();
+    public Map<TaskElement, TaskCosts> snapshotCostsPerTask() {
+        return costsPerTask.getValue();
+    }
+
+    /**
+     * Order elements by code, name and code and name of their order
+     */
+    public SearchIndex snapshotOrderElementsSearchIndex() {
+        return orderElementsSearchIndex.getValue();
+    }
+
+    /**
+     * Orders by code and name
+     */
+    public SearchIndex snapshotOrdersSearchIndex() {
+        return ordersSearchIndex.getValue();
+    }
+
+    /**
+     * Labels by name of their type and name
+     */
+    public SearchIndex snapshotLabelsSearchIndex() {
+        return labelsSearchIndex.getValue();
     }
 
-    public Map<TaskElement,SortedMap<LocalDate, BigDecimal>> snapshotAdvanceCostPerTask() {
-        return advanceCostPerTask.getValue();
+    /**
+     * Resources by short description
+     */
+    public SearchIndex snapshotResourcesSearchIndex() {
+        return resourcesSearchIndex.getValue();
+    }
+
+    /**
+     * Number that changes each time the data shown in the resource load view
+     * is modified, so the time lines built can be kept while it's the same.
+     * It waits for the ongoing reload, if any, so a modification that has
+     * just been committed always gives a new version.
+     */
+    public Long snapshotResourceLoadVersion() {
+        return resourceLoadVersion.getLatestValue();
     }
 
     public void registerSnapshots() {
@@ -244,31 +302,75 @@ public class PredefinedDatabaseSnapshots {
         resourceLoadChartData = snapshot(
                 "resource load grouped by date",
                 calculateResourceLoadChartData(),
+                updateResourceLoadChartData(),
                 CalendarAvailability.class,
                 CalendarException.class,
                 CalendarData.class,
                 TaskElement.class,
                 SpecificResourceAllocation.class,
                 GenericResourceAllocation.class,
-                ResourceAllocation.class);
+                ResourceAllocation.class,
+                SpecificDayAssignment.class,
+                GenericDayAssignment.class,
+                DerivedDayAssignment.class);
 
-        workReportLines = snapshot("work report lines", calculateWorkReportLines(), WorkReportLine.class);
+        workReportLines = snapshot(
+                "work report lines", calculateWorkReportLines(), updateWorkReportLines(), WorkReportLine.class);
 
-        estimatedCostPerTask = snapshot(
-                "estimated cost per task",
-                calculateEstimatedCostPerTask(),
+        costsPerTask = snapshot(
+                "costs per task",
+                calculateCostsPerTask(),
                 TaskElement.class,
                 Task.class,
                 TaskGroup.class,
-                DayAssignment.class);
+                DayAssignment.class,
+                DirectAdvanceAssignment.class);
+
+        orderElementsSearchIndex = snapshot(
+                "order elements search index",
+                calculateOrderElementsSearchIndex(),
+                updateOrderElementsSearchIndex(),
+                OrderElement.class,
+                OrderLineGroup.class,
+                Order.class,
+                OrderLine.class);
+
+        ordersSearchIndex = snapshot(
+                "orders search index", calculateOrdersSearchIndex(), updateOrdersSearchIndex(), Order.class);
+
+        labelsSearchIndex = snapshot(
+                "labels search index", calculateLabelsSearchIndex(), LabelType.class, Label.class);
 
-        advanceCostPerTask = snapshot(
-                "advance cost per task",
-                calculateAdvanceCostPerTask(),
+        resourcesSearchIndex = snapshot(
+                "resources search index",
+                calculateResourcesSearchIndex(),
+                Resource.class,
+                Worker.class,
+                Machine.class,
+                VirtualWorker.class);
+
+        resourceLoadVersion = snapshot(
+                "resource load version",
+                calculateResourceLoadVersion(),
+                CalendarAvailability.class,
+                CalendarException.class,
+                CalendarData.class,
                 TaskElement.class,
                 Task.class,
                 TaskGroup.class,
-                DirectAdvanceAssignment.class);
+                Order.class,
+                SpecificResourceAllocation.class,
+                GenericResourceAllocation.class,
+                ResourceAllocation.class,
+                SpecificDayAssignment.class,
+                GenericDayAssignment.class,
+                DerivedDayAssignment.class,
+                Resource.class,
+                Worker.class,
+                Machine.class,
+                VirtualWorker.class,
+                Criterion.class,
+                CriterionSatisfaction.class);
     }
 
     private <T> IAutoUpdatedSnapshot<T> snapshot(String name, Callable<T> callable, Class<?>... reloadOnChangesOf) {
@@ -276,11 +378,27 @@ public class PredefinedDatabaseSnapshots {
                 .takeSnapshot(name, callableOnReadOnlyTransaction(callable), ReloadOn.onChangeOf(reloadOnChangesOf));
     }
 
+    private <T> IAutoUpdatedSnapshot<T> snapshot(String name,
+                                                 Callable<T> callable,
+                                                 IDeltaUpdater<T> deltaUpdater,
+                                                 Class<?>... reloadOnChangesOf) {
+        return snapshotRefresherService.takeSnapshot(
+                name,
+                callableOnReadOnlyTransaction(callable),
+                deltaUpdaterOnReadOnlyTransaction(deltaUpdater),
+                ReloadOn.onChangeOf(reloadOnChangesOf));
+    }
+
     @SuppressWarnings("unchecked")
     private <T> Callable<T> callableOnReadOnlyTransaction(Callable<T> callable) {
         return AdHocTransactionService.readOnlyProxy(transactionService, Callable.class, callable);
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> IDeltaUpdater<T> deltaUpdaterOnReadOnlyTransaction(IDeltaUpdater<T> deltaUpdater) {
+        return AdHocTransactionService.readOnlyProxy(transactionService, IDeltaUpdater.class, deltaUpdater);
+    }
+
     private Callable<SortedMap<CriterionType, List<Criterion>>> calculateCriterionsMap() {
         return () -> {
             SortedMap<CriterionType, List<Criterion>> result = new TreeMap<>(getComparatorByName());
@@ -364,41 +482,214 @@ public class PredefinedDatabaseSnapshots {
         return () -> {
             List<DayAssignment> dayAssignments = dayAssignmentDAO.getAllFor(scenarioManager.getCurrent(), null, null);
             List<Resource> resources = resourceDAO.list(Resource.class);
-            return new ResourceLoadChartData(dayAssignments, resources);
+            return ResourceLoadChartData.incremental(dayAssignments, resources);
 
         };
     }
 
-    private Callable<List<WorkReportLine>> calculateWorkReportLines() {
-        return () -> workReportLineDAO.list(WorkReportLine.class);
+    /**
+     * Only the resources owning the modified day assignments are recalculated.
+     * The rest of resources are only loaded if the availability of new days is
+     * needed. Changes on calendars can affect any resource, so they imply a
+     * full reload.
+     */
+    private IDeltaUpdater<ResourceLoadChartData> updateResourceLoadChartData() {
+        return (previous, modifications) -> {
+            if ( !previous.isIncremental() ||
+                    modifications.anyModificationOn(
+                            CalendarAvailability.class, CalendarException.class, CalendarData.class) ) {
+                return null;
+            }
+
+            Set<Long> affected =
+                    previous.resourcesOfDayAssignments(modifications.getAllIds(DayAssignment.class));
+
+            for (DayAssignment each : dayAssignmentDAO.listByIds(
+                    DayAssignment.class, modifications.getInsertedOrUpdatedIds(DayAssignment.class))) {
+                affected.add(each.getResource().getId());
+            }
+
+            if ( affected.isEmpty() ) {
+                return previous;
+            }
+
+            List<Resource> resources = resourceDAO.listByIds(Resource.class, affected);
+            if ( resources.size() != affected.size() ) {
+                return null;
+            }
+
+            return previous.withResourcesRecalculated(
+                    resources,
+                    dayAssignmentDAO.findByResources(scenarioManager.getCurrent(), resources),
+                    () -> resourceDAO.list(Resource.class));
+        };
     }
 
+    private Callable<List<WorkReportLineEffort>> calculateWorkReportLines() {
+        return () -> workReportLineDAO.getEfforts();
+    }
 
+    /**
+     * The lines are kept ordered by id, as {@link #calculateWorkReportLines()}
+     * returns them. The updated lines keep their position, the deleted ones
+     * are dropped and the inserted ones are merged in by id.
+     */
+    private IDeltaUpdater<List<WorkReportLineEffort>> updateWorkReportLines() {
+        return (previous, modifications) -> {
+            Set<Long> modified = modifications.getAllIds(WorkReportLine.class);
+            if ( modified.isEmpty() ) {
+                return previous;
+            }
 
-    private Callable<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> calculateEstimatedCostPerTask() {
-        return () -> {
-            Map<TaskElement, SortedMap<LocalDate, BigDecimal>> map = new HashMap<>();
+            Map<Long, WorkReportLineEffort> reloaded = new HashMap<>();
+            for (WorkReportLineEffort each : workReportLineDAO.getEffortsByIds(modified)) {
+                reloaded.put(each.getId(), each);
+            }
 
-            taskElementDAO.
-                    list(TaskElement.class)
-                    .stream()
-                    .filter(task -> task instanceof Task)
-                    .forEach(task -> map.put(task, hoursCostCalculator.getEstimatedCost((Task) task)));
+            List<WorkReportLineEffort> kept = new ArrayList<>(previous.size());
+            for (WorkReportLineEffort each : previous) {
+                if ( !modified.contains(each.getId()) ) {
+                    kept.add(each);
+                } else if ( reloaded.containsKey(each.getId()) ) {
+                    kept.add(reloaded.remove(each.getId()));
+                }
+            }
 
-            return map;
+            List<WorkReportLineEffort> inserted = new ArrayList<>(reloaded.values());
+            inserted.sort(Comparator.comparing(WorkReportLineEffort::getId));
+
+            return mergedById(kept, inserted);
         };
     }
 
-    private Callable<Map<TaskElement, SortedMap<LocalDate, BigDecimal>>> calculateAdvanceCostPerTask() {
+    private static List<WorkReportLineEffort> mergedById(
+            List<WorkReportLineEffort> a, List<WorkReportLineEffort> b) {
+
+        List<WorkReportLineEffort> result = new ArrayList<>(a.size() + b.size());
+        int i = 0;
+        int j = 0;
+        while (i < a.size() || j < b.size()) {
+            if ( j == b.size() || (i < a.size() && a.get(i).getId() < b.get(j).getId()) ) {
+                result.add(a.get(i++));
+            } else {
+                result.add(b.get(j++));
+            }
+        }
+
+        return result;
+    }
+
+    private Callable<Map<TaskElement, TaskCosts>> calculateCostsPerTask() {
         return () -> {
-            Map<TaskElement, SortedMap<LocalDate, BigDecimal>> map = new HashMap<>();
+            Map<TaskElement, TaskCosts> map = new HashMap<>();
             for (TaskElement task : taskElementDAO.list(TaskElement.class)) {
                 if ( task instanceof Task ) {
-                    map.put(task, hoursCostCalculator.getAdvanceCost((Task)task));
+                    map.put(task, hoursCostCalculator.getCosts((Task) task));
                 }
             }
             return map;
         };
     }
 
+    private Callable<SearchIndex> calculateOrderElementsSearchIndex() {
+        return () -> {
+            List<Object[]> rows = orderElementDAO.getIdsParentsCodesAndNames();
+            Map<Long, Object[]> rowsById = new HashMap<>();
+            for (Object[] each : rows) {
+                rowsById.put((Long) each[0], each);
+            }
+
+            SearchIndex.Builder result = SearchIndex.builder();
+            for (Object[] each : rows) {
+                Object[] order = each;
+                while ( order[1] != null && rowsById.containsKey(order[1]) ) {
+                    order = rowsById.get(order[1]);
+                }
+                result.add((Long) each[0], (String) each[2], (String) each[3], (String) order[2], (String) order[3]);
+            }
+            return result.build();
+        };
+    }
+
+    /**
+     * The modified order elements are indexed again. If the code or the name
+     * of an order changes, all its order elements are indexed again too.
+     */
+    private IDeltaUpdater<SearchIndex> updateOrderElementsSearchIndex() {
+        return (previous, modifications) -> {
+            SearchIndex.Builder changes = SearchIndex.builder();
+
+            for (OrderElement each : orderElementDAO.listByIds(
+                    OrderElement.class, modifications.getInsertedOrUpdatedIds(OrderElement.class))) {
+
+                boolean orderChanged =
+                        each instanceof Order && !previous.hasSameFields(each.getId(), searchFieldsOf(each));
+                changes.add(each.getId(), searchFieldsOf(each));
+
+                if ( orderChanged ) {
+                    for (OrderElement child : each.getAllChildren()) {
+                        changes.add(child.getId(), searchFieldsOf(child));
+                    }
+                }
+            }
+
+            return previous.withChanges(changes, modifications.getDeletedIds(OrderElement.class));
+        };
+    }
+
+    private static String[] searchFieldsOf(OrderElement orderElement) {
+        Order order = orderElement.getOrder();
+        return new String[] {
+                orderElement.getCode(),
+                orderElement.getName(),
+                order != null ? order.getCode() : null,
+                order != null ? order.getName() : null };
+    }
+
+    private Callable<SearchIndex> calculateOrdersSearchIndex() {
+        return () -> {
+            SearchIndex.Builder result = SearchIndex.builder();
+            for (Object[] each : orderElementDAO.getIdsParentsCodesAndNames()) {
+                if ( each[1] == null ) {
+                    result.add((Long) each[0], (String) each[2], (String) each[3]);
+                }
+            }
+            return result.build();
+        };
+    }
+
+    private IDeltaUpdater<SearchIndex> updateOrdersSearchIndex() {
+        return (previous, modifications) -> {
+            SearchIndex.Builder changes = SearchIndex.builder();
+            for (Order each : orderDAO.listByIds(Order.class, modifications.getInsertedOrUpdatedIds(Order.class))) {
+                changes.add(each.getId(), each.getCode(), each.getName());
+            }
+            return previous.withChanges(changes, modifications.getDeletedIds(Order.class));
+        };
+    }
+
+    private Callable<SearchIndex> calculateLabelsSearchIndex() {
+        return () -> {
+            SearchIndex.Builder result = SearchIndex.builder();
+            for (Label each : labelDAO.getAll()) {
+                result.add(each.getId(), each.getType().getName(), each.getName());
+            }
+            return result.build();
+        };
+    }
+
+    private Callable<SearchIndex> calculateResourcesSearchIndex() {
+        return () -> {
+            SearchIndex.Builder result = SearchIndex.builder();
+            for (Resource each : resourceDAO.findAll()) {
+                result.add(each.getId(), each.getShortDescription());
+            }
+            return result.build();
+        };
+    }
+
+    private Callable<Long> calculateResourceLoadVersion() {
+        return resourceLoadModifications::incrementAndGet;
+    }
+
 }
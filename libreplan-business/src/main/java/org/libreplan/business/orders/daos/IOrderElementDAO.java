@@ -89,6 +89,12 @@ public interface IOrderElementDAO extends IIntegrationEntityDAO<OrderElement> {
 
     List<OrderElement> getAll();
 
+    /**
+     * Returns the id, the id of the parent, the code and the name of all the
+     * {@link OrderElement OrderElements} sorted by code, without loading them
+     */
+    List<Object[]> getIdsParentsCodesAndNames();
+
     public List<OrderElement> findOrderElementsWithExternalCode();
 
     List<OrderElement> findByTemplate(OrderElementTemplate template);
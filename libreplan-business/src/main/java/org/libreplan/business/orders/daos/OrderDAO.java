@@ -24,7 +24,9 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
@@ -35,8 +37,8 @@ import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
-import org.libreplan.business.costcategories.daos.CostCategoryDAO;
 import org.libreplan.business.costcategories.daos.ITypeOfWorkHoursDAO;
+import org.libreplan.business.costcategories.entities.CostRateIndex;
 import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
 import org.libreplan.business.externalcompanies.entities.ExternalCompany;
 import org.libreplan.business.labels.entities.Label;
@@ -165,9 +167,19 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
         List<OrderCostsPerResourceDTO> list = query.list();
 
         List<OrderCostsPerResourceDTO> filteredList = new ArrayList<>();
+
+        /* Lines of the same order element share the order and lines of the same worker its prices */
+        Map<OrderElement, Order> orderByElement = new HashMap<>();
+        Map<Long, CostRateIndex> ratesByWorker = new HashMap<>();
+        Map<String, BigDecimal> defaultPriceByType = null;
+
         for (OrderCostsPerResourceDTO each : list) {
 
-            Order order = loadOrderAvoidingProxyFor(each.getOrderElement());
+            Order order = orderByElement.get(each.getOrderElement());
+            if (order == null) {
+                order = loadOrderAvoidingProxyFor(each.getOrderElement());
+                orderByElement.put(each.getOrderElement(), order);
+            }
 
             // Apply filtering
             if (matchFilterCriterion(each.getOrderElement(), criterions) && isOrderContained(order, orders)) {
@@ -177,15 +189,18 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
                 each.setOrderCode(order.getCode());
 
                 // Attach calculated pricePerHour
-                BigDecimal pricePerHour = CostCategoryDAO.getPriceByResourceDateAndHourType(
-                        each.getWorker(), new LocalDate(each.getDate()), each.getHoursTypeCode());
+                CostRateIndex rates = ratesByWorker.get(each.getWorker().getId());
+                if (rates == null) {
+                    rates = CostRateIndex.forResource(each.getWorker());
+                    ratesByWorker.put(each.getWorker().getId(), rates);
+                }
 
+                BigDecimal pricePerHour = rates.getPrice(new LocalDate(each.getDate()), each.getHoursTypeCode());
                 if (pricePerHour == null) {
-                    for (TypeOfWorkHours defaultprice : typeOfWorkHoursDAO.list(TypeOfWorkHours.class)) {
-                        if (defaultprice.getCode().equals(each.getHoursTypeCode())) {
-                            pricePerHour = defaultprice.getDefaultPrice();
-                        }
+                    if (defaultPriceByType == null) {
+                        defaultPriceByType = getDefaultPriceByType();
                     }
+                    pricePerHour = defaultPriceByType.get(each.getHoursTypeCode());
                 }
 
                 each.setCostPerHour(pricePerHour);
@@ -196,6 +211,15 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
         return filteredList;
     }
 
+    private Map<String, BigDecimal> getDefaultPriceByType() {
+        Map<String, BigDecimal> result = new HashMap<>();
+        for (TypeOfWorkHours each : typeOfWorkHoursDAO.list(TypeOfWorkHours.class)) {
+            result.put(each.getCode(), each.getDefaultPrice());
+        }
+
+        return result;
+    }
+
     @Override
     public List<Order> getOrdersByReadAuthorization(User user) {
         if (user.isInRole(UserRole.ROLE_SUPERUSER) ||
@@ -519,6 +543,11 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements IOrderDAO {
                 .list();
     }
 
+    @Override
+    protected String getCodeProperty() {
+        return "infoComponent.code";
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     @Transactional(readOnly = true)
@@ -206,6 +206,11 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
                 .list();
     }
 
+    @Override
+    protected String getCodeProperty() {
+        return "infoComponent.code";
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     @Transactional(readOnly = true)
@@ -260,6 +265,16 @@ public class OrderElementDAO extends IntegrationEntityDAO<OrderElement> implemen
         return list(OrderElement.class);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getIdsParentsCodesAndNames() {
+        return getSession()
+                .createQuery("SELECT e.id, p.id, e.infoComponent.code, e.infoComponent.name "
+                        + "FROM OrderElement e LEFT OUTER JOIN e.parent p "
+                        + "ORDER BY e.infoComponent.code")
+                .list();
+    }
+
     @Override
     public List<OrderElement> findOrderElementsWithExternalCode() {
         return getSession()
@@ -19,11 +19,13 @@
 
 package org.libreplan.business.orders.daos;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -41,6 +43,7 @@ import org.libreplan.business.util.Pair;
 import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
 import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.valueobjects.WorkReportLinesSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -73,6 +76,11 @@ public class SumChargedEffortDAO extends
     @Autowired
     private IOrderElementDAO orderElementDAO;
 
+    /**
+     * Maximum number of ids in the <code>IN</code> clause of a query
+     */
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
     private Map<OrderElement, SumChargedEffort> mapSumChargedEfforts;
 
     @Override
@@ -253,69 +261,103 @@ public class SumChargedEffortDAO extends
     public void recalculateSumChargedEfforts(Long orderId) {
         try {
             Order order = orderDAO.find(orderId);
+
+            List<OrderElement> orderElements = order.getAllChildren();
+            orderElements.add(order);
+
             resetMapSumChargedEfforts();
-            resetSumChargedEffort(order);
-            calculateDirectChargedEffort(order);
-            calculateTimesheetData(order);
+            loadSumChargedEfforts(orderElements);
+            calculateSumChargedEfforts(order, workReportLineDAO
+                    .getSummariesByOrderElementId(getIds(orderElements)));
         } catch (InstanceNotFoundException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void resetSumChargedEffort(OrderElement orderElement) {
-        SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
-        sumChargedEffort.reset();
-
-        for (OrderElement each : orderElement.getChildren()) {
-            resetSumChargedEffort(each);
+    private static List<Long> getIds(Collection<OrderElement> orderElements) {
+        List<Long> result = new ArrayList<Long>();
+        for (OrderElement each : orderElements) {
+            if (each.getId() != null) {
+                result.add(each.getId());
+            }
         }
+        return result;
     }
 
-    private void calculateDirectChargedEffort(OrderElement orderElement) {
-        for (OrderElement each : orderElement.getChildren()) {
-            calculateDirectChargedEffort(each);
+    /**
+     * Retrieves all the existent {@link SumChargedEffort} of the
+     * <code>orderElements</code> at once, so {@link #getByOrderElement} doesn't
+     * need to query them one by one.
+     */
+    @SuppressWarnings("unchecked")
+    private void loadSumChargedEfforts(List<OrderElement> orderElements) {
+        Map<Long, SumChargedEffort> byOrderElementId = new HashMap<Long, SumChargedEffort>();
+
+        List<Long> ids = getIds(orderElements);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<SumChargedEffort> found = getSession()
+                    .createCriteria(getEntityClass())
+                    .add(Restrictions.in("orderElement.id", ids.subList(from,
+                            Math.min(ids.size(), from + MAX_IDS_PER_QUERY))))
+                    .list();
+            for (SumChargedEffort each : found) {
+                byOrderElementId.put(each.getOrderElement().getId(), each);
+            }
         }
 
-        EffortDuration effort = EffortDuration.zero();
-        for (WorkReportLine line : workReportLineDAO
-                .findByOrderElement(orderElement)) {
-            effort = effort.plus(line.getEffort());
+        for (OrderElement each : orderElements) {
+            SumChargedEffort sumChargedEffort = byOrderElementId.get(each
+                    .getId());
+            mapSumChargedEfforts.put(each,
+                    sumChargedEffort != null ? sumChargedEffort
+                            : SumChargedEffort.create(each));
         }
-        addDirectChargedEffort(orderElement, effort);
     }
 
-    private void calculateTimesheetData(OrderElement orderElement) {
-        calculateTimesheetDatesAndChildren(orderElement);
-        calculateFinishedTimesheetsAndChildren(orderElement);
-    }
-
-    private Pair<Date, Date> calculateTimesheetDatesAndChildren(
-            OrderElement orderElement) {
-        Pair<Date, Date> minMax = workReportLineDAO
-                .findMinAndMaxDatesByOrderElement(orderElement);
-
+    /**
+     * Rolls up the summaries of the lines charged directly to each
+     * {@link OrderElement} from the leaves to the root. Only the
+     * {@link SumChargedEffort} that change are written when the session is
+     * flushed.
+     */
+    private SumChargedEffort calculateSumChargedEfforts(
+            OrderElement orderElement,
+            Map<Long, WorkReportLinesSummary> summaries) {
+        WorkReportLinesSummary summary = summaries.get(orderElement.getId());
+
+        EffortDuration directEffort = EffortDuration.zero();
+        EffortDuration indirectEffort = EffortDuration.zero();
         Set<Date> minDates = new HashSet<Date>();
         Set<Date> maxDates = new HashSet<Date>();
 
-        addIfNotNull(minDates, minMax.getFirst());
-        addIfNotNull(maxDates, minMax.getSecond());
+        if (summary != null) {
+            directEffort = summary.getEffort();
+            addIfNotNull(minDates, summary.getFirstDate());
+            addIfNotNull(maxDates, summary.getLastDate());
+        }
 
         for (OrderElement child : orderElement.getChildren()) {
-            Pair<Date, Date> minMaxChild = calculateTimesheetDatesAndChildren(child);
-            addIfNotNull(minDates, minMaxChild.getFirst());
-            addIfNotNull(maxDates, minMaxChild.getSecond());
+            SumChargedEffort childSumChargedEffort = calculateSumChargedEfforts(
+                    child, summaries);
+            indirectEffort = indirectEffort.plus(childSumChargedEffort
+                    .getTotalChargedEffort());
+            addIfNotNull(minDates,
+                    childSumChargedEffort.getFirstTimesheetDate());
+            addIfNotNull(maxDates, childSumChargedEffort.getLastTimesheetDate());
         }
 
-        Pair<Date, Date> result = Pair.create(
+        SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
+        sumChargedEffort.reset();
+        sumChargedEffort.addDirectChargedEffort(directEffort);
+        sumChargedEffort.addIndirectChargedEffort(indirectEffort);
+        sumChargedEffort.setTimesheetDates(
                 minDates.isEmpty() ? null : Collections.min(minDates),
                 maxDates.isEmpty() ? null : Collections.max(maxDates));
-
-        SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
-        sumChargedEffort.setTimesheetDates(result.getFirst(),
-                result.getSecond());
+        sumChargedEffort.setFinishedTimesheets(summary != null
+                && summary.isFinished());
         save(sumChargedEffort);
 
-        return result;
+        return sumChargedEffort;
     }
 
     private void addIfNotNull(Collection<Date> list, Date date) {
@@ -324,15 +366,6 @@ public class SumChargedEffortDAO extends
         }
     }
 
-    private void calculateFinishedTimesheetsAndChildren(
-            OrderElement orderElement) {
-        calculateFinishedTimesheets(orderElement);
-
-        for (OrderElement child : orderElement.getChildren()) {
-            calculateFinishedTimesheetsAndChildren(child);
-        }
-    }
-
     private void calculateFinishedTimesheets(OrderElement orderElement) {
         SumChargedEffort sumChargedEffort = getByOrderElement(orderElement);
         sumChargedEffort.setFinishedTimesheets(workReportLineDAO
@@ -185,6 +185,10 @@ public class HoursGroup extends IntegrationEntity implements Cloneable, ICriteri
             workingHours = 0;
         }
         this.workingHours = workingHours;
+
+        if ( parentOrderLine != null ) {
+            parentOrderLine.markAsDirtyAggregates();
+        }
     }
 
     @NotNull(message = "working hours not specified")
@@ -701,6 +701,7 @@ public abstract class OrderElement extends IntegrationEntity implements ICriteri
 
         newAdvanceAssignment.setOrderElement(this);
         this.directAdvanceAssignments.add(newAdvanceAssignment);
+        markAsDirtyLastAdvanceMeasurementForSpreading();
 
         if ( this.getParent() != null ) {
             addChildrenAdvanceInParents(this.getParent());
@@ -1402,6 +1403,20 @@ public abstract class OrderElement extends IntegrationEntity implements ICriteri
         dirtyLastAdvanceMeasurementForSpreading = true;
     }
 
+    /**
+     * Marks the values calculated from the subtree of this element, like the
+     * work hours or the budget, as needing to be calculated again in this
+     * element and its ancestors. It must be called when the hours, budget or
+     * children of the element change.
+     */
+    public void markAsDirtyAggregates() {
+        if (parent != null) {
+            parent.markAsDirtyAggregates();
+        }
+
+        dirtyLastAdvanceMeasurementForSpreading = true;
+    }
+
     public void setSumChargedEffort(SumChargedEffort sumChargedHours) {
         this.sumChargedEffort = sumChargedHours;
     }
@@ -184,6 +184,7 @@ public class OrderLine extends OrderElement {
     public void setHoursGroups(final Set<HoursGroup> hoursGroups) {
         this.hoursGroups.clear();
         this.hoursGroups.addAll(hoursGroups);
+        markAsDirtyAggregates();
     }
 
     public void addHoursGroup(HoursGroup hoursGroup) {
@@ -195,10 +196,12 @@ public class OrderLine extends OrderElement {
 
     public void doAddHoursGroup(HoursGroup hoursGroup) {
         hoursGroups.add(hoursGroup);
+        markAsDirtyAggregates();
     }
 
     public void deleteHoursGroup(HoursGroup hoursGroup) {
         hoursGroups.remove(hoursGroup);
+        markAsDirtyAggregates();
         recalculateHoursGroups();
     }
 
@@ -389,6 +392,7 @@ public class OrderLine extends OrderElement {
     public void setBudget(BigDecimal budget) {
         Validate.isTrue(budget.compareTo(BigDecimal.ZERO) >= 0, "budget cannot be negative");
         this.budget = budget.setScale(2, RoundingMode.HALF_UP);
+        markAsDirtyAggregates();
     }
 
     @Override
@@ -28,9 +28,11 @@ import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -56,6 +58,8 @@ import org.libreplan.business.qualityforms.entities.TaskQualityForm;
 import org.libreplan.business.scenarios.entities.OrderVersion;
 import org.libreplan.business.templates.entities.OrderElementTemplate;
 import org.libreplan.business.templates.entities.OrderLineGroupTemplate;
+import org.libreplan.business.util.deepcopy.OnCopy;
+import org.libreplan.business.util.deepcopy.Strategy;
 import org.libreplan.business.trees.ITreeParentNode;
 
 
@@ -97,6 +101,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
         protected void onChildAddedAdditionalActions(OrderElement newChild) {
             updateCriterionRequirements();
             newChild.updateLabels();
+            markAsDirtyAggregates();
             if ( !newChild.isNewObject() ) {
                 getOrder().markAsNeededToRecalculateSumChargedEfforts();
                 getOrder().markAsNeededToRecalculateSumExpenses();
@@ -110,6 +115,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
             }
 
             updateCriterionRequirements();
+            markAsDirtyAggregates();
 
             if ( !removedChild.isNewObject() ) {
                 getOrder().markAsNeededToRecalculateSumChargedEfforts();
@@ -191,6 +197,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
         for (IndirectAdvanceAssignment advance : getIndirectAdvanceAssignments()) {
             if ( advance.getAdvanceType().getUnitName().equals(PredefinedAdvancedTypes.CHILDREN.getTypeName()) ) {
                 indirectAdvanceAssignments.remove(advance);
+                markAsDirtyLastAdvanceMeasurementForSpreading();
                 updateSpreadAdvance();
             }
         }
@@ -243,6 +250,24 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
 
     private Set<IndirectAdvanceAssignment> indirectAdvanceAssignments = new HashSet<>();
 
+    /*
+     * The values calculated from the whole subtree are kept until something
+     * changes in it. See markAsDirtyAggregates and
+     * markAsDirtyLastAdvanceMeasurementForSpreading
+     */
+
+    @OnCopy(Strategy.IGNORE)
+    private Integer workHours = null;
+
+    @OnCopy(Strategy.IGNORE)
+    private BigDecimal budget = null;
+
+    @OnCopy(Strategy.IGNORE)
+    private List<HoursGroup> hoursGroups = null;
+
+    @OnCopy(Strategy.IGNORE)
+    private Map<LocalDate, BigDecimal> advancePercentageByDate = null;
+
     /**
      * Constructor for hibernate. Do not use!
      */
@@ -411,20 +436,41 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
 
     @Override
     public Integer getWorkHours() {
-        int result = 0;
-        for (OrderElement orderElement : getChildren()) {
-            result += orderElement.getWorkHours();
+        if ( workHours == null ) {
+            int result = 0;
+            for (OrderElement orderElement : children) {
+                result += orderElement.getWorkHours();
+            }
+            workHours = result;
         }
-        return result;
+        return workHours;
     }
 
     @Override
     public List<HoursGroup> getHoursGroups() {
-        List<HoursGroup> hoursGroups = new ArrayList<>();
-        for (OrderElement orderElement : children) {
-            hoursGroups.addAll(orderElement.getHoursGroups());
+        if ( hoursGroups == null ) {
+            List<HoursGroup> result = new ArrayList<>();
+            for (OrderElement orderElement : children) {
+                result.addAll(orderElement.getHoursGroups());
+            }
+            hoursGroups = result;
         }
-        return hoursGroups;
+        return new ArrayList<>(hoursGroups);
+    }
+
+    @Override
+    public void markAsDirtyAggregates() {
+        workHours = null;
+        budget = null;
+        hoursGroups = null;
+        advancePercentageByDate = null;
+        super.markAsDirtyAggregates();
+    }
+
+    @Override
+    public void markAsDirtyLastAdvanceMeasurementForSpreading() {
+        advancePercentageByDate = null;
+        super.markAsDirtyLastAdvanceMeasurementForSpreading();
     }
 
     public BigDecimal getAdvancePercentage(AdvanceType advanceType, LocalDate date) {
@@ -435,8 +481,26 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
         return null;
     }
 
+    /**
+     * The progress at each date is kept, as the progress of the children at
+     * each date where some measurement exists is asked when calculating the
+     * progress of the ancestors
+     */
     @Override
     public BigDecimal getAdvancePercentage(LocalDate date) {
+        if ( advancePercentageByDate == null ) {
+            advancePercentageByDate = new HashMap<>();
+        }
+        Map<LocalDate, BigDecimal> calculated = advancePercentageByDate;
+        BigDecimal result = calculated.get(date);
+        if ( result == null ) {
+            result = calculateAdvancePercentage(date);
+            calculated.put(date, result);
+        }
+        return result;
+    }
+
+    private BigDecimal calculateAdvancePercentage(LocalDate date) {
         for (DirectAdvanceAssignment directAdvanceAssignment : directAdvanceAssignments) {
             if ( directAdvanceAssignment.getReportGlobalAdvance() ) {
                 if ( date == null ) {
@@ -549,17 +613,12 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
     }
 
     private List<LocalDate> getMeasurementDates(List<AdvanceMeasurement> advanceMeasurements) {
-        List<LocalDate> result = new ArrayList<>();
+        SortedSet<LocalDate> result = new TreeSet<>();
         for (AdvanceMeasurement advanceMeasurement : advanceMeasurements) {
-            LocalDate date = advanceMeasurement.getDate();
-            if ( result.indexOf(date) < 0 ) {
-                result.add(date);
-            }
+            result.add(advanceMeasurement.getDate());
         }
 
-        Collections.sort(result);
-
-        return result;
+        return new ArrayList<>(result);
     }
 
     private DirectAdvanceAssignment mergeAdvanceAssignments(List<DirectAdvanceAssignment> list) {
@@ -911,6 +970,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
                 (!existsDirectAdvanceAssignmentWithTheSameType(indirectAdvanceAssignment.getAdvanceType())) ) {
 
             indirectAdvanceAssignments.add(indirectAdvanceAssignment);
+            markAsDirtyLastAdvanceMeasurementForSpreading();
         }
         if ( parent != null ) {
             parent.addIndirectAdvanceAssignment(indirectAdvanceAssignment.createIndirectAdvanceFor(parent));
@@ -933,6 +993,7 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
             }
             if ( toRemove != null ) {
                 indirectAdvanceAssignments.remove(toRemove);
+                markAsDirtyLastAdvanceMeasurementForSpreading();
                 updateSpreadAdvance();
             }
 
@@ -1128,9 +1189,12 @@ public class OrderLineGroup extends OrderElement implements ITreeParentNode<Orde
 
     @Override
     public BigDecimal getBudget() {
-        BigDecimal budget = BigDecimal.ZERO.setScale(2);
-        for (OrderElement child : children) {
-            budget = budget.add(child.getBudget());
+        if ( budget == null ) {
+            BigDecimal result = BigDecimal.ZERO.setScale(2);
+            for (OrderElement child : children) {
+                result = result.add(child.getBudget());
+            }
+            budget = result;
         }
         return budget;
     }
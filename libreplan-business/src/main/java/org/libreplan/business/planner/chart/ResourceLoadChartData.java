@@ -34,7 +34,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.function.Supplier;
 
+import org.apache.commons.lang3.Validate;
 import org.joda.time.LocalDate;
 import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.planner.chart.ContiguousDaysLine.IValueTransformer;
@@ -61,6 +63,25 @@ public class ResourceLoadChartData implements ILoadChartData {
 
     private SortedMap<LocalDate, EffortDuration> availability;
 
+    private ResourceLoadDayBuckets buckets;
+
+    /**
+     * Creates a {@link ResourceLoadChartData} that keeps the effort assigned
+     * per resource and day, so it can be updated later with
+     * {@link #withResourcesRecalculated(Collection, List, Supplier)} instead of
+     * being recalculated from all the day assignments.
+     */
+    public static ResourceLoadChartData incremental(List<DayAssignment> dayAssignments, List<Resource> resources) {
+        return new ResourceLoadChartData(ResourceLoadDayBuckets.build(dayAssignments, resources));
+    }
+
+    private ResourceLoadChartData(ResourceLoadDayBuckets buckets) {
+        this.buckets = buckets;
+        this.load = buckets.load();
+        this.overload = buckets.overload();
+        this.availability = buckets.availability();
+    }
+
     public ResourceLoadChartData(List<DayAssignment> dayAssignments, List<Resource> resources) {
         this(dayAssignments, resources, null, null);
     }
@@ -169,6 +190,40 @@ public class ResourceLoadChartData implements ILoadChartData {
         };
     }
 
+    public boolean isIncremental() {
+        return buckets != null;
+    }
+
+    /**
+     * @return the ids of the resources the provided day assignments were
+     *         assigned to when this data was calculated
+     */
+    public Set<Long> resourcesOfDayAssignments(Collection<Long> dayAssignmentIds) {
+        Validate.isTrue(isIncremental());
+        return buckets.resourcesOf(dayAssignmentIds);
+    }
+
+    /**
+     * Returns a new {@link ResourceLoadChartData} replacing the load of the
+     * provided resources with the one calculated from their current day
+     * assignments. This one is not modified.
+     *
+     * @param resources
+     *            the resources whose load is recalculated
+     * @param theirAssignments
+     *            all the current day assignments of these resources
+     * @param allResources
+     *            needed to calculate the availability of days not included
+     *            until now. It's only called if there are such days
+     */
+    public ResourceLoadChartData withResourcesRecalculated(Collection<? extends Resource> resources,
+                                                           List<DayAssignment> theirAssignments,
+                                                           Supplier<List<Resource>> allResources) {
+        Validate.isTrue(isIncremental());
+        return new ResourceLoadChartData(
+                buckets.withResourcesRecalculated(resources, theirAssignments, allResources));
+    }
+
     public SortedMap<LocalDate, EffortDuration> getLoad() {
         return load;
     }
@@ -0,0 +1,402 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.chart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.EpochDays;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+
+/**
+ * Immutable day buckets, indexed by epoch day, with the effort assigned to
+ * each resource. They allow to recalculate the {@link ResourceLoadChartData}
+ * only for the resources whose assignments have changed.
+ *
+ * @see ResourceLoadChartData#withResourcesRecalculated(Collection, List, Supplier)
+ */
+class ResourceLoadDayBuckets {
+
+    /**
+     * Seconds assigned to a resource and seconds exceeding its capacity, per
+     * day, from {@link #firstDay} onwards.
+     */
+    private static class ResourceDays {
+
+        private final int firstDay;
+
+        private final int[] assigned;
+
+        private final int[] overloaded;
+
+        private ResourceDays(int firstDay, int[] assigned, int[] overloaded) {
+            this.firstDay = firstDay;
+            this.assigned = assigned;
+            this.overloaded = overloaded;
+        }
+
+        int lastDay() {
+            return firstDay + assigned.length - 1;
+        }
+    }
+
+    static ResourceLoadDayBuckets build(List<DayAssignment> dayAssignments,
+            List<Resource> resources) {
+        Map<Long, ResourceDays> byResource = new HashMap<>();
+        for (Entry<Resource, List<DayAssignment>> each : DayAssignment
+                .byResource(dayAssignments).entrySet()) {
+            byResource.put(each.getKey().getId(),
+                    resourceDays(each.getKey(), each.getValue()));
+        }
+        IdsIndex index = IdsIndex.of(dayAssignments);
+        if (byResource.isEmpty()) {
+            return new ResourceLoadDayBuckets(0, new int[0], new int[0],
+                    new int[0], byResource, index);
+        }
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (ResourceDays each : byResource.values()) {
+            first = Math.min(first, each.firstDay);
+            last = Math.max(last, each.lastDay());
+        }
+        int length = last - first + 1;
+        int[] assigned = new int[length];
+        int[] overloaded = new int[length];
+        for (ResourceDays each : byResource.values()) {
+            add(first, assigned, overloaded, each, 1);
+        }
+        int[] available = availability(resources, first, length);
+        return new ResourceLoadDayBuckets(first, assigned, overloaded,
+                available, byResource, index);
+    }
+
+    private static ResourceDays resourceDays(Resource resource,
+            List<DayAssignment> assignments) {
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        int[] days = new int[assignments.size()];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = EpochDays.of(assignments.get(i).getDay());
+            first = Math.min(first, days[i]);
+            last = Math.max(last, days[i]);
+        }
+        int[] assigned = new int[last - first + 1];
+        for (int i = 0; i < days.length; i++) {
+            assigned[days[i] - first] += assignments.get(i).getDuration()
+                    .getSeconds();
+        }
+        int[] overloaded = new int[assigned.length];
+        for (int i = 0; i < assigned.length; i++) {
+            if (assigned[i] > 0) {
+                int capacity = capacityOn(resource, first + i);
+                overloaded[i] = Math.max(0, assigned[i] - capacity);
+            }
+        }
+        return new ResourceDays(first, assigned, overloaded);
+    }
+
+    private static void add(int first, int[] assigned, int[] overloaded,
+            ResourceDays resourceDays, int sign) {
+        int offset = resourceDays.firstDay - first;
+        for (int i = 0; i < resourceDays.assigned.length; i++) {
+            assigned[offset + i] += sign * resourceDays.assigned[i];
+            overloaded[offset + i] += sign * resourceDays.overloaded[i];
+        }
+    }
+
+    private static int[] availability(List<Resource> resources, int first,
+            int length) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            for (Resource each : resources) {
+                result[i] += capacityOn(each, first + i);
+            }
+        }
+        return result;
+    }
+
+    private static int capacityOn(Resource resource, int epochDay) {
+        return ResourceLoadChartData.calendarCapacityFor(resource,
+                PartialDay.wholeDay(EpochDays.toLocalDate(epochDay)))
+                .getSeconds();
+    }
+
+    /**
+     * Sorted identifiers of the day assignments along with the identifier of
+     * their resource. It allows to know the resources affected by a day
+     * assignment that has been removed from the database.
+     */
+    private static class IdsIndex {
+
+        private final long[] assignmentIds;
+
+        private final long[] resourceIds;
+
+        private static IdsIndex of(Collection<? extends DayAssignment> assignments) {
+            List<DayAssignment> sorted = new ArrayList<>(assignments);
+            Collections.sort(sorted, (a, b) -> a.getId().compareTo(b.getId()));
+            long[] assignmentIds = new long[sorted.size()];
+            long[] resourceIds = new long[sorted.size()];
+            for (int i = 0; i < assignmentIds.length; i++) {
+                assignmentIds[i] = sorted.get(i).getId();
+                resourceIds[i] = sorted.get(i).getResource().getId();
+            }
+            return new IdsIndex(assignmentIds, resourceIds);
+        }
+
+        private IdsIndex(long[] assignmentIds, long[] resourceIds) {
+            this.assignmentIds = assignmentIds;
+            this.resourceIds = resourceIds;
+        }
+
+        Long resourceOf(long assignmentId) {
+            int position = Arrays.binarySearch(assignmentIds, assignmentId);
+            return position >= 0 ? resourceIds[position] : null;
+        }
+
+        IdsIndex replacingResources(Set<Long> resources,
+                Collection<? extends DayAssignment> newAssignments) {
+            IdsIndex added = of(newAssignments);
+            int kept = 0;
+            for (long each : resourceIds) {
+                if (!resources.contains(each)) {
+                    kept++;
+                }
+            }
+            long[] ids = new long[kept + added.assignmentIds.length];
+            long[] owners = new long[ids.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < assignmentIds.length || j < added.assignmentIds.length) {
+                if (i < assignmentIds.length
+                        && resources.contains(resourceIds[i])) {
+                    i++;
+                } else if (j >= added.assignmentIds.length
+                        || (i < assignmentIds.length && assignmentIds[i] < added.assignmentIds[j])) {
+                    ids[k] = assignmentIds[i];
+                    owners[k++] = resourceIds[i++];
+                } else {
+                    ids[k] = added.assignmentIds[j];
+                    owners[k++] = added.resourceIds[j++];
+                }
+            }
+            return new IdsIndex(ids, owners);
+        }
+    }
+
+    private final int firstDay;
+
+    private final int[] assigned;
+
+    private final int[] overloaded;
+
+    private final int[] available;
+
+    private final Map<Long, ResourceDays> byResource;
+
+    private final IdsIndex index;
+
+    private ResourceLoadDayBuckets(int firstDay, int[] assigned,
+            int[] overloaded, int[] available,
+            Map<Long, ResourceDays> byResource, IdsIndex index) {
+        this.firstDay = firstDay;
+        this.assigned = assigned;
+        this.overloaded = overloaded;
+        this.available = available;
+        this.byResource = byResource;
+        this.index = index;
+    }
+
+    Set<Long> resourcesOf(Collection<Long> dayAssignmentIds) {
+        Set<Long> result = new HashSet<>();
+        for (Long each : dayAssignmentIds) {
+            Long resource = index.resourceOf(each);
+            if (resource != null) {
+                result.add(resource);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param resources
+     *            the resources to recalculate
+     * @param theirAssignments
+     *            all the current day assignments of the recalculated
+     *            resources
+     * @param allResources
+     *            used to calculate the availability only if the range of
+     *            days must be extended
+     */
+    ResourceLoadDayBuckets withResourcesRecalculated(
+            Collection<? extends Resource> resources,
+            List<DayAssignment> theirAssignments,
+            Supplier<List<Resource>> allResources) {
+        Set<Long> ids = new HashSet<>();
+        for (Resource each : resources) {
+            ids.add(each.getId());
+        }
+        Map<Long, ResourceDays> recalculated = new HashMap<>();
+        for (Entry<Resource, List<DayAssignment>> each : DayAssignment
+                .byResource(theirAssignments).entrySet()) {
+            if (ids.contains(each.getKey().getId())) {
+                recalculated.put(each.getKey().getId(),
+                        resourceDays(each.getKey(), each.getValue()));
+            }
+        }
+        Map<Long, ResourceDays> newByResource = new HashMap<>(byResource);
+        for (Long each : ids) {
+            newByResource.remove(each);
+            if (recalculated.containsKey(each)) {
+                newByResource.put(each, recalculated.get(each));
+            }
+        }
+        if (newByResource.isEmpty()) {
+            return build(Collections.<DayAssignment> emptyList(),
+                    Collections.<Resource> emptyList());
+        }
+
+        // the range of days can grow or shrink, as in a full rebuild
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (ResourceDays each : newByResource.values()) {
+            first = Math.min(first, each.firstDay);
+            last = Math.max(last, each.lastDay());
+        }
+        int unionFirst = assigned.length > 0 ? Math.min(first, firstDay)
+                : first;
+        int unionLast = assigned.length > 0 ? Math.max(last, lastDay())
+                : last;
+        int[] newAssigned = resized(assigned, firstDay, unionFirst,
+                unionLast);
+        int[] newOverloaded = resized(overloaded, firstDay, unionFirst,
+                unionLast);
+        for (Long each : ids) {
+            ResourceDays previous = byResource.get(each);
+            if (previous != null) {
+                add(unionFirst, newAssigned, newOverloaded, previous, -1);
+            }
+            ResourceDays current = recalculated.get(each);
+            if (current != null) {
+                add(unionFirst, newAssigned, newOverloaded, current, 1);
+            }
+        }
+        return new ResourceLoadDayBuckets(first,
+                resized(newAssigned, unionFirst, first, last),
+                resized(newOverloaded, unionFirst, first, last),
+                availabilityOn(first, last, allResources), newByResource,
+                index.replacingResources(ids,
+                        assignmentsOf(ids, theirAssignments)));
+    }
+
+    private int lastDay() {
+        return firstDay + assigned.length - 1;
+    }
+
+    private static List<DayAssignment> assignmentsOf(Set<Long> resources,
+            List<DayAssignment> assignments) {
+        List<DayAssignment> result = new ArrayList<>();
+        for (DayAssignment each : assignments) {
+            if (resources.contains(each.getResource().getId())) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the values from <code>first</code> to <code>last</code>, with
+     *         zero on the days not included in the provided values
+     */
+    private static int[] resized(int[] values, int valuesFirst, int first,
+            int last) {
+        int[] result = new int[last - first + 1];
+        int from = Math.max(first, valuesFirst);
+        int to = Math.min(last, valuesFirst + values.length - 1);
+        if (from <= to) {
+            System.arraycopy(values, from - valuesFirst, result, from - first,
+                    to - from + 1);
+        }
+        return result;
+    }
+
+    private int[] availabilityOn(int first, int last,
+            Supplier<List<Resource>> allResources) {
+        int[] result = resized(available, firstDay, first, last);
+        List<Resource> resources = null;
+        for (int day = first; day <= last; day++) {
+            boolean known = day >= firstDay
+                    && day < firstDay + available.length;
+            if (!known) {
+                if (resources == null) {
+                    resources = allResources.get();
+                }
+                for (Resource each : resources) {
+                    result[day - first] += capacityOn(each, day);
+                }
+            }
+        }
+        return result;
+    }
+
+    SortedMap<LocalDate, EffortDuration> load() {
+        SortedMap<LocalDate, EffortDuration> result = new TreeMap<>();
+        for (int i = 0; i < assigned.length; i++) {
+            result.put(EpochDays.toLocalDate(firstDay + i),
+                    EffortDuration.seconds(Math.min(assigned[i], available[i])));
+        }
+        return result;
+    }
+
+    SortedMap<LocalDate, EffortDuration> overload() {
+        SortedMap<LocalDate, EffortDuration> result = new TreeMap<>();
+        for (int i = 0; i < overloaded.length; i++) {
+            result.put(EpochDays.toLocalDate(firstDay + i),
+                    EffortDuration.seconds(overloaded[i] + available[i]));
+        }
+        return result;
+    }
+
+    SortedMap<LocalDate, EffortDuration> availability() {
+        SortedMap<LocalDate, EffortDuration> result = new TreeMap<>();
+        for (int i = 0; i < available.length; i++) {
+            result.put(EpochDays.toLocalDate(firstDay + i),
+                    EffortDuration.seconds(available[i]));
+        }
+        return result;
+    }
+
+}
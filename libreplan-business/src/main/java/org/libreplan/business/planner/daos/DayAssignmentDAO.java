@@ -194,4 +194,21 @@ public class DayAssignmentDAO extends GenericDAOHibernate<DayAssignment, Long> i
                     .list();
     }
 
+    @Override
+    public void initializeAssignmentsOf(Collection<? extends Resource> resources) {
+        List<Long> ids = new ArrayList<>();
+        for (Resource each : resources) {
+            if (each.getId() != null) {
+                ids.add(each.getId());
+            }
+        }
+        for (int i = 0; i < ids.size(); i += IDS_PER_QUERY) {
+            getSession()
+                    .createQuery("select distinct r from Resource r left join fetch r.dayAssignments " +
+                            "where r.id in (:ids)")
+                    .setParameterList("ids", ids.subList(i, Math.min(i + IDS_PER_QUERY, ids.size())))
+                    .list();
+        }
+    }
+
 }
@@ -58,4 +58,11 @@ public interface IDayAssignmentDAO extends IGenericDAO<DayAssignment, Long> {
 
     public List<DayAssignment> findByResources(List<Resource> resources);
 
+    /**
+     * Loads the day assignments of the resources, that must be attached to the
+     * current session, with a query per batch of resources instead of a query
+     * per resource.
+     */
+    void initializeAssignmentsOf(Collection<? extends Resource> resources);
+
 }
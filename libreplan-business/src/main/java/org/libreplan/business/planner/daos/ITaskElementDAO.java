@@ -24,9 +24,12 @@ package org.libreplan.business.planner.daos;
 import java.util.Date;
 import java.util.List;
 
+import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IGenericDAO;
+import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.planner.entities.TaskGroup;
+import org.libreplan.business.planner.entities.TaskMilestone;
 
 /**
  * @author Óscar González Fernández <ogonzalez@igalia.com>
@@ -44,4 +47,18 @@ public interface ITaskElementDAO extends IGenericDAO<TaskElement, Long> {
 
     List<TaskElement> getTaskElementsWithParentsWithoutMilestones();
 
+    /**
+     * Leaf tasks, neither milestones nor the task of the project, starting at
+     * the given date
+     */
+    List<Task> getTasksStartingOn(LocalDate date);
+
+    /**
+     * Leaf tasks, neither milestones nor the task of the project, whose end
+     * date is the given one
+     */
+    List<Task> getTasksFinishingOn(LocalDate date);
+
+    List<TaskMilestone> getMilestonesWithDeadlineOn(LocalDate date);
+
 }
@@ -31,8 +31,10 @@ import org.hibernate.criterion.Restrictions;
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.GenericDAOHibernate;
 import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.planner.entities.TaskGroup;
+import org.libreplan.business.planner.entities.TaskMilestone;
 import org.libreplan.business.workingday.EffortDuration;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -155,4 +157,33 @@ public class TaskElementDAO extends GenericDAOHibernate<TaskElement, Long> imple
         return query.list();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    @Transactional(readOnly = true)
+    public List<Task> getTasksStartingOn(LocalDate date) {
+        return getSession().createCriteria(Task.class)
+                .add(Restrictions.isNotNull("parent"))
+                .add(Restrictions.eq("startDate.date", date))
+                .list();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @Transactional(readOnly = true)
+    public List<Task> getTasksFinishingOn(LocalDate date) {
+        return getSession().createCriteria(Task.class)
+                .add(Restrictions.isNotNull("parent"))
+                .add(Restrictions.eq("endDate.date", date))
+                .list();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @Transactional(readOnly = true)
+    public List<TaskMilestone> getMilestonesWithDeadlineOn(LocalDate date) {
+        return getSession().createCriteria(TaskMilestone.class)
+                .add(Restrictions.eq("deadline", date))
+                .list();
+    }
+
 }
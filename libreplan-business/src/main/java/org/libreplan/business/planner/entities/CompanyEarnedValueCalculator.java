@@ -31,7 +31,7 @@ import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
 import org.libreplan.business.calendars.entities.AvailabilityTimeLine.Interval;
 import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
-import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.valueobjects.WorkReportLineEffort;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -52,14 +52,13 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
     @Transactional(readOnly = true)
     public SortedMap<LocalDate, BigDecimal> calculateBudgetedCostWorkScheduled(AvailabilityTimeLine.Interval interval) {
 
-        Map<TaskElement, SortedMap<LocalDate, BigDecimal>> estimatedCostPerTask =
-                databaseSnapshots.snapshotEstimatedCostPerTask();
+        Map<TaskElement, TaskCosts> costsPerTask = databaseSnapshots.snapshotCostsPerTask();
 
-        Collection<TaskElement> list = filterTasksByDate(estimatedCostPerTask.keySet(), interval);
+        Collection<TaskElement> list = filterTasksByDate(costsPerTask.keySet(), interval);
         SortedMap<LocalDate, BigDecimal> estimatedCost = new TreeMap<LocalDate, BigDecimal>();
 
         for (TaskElement each : list) {
-            addCost(estimatedCost, estimatedCostPerTask.get(each));
+            addCost(estimatedCost, costsPerTask.get(each).getEstimatedCost());
         }
         return accumulateResult(estimatedCost);
     }
@@ -74,10 +73,10 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
         return result;
     }
 
-    private List<WorkReportLine> filterWorkReportLinesByDate(Collection<WorkReportLine> lines,
-                                                             AvailabilityTimeLine.Interval interval) {
-        List<WorkReportLine> result = new ArrayList<WorkReportLine>();
-        for(WorkReportLine line: lines) {
+    private List<WorkReportLineEffort> filterWorkReportLinesByDate(Collection<WorkReportLineEffort> lines,
+                                                                   AvailabilityTimeLine.Interval interval) {
+        List<WorkReportLineEffort> result = new ArrayList<WorkReportLineEffort>();
+        for(WorkReportLineEffort line: lines) {
             if ( interval.includes(line.getLocalDate()) ) {
                 result.add(line);
             }
@@ -117,7 +116,7 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
     public SortedMap<LocalDate, BigDecimal> calculateActualCostWorkPerformed(
             Interval interval) {
         SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
-        Collection<WorkReportLine> workReportLines = filterWorkReportLinesByDate(
+        Collection<WorkReportLineEffort> workReportLines = filterWorkReportLinesByDate(
                 databaseSnapshots.snapshotWorkReportLines(),
                 interval);
 
@@ -125,7 +124,7 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
             return result;
         }
 
-        for (WorkReportLine workReportLine : workReportLines) {
+        for (WorkReportLineEffort workReportLine : workReportLines) {
             LocalDate day = new LocalDate(workReportLine.getDate());
             BigDecimal cost = workReportLine.getEffort()
                     .toHoursAsDecimalWithScale(2);
@@ -141,14 +140,14 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
     @Override
     public SortedMap<LocalDate, BigDecimal> calculateBudgetedCostWorkPerformed(
             Interval interval) {
-        Map<TaskElement, SortedMap<LocalDate, BigDecimal>> advanceCostPerTask = databaseSnapshots
-                .snapshotAdvanceCostPerTask();
+        Map<TaskElement, TaskCosts> costsPerTask = databaseSnapshots
+                .snapshotCostsPerTask();
         Collection<TaskElement> tasks = filterTasksByDate(
-                advanceCostPerTask.keySet(), interval);
+                costsPerTask.keySet(), interval);
 
         SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
         for (TaskElement each : tasks) {
-            addCost(result, advanceCostPerTask.get(each));
+            addCost(result, costsPerTask.get(each).getAdvanceCost());
         }
         return result;
     }
@@ -288,6 +288,15 @@ public abstract class DayAssignment extends BaseEntity {
         return this.resource.equals(resource);
     }
 
+    /**
+     * @return if the other assignment has the same day, resource, duration
+     *         and consolidated value, so any of them could replace the other
+     */
+    public boolean hasSameValuesAs(DayAssignment other) {
+        return day.equals(other.day) && duration.equals(other.duration) && isAssignedTo(other.resource)
+                && isConsolidated() == other.isConsolidated();
+    }
+
     public boolean includedIn(LocalDate startInclusive, LocalDate endExclusive) {
         return day.compareTo(startInclusive) >= 0
                 && day.compareTo(endExclusive) < 0;
@@ -0,0 +1,196 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.entities;
+
+import static org.libreplan.business.workingday.EffortDuration.seconds;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+import org.libreplan.business.common.BaseEntity;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.EpochDays;
+
+/**
+ * Effort of some {@link DayAssignment day assignments} per day, stored in
+ * primitive arrays indexed by the days since the first day of the timeline.
+ *
+ * The effort of a day is kept as the sum of seconds, so it's retrieved in
+ * constant time, and the sums of ranges of days are calculated from prefix
+ * sums. The assignments of each day are chained, so the effort of a day can be
+ * calculated discounting some allocations. The owner of each assignment is
+ * checked when asked, since it can change, for example when it's saved.
+ *
+ * It's built once from the assignments and not modified afterwards, so it
+ * must be created again when they change.
+ */
+public class DayAssignmentsTimeline {
+
+    private static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    public static DayAssignmentsTimeline create(Collection<? extends DayAssignment> assignments) {
+        DayAssignmentsTimeline result = new DayAssignmentsTimeline();
+        for (DayAssignment each : assignments) {
+            result.add(each);
+        }
+        return result;
+    }
+
+    /**
+     * Epoch day of the position zero of the arrays indexed by day.
+     */
+    private int firstDay;
+
+    private int[] secondsByDay = new int[0];
+
+    private int[] firstEntryByDay = new int[0];
+
+    /**
+     * Position <code>i</code> holds the sum of the seconds of the days before
+     * <code>i</code>. It's calculated when a range is first asked for.
+     */
+    private long[] prefixSums;
+
+    private DayAssignment[] entries = new DayAssignment[INITIAL_CAPACITY];
+
+    private int[] nextEntry = new int[INITIAL_CAPACITY];
+
+    private int entriesUsed = 0;
+
+    private DayAssignmentsTimeline() {
+    }
+
+    private void add(DayAssignment assignment) {
+        Validate.notNull(assignment);
+        int index = ensureCovers(EpochDays.of(assignment.getDay()));
+        int entry = newEntry();
+        entries[entry] = assignment;
+        nextEntry[entry] = firstEntryByDay[index];
+        firstEntryByDay[index] = entry;
+        secondsByDay[index] += assignment.getDuration().getSeconds();
+    }
+
+    public EffortDuration getAssignedEffort(LocalDate day) {
+        int index = indexOf(EpochDays.of(day));
+        return index == NONE ? EffortDuration.zero() : seconds(secondsByDay[index]);
+    }
+
+    /**
+     * @return the effort of the assignments of the day except the ones that
+     *         belong to some of the allocations
+     * @see DayAssignment#belongsToSomeOf(Map)
+     */
+    public EffortDuration getAssignedEffortDiscounting(Map<Long, Set<BaseEntity>> allocationsFromWhichDiscountHours,
+                                                       LocalDate day) {
+        int index = indexOf(EpochDays.of(day));
+        if (index == NONE) {
+            return EffortDuration.zero();
+        }
+        int result = 0;
+        for (int entry = firstEntryByDay[index]; entry != NONE; entry = nextEntry[entry]) {
+            if (!entries[entry].belongsToSomeOf(allocationsFromWhichDiscountHours)) {
+                result += entries[entry].getDuration().getSeconds();
+            }
+        }
+        return seconds(result);
+    }
+
+    public EffortDuration getAssignedEffortBetween(LocalDate startInclusive, LocalDate endExclusive) {
+        if (secondsByDay.length == 0) {
+            return EffortDuration.zero();
+        }
+        int from = clamp(EpochDays.of(startInclusive) - firstDay);
+        int to = clamp(EpochDays.of(endExclusive) - firstDay);
+        if (from >= to) {
+            return EffortDuration.zero();
+        }
+        long[] sums = getPrefixSums();
+        return seconds((int) (sums[to] - sums[from]));
+    }
+
+    private int clamp(int index) {
+        return Math.max(0, Math.min(secondsByDay.length, index));
+    }
+
+    private long[] getPrefixSums() {
+        if (prefixSums == null) {
+            long[] result = new long[secondsByDay.length + 1];
+            for (int i = 0; i < secondsByDay.length; i++) {
+                result[i + 1] = result[i] + secondsByDay[i];
+            }
+            prefixSums = result;
+        }
+        return prefixSums;
+    }
+
+    private int indexOf(int epochDay) {
+        int index = epochDay - firstDay;
+        return index >= 0 && index < secondsByDay.length ? index : NONE;
+    }
+
+    /**
+     * Grows the arrays indexed by day, if needed, so they include the day.
+     *
+     * @return the index of the day
+     */
+    private int ensureCovers(int epochDay) {
+        if (secondsByDay.length == 0) {
+            firstDay = epochDay;
+            resize(0, INITIAL_CAPACITY);
+            return 0;
+        }
+        int index = epochDay - firstDay;
+        if (index < 0) {
+            int shift = Math.max(-index, secondsByDay.length);
+            resize(shift, secondsByDay.length + shift);
+            firstDay -= shift;
+            return index + shift;
+        }
+        if (index >= secondsByDay.length) {
+            resize(0, Math.max(index + 1, secondsByDay.length * 2));
+        }
+        return index;
+    }
+
+    private void resize(int shift, int newLength) {
+        int[] seconds = new int[newLength];
+        int[] firstEntries = new int[newLength];
+        Arrays.fill(firstEntries, NONE);
+        System.arraycopy(secondsByDay, 0, seconds, shift, secondsByDay.length);
+        System.arraycopy(firstEntryByDay, 0, firstEntries, shift, firstEntryByDay.length);
+        secondsByDay = seconds;
+        firstEntryByDay = firstEntries;
+    }
+
+    private int newEntry() {
+        if (entriesUsed == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            nextEntry = Arrays.copyOf(nextEntry, nextEntry.length * 2);
+        }
+        return entriesUsed++;
+    }
+
+}
@@ -42,10 +42,9 @@ import org.libreplan.business.planner.entities.EffortDistributor.ResourceWithAss
 import org.libreplan.business.planner.entities.allocationalgorithms.ResourcesPerDayModification;
 import org.libreplan.business.resources.daos.IResourcesSearcher;
 import org.libreplan.business.resources.entities.Criterion;
-import org.libreplan.business.resources.entities.CriterionCompounder;
-import org.libreplan.business.resources.entities.ICriterion;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.ResourceEnum;
+import org.libreplan.business.resources.entities.SatisfiedCriterionsIndex;
 import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.util.deepcopy.OnCopy;
 import org.libreplan.business.util.deepcopy.Strategy;
@@ -183,10 +182,11 @@ public class GenericResourceAllocation extends ResourceAllocation<GenericDayAssi
 
     private final class ResourcesSatisfyingCriterionsSelector implements IResourceSelector {
 
+        private final SatisfiedCriterionsIndex satisfiedCriterions = SatisfiedCriterionsIndex.forCriterions(criterions);
+
         @Override
         public boolean isSelectable(Resource resource, LocalDate day) {
-            ICriterion compoundCriterion = CriterionCompounder.buildAnd(criterions).getResult();
-            return compoundCriterion.isSatisfiedBy(resource, day);
+            return satisfiedCriterions.isSatisfiedBy(resource, day);
         }
     }
 
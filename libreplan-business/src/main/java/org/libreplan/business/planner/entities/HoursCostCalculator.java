@@ -24,17 +24,13 @@ package org.libreplan.business.planner.entities;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
-import java.sql.Time;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.SortedMap;
 import java.util.List;
+import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
-import java.util.Date;
 
+import org.joda.time.Days;
 import org.joda.time.LocalDate;
-import org.joda.time.LocalTime;
 import org.libreplan.business.advance.entities.AdvanceMeasurement;
 import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
 import org.libreplan.business.planner.entities.DayAssignment.FilterType;
@@ -55,6 +51,8 @@ import org.springframework.stereotype.Component;
 @Scope(BeanDefinition.SCOPE_SINGLETON)
 public class HoursCostCalculator implements ICostCalculator {
 
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal(100);
+
     @Autowired
     private IWorkReportLineDAO workReportLineDAO;
 
@@ -85,15 +83,19 @@ public class HoursCostCalculator implements ICostCalculator {
             LocalDate filterStartDate, LocalDate filterEndDate) {
 
         SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
+        if ( advanceMeasurements.isEmpty() ) {
+            return result;
+        }
+
+        BigDecimal total = new BigDecimal(totalHours);
 
         for (AdvanceMeasurement advanceMeasurement : advanceMeasurements) {
             LocalDate day = advanceMeasurement.getDate();
-            if( ((filterStartDate == null) || day.compareTo(filterStartDate) >= 0) &&
-                    ((filterEndDate == null) || day.compareTo(filterEndDate) <= 0) ) {
+            if ( isIncluded(day, filterStartDate, filterEndDate) ) {
 
                 BigDecimal cost = advanceMeasurement.getValue().setScale(2)
-                        .multiply(new BigDecimal(totalHours))
-                        .divide(new BigDecimal(100), new MathContext(2, RoundingMode.HALF_UP));
+                        .multiply(total)
+                        .divide(ONE_HUNDRED, new MathContext(2, RoundingMode.HALF_UP));
                 result.put(day, cost);
             }
         }
@@ -101,6 +103,11 @@ public class HoursCostCalculator implements ICostCalculator {
         return result;
     }
 
+    private static boolean isIncluded(LocalDate day, LocalDate filterStartDate, LocalDate filterEndDate) {
+        return ((filterStartDate == null) || day.compareTo(filterStartDate) >= 0) &&
+                ((filterEndDate == null) || day.compareTo(filterEndDate) <= 0);
+    }
+
     @Override
     public SortedMap<LocalDate, BigDecimal> getEstimatedCost(Task task) {
         return getEstimatedCost(task, null, null);
@@ -119,88 +126,89 @@ public class HoursCostCalculator implements ICostCalculator {
             return getAdvanceCost(task);
         }
 
-        SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
+        return calculateEstimatedCost(
+                task.getDayAssignments(FilterType.WITHOUT_DERIVED), filterStartDate, filterEndDate);
+    }
 
-        List<DayAssignment> dayAssignments = task.getDayAssignments(FilterType.WITHOUT_DERIVED);
-        if ( dayAssignments.isEmpty() ) {
-            return result;
+    @Override
+    public TaskCosts getCosts(Task task) {
+        SortedMap<LocalDate, BigDecimal> advanceCost = getAdvanceCost(task);
+        if ( task.isSubcontracted() ) {
+            return new TaskCosts(advanceCost, advanceCost);
         }
 
-        int additionOfAllAssignmentsMinutes = 0;
-
-        for (DayAssignment dayAssignment : dayAssignments) {
-            LocalDate day = dayAssignment.getDay();
-            if( ((filterStartDate == null) || day.compareTo(filterStartDate) >= 0) &&
-                    ((filterEndDate == null) || day.compareTo(filterEndDate) <= 0) ) {
+        return new TaskCosts(
+                calculateEstimatedCost(task.getDayAssignments(FilterType.WITHOUT_DERIVED), null, null),
+                advanceCost);
+    }
 
-                String currentTime = dayAssignment.getDuration().toFormattedString();
+    /**
+     * The whole hours of each day assignment, rounded to the nearest minute,
+     * are added to its day. The minutes are accumulated and added on the last
+     * day assignment: if they are between 30 and 60, one hour is added; if
+     * they are more than 60, they are converted to hours. E.g. 120 minutes /
+     * 60 = 2 hours.
+     *
+     * The hours are accumulated in an array indexed by the days since the
+     * first day, and only converted to {@link BigDecimal} at the end.
+     */
+    private SortedMap<LocalDate, BigDecimal> calculateEstimatedCost(List<DayAssignment> dayAssignments,
+                                                                    LocalDate filterStartDate,
+                                                                    LocalDate filterEndDate) {
 
-                SimpleDateFormat format1 = new SimpleDateFormat("hh:mm");
-                SimpleDateFormat format2 = new SimpleDateFormat("hh");
+        SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
 
-                Date date = null;
+        LocalDate firstDay = null;
+        LocalDate lastDay = null;
+        for (DayAssignment dayAssignment : dayAssignments) {
+            LocalDate day = dayAssignment.getDay();
+            if ( isIncluded(day, filterStartDate, filterEndDate) ) {
+                firstDay = (firstDay == null || day.isBefore(firstDay)) ? day : firstDay;
+                lastDay = (lastDay == null || day.isAfter(lastDay)) ? day : lastDay;
+            }
+        }
+        if ( firstDay == null ) {
+            return result;
+        }
 
-                try {
-                    if ( isParsableWithFormat1(currentTime) ) {
-                        date = format1.parse(currentTime);
-                    } else if ( isParsableWithFormat2(currentTime) ) {
-                        date = format2.parse(currentTime);
-                    }
-                } catch (ParseException e) {
-                    e.printStackTrace();
-                }
+        int days = Days.daysBetween(firstDay, lastDay).getDays() + 1;
+        long[] hoursPerDay = new long[days];
+        boolean[] assigned = new boolean[days];
 
-                assert date != null;
+        int additionOfAllAssignmentsMinutes = 0;
+        int lastAssignment = dayAssignments.size() - 1;
 
-                LocalTime time = new LocalTime(date.getTime());
-                // Time time = new Time(date.getTime());
+        for (int i = 0; i <= lastAssignment; i++) {
+            DayAssignment dayAssignment = dayAssignments.get(i);
+            LocalDate day = dayAssignment.getDay();
+            if ( !isIncluded(day, filterStartDate, filterEndDate) ) {
+                continue;
+            }
 
-                BigDecimal hours = new BigDecimal(time.getHourOfDay());
-                additionOfAllAssignmentsMinutes += time.getMinuteOfHour();
+            int minutesAtNearestMinute = (dayAssignment.getDuration().getSeconds() + 30) / 60;
+            long hours = minutesAtNearestMinute / 60;
+            additionOfAllAssignmentsMinutes += minutesAtNearestMinute % 60;
 
-                if ( !result.containsKey(day) ) {
-                    result.put(day, BigDecimal.ZERO);
+            if ( i == lastAssignment ) {
+                if ( additionOfAllAssignmentsMinutes >= 30 && additionOfAllAssignmentsMinutes <= 60 ) {
+                    hours += 1;
                 }
-
-                /**
-                 * On last day assignment app will check addition of minutes of all assignments.
-                 * If it is between 30 and 60 - add 1 hour to the last value of result.
-                 * If it is more than 60 then divide on 60 and calculate hours.
-                 * E.G. 120 minutes / 60 = 2 hours.
-                 */
-                if ( dayAssignment.equals(dayAssignments.get(dayAssignments.size() - 1)) ){
-
-                    if ( additionOfAllAssignmentsMinutes >= 30 && additionOfAllAssignmentsMinutes <= 60 )
-                        hours = BigDecimal.valueOf(hours.intValue() + 1);
-
-                    if ( additionOfAllAssignmentsMinutes > 60 )
-                        hours = BigDecimal.valueOf(hours.intValue() + (additionOfAllAssignmentsMinutes / 60));
+                if ( additionOfAllAssignmentsMinutes > 60 ) {
+                    hours += additionOfAllAssignmentsMinutes / 60;
                 }
-                result.put(day, result.get(day).add(hours));
             }
-        }
-        return result;
-    }
 
-    private boolean isParsableWithFormat1(String input){
-        boolean parsable = true;
-        try {
-            SimpleDateFormat format = new SimpleDateFormat("hh:mm");
-            format.parse(input);
-        } catch (ParseException e) {
-            parsable = false;
+            int index = Days.daysBetween(firstDay, day).getDays();
+            hoursPerDay[index] += hours;
+            assigned[index] = true;
         }
-        return parsable;
-    }
-    private boolean isParsableWithFormat2(String input){
-        boolean parsable = true;
-        try {
-            SimpleDateFormat format = new SimpleDateFormat("hh");
-            format.parse(input);
-        } catch (ParseException e) {
-            parsable = false;
+
+        for (int i = 0; i < days; i++) {
+            if ( assigned[i] ) {
+                result.put(firstDay.plusDays(i), BigDecimal.valueOf(hoursPerDay[i]));
+            }
         }
-        return parsable;
+        return result;
     }
 
     @Override
@@ -45,4 +45,10 @@ public interface ICostCalculator {
     SortedMap<LocalDate, BigDecimal> getAdvanceCost(Task task,
             LocalDate filterStartDate, LocalDate filterEndDate);
 
+    /**
+     * Calculates the estimated and the advance costs of the task at once,
+     * without filtering by dates.
+     */
+    TaskCosts getCosts(Task task);
+
 }
@@ -31,6 +31,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -1445,15 +1446,56 @@ public abstract class ResourceAllocation<T extends DayAssignment>
 
         protected abstract void addAssignments(Collection<? extends T> assignments);
 
+        /**
+         * The current assignments with the same values than some of the
+         * modification are kept, so they don't have to be written again when
+         * saving. The rest are replaced by the ones of the modification.
+         */
         @SuppressWarnings("unchecked")
         public void mergeAssignments(ResourceAllocation<?> modification) {
-            detachAssignments();
-            resetTo(((ResourceAllocation<T>) modification).getAssignments());
+            checkModificationsAllowed();
+            Map<LocalDate, List<T>> currentByDay = DayAssignment.byDay(getUnorderedAssignments());
+            List<T> added = new ArrayList<>();
+            for (T each : ((ResourceAllocation<T>) modification).getAssignments()) {
+                if (!removeWithSameValues(currentByDay.get(each.getDay()), each)) {
+                    added.add(each);
+                }
+            }
+
+            List<T> removed = new ArrayList<>();
+            for (List<T> each : currentByDay.values()) {
+                removed.addAll(each);
+            }
+            for (T each : removed) {
+                each.detach();
+            }
+            removeAssignments(removed);
+            addAssignments(added);
             clearCachedData();
         }
 
+        private boolean removeWithSameValues(List<T> assignments, T assignment) {
+            if (assignments == null) {
+                return false;
+            }
+            for (Iterator<T> iterator = assignments.iterator(); iterator.hasNext();) {
+                if (iterator.next().hasSameValuesAs(assignment)) {
+                    iterator.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+
         protected abstract void resetTo(Collection<T> assignmentsCopied);
 
+        /**
+         * Fails if the assignments can't be modified in this state. It must be
+         * called before any assignment is detached or replaced.
+         */
+        void checkModificationsAllowed() {
+        }
+
         void detachAssignments() {
             for (DayAssignment each : getUnorderedAssignments()) {
                 each.detach();
@@ -1574,6 +1616,11 @@ public abstract class ResourceAllocation<T extends DayAssignment>
             modificationsNotAllowed();
         }
 
+        @Override
+        final void checkModificationsAllowed() {
+            modificationsNotAllowed();
+        }
+
         private void modificationsNotAllowed() {
             throw new IllegalStateException("modifications to assignments can't be done " +
                     "if the scenario on which to work on is not explicitly specified");
@@ -0,0 +1,57 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.entities;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.SortedMap;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Budgeted costs per day of a {@link Task} calculated together by
+ * {@link ICostCalculator#getCosts(Task)}: the estimated cost (BCWS) and the
+ * advance cost (BCWP).<br />
+ *
+ * The actual cost (ACWP) is not included as it comes from the work report
+ * lines and not from the task.
+ */
+public class TaskCosts {
+
+    private final SortedMap<LocalDate, BigDecimal> estimatedCost;
+
+    private final SortedMap<LocalDate, BigDecimal> advanceCost;
+
+    public TaskCosts(SortedMap<LocalDate, BigDecimal> estimatedCost,
+                     SortedMap<LocalDate, BigDecimal> advanceCost) {
+
+        this.estimatedCost = Collections.unmodifiableSortedMap(estimatedCost);
+        this.advanceCost = Collections.unmodifiableSortedMap(advanceCost);
+    }
+
+    public SortedMap<LocalDate, BigDecimal> getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    public SortedMap<LocalDate, BigDecimal> getAdvanceCost() {
+        return advanceCost;
+    }
+
+}
@@ -21,8 +21,11 @@
 
 package org.libreplan.business.resources.daos;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang3.Validate;
 import org.hibernate.Criteria;
@@ -56,6 +59,25 @@ public class CriterionTypeDAO extends IntegrationEntityDAO<CriterionType>
                 .uniqueResult();
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<CriterionType> findByNamesWithCriterions(Collection<String> names) {
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> lowerCaseNames = new HashSet<>();
+        for (String each : names) {
+            lowerCaseNames.add(each.trim().toLowerCase());
+        }
+
+        return getSession()
+                .createQuery("SELECT DISTINCT t FROM CriterionType t LEFT JOIN FETCH t.criterions "
+                        + "WHERE lower(t.name) IN (:names)")
+                .setParameterList("names", lowerCaseNames)
+                .list();
+    }
+
     @Override
     public CriterionType findUniqueByName(CriterionType criterionType) throws InstanceNotFoundException {
         Validate.notNull(criterionType);
@@ -47,6 +47,12 @@ public interface ICriterionTypeDAO extends IIntegrationEntityDAO<CriterionType>
 
     CriterionType findByName(String name);
 
+    /**
+     * It returns the criterion types with any of the names, ignoring case,
+     * with their criteria already loaded.
+     */
+    List<CriterionType> findByNamesWithCriterions(Collection<String> names);
+
     boolean existsOtherCriterionTypeByName(CriterionType criterionType);
 
     boolean existsByNameAnotherTransaction(CriterionType criterionType);
@@ -56,6 +56,13 @@ public interface IResourceDAO extends IIntegrationEntityDAO<Resource> {
      */
     List<Resource> getRealResources();
 
+    /**
+     * Returns at most <code>maxResults</code> real resources ({@link Machine}
+     * and {@link Worker}) with code greater than <code>code</code>, ordered by
+     * code. See {@link #findAfterCode(String, int)}.
+     */
+    List<Resource> getRealResourcesAfterCode(String code, int maxResults);
+
     /**
      * Returns all {@link Worker} which are not virtual
      *
@@ -21,6 +21,7 @@
 
 package org.libreplan.business.resources.daos;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -124,6 +125,12 @@ public interface IWorkerDAO extends IIntegrationEntityDAO<Worker> {
 
     public Worker getCurrentWorker(Long resourceID);
 
+    /**
+     * The not virtual {@link Worker Workers} among the given resources, found
+     * with a query per chunk of ids instead of one per resource
+     */
+    List<Worker> getCurrentWorkers(Collection<Long> resourceIDs);
+
     /**
      * Return the list of {@link Worker Workers} bound to any {@link User}.
      */
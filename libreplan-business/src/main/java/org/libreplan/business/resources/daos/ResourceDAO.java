@@ -29,6 +29,7 @@ import java.util.List;
 import org.hibernate.Query;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.reports.dtos.HoursWorkedPerResourceDTO;
@@ -118,6 +119,23 @@ public class ResourceDAO extends IntegrationEntityDAO<Resource> implements IReso
         return list;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Resource> getRealResourcesAfterCode(String code, int maxResults) {
+        String strQuery = "FROM Resource resource WHERE resource.id NOT IN (SELECT virtualWorker.id FROM VirtualWorker virtualWorker) ";
+        if ( code != null ) {
+            strQuery += "AND resource.code > :code ";
+        }
+        strQuery += "ORDER BY resource.code";
+
+        Query query = getSession().createQuery(strQuery);
+        if ( code != null ) {
+            query.setParameter("code", code);
+        }
+
+        return query.setMaxResults(maxResults).list();
+    }
+
     @Override
     public void save(Resource resource) {
         if ( resource instanceof Worker || resource instanceof Machine ) {
@@ -235,27 +253,24 @@ public class ResourceDAO extends IntegrationEntityDAO<Resource> implements IReso
     public List<HoursWorkedPerWorkerInAMonthDTO> getWorkingHoursPerWorker(Integer year, Integer month) {
 
         String strQuery =
-                "SELECT wrlresource.id, SUM(wrl.effort) " +
-                "FROM WorkReportLine wrl " +
-                "LEFT OUTER JOIN wrl.resource wrlresource ";
+                "SELECT dailyEffort.resource.id, SUM(dailyEffort.effort) " +
+                "FROM DailyChargedEffort dailyEffort ";
 
+        // A range on the date column lets the database use its index
+        LocalDate start = null;
+        LocalDate end = null;
         if ( year != null ) {
-            strQuery += "WHERE YEAR(wrl.date) = :year ";
-        }
-
-        if ( month != null ) {
-            strQuery += "AND MONTH(wrl.date) = :month ";
+            start = new LocalDate(year, month != null ? month : 1, 1);
+            end = month != null ? start.plusMonths(1) : start.plusYears(1);
+            strQuery += "WHERE dailyEffort.date >= :start AND dailyEffort.date < :end ";
         }
 
-        strQuery += "GROUP BY wrlresource.id, MONTH(wrl.date) ";
+        strQuery += "GROUP BY dailyEffort.resource.id, MONTH(dailyEffort.date) ";
 
         Query query = getSession().createQuery(strQuery);
-        if ( year != null ) {
-            query.setParameter("year", year);
-        }
-
-        if ( month != null ) {
-            query.setParameter("month", month);
+        if ( start != null ) {
+            query.setParameter("start", start.toDateTimeAtStartOfDay().toDate());
+            query.setParameter("end", end.toDateTimeAtStartOfDay().toDate());
         }
 
         List<HoursWorkedPerWorkerInAMonthDTO> result = toDTO(query.list());
@@ -21,6 +21,9 @@
 
 package org.libreplan.business.resources.daos;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -50,6 +53,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class WorkerDAO extends IntegrationEntityDAO<Worker>
     implements IWorkerDAO {
 
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
     @Override
     public Worker findUniqueByNif(String nif) throws InstanceNotFoundException {
         Criteria criteria = getSession().createCriteria(Worker.class);
@@ -148,20 +153,19 @@ public class WorkerDAO extends IntegrationEntityDAO<Worker>
     @Transactional(readOnly = true)
     public List<Object[]> getWorkingHoursGroupedPerWorker(
             List<String> workerCodes, Date startingDate, Date endingDate) {
-        String strQuery = "SELECT worker.code, SUM(wrl.effort) "
-                + "FROM Worker worker, WorkReportLine wrl "
-                + "LEFT OUTER JOIN wrl.resource resource "
-                + "WHERE resource.id = worker.id ";
+        String strQuery = "SELECT worker.code, SUM(dailyEffort.effort) "
+                + "FROM Worker worker, DailyChargedEffort dailyEffort "
+                + "WHERE dailyEffort.resource.id = worker.id ";
 
         // Set date range
         if (startingDate != null && endingDate != null) {
-            strQuery += "AND wrl.date BETWEEN :startingDate AND :endingDate ";
+            strQuery += "AND dailyEffort.date BETWEEN :startingDate AND :endingDate ";
         }
         if (startingDate != null && endingDate == null) {
-            strQuery += "AND wrl.date >= :startingDate ";
+            strQuery += "AND dailyEffort.date >= :startingDate ";
         }
         if (startingDate == null && endingDate != null) {
-            strQuery += "AND wrl.date <= :endingDate ";
+            strQuery += "AND dailyEffort.date <= :endingDate ";
         }
 
         // Set workers
@@ -202,14 +206,26 @@ public class WorkerDAO extends IntegrationEntityDAO<Worker>
     @Override
     @Transactional(readOnly = true)
     public Worker getCurrentWorker(Long resourceID) {
-        List<Worker> workerList = getWorkers();
+        List<Worker> found = getCurrentWorkers(Collections.singletonList(resourceID));
+        return found.isEmpty() ? null : found.get(0);
+    }
 
-        for (Worker worker : workerList) {
-            if (worker.getId().equals(resourceID)) {
-                return worker;
-            }
+    @Override
+    @SuppressWarnings("unchecked")
+    @Transactional(readOnly = true)
+    public List<Worker> getCurrentWorkers(Collection<Long> resourceIDs) {
+        List<Worker> result = new ArrayList<Worker>();
+
+        List<Long> ids = new ArrayList<Long>(resourceIDs);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from,
+                    Math.min(ids.size(), from + MAX_IDS_PER_QUERY));
+            result.addAll(getSession().createQuery(
+                    "FROM Worker worker WHERE worker.id IN (:ids) "
+                            + "AND worker NOT IN (FROM VirtualWorker)")
+                    .setParameterList("ids", chunk)
+                    .list());
         }
-
-        return null;
+        return result;
     }
 }
@@ -114,6 +114,21 @@ public class CriterionSatisfaction extends IntegrationEntity {
         /* Get CriterionType */
         CriterionType criterionType = criterionTypeDAO.findUniqueByName(criterionTypeName);
 
+        return createUnvalidated(code, criterionType, criterionName, resource, startDate, finishDate);
+
+    }
+
+    /**
+     * @throws InstanceNotFoundException if criterion does not exist in the
+     *         criterion type
+     */
+    public static CriterionSatisfaction createUnvalidated(String code,
+                                                          CriterionType criterionType,
+                                                          String criterionName,
+                                                          Resource resource,
+                                                          LocalDate startDate,
+                                                          LocalDate finishDate) throws InstanceNotFoundException {
+
         /* Get Criterion */
         Criterion criterion = criterionType.getCriterion(criterionName);
 
@@ -163,6 +178,7 @@ public class CriterionSatisfaction extends IntegrationEntity {
         if (finishDate != null) {
             this.finishDate = finishDate;
         }
+        changed();
     }
 
     @Override
@@ -200,6 +216,7 @@ public class CriterionSatisfaction extends IntegrationEntity {
 
     public void setCriterion(Criterion criterion) {
         this.criterion = criterion;
+        changed();
     }
 
 
@@ -209,7 +226,9 @@ public class CriterionSatisfaction extends IntegrationEntity {
     }
 
     public void setResource(Resource resource) {
+        changed();
         this.resource = resource;
+        changed();
     }
 
     public boolean isCurrent() {
@@ -233,10 +252,12 @@ public class CriterionSatisfaction extends IntegrationEntity {
                 finishDate == null || isNewObject() || getEndDate().equals(finish) || getEndDate().isBefore(finish));
 
         this.finishDate = finish;
+        changed();
     }
 
     public void noFinish() {
         this.finishDate = null;
+        changed();
     }
 
     public boolean isFinished() {
@@ -248,6 +269,7 @@ public class CriterionSatisfaction extends IntegrationEntity {
             finish(date);
         }
         this.finishDate = date;
+        changed();
     }
 
     public void setStartDate(LocalDate date) {
@@ -257,10 +279,18 @@ public class CriterionSatisfaction extends IntegrationEntity {
                     startDate == null || isNewObject() || getStartDate().equals(date) || getStartDate().isAfter(date));
         }
         startDate = date;
+        changed();
     }
 
     public void setIsDeleted(boolean isDeleted) {
         this.isDeleted = isDeleted;
+        changed();
+    }
+
+    private void changed() {
+        if (resource != null) {
+            resource.criterionSatisfactionsChanged();
+        }
     }
 
     public boolean isIsDeleted() {
@@ -61,6 +61,7 @@ import org.libreplan.business.costcategories.entities.CostCategory;
 import org.libreplan.business.costcategories.entities.ResourcesCostCategoryAssignment;
 import org.libreplan.business.planner.entities.AvailabilityCalculator;
 import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DayAssignmentsTimeline;
 import org.libreplan.business.planner.entities.ResourceAllocation;
 import org.libreplan.business.resources.daos.IResourceDAO;
 import org.libreplan.business.scenarios.entities.Scenario;
@@ -131,9 +132,16 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     private Set<CriterionSatisfaction> criterionSatisfactions = new HashSet<CriterionSatisfaction>();
 
+    /**
+     * Incremented each time the {@link CriterionSatisfaction
+     * CriterionSatisfactions} change, so {@link SatisfiedCriterionsIndex} knows
+     * when to calculate them again. It is not stored.
+     */
+    private long criterionSatisfactionsVersion = 0;
+
     private Set<DayAssignment> dayAssignments = new HashSet<DayAssignment>();
 
-    private Map<LocalDate, List<DayAssignment>> assignmentsByDayCached = null;
+    private DayAssignmentsTimeline timelineCached = null;
 
     private Set<ResourcesCostCategoryAssignment> resourcesCostCategoryAssignments =
             new HashSet<ResourcesCostCategoryAssignment>();
@@ -143,19 +151,15 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
     private LimitingResourceQueue limitingResourceQueue;
 
     private void clearCachedData() {
-        assignmentsByDayCached = null;
+        timelineCached = null;
         dayAssignmentsState.clearCachedData();
     }
 
-    private List<DayAssignment> getAssignmentsForDay(LocalDate date) {
-        if ( assignmentsByDayCached == null ) {
-            assignmentsByDayCached = DayAssignment.byDay(getAssignments());
-        }
-        List<DayAssignment> list = assignmentsByDayCached.get(date);
-        if ( list == null ){
-            return Collections.emptyList();
+    private DayAssignmentsTimeline getTimeline() {
+        if ( timelineCached == null ) {
+            timelineCached = DayAssignmentsTimeline.create(getAssignments());
         }
-        return list;
+        return timelineCached;
     }
 
     private abstract class DayAssignmentsState {
@@ -484,6 +488,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
         if (canAddSatisfaction(criterionWithItsType, interval)) {
             newSatisfaction.validate();
             criterionSatisfactions.add(newSatisfaction);
+            criterionSatisfactionsChanged();
             return newSatisfaction;
         }
         final String message = getReasonForNotAddingSatisfaction(type);
@@ -569,6 +574,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
                 }
                 original.validate();
                 criterionSatisfactions.add(original);
+                criterionSatisfactionsChanged();
                 if(!canAdd){
                     throw new IllegalStateException(
                             "This interval "+original.getCriterion().getName()+" not is valid because exists overlap with other criterion satisfaction");
@@ -703,6 +709,15 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     public void removeCriterionSatisfaction(CriterionSatisfaction satisfaction) {
         criterionSatisfactions.remove(satisfaction);
+        criterionSatisfactionsChanged();
+    }
+
+    public long getCriterionSatisfactionsVersion() {
+        return criterionSatisfactionsVersion;
+    }
+
+    void criterionSatisfactionsChanged() {
+        criterionSatisfactionsVersion++;
     }
 
     public boolean contains(CriterionSatisfaction satisfaction) {
@@ -844,21 +859,18 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
     }
 
     public EffortDuration getAssignedEffort(LocalDate localDate) {
-        return DayAssignment.sum(getAssignmentsForDay(localDate));
+        return getTimeline().getAssignedEffort(localDate);
+    }
+
+    public EffortDuration getAssignedEffortBetween(LocalDate startInclusive, LocalDate endExclusive) {
+        return getTimeline().getAssignedEffortBetween(startInclusive, endExclusive);
     }
 
     public EffortDuration getAssignedDurationDiscounting(
             Map<Long, Set<BaseEntity>> allocationsFromWhichDiscountHours,
             LocalDate day) {
 
-        EffortDuration result = zero();
-        for (DayAssignment dayAssignment : getAssignmentsForDay(day)) {
-
-            if ( !dayAssignment.belongsToSomeOf(allocationsFromWhichDiscountHours) ) {
-                result = result.plus(dayAssignment.getDuration());
-            }
-        }
-        return result;
+        return getTimeline().getAssignedEffortDiscounting(allocationsFromWhichDiscountHours, day);
     }
 
     public void addNewAssignments(Collection<? extends DayAssignment> assignments) {
@@ -880,6 +892,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
 
     public void useScenario(Scenario scenario) {
         dayAssignmentsState = new OnSpecifiedScenario(scenario);
+        timelineCached = null;
     }
 
     public int getTotalWorkHours(LocalDate start, LocalDate end) {
@@ -941,7 +954,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
                                                    criterionSatisfaction) {
 
         criterionSatisfactions.add(criterionSatisfaction);
-
+        criterionSatisfactionsChanged();
     }
 
     public void addSatisfactions(Set<CriterionSatisfaction> addlist) throws ValidationException {
@@ -964,6 +977,7 @@ public abstract class Resource extends IntegrationEntity implements IHumanIdenti
         validateSatisfactions(activeList);
         criterionSatisfactions.clear();
         criterionSatisfactions.addAll(newList);
+        criterionSatisfactionsChanged();
     }
 
     private void validateSatisfactions(Set<CriterionSatisfaction> satisfactions) throws ValidationException {
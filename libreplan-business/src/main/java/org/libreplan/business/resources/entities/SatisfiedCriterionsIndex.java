@@ -0,0 +1,256 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.resources.entities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+
+/**
+ * Index of the days in which some resources satisfy all the criteria of a
+ * set.<br />
+ *
+ * For each resource it keeps the sorted intervals of days in which all the
+ * criteria are satisfied, so checking a day is a binary search instead of
+ * going through all the {@link CriterionSatisfaction CriterionSatisfactions}
+ * of the resource. It answers the same as the criterion built with
+ * {@link CriterionCompounder#buildAnd(Collection)}. The intervals of a
+ * resource are calculated again when its satisfactions change.<br />
+ *
+ * It isn't thread safe.
+ */
+public class SatisfiedCriterionsIndex {
+
+    public static SatisfiedCriterionsIndex forCriterions(Collection<? extends Criterion> criterions) {
+        return new SatisfiedCriterionsIndex(criterions);
+    }
+
+    /**
+     * Days from <code>start</code>, included, to <code>end</code>, not
+     * included. A <code>null</code> end means that it never ends.
+     */
+    private static class DaysInterval {
+
+        private static final Comparator<DaysInterval> BY_START = new Comparator<DaysInterval>() {
+
+            @Override
+            public int compare(DaysInterval o1, DaysInterval o2) {
+                return o1.start.compareTo(o2.start);
+            }
+        };
+
+        private final LocalDate start;
+
+        private final LocalDate end;
+
+        DaysInterval(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean endsBefore(LocalDate date) {
+            return end != null && end.isBefore(date);
+        }
+
+    }
+
+    private static class SatisfiedDays {
+
+        private final long satisfactionsVersion;
+
+        private final LocalDate[] starts;
+
+        private final LocalDate[] ends;
+
+        SatisfiedDays(long satisfactionsVersion, List<DaysInterval> intervals) {
+            this.satisfactionsVersion = satisfactionsVersion;
+            this.starts = new LocalDate[intervals.size()];
+            this.ends = new LocalDate[intervals.size()];
+            for (int i = 0; i < intervals.size(); i++) {
+                starts[i] = intervals.get(i).start;
+                ends[i] = intervals.get(i).end;
+            }
+        }
+
+        boolean contains(LocalDate day) {
+            int low = 0;
+            int high = starts.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if ( starts[middle].compareTo(day) <= 0 ) {
+                    found = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+
+            return found >= 0 && (ends[found] == null || day.compareTo(ends[found]) < 0);
+        }
+
+    }
+
+    private final List<Criterion> criterions;
+
+    private final Map<Resource, SatisfiedDays> byResource = new IdentityHashMap<>();
+
+    private SatisfiedCriterionsIndex(Collection<? extends Criterion> criterions) {
+        Validate.noNullElements(criterions);
+        this.criterions = new ArrayList<>(criterions);
+    }
+
+    public boolean isSatisfiedBy(Resource resource, LocalDate day) {
+        if ( criterions.isEmpty() ) {
+            return true;
+        }
+
+        SatisfiedDays satisfiedDays = byResource.get(resource);
+        if ( satisfiedDays == null
+                || satisfiedDays.satisfactionsVersion != resource.getCriterionSatisfactionsVersion() ) {
+
+            satisfiedDays = calculateSatisfiedDays(resource);
+            byResource.put(resource, satisfiedDays);
+        }
+
+        return satisfiedDays.contains(day);
+    }
+
+    private SatisfiedDays calculateSatisfiedDays(Resource resource) {
+        long version = resource.getCriterionSatisfactionsVersion();
+        Set<CriterionSatisfaction> satisfactions = resource.getCriterionSatisfactions();
+
+        List<DaysInterval> result = null;
+        for (Criterion each : criterions) {
+            List<DaysInterval> satisfiedForCriterion = union(daysEnforced(each, satisfactions));
+            result = result == null ? satisfiedForCriterion : intersection(result, satisfiedForCriterion);
+            if ( result.isEmpty() ) {
+                break;
+            }
+        }
+
+        return new SatisfiedDays(version, result);
+    }
+
+    private static List<DaysInterval> daysEnforced(Criterion criterion, Set<CriterionSatisfaction> satisfactions) {
+        List<DaysInterval> result = new ArrayList<>();
+        for (CriterionSatisfaction each : satisfactions) {
+            if ( criterion.includes(each.getCriterion()) ) {
+                DaysInterval days = daysEnforced(each);
+                if ( days != null ) {
+                    result.add(days);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Days for which {@link CriterionSatisfaction#isAlwaysEnforcedIn(Interval)}
+     * is <code>true</code> for the {@link Interval#point(LocalDate)} of the day.
+     * Depending on the kind of interval the start day could be excluded, so
+     * it's asked to the satisfaction itself.
+     */
+    private static DaysInterval daysEnforced(CriterionSatisfaction satisfaction) {
+        LocalDate start = satisfaction.getStartDate();
+        LocalDate end = satisfaction.getEndDate();
+        if ( start == null || (end != null && end.isBefore(start)) ) {
+            return null;
+        }
+
+        LocalDate first = satisfaction.isAlwaysEnforcedIn(Interval.point(start)) ? start : start.plusDays(1);
+        LocalDate last = end == null ? null : (end.equals(start) ? start.plusDays(1) : end);
+        if ( last != null && !first.isBefore(last) ) {
+            return null;
+        }
+
+        return new DaysInterval(first, last);
+    }
+
+    private static List<DaysInterval> union(List<DaysInterval> intervals) {
+        List<DaysInterval> sorted = new ArrayList<>(intervals);
+        Collections.sort(sorted, DaysInterval.BY_START);
+
+        List<DaysInterval> result = new ArrayList<>();
+        DaysInterval current = null;
+        for (DaysInterval each : sorted) {
+            if ( current == null ) {
+                current = each;
+            } else if ( current.endsBefore(each.start) ) {
+                result.add(current);
+                current = each;
+            } else if ( current.end != null && (each.end == null || each.end.isAfter(current.end)) ) {
+                current = new DaysInterval(current.start, each.end);
+            }
+        }
+        if ( current != null ) {
+            result.add(current);
+        }
+
+        return result;
+    }
+
+    private static List<DaysInterval> intersection(List<DaysInterval> a, List<DaysInterval> b) {
+        List<DaysInterval> result = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < a.size() && j < b.size()) {
+            DaysInterval x = a.get(i);
+            DaysInterval y = b.get(j);
+
+            LocalDate start = x.start.isAfter(y.start) ? x.start : y.start;
+            LocalDate end = earliestEnd(x.end, y.end);
+            if ( end == null || start.isBefore(end) ) {
+                result.add(new DaysInterval(start, end));
+            }
+
+            if ( end == null ) {
+                break;
+            } else if ( x.end != null && x.end.equals(end) ) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    private static LocalDate earliestEnd(LocalDate end1, LocalDate end2) {
+        if ( end1 == null ) {
+            return end2;
+        }
+        if ( end2 == null ) {
+            return end1;
+        }
+
+        return end1.isBefore(end2) ? end1 : end2;
+    }
+
+}
@@ -0,0 +1,366 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable index to find the entities whose fields contain a text, ignoring
+ * case, as the bandbox finders do.<br />
+ *
+ * Each entry is the id of an entity and the lower-cased text of its fields.
+ * Searches of three or more characters only check the entries containing the
+ * trigram of the text with fewest entries. Shorter searches go through the
+ * entries until finding enough matches.<br />
+ *
+ * The changes are applied with {@link #withChanges(Builder, Collection)},
+ * which shares the entries of the previous index and keeps the changed ones
+ * apart. When there are too many of them, the index is built again.
+ */
+public class SearchIndex {
+
+    private static final char FIELDS_SEPARATOR = '\u0000';
+
+    /**
+     * Maximum number of changed entries kept apart
+     */
+    private static final int MAX_CHANGED_ENTRIES = 1000;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static SearchIndex empty() {
+        return builder().build();
+    }
+
+    /**
+     * Collects the entries in the order they will be returned by the searches
+     */
+    public static class Builder {
+
+        private final Map<Long, String> texts = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(Long id, String... fields) {
+            texts.put(id, toText(fields));
+            return this;
+        }
+
+        public SearchIndex build() {
+            return new SearchIndex(texts);
+        }
+
+    }
+
+    private static String toText(String... fields) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if ( i > 0 ) {
+                result.append(FIELDS_SEPARATOR);
+            }
+            if ( fields[i] != null ) {
+                result.append(fields[i].toLowerCase());
+            }
+        }
+
+        return result.toString();
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase();
+    }
+
+    private static long trigramAt(String text, int position) {
+        return ((long) text.charAt(position) << 32)
+                | ((long) text.charAt(position + 1) << 16)
+                | text.charAt(position + 2);
+    }
+
+    private static boolean isSearchable(long trigram) {
+        return ((trigram >>> 32) & 0xFFFF) != FIELDS_SEPARATOR
+                && ((trigram >>> 16) & 0xFFFF) != FIELDS_SEPARATOR
+                && (trigram & 0xFFFF) != FIELDS_SEPARATOR;
+    }
+
+    /**
+     * Whether the text contains the searched one in one of the first fields
+     */
+    private static boolean matches(String text, String searched, int fields) {
+        int index = text.indexOf(searched);
+        if ( index < 0 ) {
+            return false;
+        }
+        if ( fields == Integer.MAX_VALUE ) {
+            return true;
+        }
+
+        // The first occurrence is in the first field containing it
+        int field = 0;
+        for (int i = 0; i < index; i++) {
+            if ( text.charAt(i) == FIELDS_SEPARATOR ) {
+                field++;
+            }
+        }
+
+        return field < fields;
+    }
+
+    private final long[] ids;
+
+    private final String[] texts;
+
+    /**
+     * Ids of the entries sorted, and their positions, to find them by id
+     */
+    private final long[] sortedIds;
+
+    private final int[] positionsOfSortedIds;
+
+    /**
+     * Positions of the entries containing each trigram, in ascending order
+     */
+    private final Map<Long, int[]> entriesByTrigram;
+
+    /**
+     * Entries removed or changed since the index was built
+     */
+    private final BitSet removed;
+
+    private final Map<Long, String> changed;
+
+    private SearchIndex(Map<Long, String> entries) {
+        int size = entries.size();
+        ids = new long[size];
+        texts = new String[size];
+
+        Map<Long, IntList> positionsByTrigram = new HashMap<>();
+        int position = 0;
+        for (Entry<Long, String> each : entries.entrySet()) {
+            ids[position] = each.getKey();
+            texts[position] = each.getValue();
+            addTrigrams(positionsByTrigram, each.getValue(), position);
+            position++;
+        }
+
+        entriesByTrigram = new HashMap<>(positionsByTrigram.size() * 4 / 3 + 1);
+        for (Entry<Long, IntList> each : positionsByTrigram.entrySet()) {
+            entriesByTrigram.put(each.getKey(), each.getValue().toArray());
+        }
+
+        sortedIds = ids.clone();
+        Arrays.sort(sortedIds);
+        positionsOfSortedIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            positionsOfSortedIds[Arrays.binarySearch(sortedIds, ids[i])] = i;
+        }
+
+        removed = new BitSet(size);
+        changed = Collections.emptyMap();
+    }
+
+    private SearchIndex(SearchIndex base, BitSet removed, Map<Long, String> changed) {
+        this.ids = base.ids;
+        this.texts = base.texts;
+        this.sortedIds = base.sortedIds;
+        this.positionsOfSortedIds = base.positionsOfSortedIds;
+        this.entriesByTrigram = base.entriesByTrigram;
+        this.removed = removed;
+        this.changed = changed;
+    }
+
+    private static void addTrigrams(Map<Long, IntList> positionsByTrigram, String text, int position) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            long trigram = trigramAt(text, i);
+            if ( !isSearchable(trigram) ) {
+                continue;
+            }
+            IntList positions = positionsByTrigram.get(trigram);
+            if ( positions == null ) {
+                positions = new IntList();
+                positionsByTrigram.put(trigram, positions);
+            }
+            positions.addIfNotLast(position);
+        }
+    }
+
+    public int size() {
+        return ids.length - removed.cardinality() + changed.size();
+    }
+
+    /**
+     * @return the ids of the first entries, up to <code>limit</code>,
+     *         containing the text in any of their fields
+     */
+    public List<Long> search(String text, int limit) {
+        return search(text, Integer.MAX_VALUE, limit);
+    }
+
+    /**
+     * Like {@link #search(String, int)} but only looking for the text in the
+     * first <code>fields</code> fields of the entries
+     */
+    public List<Long> search(String text, int fields, int limit) {
+        String searched = normalize(text);
+        List<Long> result = new ArrayList<>();
+
+        int[] candidates = candidatesFor(searched);
+        int candidatesNumber = candidates != null ? candidates.length : ids.length;
+        for (int i = 0; i < candidatesNumber && result.size() < limit; i++) {
+            int position = candidates != null ? candidates[i] : i;
+            if ( !removed.get(position) && matches(texts[position], searched, fields) ) {
+                result.add(ids[position]);
+            }
+        }
+
+        for (Entry<Long, String> each : changed.entrySet()) {
+            if ( result.size() >= limit ) {
+                break;
+            }
+            if ( matches(each.getValue(), searched, fields) ) {
+                result.add(each.getKey());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the positions of the entries that could contain the text or
+     *         <code>null</code> if all of them could
+     */
+    private int[] candidatesFor(String searched) {
+        int[] result = null;
+        for (int i = 0; i + 3 <= searched.length(); i++) {
+            int[] positions = entriesByTrigram.get(trigramAt(searched, i));
+            if ( positions == null ) {
+                return new int[0];
+            }
+            if ( result == null || positions.length < result.length ) {
+                result = positions;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return if there is an entry for the id with the same fields, ignoring
+     *         case
+     */
+    public boolean hasSameFields(Long id, String... fields) {
+        String text = getText(id);
+        return text != null && text.equals(toText(fields));
+    }
+
+    private String getText(Long id) {
+        if ( changed.containsKey(id) ) {
+            return changed.get(id);
+        }
+        int position = positionOf(id);
+
+        return position >= 0 && !removed.get(position) ? texts[position] : null;
+    }
+
+    private int positionOf(long id) {
+        int index = Arrays.binarySearch(sortedIds, id);
+        return index >= 0 ? positionsOfSortedIds[index] : -1;
+    }
+
+    /**
+     * @return a new index with the entries of <code>changes</code> added or
+     *         replacing the existing ones with the same id, and without the
+     *         entries of the removed ids. This index is not modified.
+     */
+    public SearchIndex withChanges(Builder changes, Collection<Long> removedIds) {
+        if ( changes.texts.isEmpty() && removedIds.isEmpty() ) {
+            return this;
+        }
+
+        BitSet newRemoved = (BitSet) removed.clone();
+        Map<Long, String> newChanged = new LinkedHashMap<>(changed);
+
+        List<Long> toRemove = new ArrayList<>(removedIds);
+        toRemove.addAll(changes.texts.keySet());
+        for (Long each : toRemove) {
+            newChanged.remove(each);
+            int position = positionOf(each);
+            if ( position >= 0 ) {
+                newRemoved.set(position);
+            }
+        }
+        newChanged.putAll(changes.texts);
+
+        if ( newChanged.size() > MAX_CHANGED_ENTRIES ) {
+            return compact(newRemoved, newChanged);
+        }
+
+        return new SearchIndex(this, newRemoved, newChanged);
+    }
+
+    private SearchIndex compact(BitSet removed, Map<Long, String> changed) {
+        Map<Long, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if ( !removed.get(i) ) {
+                entries.put(ids[i], texts[i]);
+            }
+        }
+        entries.putAll(changed);
+
+        return new SearchIndex(entries);
+    }
+
+    /**
+     * Growable list of ints, to avoid boxing the positions while building
+     */
+    private static class IntList {
+
+        private int[] values = new int[4];
+
+        private int size = 0;
+
+        void addIfNotLast(int value) {
+            if ( size > 0 && values[size - 1] == value ) {
+                return;
+            }
+            if ( size == values.length ) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+    }
+
+}
@@ -31,14 +31,16 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.apache.commons.lang3.Validate;
 import org.hibernate.proxy.HibernateProxy;
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
@@ -59,7 +61,18 @@ public class DeepCopy {
     private static List<ICustomCopy> DEFAULT_CUSTOM_COPIERS =
             Arrays.asList(new DateCopy(), new SetCopy(), new MapCopy(), new ListCopy());
 
-    private Map<ByIdentity, Object> alreadyCopiedObjects = new HashMap<>();
+    /**
+     * How to copy the objects of each class, shared by all the copies
+     */
+    private static final ConcurrentMap<Class<?>, CopyPlan> copyPlans = new ConcurrentHashMap<>();
+
+    private Map<Object, Object> alreadyCopiedObjects = new IdentityHashMap<>();
+
+    /**
+     * If an immutable value has a replacement, the values of all the fields
+     * must be looked up in {@link #alreadyCopiedObjects}
+     */
+    private boolean immutablesReplaced = false;
 
     public static boolean isImmutableType(Class<?> klass) {
         return klass.isPrimitive() || isEnum(klass) || inmmutableTypes.contains(klass);
@@ -263,37 +276,6 @@ public class DeepCopy {
         protected abstract Object createDefault();
     }
 
-    private static class ByIdentity {
-
-        private final Object wrapped;
-
-        ByIdentity(Object wrapped) {
-            Validate.notNull(wrapped);
-            this.wrapped = wrapped;
-        }
-
-        @Override
-        public int hashCode() {
-            return wrapped.hashCode();
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) {
-                return true;
-            }
-            if (obj instanceof ByIdentity) {
-                ByIdentity other = (ByIdentity) obj;
-                return this.wrapped == other.wrapped;
-            }
-            return false;
-        }
-    }
-
-    private ByIdentity byIdentity(Object value) {
-        return new ByIdentity(value);
-    }
-
     public <T> T copy(T entity) {
         return copy(entity, null);
     }
@@ -304,26 +286,32 @@ public class DeepCopy {
         }
 
         T value = desproxify(couldBeProxyValue);
-        if (alreadyCopiedObjects.containsKey(byIdentity(value))) {
-            return (T) alreadyCopiedObjects.get(byIdentity(value));
+        Object alreadyCopied = alreadyCopiedObjects.get(value);
+        if (alreadyCopied != null || alreadyCopiedObjects.containsKey(value)) {
+            return (T) alreadyCopied;
+        }
+
+        if (Strategy.SHARE == strategy) {
+            return value;
         }
 
-        if (Strategy.SHARE == strategy || isImmutable(value)) {
+        CopyPlan plan = planFor(value);
+        if (plan.immutable) {
             return value;
         }
 
-        ICustomCopy copier = findCopier(value);
+        ICustomCopy copier = plan.customCopy;
         if (copier != null) {
             Object resultData = copier.instantiateCopy(strategy, value);
-            alreadyCopiedObjects.put(byIdentity(value), resultData);
+            alreadyCopiedObjects.put(value, resultData);
             copier.copyDataToResult(this, value, strategy, resultData);
             return (T) resultData;
         }
 
-        T result = instantiateUsingDefaultConstructor(getTypedClassFrom(value));
-        alreadyCopiedObjects.put(byIdentity(value), result);
-        copyProperties(value, result);
-        callAfterCopyHooks(result);
+        T result = (T) plan.instantiate();
+        alreadyCopiedObjects.put(value, result);
+        plan.copyFields(this, value, result);
+        plan.callAfterCopyHooks(result);
         return result;
     }
 
@@ -335,126 +323,263 @@ public class DeepCopy {
         return value;
     }
 
-    private boolean isImmutable(Object value) {
-        return isImmutableType(value.getClass());
+    private static CopyPlan planFor(final Object value) {
+        CopyPlan result = copyPlans.get(value.getClass());
+        if (result != null) {
+            return result;
+        }
+        return copyPlans.computeIfAbsent(value.getClass(), klass -> CopyPlan.create(klass, findCopier(value)));
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> Class<T> getTypedClassFrom(T entity) {
-        return (Class<T>) entity.getClass();
+    private static ICustomCopy findCopier(Object sourceValue) {
+        for (ICustomCopy each : DEFAULT_CUSTOM_COPIERS) {
+            if (each.canHandle(sourceValue)) {
+                return each;
+            }
+        }
+        return null;
     }
 
-    private <T> T instantiateUsingDefaultConstructor(Class<T> klass) {
-        Constructor<T> constructor;
-        try {
-            constructor = klass.getConstructor();
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
-        } catch (NoSuchMethodException e) {
-            throw new IllegalArgumentException("could not invoke default no-args constructor for " + klass, e);
+    /**
+     * How the objects of a class are copied. The fields to copy, their
+     * strategies, the constructor and the {@link AfterCopy} hooks are
+     * resolved once per class instead of each time an object is copied.
+     */
+    private static class CopyPlan {
+
+        private static CopyPlan create(Class<?> klass, ICustomCopy customCopy) {
+            if (isImmutableType(klass)) {
+                return new CopyPlan(klass, true, null, null, null, null, null);
+            }
+            if (customCopy != null) {
+                return new CopyPlan(klass, false, customCopy, null, null, null, null);
+            }
+
+            Constructor<?> constructor = null;
+            NoSuchMethodException noConstructor = null;
+            try {
+                constructor = klass.getConstructor();
+            } catch (NoSuchMethodException e) {
+                noConstructor = e;
+            }
+
+            return new CopyPlan(
+                    klass, false, null, constructor, noConstructor, getFieldsToCopy(klass), getAfterCopyHooks(klass));
         }
-        try {
-            return constructor.newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+
+        private final Class<?> klass;
+
+        private final boolean immutable;
+
+        private final ICustomCopy customCopy;
+
+        private final Constructor<?> constructor;
+
+        private final NoSuchMethodException noConstructor;
+
+        private final FieldCopy[] fields;
+
+        private final Method[] afterCopyHooks;
+
+        private CopyPlan(Class<?> klass,
+                         boolean immutable,
+                         ICustomCopy customCopy,
+                         Constructor<?> constructor,
+                         NoSuchMethodException noConstructor,
+                         FieldCopy[] fields,
+                         Method[] afterCopyHooks) {
+            this.klass = klass;
+            this.immutable = immutable;
+            this.customCopy = customCopy;
+            this.constructor = constructor;
+            this.noConstructor = noConstructor;
+            this.fields = fields;
+            this.afterCopyHooks = afterCopyHooks;
         }
-    }
 
-    private void copyProperties(Object source, Object target) {
-        List<Field> fields = getAllFieldsFor(source);
-        for (Field each : fields) {
-            each.setAccessible(true);
-            if (!isIgnored(each)) {
-                Object sourceValue = readFieldValue(source, each);
-                if (sourceValue != null) {
-                    Strategy strategy = getStrategy(each);
-                    try {
-                        writeFieldValue(target, each, copy(sourceValue, strategy));
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        throw new RuntimeException(e);
-                    }
+        private Object instantiate() {
+            if (constructor == null) {
+                throw new IllegalArgumentException(
+                        "could not invoke default no-args constructor for " + klass, noConstructor);
+            }
+            try {
+                return constructor.newInstance();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private void copyFields(DeepCopy deepCopy, Object source, Object target) {
+            boolean direct = !deepCopy.immutablesReplaced;
+            for (FieldCopy each : fields) {
+                if (direct && each.direct != null) {
+                    each.copyDirectly(source, target);
+                } else {
+                    each.copy(deepCopy, source, target);
                 }
             }
         }
+
+        private void callAfterCopyHooks(Object value) {
+            assert value != null;
+            for (Method each : afterCopyHooks) {
+                try {
+                    each.invoke(value);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+
     }
 
-    private List<Field> getAllFieldsFor(Object source) {
-        List<Field> result = new ArrayList<>();
-        Class<? extends Object> currentClass = source.getClass();
+    private static FieldCopy[] getFieldsToCopy(Class<?> klass) {
+        List<FieldCopy> result = new ArrayList<>();
+        Class<?> currentClass = klass;
         while (currentClass != null) {
-            result.addAll(Arrays.asList(currentClass.getDeclaredFields()));
+            for (Field each : currentClass.getDeclaredFields()) {
+                if (!isIgnored(each)) {
+                    each.setAccessible(true);
+                    result.add(new FieldCopy(each, getStrategy(each)));
+                }
+            }
             currentClass = currentClass.getSuperclass();
         }
-        return result;
+        return result.toArray(new FieldCopy[result.size()]);
     }
 
-    private boolean isIgnored(Field field) {
+    private static boolean isIgnored(Field field) {
         return isStatic(field) || isMarkedWithIgnore(field);
     }
 
-    private boolean isStatic(Field field) {
+    private static boolean isStatic(Field field) {
         return Modifier.isStatic(field.getModifiers());
     }
 
-    private boolean isMarkedWithIgnore(Field each) {
+    private static boolean isMarkedWithIgnore(Field each) {
         OnCopy onCopy = each.getAnnotation(OnCopy.class);
         return onCopy != null && onCopy.value() == Strategy.IGNORE;
     }
 
-    private void writeFieldValue(Object target, Field field, Object value) {
-        try {
-            field.set(target, value);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    private static Strategy getStrategy(Field field) {
+        OnCopy onCopy = field.getAnnotation(OnCopy.class);
+        return onCopy != null ? onCopy.value() : null;
     }
 
-    private Object readFieldValue(Object source, Field field) {
-        try {
-            return field.get(source);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
+    private interface IDirectCopy {
+
+        void copy(Object source, Object target) throws IllegalAccessException;
 
-    private Strategy getStrategy(Field field) {
-        OnCopy onCopy = field.getAnnotation(OnCopy.class);
-        return onCopy != null ? onCopy.value() : null;
     }
 
-    private ICustomCopy findCopier(Object sourceValue) {
-        for (ICustomCopy each : DEFAULT_CUSTOM_COPIERS) {
-            if (each.canHandle(sourceValue)) {
-                return each;
+    /**
+     * Copies the value of a field. The values of primitive fields and of
+     * fields whose type only allows immutable values are assigned directly,
+     * since they are shared by the copy anyway.
+     */
+    private static class FieldCopy {
+
+        private final Field field;
+
+        private final Strategy strategy;
+
+        private final IDirectCopy direct;
+
+        FieldCopy(Field field, Strategy strategy) {
+            this.field = field;
+            this.strategy = strategy;
+            this.direct = directCopyOf(field);
+        }
+
+        private static IDirectCopy directCopyOf(final Field field) {
+            Class<?> type = field.getType();
+            if (type == int.class) {
+                return (source, target) -> field.setInt(target, field.getInt(source));
+            }
+            if (type == long.class) {
+                return (source, target) -> field.setLong(target, field.getLong(source));
+            }
+            if (type == boolean.class) {
+                return (source, target) -> field.setBoolean(target, field.getBoolean(source));
+            }
+            if (type == double.class) {
+                return (source, target) -> field.setDouble(target, field.getDouble(source));
+            }
+            if (type == float.class) {
+                return (source, target) -> field.setFloat(target, field.getFloat(source));
+            }
+            if (type == short.class) {
+                return (source, target) -> field.setShort(target, field.getShort(source));
+            }
+            if (type == byte.class) {
+                return (source, target) -> field.setByte(target, field.getByte(source));
             }
+            if (type == char.class) {
+                return (source, target) -> field.setChar(target, field.getChar(source));
+            }
+            if (type.isEnum() || (Modifier.isFinal(type.getModifiers()) && isImmutableType(type))) {
+                return (source, target) -> {
+                    Object value = field.get(source);
+                    if (value != null) {
+                        field.set(target, value);
+                    }
+                };
+            }
+            return null;
         }
-        return null;
-    }
 
-    private void callAfterCopyHooks(Object value) {
-        assert value != null;
-        for (Method each : getAfterCopyHooks(value.getClass())) {
-            each.setAccessible(true);
+        void copyDirectly(Object source, Object target) {
+            try {
+                direct.copy(source, target);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        void copy(DeepCopy deepCopy, Object source, Object target) {
+            Object sourceValue = readFieldValue(source);
+            if (sourceValue != null) {
+                try {
+                    writeFieldValue(target, deepCopy.copy(sourceValue, strategy));
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+
+        private void writeFieldValue(Object target, Object value) {
+            try {
+                field.set(target, value);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private Object readFieldValue(Object source) {
             try {
-                each.invoke(value);
+                return field.get(source);
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
         }
+
     }
 
-    private List<Method> getAfterCopyHooks(Class<?> klass) {
+    private static Method[] getAfterCopyHooks(Class<?> klass) {
         Class<?> current = klass;
         List<Method> result = new ArrayList<>();
         while (current != null) {
             result.addAll(getAfterCopyDeclaredAt(current));
             current = current.getSuperclass();
         }
-        return result;
+        for (Method each : result) {
+            each.setAccessible(true);
+        }
+        return result.toArray(new Method[result.size()]);
     }
 
-    private List<Method> getAfterCopyDeclaredAt(Class<?> klass) {
+    private static List<Method> getAfterCopyDeclaredAt(Class<?> klass) {
         List<Method> result = new ArrayList<>();
         for (Method each : klass.getDeclaredMethods()) {
             if (isAfterCopyHook(each)) {
@@ -464,13 +589,16 @@ public class DeepCopy {
         return result;
     }
 
-    private boolean isAfterCopyHook(Method each) {
+    private static boolean isAfterCopyHook(Method each) {
         AfterCopy annotation = each.getAnnotation(AfterCopy.class);
         return annotation != null;
     }
 
     public <T> DeepCopy replace(T toBeReplaced, T substitution) {
-        alreadyCopiedObjects.put(byIdentity(toBeReplaced), substitution);
+        alreadyCopiedObjects.put(toBeReplaced, substitution);
+        if (isImmutableType(toBeReplaced.getClass())) {
+            immutablesReplaced = true;
+        }
         return this;
     }
 }
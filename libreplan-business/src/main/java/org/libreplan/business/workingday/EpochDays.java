@@ -1,9 +1,7 @@
 /*
  * This file is part of LibrePlan
  *
- * Copyright (C) 2009-2010 Fundación para o Fomento da Calidade Industrial e
- *                         Desenvolvemento Tecnolóxico de Galicia
- * Copyright (C) 2010-2011 Igalia, S.L.
+ * Copyright (C) 2026 LibrePlan
  *
  * This program is free software: you can redistribute it and/or modify
  * it under the terms of the GNU Affero General Public License as published by
@@ -19,25 +17,28 @@
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-package org.zkoss.ganttz.data.criticalpath;
+package org.libreplan.business.workingday;
 
-import java.util.Set;
-
-import org.zkoss.ganttz.data.IDependency;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
 
 /**
- * Class that represents the last node of the graph.
- *
- * @author Manuel Rego Casasnovas <mrego@igalia.com>
+ * Converts {@link LocalDate dates} to and from the number of days since
+ * 1970-01-01. It allows to use dates as indexes of primitive arrays.
  */
-public class LastNode<T, D extends IDependency<T>> extends Node<T, D> {
+public class EpochDays {
+
+    private static final LocalDate EPOCH = new LocalDate(1970, 1, 1);
+
+    private EpochDays() {
+    }
 
-    public LastNode(Set<? extends T> previousTasks) {
-        super(null, previousTasks, null, null, null);
+    public static int of(LocalDate date) {
+        return Days.daysBetween(EPOCH, date).getDays();
     }
 
-    public void updateLatestValues() {
-        setLatestFinish(getEarliestFinish());
+    public static LocalDate toLocalDate(int epochDay) {
+        return EPOCH.plusDays(epochDay);
     }
 
 }
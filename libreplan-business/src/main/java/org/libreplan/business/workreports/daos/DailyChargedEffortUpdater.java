@@ -0,0 +1,340 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.workreports.daos;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PreDeleteEvent;
+import org.hibernate.event.spi.PreDeleteEventListener;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.jdbc.ReturningWork;
+import org.hibernate.jdbc.Work;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.StandardBasicTypes;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workreports.entities.DailyChargedEffort;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link DailyChargedEffort} up to date.<br />
+ *
+ * It listens to the changes of the {@link WorkReportLine WorkReportLines} and
+ * collects the resources and days affected in each transaction. Just before
+ * the transaction is committed, the rows of those resources and days are
+ * calculated again from the work report lines, so they are always consistent
+ * with them whatever the way the work report lines were modified.<br />
+ *
+ * The row of each resource is locked before its first line is modified, so
+ * the transactions modifying lines of the same resource wait for each other.
+ * Otherwise, the rows calculated by a transaction wouldn't include the lines
+ * of another one not committed yet, and both would insert the same rows.
+ * It can't wait to lock it until the rows are calculated, as the lines
+ * already modified keep a shared lock on the resource for their foreign key.
+ * The resources of all the lines being flushed are locked together in the
+ * order of their ids, so two transactions modifying lines of the same
+ * resources can't wait for each other in a cycle.
+ */
+@Component
+public class DailyChargedEffortUpdater implements
+        PreInsertEventListener,
+        PreUpdateEventListener,
+        PreDeleteEventListener {
+
+    private static final String DELETE_DAYS =
+            "DELETE FROM daily_charged_effort WHERE resource_id = :resource AND date IN (:dates)";
+
+    private static final String INSERT_DAYS =
+            "INSERT INTO daily_charged_effort (resource_id, date, order_element_id, type_work_hours_id, effort) "
+                    + "SELECT resource_id, date, order_element_id, type_work_hours_id, SUM(effort) "
+                    + "FROM work_report_line WHERE resource_id = :resource AND date IN (:dates) "
+                    + "GROUP BY resource_id, date, order_element_id, type_work_hours_id";
+
+    private static final String LOCK_RESOURCE = "SELECT id FROM resource WHERE id = ? FOR UPDATE";
+
+    private static final String SELECT_STORED_DAY =
+            "SELECT resource_id, date FROM work_report_line WHERE id = ?";
+
+    /**
+     * Maximum number of days modified in the same statement
+     */
+    private static final int MAX_DATES_PER_QUERY = 1000;
+
+    private final ConcurrentMap<Transaction, AffectedDays> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @PostConstruct
+    private void registerHibernateListeners() {
+        SessionFactoryImpl impl = (SessionFactoryImpl) sessionFactory;
+        EventListenerRegistry registry = impl.getServiceRegistry().getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.PRE_INSERT, this);
+        registry.appendListeners(EventType.PRE_UPDATE, this);
+        registry.appendListeners(EventType.PRE_DELETE, this);
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        if ( event.getEntity() instanceof WorkReportLine ) {
+            affectedDaysOn(event.getSession()).add((WorkReportLine) event.getEntity());
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        if ( event.getEntity() instanceof WorkReportLine ) {
+            AffectedDays affectedDays = affectedDaysOn(event.getSession());
+            affectedDays.add((WorkReportLine) event.getEntity());
+            addStoredDay(affectedDays, event);
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean onPreDelete(PreDeleteEvent event) {
+        if ( event.getEntity() instanceof WorkReportLine ) {
+            affectedDaysOn(event.getSession()).add((WorkReportLine) event.getEntity());
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds the resource and day the line had before being updated. They are
+     * taken from the state loaded by Hibernate or, if the line was attached
+     * again without it, from the database, as the line is not updated yet.
+     */
+    private void addStoredDay(final AffectedDays affectedDays, final PreUpdateEvent event) {
+        Object[] oldState = event.getOldState();
+        if ( oldState != null ) {
+            EntityPersister persister = event.getPersister();
+            Resource resource = (Resource) oldState[resourceIndex(persister)];
+            Date date = (Date) oldState[persister.getEntityMetamodel().getPropertyIndex("date")];
+            if ( resource != null ) {
+                affectedDays.add(resource.getId(), date);
+            }
+
+            return;
+        }
+
+        Object[] stored = event.getSession().doReturningWork(new ReturningWork<Object[]>() {
+            @Override
+            public Object[] execute(Connection connection) throws SQLException {
+                try (PreparedStatement statement = connection.prepareStatement(SELECT_STORED_DAY)) {
+                    statement.setLong(1, (Long) event.getId());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return resultSet.next()
+                                ? new Object[] { resultSet.getLong(1), resultSet.getTimestamp(2) }
+                                : null;
+                    }
+                }
+            }
+        });
+
+        // Added once the statement is done, as adding a resource locks it
+        if ( stored != null ) {
+            affectedDays.add((Long) stored[0], (Date) stored[1]);
+        }
+    }
+
+    private static int resourceIndex(EntityPersister persister) {
+        return persister.getEntityMetamodel().getPropertyIndex("resource");
+    }
+
+    private AffectedDays affectedDaysOn(EventSource session) {
+        Transaction transaction = session.getTransaction();
+        AffectedDays result = pending.get(transaction);
+        if ( result == null ) {
+            result = new AffectedDays(session, transaction);
+            pending.put(transaction, result);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) result);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) result);
+        }
+
+        return result;
+    }
+
+    private class AffectedDays implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final EventSource session;
+
+        private final Transaction transaction;
+
+        /**
+         * Days, as milliseconds, affected for each resource id
+         */
+        private final Map<Long, Set<Long>> daysByResource = new HashMap<>();
+
+        private final Set<Long> lockedResources = new HashSet<>();
+
+        AffectedDays(EventSource session, Transaction transaction) {
+            this.session = session;
+            this.transaction = transaction;
+        }
+
+        void add(WorkReportLine line) {
+            if ( line.getResource() != null ) {
+                add(line.getResource().getId(), line.getDate());
+            }
+        }
+
+        void add(Long resourceId, Date date) {
+            if ( resourceId == null || date == null ) {
+                return;
+            }
+            if ( !lockedResources.contains(resourceId) ) {
+                lockResourcesOfModifiedLines(resourceId);
+            }
+            Set<Long> days = daysByResource.get(resourceId);
+            if ( days == null ) {
+                days = new TreeSet<>();
+                daysByResource.put(resourceId, days);
+            }
+            days.add(date.getTime());
+        }
+
+        /**
+         * Locks the given resource together with the ones of the rest of the
+         * lines being flushed, in the order of their ids. The resources of the
+         * lines attached again without their loaded state are only known once
+         * they are read from the database, so they are locked on their own.
+         */
+        private void lockResourcesOfModifiedLines(Long resourceId) {
+            SortedSet<Long> resourceIds = new TreeSet<>(resourcesOfModifiedLines());
+            resourceIds.add(resourceId);
+            resourceIds.removeAll(lockedResources);
+            for (Long each : resourceIds) {
+                lock(each);
+                lockedResources.add(each);
+            }
+        }
+
+        private Set<Long> resourcesOfModifiedLines() {
+            Set<Long> result = new HashSet<>();
+            for (Entry<Object, EntityEntry> each : session.getPersistenceContext().reentrantSafeEntityEntries()) {
+                if ( !(each.getKey() instanceof WorkReportLine) || !isModified(each.getKey(), each.getValue()) ) {
+                    continue;
+                }
+                addId(result, ((WorkReportLine) each.getKey()).getResource());
+                Object[] loadedState = each.getValue().getLoadedState();
+                if ( loadedState != null ) {
+                    addId(result, (Resource) loadedState[resourceIndex(each.getValue().getPersister())]);
+                }
+            }
+
+            return result;
+        }
+
+        private boolean isModified(Object line, EntityEntry entry) {
+            if ( entry.getStatus() == Status.DELETED || !entry.isExistsInDatabase() || entry.getLoadedState() == null ) {
+                return true;
+            }
+            EntityPersister persister = entry.getPersister();
+
+            return persister.findDirty(persister.getPropertyValues(line), entry.getLoadedState(), line, session) != null;
+        }
+
+        private void addId(Set<Long> resourceIds, Resource resource) {
+            if ( resource != null && resource.getId() != null ) {
+                resourceIds.add(resource.getId());
+            }
+        }
+
+        private void lock(final Long resourceId) {
+            session.doWork(new Work() {
+                @Override
+                public void execute(Connection connection) throws SQLException {
+                    try (PreparedStatement statement = connection.prepareStatement(LOCK_RESOURCE)) {
+                        statement.setLong(1, resourceId);
+                        statement.executeQuery().close();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            for (Entry<Long, Set<Long>> each : daysByResource.entrySet()) {
+                List<Date> dates = new ArrayList<>();
+                for (Long day : each.getValue()) {
+                    dates.add(new Date(day));
+                }
+                for (int i = 0; i < dates.size(); i += MAX_DATES_PER_QUERY) {
+                    List<Date> chunk = dates.subList(i, Math.min(i + MAX_DATES_PER_QUERY, dates.size()));
+                    execute((Session) session, DELETE_DAYS, each.getKey(), chunk);
+                    execute((Session) session, INSERT_DAYS, each.getKey(), chunk);
+                }
+            }
+        }
+
+        private void execute(Session session, String sql, Long resourceId, List<Date> dates) {
+            session.createSQLQuery(sql)
+                    .addSynchronizedEntityClass(DailyChargedEffort.class)
+                    .setParameter("resource", resourceId)
+                    .setParameterList("dates", dates, StandardBasicTypes.TIMESTAMP)
+                    .executeUpdate();
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SessionImplementor session) {
+            pending.remove(transaction);
+        }
+
+    }
+
+}
@@ -21,8 +21,10 @@
 
 package org.libreplan.business.workreports.daos;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.orders.entities.OrderElement;
@@ -31,6 +33,8 @@ import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.util.Pair;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.valueobjects.WorkReportLineEffort;
+import org.libreplan.business.workreports.valueobjects.WorkReportLinesSummary;
 
 /**
  * Dao for {@link WorkReportLine}
@@ -74,6 +78,31 @@ public interface IWorkReportLineDAO extends
 
     Boolean isFinished(OrderElement orderElement);
 
+    /**
+     * Returns the {@link WorkReportLinesSummary} of the lines charged directly
+     * to each of the {@link OrderElement OrderElements} with the given ids.
+     * The summaries are calculated with a few grouped queries instead of some
+     * queries per {@link OrderElement}.<br />
+     *
+     * The {@link OrderElement OrderElements} without lines are not included
+     * in the result.
+     */
+    Map<Long, WorkReportLinesSummary> getSummariesByOrderElementId(
+            Collection<Long> orderElementIds);
+
+    /**
+     * Returns the {@link WorkReportLineEffort} of every {@link WorkReportLine}
+     * ordered by id
+     */
+    List<WorkReportLineEffort> getEfforts();
+
+    /**
+     * Returns the {@link WorkReportLineEffort} of the {@link WorkReportLine
+     * WorkReportLines} with the given ids ordered by id. The ids of lines that
+     * no longer exist are ignored.
+     */
+    List<WorkReportLineEffort> getEffortsByIds(Collection<Long> ids);
+
     List<WorkReportLine> findByOrderElementAndWorkReports(
             OrderElement orderElement, List<WorkReport> workReports);
     /**
@@ -25,7 +25,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.hibernate.Criteria;
 import org.hibernate.Query;
@@ -35,8 +37,11 @@ import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.reports.dtos.WorkReportLineDTO;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.util.Pair;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.valueobjects.WorkReportLineEffort;
+import org.libreplan.business.workreports.valueobjects.WorkReportLinesSummary;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Repository;
@@ -55,6 +60,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
         implements IWorkReportLineDAO {
 
+    /**
+     * Maximum number of ids in the <code>IN</code> clause of a query
+     */
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
     @SuppressWarnings("unchecked")
     @Override
     public List<WorkReportLine> findByOrderElement(OrderElement orderElement){
@@ -200,6 +210,94 @@ public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
         return criteria.uniqueResult() != null;
     }
 
+    @Override
+    public Map<Long, WorkReportLinesSummary> getSummariesByOrderElementId(
+            Collection<Long> orderElementIds) {
+        Map<Long, WorkReportLinesSummary> result = new HashMap<Long, WorkReportLinesSummary>();
+
+        List<Long> ids = new ArrayList<Long>(orderElementIds);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from,
+                    Math.min(ids.size(), from + MAX_IDS_PER_QUERY));
+            addSummaries(result, chunk);
+            markFinished(result, chunk);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addSummaries(Map<Long, WorkReportLinesSummary> result,
+            List<Long> orderElementIds) {
+        String strQuery = "SELECT wrl.orderElement.id, SUM(wrl.effort), "
+                + "MIN(wrl.date), MAX(wrl.date) "
+                + "FROM WorkReportLine wrl "
+                + "WHERE wrl.orderElement.id IN (:orderElementIds) "
+                + "GROUP BY wrl.orderElement.id";
+
+        Query query = getSession().createQuery(strQuery);
+        query.setParameterList("orderElementIds", orderElementIds);
+
+        for (Object[] each : (List<Object[]>) query.list()) {
+            EffortDuration effort = EffortDuration.seconds(((Number) each[1])
+                    .intValue());
+            result.put((Long) each[0], new WorkReportLinesSummary(effort,
+                    (Date) each[2], (Date) each[3]));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void markFinished(Map<Long, WorkReportLinesSummary> result,
+            List<Long> orderElementIds) {
+        String strQuery = "SELECT DISTINCT wrl.orderElement.id "
+                + "FROM WorkReportLine wrl "
+                + "WHERE wrl.finished = true "
+                + "AND wrl.orderElement.id IN (:orderElementIds)";
+
+        Query query = getSession().createQuery(strQuery);
+        query.setParameterList("orderElementIds", orderElementIds);
+
+        for (Long each : (List<Long>) query.list()) {
+            WorkReportLinesSummary summary = result.get(each);
+            if (summary != null) {
+                summary.markAsFinished();
+            }
+        }
+    }
+
+    private static final String EFFORTS_QUERY = "SELECT wrl.id, wrl.date, wrl.effort "
+            + "FROM WorkReportLine wrl ";
+
+    @Override
+    public List<WorkReportLineEffort> getEfforts() {
+        return toEfforts(getSession().createQuery(EFFORTS_QUERY + "ORDER BY wrl.id"));
+    }
+
+    @Override
+    public List<WorkReportLineEffort> getEffortsByIds(Collection<Long> ids) {
+        List<WorkReportLineEffort> result = new ArrayList<WorkReportLineEffort>();
+
+        List<Long> sorted = new ArrayList<Long>(ids);
+        Collections.sort(sorted);
+        for (int from = 0; from < sorted.size(); from += MAX_IDS_PER_QUERY) {
+            Query query = getSession().createQuery(EFFORTS_QUERY
+                    + "WHERE wrl.id IN (:ids) ORDER BY wrl.id");
+            query.setParameterList("ids", sorted.subList(from,
+                    Math.min(sorted.size(), from + MAX_IDS_PER_QUERY)));
+            result.addAll(toEfforts(query));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<WorkReportLineEffort> toEfforts(Query query) {
+        List<WorkReportLineEffort> result = new ArrayList<WorkReportLineEffort>();
+        for (Object[] each : (List<Object[]>) query.list()) {
+            result.add(new WorkReportLineEffort((Long) each[0], (Date) each[1],
+                    (EffortDuration) each[2]));
+        }
+        return result;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<WorkReportLine> findByOrderElementAndWorkReports(
@@ -0,0 +1,103 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.workreports.entities;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Sum of the effort of the {@link WorkReportLine WorkReportLines} of a
+ * {@link Resource} charged to an {@link OrderElement} with a
+ * {@link TypeOfWorkHours} in a day, avoiding the need to go through the work
+ * report lines to get this information.<br />
+ *
+ * It's read only,
+ * {@link org.libreplan.business.workreports.daos.DailyChargedEffortUpdater}
+ * keeps it up to date when the work report lines change.
+ */
+public class DailyChargedEffort implements Serializable {
+
+    private Resource resource;
+
+    private OrderElement orderElement;
+
+    private TypeOfWorkHours typeOfWorkHours;
+
+    private Date date;
+
+    private EffortDuration effort;
+
+    protected DailyChargedEffort() {}
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    public OrderElement getOrderElement() {
+        return orderElement;
+    }
+
+    public TypeOfWorkHours getTypeOfWorkHours() {
+        return typeOfWorkHours;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public EffortDuration getEffort() {
+        return effort;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DailyChargedEffort)) {
+            return false;
+        }
+        DailyChargedEffort other = (DailyChargedEffort) obj;
+        return new EqualsBuilder()
+                .append(resource, other.resource)
+                .append(orderElement, other.orderElement)
+                .append(typeOfWorkHours, other.typeOfWorkHours)
+                .append(date, other.date)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(resource)
+                .append(orderElement)
+                .append(typeOfWorkHours)
+                .append(date)
+                .toHashCode();
+    }
+
+}
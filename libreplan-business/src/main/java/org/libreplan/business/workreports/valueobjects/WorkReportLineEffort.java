@@ -0,0 +1,64 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.workreports.valueobjects;
+
+import java.util.Date;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+
+/**
+ * Value Object <br />
+ *
+ * The date and effort of a {@link WorkReportLine}. Unlike the entity it can
+ * be kept and read once the session that loaded it is closed.
+ */
+public class WorkReportLineEffort {
+
+    private final Long id;
+
+    private final Date date;
+
+    private final EffortDuration effort;
+
+    public WorkReportLineEffort(Long id, Date date, EffortDuration effort) {
+        this.id = id;
+        this.date = date;
+        this.effort = effort;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public LocalDate getLocalDate() {
+        return date == null ? null : LocalDate.fromDateFields(date);
+    }
+
+    public EffortDuration getEffort() {
+        return effort;
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.workreports.valueobjects;
+
+import java.util.Date;
+
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+
+/**
+ * Value Object <br />
+ *
+ * Summary of the {@link WorkReportLine WorkReportLines} charged directly to
+ * an {@link OrderElement}: the sum of their effort, the first and last dates
+ * and if any of them marks the {@link OrderElement} as finished.
+ */
+public class WorkReportLinesSummary {
+
+    private final EffortDuration effort;
+
+    private final Date firstDate;
+
+    private final Date lastDate;
+
+    private boolean finished = false;
+
+    public WorkReportLinesSummary(EffortDuration effort, Date firstDate, Date lastDate) {
+        this.effort = effort;
+        this.firstDate = firstDate;
+        this.lastDate = lastDate;
+    }
+
+    public EffortDuration getEffort() {
+        return effort;
+    }
+
+    public Date getFirstDate() {
+        return firstDate;
+    }
+
+    public Date getLastDate() {
+        return lastDate;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void markAsFinished() {
+        this.finished = true;
+    }
+
+}
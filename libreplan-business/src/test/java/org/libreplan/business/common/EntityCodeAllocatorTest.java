@@ -0,0 +1,269 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.common.daos.IEntitySequenceDAO;
+import org.libreplan.business.common.entities.EntityCodeAllocator;
+import org.libreplan.business.common.entities.EntityNameEnum;
+import org.libreplan.business.common.entities.EntitySequence;
+import org.libreplan.business.common.entities.IEntityCodeAllocator;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.labels.daos.ILabelTypeDAO;
+import org.libreplan.business.labels.entities.LabelType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Tests for {@link EntityCodeAllocator}.<br />
+ *
+ * The blocks are reserved in transactions of their own, so the tests commit
+ * the sequences they use and remove them afterwards.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE, BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class EntityCodeAllocatorTest {
+
+    private static final int NUMBER_OF_DIGITS = 4;
+
+    @Autowired
+    private IEntitySequenceDAO entitySequenceDAO;
+
+    @Autowired
+    private ILabelTypeDAO labelTypeDAO;
+
+    @Autowired
+    private IEntityCodeAllocator entityCodeAllocator;
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
+    private final List<Long> previouslyActiveSequenceIds = new ArrayList<>();
+
+    private final List<Long> createdSequenceIds = new ArrayList<>();
+
+    private final List<Long> createdLabelTypeIds = new ArrayList<>();
+
+    private String prefix;
+
+    private Long sequenceId;
+
+    @Before
+    public void givenANewActiveLabelSequence() {
+        prefix = randomPrefix();
+        sequenceId = replaceActiveLabelSequence(prefix);
+        entityCodeAllocator.discardReservedCodes();
+    }
+
+    @After
+    public void removeTheCommittedEntities() {
+        entityCodeAllocator.discardReservedCodes();
+        transactionService.runOnTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                try {
+                    for (Long each : createdLabelTypeIds) {
+                        labelTypeDAO.remove(each);
+                    }
+                    for (Long each : createdSequenceIds) {
+                        entitySequenceDAO.remove(each);
+                    }
+                    entitySequenceDAO.flush();
+                    for (Long each : previouslyActiveSequenceIds) {
+                        entitySequenceDAO.find(each).setActive(true);
+                    }
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void aNewBlockIsReservedWhenTheReservedCodesRunOut() {
+        for (int i = 1; i <= EntityCodeAllocator.BLOCK_SIZE + 1; i++) {
+            assertEquals(codeOf(prefix, i), nextLabelCode());
+        }
+
+        assertEquals(2 * EntityCodeAllocator.BLOCK_SIZE, lastValueOf(sequenceId));
+    }
+
+    @Test
+    public void theBlockIsReservedEvenIfTheTransactionIsRolledBack() {
+        try {
+            transactionService.runOnTransaction(new IOnTransaction<Void>() {
+                @Override
+                public Void execute() {
+                    entityCodeAllocator.nextCode(EntityNameEnum.LABEL);
+                    throw new RuntimeException("rolled back");
+                }
+            });
+            fail("the transaction should have been rolled back");
+        } catch (RuntimeException e) {
+            // Expected
+        }
+
+        assertEquals(EntityCodeAllocator.BLOCK_SIZE, lastValueOf(sequenceId));
+        assertEquals(codeOf(prefix, 2), nextLabelCode());
+    }
+
+    @Test
+    public void concurrentReservationsAreTriedAgain() throws Exception {
+        final int threads = 4;
+        final int codesPerThread = 10;
+        final CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<String>>> reservations = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                reservations.add(executor.submit(new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() throws Exception {
+                        start.await();
+                        return entitySequenceDAO.getNextEntityCodes(EntityNameEnum.LABEL, codesPerThread);
+                    }
+                }));
+            }
+            start.countDown();
+
+            Set<String> codes = new HashSet<>();
+            for (Future<List<String>> each : reservations) {
+                List<String> reserved = each.get();
+                assertNotNull(reserved);
+                codes.addAll(reserved);
+            }
+            assertEquals(threads * codesPerThread, codes.size());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(threads * codesPerThread, lastValueOf(sequenceId));
+    }
+
+    @Test
+    public void theReservedCodesGivenMeanwhileAreSkipped() {
+        assertEquals(codeOf(prefix, 1), nextLabelCode());
+        givenLabelTypeWithCode(codeOf(prefix, 2));
+
+        assertEquals(codeOf(prefix, 3), nextLabelCode());
+    }
+
+    @Test
+    public void theReservedCodesAreDiscardedWhenTheSequencesChange() {
+        assertEquals(codeOf(prefix, 1), nextLabelCode());
+
+        String newPrefix = randomPrefix();
+        replaceActiveLabelSequence(newPrefix);
+        entityCodeAllocator.discardReservedCodes();
+
+        assertEquals(codeOf(newPrefix, 1), nextLabelCode());
+    }
+
+    private Long replaceActiveLabelSequence(final String prefix) {
+        return transactionService.runOnTransaction(new IOnTransaction<Long>() {
+            @Override
+            public Long execute() {
+                for (EntitySequence each : entitySequenceDAO.getAll()) {
+                    if ( each.getEntityName() == EntityNameEnum.LABEL && each.isActive() ) {
+                        if ( !createdSequenceIds.contains(each.getId()) ) {
+                            previouslyActiveSequenceIds.add(each.getId());
+                        }
+                        each.setActive(false);
+                    }
+                }
+                entitySequenceDAO.flush();
+
+                EntitySequence sequence = EntitySequence.create(prefix, EntityNameEnum.LABEL, NUMBER_OF_DIGITS);
+                sequence.setActive(true);
+                entitySequenceDAO.save(sequence);
+                entitySequenceDAO.flush();
+                createdSequenceIds.add(sequence.getId());
+
+                return sequence.getId();
+            }
+        });
+    }
+
+    private void givenLabelTypeWithCode(final String code) {
+        transactionService.runOnTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                LabelType labelType = LabelType.create(code, UUID.randomUUID().toString());
+                labelTypeDAO.save(labelType);
+                createdLabelTypeIds.add(labelType.getId());
+                return null;
+            }
+        });
+    }
+
+    private String nextLabelCode() {
+        return transactionService.runOnTransaction(new IOnTransaction<String>() {
+            @Override
+            public String execute() {
+                return entityCodeAllocator.nextCode(EntityNameEnum.LABEL);
+            }
+        });
+    }
+
+    private int lastValueOf(final Long sequenceId) {
+        return transactionService.runOnReadOnlyTransaction(new IOnTransaction<Integer>() {
+            @Override
+            public Integer execute() {
+                try {
+                    return entitySequenceDAO.find(sequenceId).getLastValue();
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    private static String codeOf(String prefix, int value) {
+        return prefix + EntitySequence.formatValue(NUMBER_OF_DIGITS, value);
+    }
+
+    private static String randomPrefix() {
+        return "L" + UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
+    }
+
+}
@@ -21,6 +21,7 @@
 
 package org.libreplan.business.common;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
@@ -199,6 +200,14 @@ public class EntitySequenceTest {
         }
     }
 
+    @Test
+    public void testFormatValuePadsWithZeros() {
+        assertEquals("0007", EntitySequence.formatValue(4, 7));
+        assertEquals("0000", EntitySequence.formatValue(4, 0));
+        assertEquals("1234", EntitySequence.formatValue(4, 1234));
+        assertEquals("123456", EntitySequence.formatValue(4, 123456));
+    }
+
     private EntitySequence givenEntitySequence(String prefix, EntityNameEnum entityName, boolean active) {
         EntitySequence entitySequence = EntitySequence.create(prefix, entityName);
         entitySequence.setActive(active);
@@ -38,6 +38,7 @@ import org.joda.time.LocalDate;
 import org.junit.Test;
 import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
 import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.CalendarAvailability;
 import org.libreplan.business.calendars.entities.CalendarData.Days;
 import org.libreplan.business.calendars.entities.CalendarException;
 import org.libreplan.business.calendars.entities.CalendarExceptionType;
@@ -149,6 +150,10 @@ public class BaseCalendarTest {
         assertFalse(calendar.onlyGivesZeroHours());
     }
 
+    private static void addZeroHoursExceptionDay(BaseCalendar calendar, LocalDate date) {
+        calendar.addExceptionDay(CalendarException.create(date, EffortDuration.zero(), createCalendarExceptionType()));
+    }
+
     private static BaseCalendar createChristmasCalendar() {
         BaseCalendar calendar = createBasicCalendar();
         addChristmasAsExceptionDay(calendar);
@@ -838,4 +843,86 @@ public class BaseCalendarTest {
         AvailabilityTimeLine availability = calendar.getAvailability();
         assertFalse(availability.isValid(MONDAY_LOCAL_DATE));
     }
+
+    @Test
+    public void theWorkableDurationOfLongPeriodsIsTheSumOfTheirDays() {
+        BaseCalendar calendar = createChristmasCalendar();
+        LocalDate start = MONDAY_LOCAL_DATE.minusYears(2).plusDays(3);
+        LocalDate end = CHRISTMAS_DAY_LOCAL_DATE.plusDays(17);
+
+        EffortDuration sum = zero();
+        for (LocalDate each = start; !each.isAfter(end); each = each.plusDays(1)) {
+            sum = sum.plus(calendar.getCapacityOn(wholeDay(each)));
+        }
+
+        assertThat(calendar.getWorkableDuration(start, end), equalTo(sum));
+        assertThat(calendar.getWorkableDuration(end, start), equalTo(zero()));
+    }
+
+    @Test
+    public void theCapacitiesOfDerivedCalendarsChangeWhenTheParentChanges() {
+        BaseCalendar parent = createBasicCalendar();
+        BaseCalendar derived = parent.newDerivedCalendar();
+        assertThat(derived.getCapacityOn(wholeDay(WEDNESDAY_LOCAL_DATE)), equalTo(hours(8)));
+
+        addZeroHoursExceptionDay(parent, WEDNESDAY_LOCAL_DATE);
+        assertThat(derived.getCapacityOn(wholeDay(WEDNESDAY_LOCAL_DATE)), equalTo(zero()));
+
+        parent.setCapacityAt(Days.MONDAY, withNormalDuration(hours(4)));
+        assertThat(derived.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(4)));
+
+        derived.setParent(createBasicCalendar());
+        assertThat(derived.getCapacityOn(wholeDay(WEDNESDAY_LOCAL_DATE)), equalTo(hours(8)));
+        assertThat(derived.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(8)));
+    }
+
+    @Test
+    public void theCapacitiesChangeWhenANewVersionIsCreated() {
+        BaseCalendar calendar = createBasicCalendar();
+        assertThat(calendar.getWorkableHoursPerWeek(MONDAY_LOCAL_DATE), equalTo(40));
+
+        calendar.newVersion(MONDAY_LOCAL_DATE);
+        calendar.setCapacityAt(Days.MONDAY, withNormalDuration(hours(2)), MONDAY_LOCAL_DATE);
+
+        assertThat(calendar.getWorkableHoursPerWeek(MONDAY_LOCAL_DATE), equalTo(2));
+        assertThat(calendar.getWorkableHoursPerWeek(MONDAY_LOCAL_DATE.minusWeeks(1)), equalTo(40));
+    }
+
+    @Test
+    public void theCapacitiesChangeWhenAnExceptionIsModifiedDirectly() {
+        BaseCalendar calendar = createBasicCalendar();
+        addZeroHoursExceptionDay(calendar, WEDNESDAY_LOCAL_DATE);
+        BaseCalendar copy = calendar.newCopy();
+        assertThat(calendar.getCapacityOn(wholeDay(WEDNESDAY_LOCAL_DATE)), equalTo(zero()));
+        assertThat(copy.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(8)));
+
+        calendar.getOwnExceptionDay(WEDNESDAY_LOCAL_DATE).updateUnvalidated(MONDAY_LOCAL_DATE, null, null);
+
+        assertThat(calendar.getCapacityOn(wholeDay(WEDNESDAY_LOCAL_DATE)), equalTo(hours(8)));
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(zero()));
+        assertThat(copy.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(zero()));
+    }
+
+    @Test
+    public void theCapacitiesOfDerivedCalendarsChangeWhenTheDataOfTheParentIsModifiedDirectly() {
+        BaseCalendar parent = createBasicCalendar();
+        BaseCalendar derived = parent.newDerivedCalendar();
+        assertThat(derived.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(8)));
+
+        parent.getCalendarData(MONDAY_LOCAL_DATE).setCapacityAt(Days.MONDAY, withNormalDuration(hours(4)));
+
+        assertThat(derived.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(4)));
+    }
+
+    @Test
+    public void theCapacitiesChangeWhenAnAvailabilityIsModifiedDirectly() {
+        BaseCalendar calendar = createBasicCalendar().newCopyResourceCalendar();
+        CalendarAvailability availability = CalendarAvailability.create(MONDAY_LOCAL_DATE.minusWeeks(1), null);
+        calendar.addNewCalendarAvailability(availability);
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(hours(8)));
+
+        availability.setEndDate(MONDAY_LOCAL_DATE.minusDays(1));
+
+        assertThat(calendar.getCapacityOn(wholeDay(MONDAY_LOCAL_DATE)), equalTo(zero()));
+    }
 }
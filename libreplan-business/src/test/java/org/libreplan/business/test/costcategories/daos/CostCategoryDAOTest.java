@@ -38,11 +38,15 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
+import org.libreplan.business.costcategories.daos.CostCategoryDAO;
 import org.libreplan.business.costcategories.daos.ICostCategoryDAO;
 import org.libreplan.business.costcategories.daos.ITypeOfWorkHoursDAO;
 import org.libreplan.business.costcategories.entities.CostCategory;
+import org.libreplan.business.costcategories.entities.CostRateIndex;
 import org.libreplan.business.costcategories.entities.HourCost;
+import org.libreplan.business.costcategories.entities.ResourcesCostCategoryAssignment;
 import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
+import org.libreplan.business.resources.entities.Worker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -213,4 +217,49 @@ public class CostCategoryDAOTest {
         //this save should throw a exception
         costCategoryDAO.save(costCategory);
     }
+
+    @Test
+    public void testCostRateIndexAnswersTheSameAsThePriceLookup() {
+        TypeOfWorkHours type1 = TypeOfWorkHours.create(UUID.randomUUID().toString(),
+                UUID.randomUUID().toString());
+        TypeOfWorkHours type2 = TypeOfWorkHours.create(UUID.randomUUID().toString(),
+                UUID.randomUUID().toString());
+
+        CostCategory costCategory = createValidCostCategory();
+        HourCost hourCost1 = HourCost.create(BigDecimal.ONE, new LocalDate(2009, 11, 1));
+        hourCost1.setType(type1);
+        hourCost1.setEndDate(new LocalDate(2009, 11, 10));
+        costCategory.addHourCost(hourCost1);
+        HourCost hourCost2 = HourCost.create(new BigDecimal(2), new LocalDate(2009, 11, 11));
+        hourCost2.setType(type1);
+        costCategory.addHourCost(hourCost2);
+        HourCost hourCost3 = HourCost.create(BigDecimal.TEN, new LocalDate(2009, 10, 1));
+        hourCost3.setType(type2);
+        hourCost3.setEndDate(new LocalDate(2009, 11, 7));
+        costCategory.addHourCost(hourCost3);
+
+        Worker worker = Worker.create("worker");
+        addAssignment(worker, costCategory, new LocalDate(2009, 11, 5), new LocalDate(2009, 11, 20));
+        addAssignment(worker, costCategory, new LocalDate(2009, 11, 25), null);
+
+        CostRateIndex index = CostRateIndex.forResource(worker);
+        for (LocalDate day = new LocalDate(2009, 10, 25); day.isBefore(new LocalDate(2010, 1, 1));
+                day = day.plusDays(1)) {
+            for (TypeOfWorkHours type : new TypeOfWorkHours[] { type1, type2 }) {
+                assertEquals(CostCategoryDAO.getPriceByResourceDateAndHourType(worker, day, type.getCode()),
+                        index.getPrice(day, type.getCode()));
+            }
+        }
+        assertEquals(new BigDecimal(2), index.getPrice(new LocalDate(2009, 11, 20), type1.getCode()));
+        assertNull(index.getPrice(new LocalDate(2009, 11, 21), type1.getCode()));
+        assertNull(index.getPrice(new LocalDate(2009, 11, 25), type2.getCode()));
+    }
+
+    private void addAssignment(Worker worker, CostCategory costCategory, LocalDate initDate, LocalDate endDate) {
+        ResourcesCostCategoryAssignment assignment = ResourcesCostCategoryAssignment.create();
+        assignment.setCostCategory(costCategory);
+        assignment.setInitDate(initDate);
+        assignment.setEndDate(endDate);
+        worker.addResourcesCostCategoryAssignment(assignment);
+    }
 }
@@ -1099,4 +1099,55 @@ public class OrderElementTest {
         assertThat(group.getBudget(), equalTo(new BigDecimal(120).setScale(2)));
     }
 
+    @Test
+    @Transactional
+    public void checkAggregatedValuesOfOrderLineGroupAreUpdatedWhenChildrenChange() {
+        OrderLineGroup group = givenOrderLineGroupWithTwoOrderLines(20, 30);
+        OrderLine first = (OrderLine) group.getChildren().get(0);
+        first.setBudget(new BigDecimal(50));
+        assertThat(group.getWorkHours(), equalTo(50));
+        assertThat(group.getBudget(), equalTo(new BigDecimal(50).setScale(2)));
+
+        first.getHoursGroups().get(0).setWorkingHours(40);
+        first.setBudget(new BigDecimal(80));
+        assertThat(group.getWorkHours(), equalTo(70));
+        assertThat(group.getBudget(), equalTo(new BigDecimal(80).setScale(2)));
+
+        group.add(givenOrderLine("OrderLine3", "1.3", 5));
+        assertThat(group.getWorkHours(), equalTo(75));
+        assertThat(group.getHoursGroups().size(), equalTo(3));
+
+        group.remove(first);
+        assertThat(group.getWorkHours(), equalTo(35));
+        assertThat(group.getBudget(), equalTo(BigDecimal.ZERO.setScale(2)));
+    }
+
+    @Test
+    @Transactional
+    public void checkAdvancePercentageOfOrderLineGroupIsUpdatedWhenAMeasurementChanges()
+            throws DuplicateValueTrueReportGlobalAdvanceException, DuplicateAdvanceAssignmentForOrderElementException {
+
+        OrderElement orderElement = givenOrderLineGroupWithTwoOrderLines(1000, 2000);
+        OrderElement child = orderElement.getChildren().get(0);
+
+        AdvanceType advanceType =
+                AdvanceType.create("test1", new BigDecimal(10000), true, new BigDecimal(1), true, false);
+
+        addAdvanceAssignmentWithMeasurement(child, advanceType, new BigDecimal(1000), new BigDecimal(400), true);
+
+        for (IndirectAdvanceAssignment each : orderElement.getIndirectAdvanceAssignments()) {
+            each.setReportGlobalAdvance(each.getAdvanceType().getUnitName().equals("test1"));
+        }
+
+        LocalDate today = new LocalDate();
+        assertThat(orderElement.getAdvancePercentage(), sameValueAs(division.divide(40, 100)));
+        assertThat(orderElement.getAdvancePercentage(today), sameValueAs(division.divide(40, 100)));
+
+        AdvanceMeasurement measurement = child.getReportGlobalAdvanceAssignment().getLastAdvanceMeasurement();
+        measurement.setValue(new BigDecimal(600));
+
+        assertThat(orderElement.getAdvancePercentage(), sameValueAs(division.divide(60, 100)));
+        assertThat(orderElement.getAdvancePercentage(today), sameValueAs(division.divide(60, 100)));
+    }
+
 }
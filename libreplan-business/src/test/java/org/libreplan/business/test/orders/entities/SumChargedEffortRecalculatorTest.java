@@ -0,0 +1,106 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.orders.entities;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easymock.IAnswer;
+import org.junit.Test;
+import org.libreplan.business.orders.daos.ISumChargedEffortDAO;
+import org.libreplan.business.orders.entities.SumChargedEffortRecalculator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests for {@link SumChargedEffortRecalculator}.
+ */
+public class SumChargedEffortRecalculatorTest {
+
+    private static final Long RUNNING_ORDER_ID = 1L;
+
+    private static final Long QUEUED_ORDER_ID = 2L;
+
+    private static final Long LAST_ORDER_ID = 3L;
+
+    @Test
+    public void theRequestsForAnOrderAlreadyQueuedAreRecalculatedOnce() throws InterruptedException {
+        final CountDownLatch runningStarted = new CountDownLatch(1);
+        final CountDownLatch runningReleased = new CountDownLatch(1);
+        final CountDownLatch lastDone = new CountDownLatch(1);
+        final AtomicInteger queuedRecalculations = new AtomicInteger();
+
+        ISumChargedEffortDAO sumChargedEffortDAO = createNiceMock(ISumChargedEffortDAO.class);
+
+        sumChargedEffortDAO.recalculateSumChargedEfforts(RUNNING_ORDER_ID);
+        expectLastCall().andAnswer(new IAnswer<Void>() {
+            @Override
+            public Void answer() throws Throwable {
+                runningStarted.countDown();
+                runningReleased.await();
+                return null;
+            }
+        });
+
+        sumChargedEffortDAO.recalculateSumChargedEfforts(QUEUED_ORDER_ID);
+        expectLastCall().andAnswer(new IAnswer<Void>() {
+            @Override
+            public Void answer() throws Throwable {
+                queuedRecalculations.incrementAndGet();
+                return null;
+            }
+        }).anyTimes();
+
+        sumChargedEffortDAO.recalculateSumChargedEfforts(LAST_ORDER_ID);
+        expectLastCall().andAnswer(new IAnswer<Void>() {
+            @Override
+            public Void answer() throws Throwable {
+                lastDone.countDown();
+                return null;
+            }
+        });
+
+        replay(sumChargedEffortDAO);
+
+        SumChargedEffortRecalculator recalculator = new SumChargedEffortRecalculator();
+        ReflectionTestUtils.setField(recalculator, "sumChargedEffortDAO", sumChargedEffortDAO);
+
+        recalculator.recalculate(RUNNING_ORDER_ID);
+        assertTrue(runningStarted.await(5, TimeUnit.SECONDS));
+
+        // Queued behind the running one
+        recalculator.recalculate(QUEUED_ORDER_ID);
+        recalculator.recalculate(QUEUED_ORDER_ID);
+        recalculator.recalculate(QUEUED_ORDER_ID);
+        recalculator.recalculate(LAST_ORDER_ID);
+        runningReleased.countDown();
+
+        // The recalculations are done one by one, so the queued ones are done
+        assertTrue(lastDone.await(5, TimeUnit.SECONDS));
+        assertEquals(1, queuedRecalculations.get());
+    }
+
+}
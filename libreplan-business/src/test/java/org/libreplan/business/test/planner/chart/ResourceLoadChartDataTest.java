@@ -0,0 +1,181 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.chart;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.calendars.entities.SameWorkHoursEveryDay;
+import org.libreplan.business.planner.chart.ResourceLoadChartData;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workingday.EffortDuration;
+
+public class ResourceLoadChartDataTest {
+
+    private static final LocalDate start = new LocalDate(2011, 3, 1);
+
+    private long nextAssignmentId = 1;
+
+    private Resource resource(long id, int hoursPerDay) {
+        Resource result = createNiceMock(Resource.class);
+        expect(result.getId()).andReturn(id).anyTimes();
+        expect(result.getCalendarOrDefault()).andReturn(new SameWorkHoursEveryDay(hoursPerDay)).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    private DayAssignment assignment(Resource resource, int dayOffset, int hours) {
+        DayAssignment result = createNiceMock(DayAssignment.class);
+        expect(result.getId()).andReturn(nextAssignmentId++).anyTimes();
+        expect(result.getResource()).andReturn(resource).anyTimes();
+        expect(result.getDay()).andReturn(start.plusDays(dayOffset)).anyTimes();
+        expect(result.getDuration()).andReturn(EffortDuration.hours(hours)).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    private void assertSameData(ResourceLoadChartData expected, ResourceLoadChartData actual) {
+        assertThat(actual.getLoad(), equalTo(expected.getLoad()));
+        assertThat(actual.getOverload(), equalTo(expected.getOverload()));
+        assertThat(actual.getAvailability(), equalTo(expected.getAvailability()));
+    }
+
+    @Test
+    public void incrementalDataIsEqualToTheCalculatedFromScratch() {
+        Resource first = resource(1L, 8);
+        Resource second = resource(2L, 4);
+        List<Resource> resources = Arrays.asList(first, second);
+        List<DayAssignment> assignments = Arrays.asList(
+                assignment(first, 0, 4),
+                assignment(first, 0, 6),
+                assignment(second, 2, 6),
+                assignment(first, 5, 2));
+
+        assertSameData(
+                new ResourceLoadChartData(assignments, resources),
+                ResourceLoadChartData.incremental(assignments, resources));
+    }
+
+    @Test
+    public void recalculatingSomeResourcesIsEqualToCalculatingFromScratch() {
+        Resource first = resource(1L, 8);
+        Resource second = resource(2L, 4);
+        List<Resource> resources = Arrays.asList(first, second);
+        DayAssignment removed = assignment(second, 2, 6);
+        List<DayAssignment> assignments = Arrays.asList(
+                assignment(first, 0, 10),
+                removed,
+                assignment(first, 5, 2));
+
+        ResourceLoadChartData previous = ResourceLoadChartData.incremental(assignments, resources);
+        assertThat(
+                previous.resourcesOfDayAssignments(Collections.singleton(removed.getId())),
+                equalTo(new HashSet<>(Collections.singletonList(2L))));
+
+        List<DayAssignment> newAssignmentsOfSecond = Arrays.asList(
+                assignment(second, 3, 2),
+                assignment(second, 9, 5));
+        List<DayAssignment> current = new ArrayList<>(assignments);
+        current.remove(removed);
+        current.addAll(newAssignmentsOfSecond);
+
+        assertSameData(
+                new ResourceLoadChartData(current, resources),
+                previous.withResourcesRecalculated(
+                        Collections.singletonList(second), newAssignmentsOfSecond, () -> resources));
+    }
+
+    @Test
+    public void allTheResourcesAreOnlyNeededIfTheRangeOfDaysGrows() {
+        Resource first = resource(1L, 8);
+        Resource second = resource(2L, 4);
+        List<Resource> resources = Arrays.asList(first, second);
+        List<DayAssignment> assignments = Arrays.asList(
+                assignment(first, 0, 10),
+                assignment(second, 2, 6),
+                assignment(first, 5, 2));
+
+        ResourceLoadChartData previous = ResourceLoadChartData.incremental(assignments, resources);
+
+        List<DayAssignment> newAssignmentsOfSecond = Collections.singletonList(assignment(second, 4, 3));
+        List<DayAssignment> current = Arrays.asList(assignments.get(0), assignments.get(2), newAssignmentsOfSecond.get(0));
+
+        assertSameData(
+                new ResourceLoadChartData(current, resources),
+                previous.withResourcesRecalculated(
+                        Collections.singletonList(second), newAssignmentsOfSecond, () -> {
+                            throw new AssertionError("the days are the same, no resource should be loaded");
+                        }));
+    }
+
+    @Test
+    public void theRangeOfDaysShrinksWhenTheAssignmentsAtItsEndsAreRemoved() {
+        Resource first = resource(1L, 8);
+        Resource second = resource(2L, 4);
+        List<Resource> resources = Arrays.asList(first, second);
+        List<DayAssignment> assignments = Arrays.asList(
+                assignment(second, 0, 3),
+                assignment(first, 2, 10),
+                assignment(first, 5, 2),
+                assignment(second, 9, 6));
+
+        ResourceLoadChartData previous = ResourceLoadChartData.incremental(assignments, resources);
+
+        List<DayAssignment> newAssignmentsOfSecond = Collections.singletonList(assignment(second, 3, 5));
+        List<DayAssignment> current = Arrays.asList(assignments.get(1), assignments.get(2), newAssignmentsOfSecond.get(0));
+
+        assertSameData(
+                new ResourceLoadChartData(current, resources),
+                previous.withResourcesRecalculated(
+                        Collections.singletonList(second), newAssignmentsOfSecond, () -> {
+                            throw new AssertionError("the range only shrinks, no resource should be loaded");
+                        }));
+    }
+
+    @Test
+    public void recalculatingAResourceWithoutAssignmentsLeftIsEqualToCalculatingFromScratch() {
+        Resource first = resource(1L, 8);
+        Resource second = resource(2L, 4);
+        List<Resource> resources = Arrays.asList(first, second);
+        List<DayAssignment> assignments = Arrays.asList(
+                assignment(first, 1, 10),
+                assignment(second, 4, 6));
+
+        ResourceLoadChartData previous = ResourceLoadChartData.incremental(assignments, resources);
+
+        assertSameData(
+                new ResourceLoadChartData(Collections.singletonList(assignments.get(0)), resources),
+                previous.withResourcesRecalculated(
+                        Collections.singletonList(second), Collections.<DayAssignment> emptyList(), () -> resources));
+    }
+
+}
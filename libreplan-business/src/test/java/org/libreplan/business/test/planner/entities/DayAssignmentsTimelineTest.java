@@ -0,0 +1,95 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.entities;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+import static org.libreplan.business.workingday.EffortDuration.zero;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DayAssignmentsTimeline;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.resources.entities.Resource;
+
+public class DayAssignmentsTimelineTest {
+
+    private static final LocalDate today = new LocalDate(2011, 3, 1);
+
+    private Resource resource;
+
+    @Before
+    public void createResource() {
+        resource = createNiceMock(Resource.class);
+    }
+
+    private DayAssignment assignment(int dayOffset, int hours) {
+        return new SpecificDayAssignment(today.plusDays(dayOffset), hours(hours), resource);
+    }
+
+    @Test
+    public void anEmptyTimelineHasNoEffort() {
+        DayAssignmentsTimeline timeline = DayAssignmentsTimeline.create(Collections.<DayAssignment> emptyList());
+
+        assertThat(timeline.getAssignedEffort(today), equalTo(zero()));
+        assertThat(timeline.getAssignedEffortBetween(today, today.plusDays(10)), equalTo(zero()));
+    }
+
+    @Test
+    public void theEffortOfEachDayIsTheSumOfItsAssignments() {
+        DayAssignmentsTimeline timeline = DayAssignmentsTimeline.create(Arrays.asList(
+                assignment(0, 3), assignment(0, 5), assignment(2, 1)));
+
+        assertThat(timeline.getAssignedEffort(today), equalTo(hours(8)));
+        assertThat(timeline.getAssignedEffort(today.plusDays(1)), equalTo(zero()));
+        assertThat(timeline.getAssignedEffort(today.plusDays(2)), equalTo(hours(1)));
+        assertThat(timeline.getAssignedEffort(today.minusDays(1)), equalTo(zero()));
+    }
+
+    @Test
+    public void theEffortBetweenTwoDaysExcludesTheEnd() {
+        DayAssignmentsTimeline timeline = DayAssignmentsTimeline.create(Arrays.asList(
+                assignment(0, 3), assignment(1, 5), assignment(2, 1)));
+
+        assertThat(timeline.getAssignedEffortBetween(today, today.plusDays(2)), equalTo(hours(8)));
+        assertThat(timeline.getAssignedEffortBetween(today.minusDays(30), today.plusDays(30)), equalTo(hours(9)));
+        assertThat(timeline.getAssignedEffortBetween(today.plusDays(1), today.plusDays(1)), equalTo(zero()));
+    }
+
+    @Test
+    public void itGrowsToIncludeEarlierAndLaterDays() {
+        DayAssignmentsTimeline timeline = DayAssignmentsTimeline.create(Arrays.asList(
+                assignment(0, 2), assignment(-100, 4), assignment(400, 6)));
+
+        assertThat(timeline.getAssignedEffort(today.minusDays(100)), equalTo(hours(4)));
+        assertThat(timeline.getAssignedEffort(today), equalTo(hours(2)));
+        assertThat(timeline.getAssignedEffort(today.plusDays(400)), equalTo(hours(6)));
+        assertThat(timeline.getAssignedEffortBetween(today.minusDays(100), today.plusDays(401)),
+                equalTo(hours(12)));
+    }
+
+}
@@ -162,6 +162,7 @@ public class GenericResourceAllocationTest {
 
     private void setupIsSatisfiedByAll(Criterion criterion) {
         expect(criterion.isSatisfiedBy(isA(Resource.class), isA(LocalDate.class))).andReturn(true).anyTimes();
+        expect(criterion.includes(criterion)).andReturn(true).anyTimes();
     }
 
     private void givenWorkersWithoutLoadAndWithoutCalendar() {
@@ -169,6 +170,7 @@ public class GenericResourceAllocationTest {
         worker2 = createNiceMock(Worker.class);
         worker3 = createNiceMock(Worker.class);
         mockZeroLoad(worker1, worker2, worker3);
+        mockSatisfiesPredefinedCriterions(worker1, worker2, worker3);
         buildWorkersList();
         replay(worker1, worker2, worker3);
     }
@@ -179,6 +181,19 @@ public class GenericResourceAllocationTest {
         }
     }
 
+    private void mockSatisfiesPredefinedCriterions(Resource... resources) {
+        for (final Resource each : resources) {
+            expect(each.getCriterionSatisfactions())
+                    .andAnswer(new IAnswer<Set<CriterionSatisfaction>>() {
+                        @Override
+                        public Set<CriterionSatisfaction> answer() throws Throwable {
+                            return new HashSet<>(satisfactionsForPredefinedCriterions(each));
+                        }
+                    })
+                    .anyTimes();
+        }
+    }
+
     private void buildWorkersList() {
         workers = new ArrayList<>();
         workers.add(worker1);
@@ -238,6 +253,7 @@ public class GenericResourceAllocationTest {
 
         expect(result.getSatisfactionsFor(isA(Criterion.class)))
                 .andReturn(satisfactionsForPredefinedCriterions(result)).anyTimes();
+        mockSatisfiesPredefinedCriterions(result);
 
         replay(result);
         return result;
@@ -767,6 +783,7 @@ public class GenericResourceAllocationTest {
 
         expect(worker.getCalendar())
                 .andReturn(createCalendar(ResourceCalendar.class, capacityPerDayAndUnit, capacityUnits)).anyTimes();
+        mockSatisfiesPredefinedCriterions(worker);
 
         replay(worker);
         workers.add(worker);
@@ -0,0 +1,172 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.entities;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.DayAssignment.FilterType;
+import org.libreplan.business.planner.entities.HoursCostCalculator;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.TaskCosts;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.EffortDuration.Granularity;
+
+/**
+ * Tests for the estimated cost (BCWS) of {@link HoursCostCalculator}.
+ */
+public class HoursCostCalculatorTest {
+
+    private static final LocalDate FIRST_DAY = new LocalDate(2026, 3, 2);
+
+    private final HoursCostCalculator calculator = new HoursCostCalculator();
+
+    private final List<DayAssignment> dayAssignments = new ArrayList<>();
+
+    private void givenDayAssignment(int day, EffortDuration duration) {
+        DayAssignment dayAssignment = createNiceMock(DayAssignment.class);
+        expect(dayAssignment.getDay()).andReturn(FIRST_DAY.plusDays(day)).anyTimes();
+        expect(dayAssignment.getDuration()).andReturn(duration).anyTimes();
+        replay(dayAssignment);
+
+        dayAssignments.add(dayAssignment);
+    }
+
+    private void givenDayAssignments(EffortDuration... durations) {
+        for (int i = 0; i < durations.length; i++) {
+            givenDayAssignment(i, durations[i]);
+        }
+    }
+
+    private Task task() {
+        Task task = createNiceMock(Task.class);
+        expect(task.isSubcontracted()).andReturn(false).anyTimes();
+        expect(task.getDayAssignments(FilterType.WITHOUT_DERIVED)).andReturn(dayAssignments).anyTimes();
+        replay(task);
+
+        return task;
+    }
+
+    private static EffortDuration hoursAndMinutes(int hours, int minutes) {
+        return hours(hours).and(minutes, Granularity.MINUTES);
+    }
+
+    /**
+     * The hours expected on consecutive days from {@link #FIRST_DAY}
+     * plus the given days
+     */
+    private static SortedMap<LocalDate, BigDecimal> hoursFrom(int day, int... hours) {
+        SortedMap<LocalDate, BigDecimal> result = new TreeMap<>();
+        for (int i = 0; i < hours.length; i++) {
+            result.put(FIRST_DAY.plusDays(day + i), new BigDecimal(hours[i]));
+        }
+
+        return result;
+    }
+
+    @Test
+    public void theWholeHoursOfEachDayAreTheEstimatedCost() {
+        givenDayAssignments(hours(8), hours(4), hours(0));
+
+        assertEquals(hoursFrom(0, 8, 4, 0), calculator.getEstimatedCost(task()));
+    }
+
+    /**
+     * They were read with a 12-hour clock, so 12 hours were 0
+     */
+    @Test
+    public void twelveHoursOrMoreAreKeptAsTheyAre() {
+        givenDayAssignments(hours(11), hours(12), hours(13), hours(25));
+
+        assertEquals(hoursFrom(0, 11, 12, 13, 25), calculator.getEstimatedCost(task()));
+    }
+
+    @Test
+    public void theAssignmentsOfTheSameDayAreAdded() {
+        givenDayAssignment(0, hours(5));
+        givenDayAssignment(0, hours(4));
+        givenDayAssignment(1, hours(12));
+
+        assertEquals(hoursFrom(0, 9, 12), calculator.getEstimatedCost(task()));
+    }
+
+    @Test
+    public void fromThirtyToSixtyMinutesAddOneHourToTheLastAssignment() {
+        givenDayAssignments(hoursAndMinutes(8, 20), hoursAndMinutes(7, 40));
+
+        assertEquals(hoursFrom(0, 8, 8), calculator.getEstimatedCost(task()));
+    }
+
+    @Test
+    public void moreThanSixtyMinutesAddTheirWholeHoursToTheLastAssignment() {
+        givenDayAssignments(hoursAndMinutes(1, 50), hoursAndMinutes(2, 50), hoursAndMinutes(0, 45));
+
+        assertEquals(hoursFrom(0, 1, 2, 2), calculator.getEstimatedCost(task()));
+    }
+
+    @Test
+    public void lessThanThirtyMinutesAreDiscarded() {
+        givenDayAssignments(hoursAndMinutes(4, 10), hoursAndMinutes(4, 10));
+
+        assertEquals(hoursFrom(0, 4, 4), calculator.getEstimatedCost(task()));
+    }
+
+    @Test
+    public void theDurationsAreRoundedToTheNearestMinute() {
+        givenDayAssignments(
+                hoursAndMinutes(7, 59).and(30, Granularity.SECONDS),
+                hoursAndMinutes(3, 0).and(29, Granularity.SECONDS));
+
+        assertEquals(hoursFrom(0, 8, 3), calculator.getEstimatedCost(task()));
+    }
+
+    @Test
+    public void onlyTheDaysInsideTheFilterAreIncluded() {
+        givenDayAssignments(hours(3), hours(4), hours(5), hours(6));
+
+        assertEquals(
+                hoursFrom(1, 4, 5),
+                calculator.getEstimatedCost(task(), FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(2)));
+    }
+
+    @Test
+    public void theCostsOfTheTaskIncludeTheSameEstimatedCost() {
+        givenDayAssignments(hoursAndMinutes(12, 40), hours(13), hoursAndMinutes(1, 50));
+
+        TaskCosts costs = calculator.getCosts(task());
+
+        assertEquals(hoursFrom(0, 12, 13, 2), costs.getEstimatedCost());
+        assertTrue(costs.getAdvanceCost().isEmpty());
+    }
+
+}
@@ -31,6 +31,7 @@ import static org.easymock.EasyMock.replay;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.test.planner.entities.DayAssignmentMatchers.consecutiveDays;
@@ -61,6 +62,7 @@ import org.libreplan.business.planner.entities.SpecificDayAssignment;
 import org.libreplan.business.planner.entities.SpecificResourceAllocation;
 import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workingday.IntraDayDate;
 import org.libreplan.business.workingday.IntraDayDate.PartialDay;
@@ -743,4 +745,41 @@ public class SpecificResourceAllocationTest {
         assertTrue(specificResourceAllocation.isAlreadyFinishedBy(specificResourceAllocation.getEndDate()));
     }
 
+    @Test
+    public void mergingKeepsTheAssignmentsWithTheSameValues() {
+        givenResourceCalendarAlwaysReturning(8);
+        givenSpecificResourceAllocation(date(2000, 2, 4), 4);
+        Scenario scenario = createNiceMock(Scenario.class);
+        replay(scenario);
+        specificResourceAllocation.switchToScenario(scenario);
+        specificResourceAllocation.allocate(ResourcesPerDay.amount(1));
+        List<SpecificDayAssignment> previous = specificResourceAllocation.getAssignments();
+
+        SpecificResourceAllocation modification = (SpecificResourceAllocation) specificResourceAllocation.copy(scenario);
+        modification.allocate(ResourcesPerDay.amount(1));
+        specificResourceAllocation.mergeAssignmentsAndResourcesPerDay(scenario, modification);
+
+        assertThat(specificResourceAllocation.getAssignments().size(), equalTo(4));
+        assertTrue(specificResourceAllocation.getAssignments().containsAll(previous));
+    }
+
+    @Test
+    public void mergingReplacesTheAssignmentsWithOtherValues() {
+        givenResourceCalendarAlwaysReturning(8);
+        givenSpecificResourceAllocation(date(2000, 2, 4), 4);
+        Scenario scenario = createNiceMock(Scenario.class);
+        replay(scenario);
+        specificResourceAllocation.switchToScenario(scenario);
+        specificResourceAllocation.allocate(ResourcesPerDay.amount(1));
+        List<SpecificDayAssignment> previous = specificResourceAllocation.getAssignments();
+
+        SpecificResourceAllocation modification = (SpecificResourceAllocation) specificResourceAllocation.copy(scenario);
+        modification.allocate(ResourcesPerDay.amount(new BigDecimal("0.5")));
+        specificResourceAllocation.mergeAssignmentsAndResourcesPerDay(scenario, modification);
+
+        assertThat(specificResourceAllocation.getAssignments(), haveHours(4, 4, 4, 4));
+        for (SpecificDayAssignment each : previous) {
+            assertFalse(specificResourceAllocation.getAssignments().contains(each));
+        }
+    }
 }
@@ -21,6 +21,9 @@
 
 package org.libreplan.business.test.resources.entities;
 
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -41,6 +44,7 @@ import org.junit.runner.RunWith;
 import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.planner.entities.SpecificDayAssignment;
 import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.CriterionCompounder;
 import org.libreplan.business.resources.entities.CriterionSatisfaction;
 import org.libreplan.business.resources.entities.CriterionTypeBase;
 import org.libreplan.business.resources.entities.CriterionWithItsType;
@@ -48,9 +52,11 @@ import org.libreplan.business.resources.entities.ICriterion;
 import org.libreplan.business.resources.entities.ICriterionType;
 import org.libreplan.business.resources.entities.Interval;
 import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.SatisfiedCriterionsIndex;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
+import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.test.resources.daos.CriterionDAOTest;
 import org.libreplan.business.test.resources.daos.CriterionSatisfactionDAOTest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -160,6 +166,33 @@ public class ResourceTest {
         assertThat(worker.getCurrentCriterionsFor(type).size(), equalTo(2));
     }
 
+    @Test
+    @Transactional
+    public void theSatisfiedCriterionsIndexAnswersTheSameAsTheCompoundedCriterion() {
+        Criterion criterion = CriterionDAOTest.createValidCriterion();
+        Criterion otherCriterion = CriterionDAOTest.createValidCriterion();
+        ICriterionType<Criterion> type = createTypeThatMatches(criterion, otherCriterion);
+        Worker worker = Worker.create("firstName", "surName", "2333232");
+        worker.addSatisfaction(new CriterionWithItsType(type, criterion), Interval.range(year(2000), year(2010)));
+        worker.addSatisfaction(new CriterionWithItsType(type, criterion), Interval.range(year(2012), year(2013)));
+        CriterionSatisfaction other =
+                worker.addSatisfaction(new CriterionWithItsType(type, otherCriterion), Interval.from(year(2005)));
+
+        List<Criterion> criterions = Arrays.asList(criterion, otherCriterion);
+        ICriterion compounded = CriterionCompounder.buildAnd(criterions).getResult();
+        SatisfiedCriterionsIndex index = SatisfiedCriterionsIndex.forCriterions(criterions);
+        assertSameAnswers(compounded, index, worker);
+
+        other.finish(year(2008));
+        assertSameAnswers(compounded, index, worker);
+    }
+
+    private void assertSameAnswers(ICriterion criterion, SatisfiedCriterionsIndex index, Resource resource) {
+        for (LocalDate day = year(1999); day.isBefore(year(2015)); day = day.plusDays(1)) {
+            assertThat(index.isSatisfiedBy(resource, day), equalTo(criterion.isSatisfiedBy(resource, day)));
+        }
+    }
+
     public static CriterionTypeBase createTypeThatMatches(final Criterion... criterions) {
         return createTypeThatMatches(true, criterions);
     }
@@ -570,6 +603,27 @@ public class ResourceTest {
         assertThat(worker.getAssignedEffort(today), equalTo(hours(13)));
     }
 
+    @Test
+    @Transactional
+    public void theAssignedEffortOnlyIncludesTheAssignmentsThatAreStillOfTheScenario() {
+        givenWorker();
+        LocalDate today = new LocalDate();
+        DayAssignment movedToAnotherScenario = createNiceMock(DayAssignment.class);
+        expect(movedToAnotherScenario.getDay()).andReturn(today).anyTimes();
+        expect(movedToAnotherScenario.getDuration()).andReturn(hours(10)).anyTimes();
+        expect(movedToAnotherScenario.getScenario()).andReturn(null).once();
+        expect(movedToAnotherScenario.getScenario()).andReturn(createNiceMock(Scenario.class)).anyTimes();
+        replay(movedToAnotherScenario);
+        givenWorkerWithAssignments(movedToAnotherScenario);
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(10)));
+
+        SpecificDayAssignment another = new SpecificDayAssignment(today, hours(3), worker);
+        worker.addNewAssignments(Collections.singletonList(another));
+
+        assertThat(worker.getAssignedEffort(today), equalTo(hours(3)));
+        assertThat(worker.getAssignedEffortBetween(today, today.plusDays(1)), equalTo(hours(3)));
+    }
+
     private void givenWorkerWithAssignments(DayAssignment... assignments) {
         this.assignments = Arrays.asList(assignments);
         worker.addNewAssignments(this.assignments);
@@ -0,0 +1,119 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.util;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.libreplan.business.util.SearchIndex;
+
+public class SearchIndexTest {
+
+    private SearchIndex createIndex() {
+        return SearchIndex.builder()
+                .add(1L, "PREFIX-001", "Foundations", "ORDER-1", "House")
+                .add(2L, "PREFIX-002", "Walls", "ORDER-1", "House")
+                .add(3L, "OTHER-001", "Roof", "ORDER-2", "Garage")
+                .build();
+    }
+
+    @Test
+    public void theEntriesContainingTheTextAreFoundIgnoringCase() {
+        SearchIndex index = createIndex();
+        assertThat(index.search("prefix", 10), equalTo(asList(1L, 2L)));
+        assertThat(index.search("WALL", 10), equalTo(asList(2L)));
+        assertThat(index.search("oo", 10), equalTo(asList(3L)));
+        assertThat(index.search("missing", 10), equalTo(Collections.<Long> emptyList()));
+    }
+
+    @Test
+    public void anEmptyTextFindsAllTheEntriesInOrder() {
+        assertThat(createIndex().search("  ", 10), equalTo(asList(1L, 2L, 3L)));
+    }
+
+    @Test
+    public void theNumberOfResultsIsLimited() {
+        assertThat(createIndex().search("", 2), equalTo(asList(1L, 2L)));
+    }
+
+    @Test
+    public void theTextCannotSpanSeveralFields() {
+        assertTrue(createIndex().search("001foundations", 10).isEmpty());
+        assertTrue(createIndex().search("roof order", 10).isEmpty());
+    }
+
+    @Test
+    public void theSearchCanBeLimitedToTheFirstFields() {
+        SearchIndex index = createIndex();
+        assertThat(index.search("house", 10).size(), equalTo(2));
+        assertTrue(index.search("house", 2, 10).isEmpty());
+        assertThat(index.search("roof", 2, 10), equalTo(asList(3L)));
+    }
+
+    @Test
+    public void theChangesCreateANewIndexWithoutModifyingThePreviousOne() {
+        SearchIndex index = createIndex();
+        SearchIndex changed = index.withChanges(
+                SearchIndex.builder().add(2L, "PREFIX-002", "Windows").add(4L, "NEW-001", "Doors"),
+                asList(3L));
+
+        assertThat(changed.size(), equalTo(3));
+        assertTrue(changed.search("walls", 10).isEmpty());
+        assertThat(changed.search("windows", 10), equalTo(asList(2L)));
+        assertThat(changed.search("doors", 10), equalTo(asList(4L)));
+        assertTrue(changed.search("roof", 10).isEmpty());
+
+        assertThat(index.size(), equalTo(3));
+        assertThat(index.search("walls", 10), equalTo(asList(2L)));
+        assertThat(index.search("roof", 10), equalTo(asList(3L)));
+    }
+
+    @Test
+    public void itTellsIfAnEntryHasTheSameFields() {
+        SearchIndex index = createIndex();
+        assertTrue(index.hasSameFields(3L, "other-001", "ROOF", "ORDER-2", "Garage"));
+        assertFalse(index.hasSameFields(3L, "OTHER-001", "Roof"));
+        assertFalse(index.hasSameFields(5L, "OTHER-001", "Roof", "ORDER-2", "Garage"));
+    }
+
+    @Test
+    public void manyChangesAreEquivalentToBuildingItAgain() {
+        SearchIndex index = createIndex();
+        SearchIndex.Builder changes = SearchIndex.builder();
+        for (long i = 10; i < 2010; i++) {
+            changes.add(i, "CODE-" + i, "Element " + i);
+        }
+        SearchIndex changed = index.withChanges(changes, asList(1L));
+
+        assertThat(changed.size(), equalTo(2002));
+        List<Long> found = changed.search("code-15", 200);
+        assertThat(found.size(), equalTo(111));
+        assertThat(found.get(0), equalTo(15L));
+        assertTrue(changed.search("foundations", 10).isEmpty());
+    }
+
+}
@@ -27,17 +27,39 @@ import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Resource;
 
+import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.libreplan.business.IDataBootstrap;
+import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.resources.daos.IWorkerDAO;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
+import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.valueobjects.WorkReportLinesSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -53,9 +75,23 @@ public class WorkReportLineDAOTest extends AbstractWorkReportTest {
     @Autowired
     private IWorkReportLineDAO workReportLineDAO;
 
+    @Autowired
+    private IWorkerDAO workerDAO;
+
+    @Autowired
+    private IAdHocTransactionService transactionService;
+
     @Resource
     private IDataBootstrap configurationBootstrap;
 
+    /**
+     * What the tests without a transaction of their own commit, to remove it
+     * afterwards
+     */
+    private WorkReportLine committedLine;
+
+    private final List<Long> committedWorkReportIds = new CopyOnWriteArrayList<>();
+
     @Before
     public void loadRequiredData() {
         configurationBootstrap.loadRequiredData();
@@ -93,4 +129,267 @@ public class WorkReportLineDAOTest extends AbstractWorkReportTest {
         List<WorkReportLine> list = workReportLineDAO.list(WorkReportLine.class);
         assertEquals(previous + 2, list.size());
     }
+
+    @Test
+    @Transactional
+    public void testSummariesByOrderElementIdMatchTheLinesOfEachOrderElement() {
+        List<OrderElement> orderElements = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            WorkReportLine first = createValidWorkReportLine();
+            first.setDate(date(2026, 1, 10 + i));
+            workReportLineDAO.save(first);
+
+            WorkReportLine second = givenLineLike(first);
+            second.setDate(date(2026, 2, 1 + i));
+            second.setEffort(EffortDuration.hours(5 + i));
+            second.setFinished(i == 1);
+            workReportLineDAO.save(second);
+
+            orderElements.add(first.getOrderElement());
+        }
+        workReportLineDAO.flush();
+
+        // Ids without lines between them, so each order element is asked in another chunk
+        List<Long> orderElementIds = new ArrayList<>();
+        long withoutLines = 0;
+        for (OrderElement each : orderElements) {
+            orderElementIds.add(each.getId());
+            for (int i = 0; i < 1200; i++) {
+                orderElementIds.add(--withoutLines);
+            }
+        }
+
+        Map<Long, WorkReportLinesSummary> summaries = workReportLineDAO.getSummariesByOrderElementId(orderElementIds);
+
+        assertEquals(orderElements.size(), summaries.size());
+        for (OrderElement each : orderElements) {
+            List<WorkReportLine> lines = workReportLineDAO.findByOrderElement(each);
+            EffortDuration effort = EffortDuration.zero();
+            Date firstDate = null;
+            Date lastDate = null;
+            for (WorkReportLine line : lines) {
+                effort = effort.plus(line.getEffort());
+                firstDate = firstDate == null || line.getDate().before(firstDate) ? line.getDate() : firstDate;
+                lastDate = lastDate == null || line.getDate().after(lastDate) ? line.getDate() : lastDate;
+            }
+
+            WorkReportLinesSummary summary = summaries.get(each.getId());
+            assertEquals(effort, summary.getEffort());
+            assertEquals(firstDate.getTime(), summary.getFirstDate().getTime());
+            assertEquals(lastDate.getTime(), summary.getLastDate().getTime());
+            assertEquals(workReportLineDAO.isFinished(each), summary.isFinished());
+        }
+    }
+
+    /**
+     * Line with the same resource, order element and type of hours as the
+     * given one, in a work report of its own
+     */
+    private WorkReportLine givenLineLike(WorkReportLine line) {
+        WorkReport workReport = createValidWorkReport();
+        workReportDAO.save(workReport);
+
+        WorkReportLine result = WorkReportLine.create(workReport);
+        workReport.addWorkReportLine(result);
+        result.setResource(line.getResource());
+        result.setOrderElement(line.getOrderElement());
+        result.setTypeOfWorkHours(line.getTypeOfWorkHours());
+
+        return result;
+    }
+
+    private static Date date(int year, int month, int day) {
+        return new LocalDate(year, month, day).toDateTimeAtStartOfDay().toDate();
+    }
+
+    @Test
+    public void testDailyChargedEffortFollowsTheWorkReportLines() {
+        String workerCode = UUID.randomUUID().toString();
+
+        try {
+            final Long lineId = saveValidWorkReportLineOf(workerCode);
+            assertEquals(EffortDuration.hours(100), chargedEffortOf(workerCode));
+
+            transactionService.runOnTransaction(new IOnTransaction<Void>() {
+                @Override
+                public Void execute() {
+                    try {
+                        workReportLineDAO.find(lineId).setEffort(EffortDuration.hours(20));
+                    } catch (InstanceNotFoundException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return null;
+                }
+            });
+            assertEquals(EffortDuration.hours(20), chargedEffortOf(workerCode));
+
+            transactionService.runOnTransaction(new IOnTransaction<Void>() {
+                @Override
+                public Void execute() {
+                    try {
+                        WorkReportLine workReportLine = workReportLineDAO.find(lineId);
+                        workReportLine.getWorkReport().removeWorkReportLine(workReportLine);
+                        workReportLineDAO.remove(lineId);
+                    } catch (InstanceNotFoundException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return null;
+                }
+            });
+            assertEquals(EffortDuration.zero(), chargedEffortOf(workerCode));
+        } finally {
+            removeCommittedEntities();
+        }
+    }
+
+    @Test
+    public void testDailyChargedEffortOfConcurrentTransactionsOnTheSameDay() throws Exception {
+        String workerCode = UUID.randomUUID().toString();
+
+        try {
+            Long lineId = saveValidWorkReportLineOf(workerCode);
+
+            CountDownLatch firstAdded = new CountDownLatch(1);
+            CountDownLatch secondAdded = new CountDownLatch(1);
+
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                /*
+                 * The first one waits for a while for the second one to add its
+                 * line before committing, but the second one must wait for the
+                 * first one to be committed
+                 */
+                Future<Void> first = executor.submit(addingLineOnTheSameDayAs(lineId, null, firstAdded, secondAdded));
+                Future<Void> second = executor.submit(addingLineOnTheSameDayAs(lineId, firstAdded, secondAdded, null));
+                first.get();
+                second.get();
+            } finally {
+                executor.shutdown();
+            }
+
+            assertEquals(EffortDuration.hours(120), chargedEffortOf(workerCode));
+        } finally {
+            removeCommittedEntities();
+        }
+    }
+
+    /**
+     * Removes what the transactions of the test committed, as they can't be
+     * rolled back
+     */
+    private void removeCommittedEntities() {
+        final Set<Long> workReportTypeIds = transactionService.runOnTransaction(new IOnTransaction<Set<Long>>() {
+            @Override
+            public Set<Long> execute() {
+                try {
+                    Set<Long> result = new HashSet<>();
+                    for (Long each : committedWorkReportIds) {
+                        result.add(workReportDAO.find(each).getWorkReportType().getId());
+                        workReportDAO.remove(each);
+                    }
+                    return result;
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+
+        // The daily charged efforts of the lines are removed once committed
+        transactionService.runOnTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                try {
+                    for (Long each : workReportTypeIds) {
+                        workReportTypeDAO.remove(each);
+                    }
+                    if ( committedLine != null ) {
+                        typeOfWorkHoursDAO.remove(committedLine.getTypeOfWorkHours().getId());
+                        orderElementDAO.remove(committedLine.getOrderElement().getId());
+                        workerDAO.remove(committedLine.getResource().getId());
+                    }
+                } catch (InstanceNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+                return null;
+            }
+        });
+    }
+
+    private Long saveValidWorkReportLineOf(final String workerCode) {
+        return transactionService.runOnTransaction(new IOnTransaction<Long>() {
+            @Override
+            public Long execute() {
+                WorkReportLine workReportLine = createValidWorkReportLine();
+                workReportLine.getResource().setCode(workerCode);
+                workReportLineDAO.save(workReportLine);
+                committedLine = workReportLine;
+                committedWorkReportIds.add(workReportLine.getWorkReport().getId());
+
+                return workReportLine.getId();
+            }
+        });
+    }
+
+    /**
+     * Adds a line of ten hours with the same resource, day, order element and
+     * type of hours as the given line, in a work report of its own
+     */
+    private Callable<Void> addingLineOnTheSameDayAs(final Long lineId,
+                                                   final CountDownLatch waitBefore,
+                                                   final CountDownLatch added,
+                                                   final CountDownLatch waitAfter) {
+        return new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                if ( waitBefore != null ) {
+                    waitBefore.await();
+                }
+
+                return transactionService.runOnTransaction(new IOnTransaction<Void>() {
+                    @Override
+                    public Void execute() {
+                        try {
+                            WorkReportLine existing = workReportLineDAO.find(lineId);
+                            WorkReport workReport = createValidWorkReport();
+                            workReportDAO.save(workReport);
+
+                            WorkReportLine workReportLine = WorkReportLine.create(workReport);
+                            workReport.addWorkReportLine(workReportLine);
+                            workReportLine.setDate(existing.getDate());
+                            workReportLine.setEffort(EffortDuration.hours(10));
+                            workReportLine.setResource(existing.getResource());
+                            workReportLine.setOrderElement(existing.getOrderElement());
+                            workReportLine.setTypeOfWorkHours(existing.getTypeOfWorkHours());
+                            workReportLineDAO.save(workReportLine);
+                            workReportLineDAO.flush();
+                            committedWorkReportIds.add(workReport.getId());
+                            added.countDown();
+
+                            if ( waitAfter != null ) {
+                                waitAfter.await(2, TimeUnit.SECONDS);
+                            }
+                        } catch (InstanceNotFoundException | InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        return null;
+                    }
+                });
+            }
+        };
+    }
+
+    private EffortDuration chargedEffortOf(final String workerCode) {
+        return transactionService.runOnReadOnlyTransaction(new IOnTransaction<EffortDuration>() {
+            @Override
+            public EffortDuration execute() {
+                List<Object[]> rows =
+                        workerDAO.getWorkingHoursGroupedPerWorker(Collections.singletonList(workerCode), null, null);
+
+                return rows.isEmpty()
+                        ? EffortDuration.zero()
+                        : EffortDuration.seconds(((Number) rows.get(0)[1]).intValue());
+            }
+        });
+    }
+
 }
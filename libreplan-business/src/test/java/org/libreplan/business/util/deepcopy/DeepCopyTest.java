@@ -31,17 +31,23 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Collections;
 
@@ -53,6 +59,7 @@ import org.joda.time.LocalDate;
 import org.junit.Test;
 import org.libreplan.business.util.deepcopy.EntityExamples.EntityA;
 import org.libreplan.business.util.deepcopy.EntityExamples.EntityWithoutNoArgsConstructor;
+import org.libreplan.business.util.deepcopy.EntityExamples.Node;
 import org.libreplan.business.util.deepcopy.EntityExamples.Parent;
 import org.libreplan.business.util.deepcopy.EntityExamples.SubClassExample;
 import org.libreplan.business.util.deepcopy.EntityExamples.TestEnum;
@@ -375,4 +382,147 @@ public class DeepCopyTest {
         assertNotSame(copied.getSet1(), copied.getSet2());
     }
 
+    @Test
+    public void immutableValuesCanBeReplacedToo() {
+        EntityA entityA = new EntityA();
+        entityA.setStringProperty("foo");
+        DeepCopy deepCopy = new DeepCopy();
+        deepCopy.replace("foo", "replaced");
+        EntityA copy = deepCopy.copy(entityA);
+        assertEquals("replaced", copy.getStringProperty());
+    }
+
+    @Test
+    public void aBigGraphIsCopiedAsGoingThroughTheFieldsOfEachObject() {
+        Node root = createGraph(6000);
+
+        Node copy = new DeepCopy().copy(root);
+        Node expected = new ReflectiveDeepCopy().copy(root);
+
+        assertNotSame(root, copy);
+        assertSame(root.getShared(), copy.getShared());
+        assertThat(copy.getCache(), nullValue());
+        assertEquals(1, copy.getChildren().get(0).getAfterCopyHooksCalled());
+        assertSameGraph(expected, copy, new IdentityHashMap<>(), new IdentityHashMap<>());
+    }
+
+    @Test
+    public void theSameClassesCanBeCopiedAgain() {
+        Node root = createGraph(500);
+
+        Node firstCopy = new DeepCopy().copy(root);
+        Node secondCopy = new DeepCopy().copy(root);
+
+        assertNotSame(firstCopy, secondCopy);
+        assertSameGraph(firstCopy, secondCopy, new IdentityHashMap<>(), new IdentityHashMap<>());
+    }
+
+    /**
+     * A tree of nodes, like the elements of an order, with references to
+     * other nodes and dates shared among several nodes
+     */
+    private static Node createGraph(int size) {
+        List<Node> nodes = new ArrayList<>();
+        Date[] dates = { new Date(0), new Date(1000), new Date(2000) };
+
+        Node root = new Node("root", 0, dates[0]);
+        root.setShared(new Node("shared", -1, null));
+        nodes.add(root);
+
+        for (int i = 1; i < size; i++) {
+            Node parent = nodes.get((i - 1) / 8);
+            Node node = new Node("node-" + i, i, dates[i % dates.length]);
+
+            List<Node> siblings = parent.getChildren();
+            if ( !siblings.isEmpty() ) {
+                node.addRelated(siblings.get(siblings.size() - 1));
+            }
+            node.addRelated(root);
+            node.setShared(nodes.get(i / 2));
+            node.addSharedElement(parent);
+
+            parent.addChild(node);
+            nodes.add(node);
+        }
+
+        return root;
+    }
+
+    /**
+     * Checks both graphs have the same shape, classes and values, and that
+     * each object of one corresponds to only one object of the other
+     */
+    private static void assertSameGraph(Object expected, Object actual,
+                                        Map<Object, Object> visited, Map<Object, Object> visitedBack) {
+        if ( expected == actual ) {
+            return;
+        }
+        if ( expected == null || actual == null ) {
+            assertSame(expected, actual);
+            return;
+        }
+        assertEquals(expected.getClass(), actual.getClass());
+
+        if ( DeepCopy.isImmutableType(expected.getClass()) ) {
+            assertEquals(expected, actual);
+            return;
+        }
+        if ( visited.containsKey(expected) || visitedBack.containsKey(actual) ) {
+            assertSame(actual, visited.get(expected));
+            assertSame(expected, visitedBack.get(actual));
+            return;
+        }
+        visited.put(expected, actual);
+        visitedBack.put(actual, expected);
+
+        if ( expected instanceof Date ) {
+            assertEquals(expected, actual);
+        } else if ( expected instanceof Collection ) {
+            assertSameElements(
+                    ((Collection<?>) expected).iterator(), ((Collection<?>) actual).iterator(), visited, visitedBack);
+        } else if ( expected instanceof Map ) {
+            assertSameElements(
+                    ((Map<?, ?>) expected).entrySet().iterator(),
+                    ((Map<?, ?>) actual).entrySet().iterator(),
+                    visited,
+                    visitedBack);
+        } else {
+            for (Class<?> klass = expected.getClass(); klass != null; klass = klass.getSuperclass()) {
+                for (Field each : klass.getDeclaredFields()) {
+                    if ( !Modifier.isStatic(each.getModifiers()) ) {
+                        each.setAccessible(true);
+                        assertSameGraph(read(each, expected), read(each, actual), visited, visitedBack);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertSameElements(Iterator<?> expected, Iterator<?> actual,
+                                           Map<Object, Object> visited, Map<Object, Object> visitedBack) {
+        while (expected.hasNext()) {
+            assertTrue(actual.hasNext());
+            Object expectedElement = expected.next();
+            Object actualElement = actual.next();
+
+            if ( expectedElement instanceof Entry ) {
+                Entry<?, ?> expectedEntry = (Entry<?, ?>) expectedElement;
+                Entry<?, ?> actualEntry = (Entry<?, ?>) actualElement;
+                assertSameGraph(expectedEntry.getKey(), actualEntry.getKey(), visited, visitedBack);
+                assertSameGraph(expectedEntry.getValue(), actualEntry.getValue(), visited, visitedBack);
+            } else {
+                assertSameGraph(expectedElement, actualElement, visited, visitedBack);
+            }
+        }
+        assertTrue(!actual.hasNext());
+    }
+
+    private static Object read(Field field, Object object) {
+        try {
+            return field.get(object);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
 }
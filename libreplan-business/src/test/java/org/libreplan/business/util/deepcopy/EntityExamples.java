@@ -20,9 +20,13 @@
  */
 package org.libreplan.business.util.deepcopy;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -313,4 +317,103 @@ public class EntityExamples {
     public static class SubClassExample extends SuperclassExample {
     }
 
+    /**
+     * Node of a graph with fields of all the kinds the copy handles
+     */
+    public static class Node {
+
+        private String name;
+
+        private int index;
+
+        private short shortProperty;
+
+        private double doubleProperty;
+
+        private boolean even;
+
+        private char letter;
+
+        private BigDecimal amount;
+
+        private TestEnum kind;
+
+        private Date date;
+
+        private Node parent;
+
+        private List<Node> children = new ArrayList<>();
+
+        private Set<Node> related = new LinkedHashSet<>();
+
+        private Map<String, Node> childrenByName = new LinkedHashMap<>();
+
+        @OnCopy(Strategy.SHARE)
+        private Node shared;
+
+        @OnCopy(Strategy.SHARE_COLLECTION_ELEMENTS)
+        private List<Node> sharedElements = new ArrayList<>();
+
+        @OnCopy(Strategy.IGNORE)
+        private Object cache;
+
+        private int afterCopyHooksCalled = 0;
+
+        public Node() {
+        }
+
+        public Node(String name, int index, Date date) {
+            this.name = name;
+            this.index = index;
+            this.shortProperty = (short) (index % 1000);
+            this.doubleProperty = index / 3.0;
+            this.even = index % 2 == 0;
+            this.letter = (char) ('a' + index % 26);
+            this.amount = BigDecimal.valueOf(index, 2);
+            this.kind = even ? TestEnum.A : TestEnum.B;
+            this.date = date;
+            this.cache = new Object();
+        }
+
+        public void addChild(Node child) {
+            child.parent = this;
+            children.add(child);
+            childrenByName.put(child.name, child);
+        }
+
+        public void addRelated(Node node) {
+            related.add(node);
+        }
+
+        public void setShared(Node shared) {
+            this.shared = shared;
+        }
+
+        public void addSharedElement(Node node) {
+            sharedElements.add(node);
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        public Node getShared() {
+            return shared;
+        }
+
+        public Object getCache() {
+            return cache;
+        }
+
+        public int getAfterCopyHooksCalled() {
+            return afterCopyHooksCalled;
+        }
+
+        @AfterCopy
+        private void afterCopy() {
+            afterCopyHooksCalled++;
+        }
+
+    }
+
 }
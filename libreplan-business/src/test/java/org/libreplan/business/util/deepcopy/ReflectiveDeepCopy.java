@@ -0,0 +1,164 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.util.deepcopy;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Copies going through the fields and the {@link AfterCopy} hooks of each
+ * object by reflection, as {@link DeepCopy} did before resolving them once
+ * per class. It's used to check both copies are the same.<br />
+ *
+ * The collections are instantiated with their no-args constructor, so
+ * Hibernate collections are not supported.
+ */
+class ReflectiveDeepCopy {
+
+    private final Map<Object, Object> alreadyCopiedObjects = new IdentityHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> T copy(T entity) {
+        return (T) copy(entity, null);
+    }
+
+    private Object copy(Object value, Strategy strategy) {
+        if (value == null) {
+            return null;
+        }
+        if (alreadyCopiedObjects.containsKey(value)) {
+            return alreadyCopiedObjects.get(value);
+        }
+        if (Strategy.SHARE == strategy || DeepCopy.isImmutableType(value.getClass())) {
+            return value;
+        }
+
+        if (value instanceof Date) {
+            Date result = new Date(((Date) value).getTime());
+            alreadyCopiedObjects.put(value, result);
+            return result;
+        }
+        if (value instanceof Set || value instanceof List) {
+            return copyCollection((Collection<?>) value, strategy);
+        }
+        if (value instanceof Map) {
+            return copyMap((Map<?, ?>) value, strategy);
+        }
+
+        Object result = instantiate(value.getClass());
+        alreadyCopiedObjects.put(value, result);
+        copyProperties(value, result);
+        callAfterCopyHooks(result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object copyCollection(Collection<?> origin, Strategy strategy) {
+        Collection<Object> result = (Collection<Object>) instantiate(origin.getClass());
+        alreadyCopiedObjects.put(origin, result);
+
+        Strategy childrenStrategy = strategy == Strategy.SHARE_COLLECTION_ELEMENTS ? Strategy.SHARE : strategy;
+        for (Object each : origin) {
+            result.add(copy(each, childrenStrategy));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object copyMap(Map<?, ?> origin, Strategy strategy) {
+        Map<Object, Object> result = (Map<Object, Object>) instantiate(origin.getClass());
+        alreadyCopiedObjects.put(origin, result);
+
+        Strategy keysStrategy = strategy == Strategy.ONLY_SHARE_KEYS || strategy == Strategy.SHARE_COLLECTION_ELEMENTS
+                ? Strategy.SHARE
+                : strategy;
+
+        Strategy valuesStrategy =
+                strategy == Strategy.ONLY_SHARE_VALUES || strategy == Strategy.SHARE_COLLECTION_ELEMENTS
+                        ? Strategy.SHARE
+                        : strategy;
+
+        for (Entry<?, ?> each : origin.entrySet()) {
+            result.put(copy(each.getKey(), keysStrategy), copy(each.getValue(), valuesStrategy));
+        }
+        return result;
+    }
+
+    private static Object instantiate(Class<?> klass) {
+        try {
+            return klass.getConstructor().newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void copyProperties(Object source, Object target) {
+        for (Field each : getAllFieldsFor(source.getClass())) {
+            OnCopy onCopy = each.getAnnotation(OnCopy.class);
+            if (Modifier.isStatic(each.getModifiers()) || (onCopy != null && onCopy.value() == Strategy.IGNORE)) {
+                continue;
+            }
+
+            each.setAccessible(true);
+            try {
+                Object sourceValue = each.get(source);
+                if (sourceValue != null) {
+                    each.set(target, copy(sourceValue, onCopy != null ? onCopy.value() : null));
+                }
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static List<Field> getAllFieldsFor(Class<?> klass) {
+        List<Field> result = new ArrayList<>();
+        for (Class<?> current = klass; current != null; current = current.getSuperclass()) {
+            for (Field each : current.getDeclaredFields()) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    private static void callAfterCopyHooks(Object value) {
+        for (Class<?> current = value.getClass(); current != null; current = current.getSuperclass()) {
+            for (Method each : current.getDeclaredMethods()) {
+                if (each.getAnnotation(AfterCopy.class) != null) {
+                    each.setAccessible(true);
+                    try {
+                        each.invoke(value);
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -46,6 +46,7 @@ import org.libreplan.business.calendars.entities.CalendarExceptionType;
 import org.libreplan.business.calendars.entities.Capacity;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.entities.EntityNameEnum;
+import org.libreplan.business.common.entities.IEntityCodeAllocator;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.business.workingday.EffortDuration;
@@ -74,6 +75,9 @@ public class CalendarImporterMPXJ implements ICalendarImporter {
     @Autowired
     private IEntitySequenceDAO entitySequenceDAO;
 
+    @Autowired
+    private IEntityCodeAllocator entityCodeAllocator;
+
     @Autowired
     private ICalendarExceptionTypeDAO calendarExceptionTypeDAO;
 
@@ -232,7 +236,7 @@ public class CalendarImporterMPXJ implements ICalendarImporter {
      */
     private String getCode(EntityNameEnum entity) {
 
-        String code = entitySequenceDAO.getNextEntityCode(entity);
+        String code = entityCodeAllocator.nextCode(entity);
 
         if (code == null) {
             throw new ConcurrentModificationException(
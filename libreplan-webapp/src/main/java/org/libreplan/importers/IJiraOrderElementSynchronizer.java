@@ -110,6 +110,8 @@ public interface IJiraOrderElementSynchronizer {
      * {@link IJiraOrderElementSynchronizer#syncOrderElementsWithJiraIssues(List, Order).
      *
      * It gets then an already synchronized orders from the {@link OrderSyncInfo} and re-synchronize them.
+     * Only the issues updated since the last synchronization are requested, and orders not modified by them
+     * aren't saved again.
      *
      * @return a list of {@link SynchronizationInfo}
      *
@@ -25,12 +25,18 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
@@ -80,8 +86,20 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
     private static final Log LOG = LogFactory
             .getLog(JiraOrderElementSynchronizer.class);
 
+    /**
+     * Max number of orders whose issues are requested to JIRA at the same time
+     */
+    private static final int JIRA_FETCH_THREADS = 4;
+
+    private static final String JQL_DATE_FORMAT = "yyyy/MM/dd";
+
     private SynchronizationInfo synchronizationInfo;
 
+    /**
+     * If the last synchronized order was modified by the JIRA issues
+     */
+    private boolean orderChanged;
+
     @Autowired
     private IConnectorDAO connectorDAO;
 
@@ -145,7 +163,25 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
      * @return a list of {@link IssueDTO}
      */
     private List<IssueDTO> getJiraIssues(String label, Connector connector) {
-        Map<String, String> properties = connector.getPropertiesAsMap();
+        return getJiraIssues(label, null, connector.getPropertiesAsMap());
+    }
+
+    /**
+     * Gets the jira issues for the specified <code>label</code> updated since
+     * the day before <code>updatedSince</code>. The previous day is included
+     * as JIRA compares the dates in the time zone of its user, and issues are
+     * synchronized again without harm.
+     *
+     * @param label
+     *            the search criteria
+     * @param updatedSince
+     *            date of the last synchronization, <code>null</code> to get
+     *            all the issues
+     * @param properties
+     *            the configuration parameters of the connector
+     * @return a list of {@link IssueDTO}
+     */
+    private static List<IssueDTO> getJiraIssues(String label, Date updatedSince, Map<String, String> properties) {
         String url = properties.get(PredefinedConnectorProperties.SERVER_URL);
 
         String username = properties
@@ -156,11 +192,13 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
 
         String path = JiraRESTClient.PATH_SEARCH;
         String query = "labels=" + label;
+        if (updatedSince != null) {
+            String day = new SimpleDateFormat(JQL_DATE_FORMAT).format(
+                    new LocalDate(updatedSince).minusDays(1).toDate());
+            query += " AND updated >= \"" + day + "\"";
+        }
 
-        List<IssueDTO> issues = JiraRESTClient.getIssues(url, username, password,
-                path, query);
-
-        return issues;
+        return JiraRESTClient.getIssues(url, username, password, path, query);
     }
 
     @Override
@@ -169,6 +207,7 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
 
         synchronizationInfo = new SynchronizationInfo(_(
                 "Synchronization order {0}", order.getName()));
+        orderChanged = false;
 
         for (IssueDTO issue : issues) {
             String code = PredefinedConnectorProperties.JIRA_CODE_PREFIX
@@ -232,8 +271,12 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
             orderLine = OrderLine.create();
             orderLine.setCode(code);
             order.add(orderLine);
+            orderChanged = true;
+        }
+        if (!StringUtils.equals(orderLine.getName(), name)) {
+            orderLine.setName(name);
+            orderChanged = true;
         }
-        orderLine.setName(name);
         return orderLine;
     }
 
@@ -259,9 +302,13 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
             hoursGroup = HoursGroup.create(orderLine);
             hoursGroup.setCode(code);
             orderLine.addHoursGroup(hoursGroup);
+            orderChanged = true;
         }
 
-        hoursGroup.setWorkingHours(workingHours);
+        if (!workingHours.equals(hoursGroup.getWorkingHours())) {
+            hoursGroup.setWorkingHours(workingHours);
+            orderChanged = true;
+        }
     }
 
     /**
@@ -403,6 +450,7 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
                                 orderElement.getCode()));
                 return;
             }
+            orderChanged = true;
         }
 
         AdvanceMeasurement advanceMeasurement = directAdvanceAssignment
@@ -411,10 +459,19 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
             advanceMeasurement = AdvanceMeasurement.create();
             advanceMeasurement.setDate(latestWorkLogDate);
             directAdvanceAssignment.addAdvanceMeasurements(advanceMeasurement);
+            orderChanged = true;
         }
 
-        advanceMeasurement.setValue(percentage
-                .setScale(2, RoundingMode.HALF_UP));
+        BigDecimal value = percentage.setScale(2, RoundingMode.HALF_UP);
+        if (advanceMeasurement.getValue() == null
+                || advanceMeasurement.getValue().compareTo(value) != 0) {
+            advanceMeasurement.setValue(value);
+            orderChanged = true;
+        }
+
+        if (directAdvanceAssignment.getReportGlobalAdvance()) {
+            return;
+        }
 
         DirectAdvanceAssignment spreadAdvanceAssignment = orderElement
                 .getReportGlobalAdvanceAssignment();
@@ -423,6 +480,7 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
         }
 
         directAdvanceAssignment.setReportGlobalAdvance(true);
+        orderChanged = true;
     }
 
     /**
@@ -526,40 +584,103 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
             return syncInfos;
         }
 
-        for (OrderSyncInfo orderSyncInfo : orderSyncInfos) {
-            Order order = orderSyncInfo.getOrder();
-            LOG.info("Synchronizing '" + order.getName() + "'");
-            synchronizationInfo = new SynchronizationInfo(_(
-                    "Synchronization order {0}", order.getName()));
+        ExecutorService executor = Executors.newFixedThreadPool(JIRA_FETCH_THREADS);
+        try {
+            List<Future<List<IssueDTO>>> issuesPerSyncInfo = fetchJiraIssues(
+                    orderSyncInfos, connector.getPropertiesAsMap(), executor);
 
-            List<IssueDTO> issueDTOs = getJiraIssues(orderSyncInfo.getKey(),
-                    connector);
-            if (issueDTOs == null || issueDTOs.isEmpty()) {
-                LOG.warn("No JIRA issues found for '" + orderSyncInfo.getKey()
-                        + "'");
-                synchronizationInfo.addFailedReason(_(
-                        "No JIRA issues found for key {0}",
-                        orderSyncInfo.getKey()));
-                syncInfos.add(synchronizationInfo);
-                continue;
+            for (int i = 0; i < orderSyncInfos.size(); i++) {
+                syncOrderElementsWithJiraIssues(orderSyncInfos.get(i),
+                        issuesPerSyncInfo.get(i), syncInfos);
             }
+        } finally {
+            executor.shutdownNow();
+        }
+        return syncInfos;
+    }
 
-            orderModel.initEdit(order, null);
-            syncOrderElementsWithJiraIssues(issueDTOs, order);
-            if (!synchronizationInfo.isSuccessful()) {
-                syncInfos.add(synchronizationInfo);
-                continue;
+    /**
+     * Requests to JIRA the issues of every {@link OrderSyncInfo}. Requests are
+     * done concurrently so the issues of the first orders can be synchronized
+     * while the ones of the following orders are still being received.
+     */
+    private List<Future<List<IssueDTO>>> fetchJiraIssues(
+            List<OrderSyncInfo> orderSyncInfos,
+            final Map<String, String> properties, ExecutorService executor) {
+
+        List<Future<List<IssueDTO>>> result = new ArrayList<Future<List<IssueDTO>>>();
+        for (OrderSyncInfo each : orderSyncInfos) {
+            final String key = each.getKey();
+            final Date lastSyncDate = each.getLastSyncDate();
+            result.add(executor.submit(new Callable<List<IssueDTO>>() {
+                @Override
+                public List<IssueDTO> call() {
+                    return getJiraIssues(key, lastSyncDate, properties);
+                }
+            }));
+        }
+        return result;
+    }
+
+    private void syncOrderElementsWithJiraIssues(OrderSyncInfo orderSyncInfo,
+            Future<List<IssueDTO>> issues,
+            List<SynchronizationInfo> syncInfos) throws ConnectorException {
+
+        Order order = orderSyncInfo.getOrder();
+        LOG.info("Synchronizing '" + order.getName() + "'");
+        synchronizationInfo = new SynchronizationInfo(_(
+                "Synchronization order {0}", order.getName()));
+
+        List<IssueDTO> issueDTOs;
+        try {
+            issueDTOs = issues.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            LOG.error("Error getting JIRA issues for '" + orderSyncInfo.getKey()
+                    + "'", e.getCause());
+            synchronizationInfo.addFailedReason(_(
+                    "Error getting JIRA issues for key {0}: {1}",
+                    orderSyncInfo.getKey(), e.getCause().getMessage()));
+            syncInfos.add(synchronizationInfo);
+            return;
+        }
+
+        if (issueDTOs == null || issueDTOs.isEmpty()) {
+            if (orderSyncInfo.getLastSyncDate() != null) {
+                LOG.info("No JIRA issues updated for '"
+                        + orderSyncInfo.getKey() + "'");
+                saveSyncInfo(orderSyncInfo.getKey(), order);
+                return;
             }
+            LOG.warn("No JIRA issues found for '" + orderSyncInfo.getKey()
+                    + "'");
+            synchronizationInfo.addFailedReason(_(
+                    "No JIRA issues found for key {0}",
+                    orderSyncInfo.getKey()));
+            syncInfos.add(synchronizationInfo);
+            return;
+        }
+
+        orderModel.initEdit(order, null);
+        syncOrderElementsWithJiraIssues(issueDTOs, order);
+        if (!synchronizationInfo.isSuccessful()) {
+            syncInfos.add(synchronizationInfo);
+            return;
+        }
+        if (orderChanged) {
             orderModel.save(false);
+        } else {
+            LOG.info("No changes in '" + order.getName() + "'");
+        }
 
-            saveSyncInfo(orderSyncInfo.getKey(), order);
+        saveSyncInfo(orderSyncInfo.getKey(), order);
 
-            jiraTimesheetSynchronizer.syncJiraTimesheetWithJiraIssues(
-                    issueDTOs, order);
-            if (!synchronizationInfo.isSuccessful()) {
-                syncInfos.add(synchronizationInfo);
-            }
+        jiraTimesheetSynchronizer.syncJiraTimesheetWithJiraIssues(
+                issueDTOs, order);
+        if (!synchronizationInfo.isSuccessful()) {
+            syncInfos.add(synchronizationInfo);
         }
-        return syncInfos;
     }
 }
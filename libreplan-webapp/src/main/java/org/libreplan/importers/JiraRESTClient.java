@@ -19,6 +19,7 @@
 
 package org.libreplan.importers;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -59,7 +60,8 @@ public class JiraRESTClient {
     private static final String FIELDS_TO_INCLUDE_IN_RESPONSE = "summary,status,timetracking,worklog";
 
     /**
-     * Max number of issues to return(default is 50)
+     * Max number of issues to return in each page (default is 50). JIRA could
+     * return less than these if it's configured with a lower limit.
      */
     private static final long MAX_RESULTS = 1000;
 
@@ -82,7 +84,9 @@ public class JiraRESTClient {
     }
 
     /**
-     * Query Jira for all issues with the specified query parameter
+     * Query Jira for all issues with the specified query parameter. Results
+     * are requested page by page until all the issues matching the query are
+     * returned.
      *
      * @param url
      *            the url(end point)
@@ -114,9 +118,34 @@ public class JiraRESTClient {
         client.query("maxResults", MAX_RESULTS);
         client.query("fields", StringUtils.deleteWhitespace(FIELDS_TO_INCLUDE_IN_RESPONSE));
 
-        SearchResultDTO searchResult = client.get(SearchResultDTO.class);
+        List<IssueDTO> result = new ArrayList<>();
+        while (true) {
+            client.replaceQueryParam("startAt", result.size());
 
-        return searchResult.getIssues();
+            SearchResultDTO searchResult = client.get(SearchResultDTO.class);
+            List<IssueDTO> page = searchResult.getIssues();
+            if ( page == null || page.isEmpty() ) {
+                break;
+            }
+            result.addAll(page);
+
+            if ( isLastPage(searchResult, result.size()) ) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean isLastPage(SearchResultDTO searchResult, int issuesRead) {
+        if ( searchResult.getTotal() != null ) {
+            return issuesRead >= searchResult.getTotal();
+        }
+
+        // Without total, only a page smaller than the requested one is the last
+        int pageSize = searchResult.getMaxResults() != null ? searchResult.getMaxResults() : (int) MAX_RESULTS;
+
+        return searchResult.getIssues().size() < pageSize;
     }
 
     /**
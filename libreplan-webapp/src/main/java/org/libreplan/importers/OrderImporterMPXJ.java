@@ -38,6 +38,7 @@ import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.daos.IConfigurationDAO;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.entities.EntityNameEnum;
+import org.libreplan.business.common.entities.IEntityCodeAllocator;
 import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
@@ -82,6 +83,9 @@ public class OrderImporterMPXJ implements IOrderImporter {
     @Autowired
     private IEntitySequenceDAO entitySequenceDAO;
 
+    @Autowired
+    private IEntityCodeAllocator entityCodeAllocator;
+
     @Autowired
     protected IAdHocTransactionService transactionService;
 
@@ -133,7 +137,7 @@ public class OrderImporterMPXJ implements IOrderImporter {
 
     private String getCode(EntityNameEnum entity) {
 
-        String code = entitySequenceDAO.getNextEntityCode(entity);
+        String code = entityCodeAllocator.nextCode(entity);
 
         if (code == null) {
             throw new ConcurrentModificationException(
@@ -28,7 +28,6 @@ import org.libreplan.business.email.entities.EmailNotification;
 import org.libreplan.business.email.entities.EmailTemplate;
 import org.libreplan.business.email.entities.EmailTemplateEnum;
 import org.libreplan.business.resources.daos.IWorkerDAO;
-import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.settings.entities.Language;
 import org.libreplan.business.users.entities.UserRole;
@@ -50,13 +49,10 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import javax.servlet.ServletContext;
 
-import org.zkoss.zul.Messagebox;
-
 import javax.mail.Message;
 import javax.mail.MessagingException;
 import javax.mail.PasswordAuthentication;
 import javax.mail.Session;
-import javax.mail.Transport;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 import javax.management.AttributeNotFoundException;
@@ -70,6 +66,9 @@ import javax.management.ReflectionException;
 import javax.naming.InitialContext;
 import javax.naming.Context;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
@@ -88,8 +87,6 @@ import java.io.UnsupportedEncodingException;
 
 import org.springframework.core.env.MapPropertySource;
 
-import static org.libreplan.web.I18nHelper._;
-
 /**
  * Sends E-mail to users with data that storing in notification_queue table and
  * that are treat to incoming {@link EmailNotification}.
@@ -128,80 +125,134 @@ public class ComposeMessage {
 	private static final Log LOG = LogFactory.getLog(ComposeMessage.class);
 
 	public boolean composeMessageForUser(EmailNotification notification) {
-		// Gather data about EmailTemplate needs to be used
-		Resource resource = notification.getResource();
-		EmailTemplateEnum type = notification.getType();
-		Locale locale;
-		Worker currentWorker = workerDAO.getCurrentWorker(resource.getId());
+		return !composeMessagesForUsers(Collections.singletonList(notification)).isEmpty();
+	}
 
-		UserRole currentUserRole = getCurrentUserRole(notification.getType());
+	/**
+	 * Composes the messages of all the notifications and sends them through a
+	 * few SMTP connections, reusing each one of them for many messages.
+	 * The workers and the templates are loaded once for all the notifications.
+	 *
+	 * @return the notifications whose message was sent, so they can be removed
+	 *         from the queue
+	 */
+	public List<EmailNotification> composeMessagesForUsers(List<EmailNotification> notifications) {
+		if (notifications.isEmpty()) {
+			return new ArrayList<>();
+		}
 
-		if (currentWorker != null && (currentWorker.getUser() != null) && currentWorker.getUser().isInRole(currentUserRole)) {
-			if (currentWorker.getUser().getApplicationLanguage().equals(Language.BROWSER_LANGUAGE)) {
-				locale = new Locale(System.getProperty("user.language"));
-			} else {
-				locale = new Locale(currentWorker.getUser().getApplicationLanguage().getLocale().getLanguage());
-			}
+		Map<Long, Worker> workers = getCurrentWorkers(notifications);
+		List<EmailTemplate> emailTemplates = emailTemplateModel.getAll();
 
-			EmailTemplate currentEmailTemplate = findCurrentEmailTemplate(type, locale);
+		setupConnectionProperties();
 
-			if (currentEmailTemplate == null) {
-				LOG.error("Email template is null");
-				return false;
+		final String username = usrnme;
+		final String password = psswrd;
+
+		// It is very important to use Session.getInstance() instead of
+		// Session.getDefaultInstance()
+		Session mailSession = Session.getInstance(properties, new javax.mail.Authenticator() {
+			@Override
+			protected PasswordAuthentication getPasswordAuthentication() {
+				return new PasswordAuthentication(username, password);
+			}
+		});
+
+		Map<EmailNotification, MimeMessage> messages = new LinkedHashMap<>();
+		for (EmailNotification notification : notifications) {
+			Worker currentWorker = workers.get(notification.getResource().getId());
+			MimeMessage message = composeMessage(notification, currentWorker, emailTemplates, mailSession);
+			if (message != null) {
+				messages.put(notification, message);
 			}
+		}
+
+		return new EmailSender(mailSession, host, getPort(), username, password, EmailSender.DEFAULT_CONNECTIONS)
+				.send(messages);
+	}
+
+	private Map<Long, Worker> getCurrentWorkers(List<EmailNotification> notifications) {
+		Set<Long> resourceIds = new HashSet<>();
+		for (EmailNotification notification : notifications) {
+			resourceIds.add(notification.getResource().getId());
+		}
+
+		Map<Long, Worker> result = new HashMap<>();
+		for (Worker worker : workerDAO.getCurrentWorkers(resourceIds)) {
+			result.put(worker.getId(), worker);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the message for the notification or <code>null</code> if it
+	 *         should not be sent
+	 */
+	private MimeMessage composeMessage(EmailNotification notification, Worker currentWorker,
+									   List<EmailTemplate> emailTemplates, Session mailSession) {
+		// Gather data about EmailTemplate needs to be used
+		EmailTemplateEnum type = notification.getType();
+		Locale locale;
 
-			// Modify text that will be composed
-			String text = currentEmailTemplate.getContent();
-			text = replaceKeywords(text, currentWorker, notification);
+		UserRole currentUserRole = getCurrentUserRole(notification.getType());
+
+		if (currentWorker == null || currentWorker.getUser() == null
+				|| !currentWorker.getUser().isInRole(currentUserRole)) {
+			return null;
+		}
 
-			String receiver = currentWorker.getUser().getEmail();
+		if (currentWorker.getUser().getApplicationLanguage().equals(Language.BROWSER_LANGUAGE)) {
+			locale = new Locale(System.getProperty("user.language"));
+		} else {
+			locale = new Locale(currentWorker.getUser().getApplicationLanguage().getLocale().getLanguage());
+		}
 
-			setupConnectionProperties();
+		EmailTemplate currentEmailTemplate = findCurrentEmailTemplate(emailTemplates, type, locale);
 
-			final String username = usrnme;
-			final String password = psswrd;
+		if (currentEmailTemplate == null) {
+			LOG.error("Email template is null");
+			return null;
+		}
 
-			// It is very important to use Session.getInstance() instead of
-			// Session.getDefaultInstance()
-			Session mailSession = Session.getInstance(properties, new javax.mail.Authenticator() {
-				@Override
-				protected PasswordAuthentication getPasswordAuthentication() {
-					return new PasswordAuthentication(username, password);
-				}
-			});
+		String receiver = currentWorker.getUser().getEmail();
+		if (receiver == null) {
+			LOG.error(currentWorker.getUser().getLoginName() + " - this user have not filled E-mail");
+			return null;
+		}
 
-			// Send message
-			try {
-				MimeMessage message = new MimeMessage(mailSession);
+		// Modify text that will be composed
+		String text = currentEmailTemplate.getContent();
+		text = replaceKeywords(text, currentWorker, notification);
 
-				message.setFrom(new InternetAddress(sender));
-				message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(receiver));
+		try {
+			MimeMessage message = new MimeMessage(mailSession);
 
-				String subject = currentEmailTemplate.getSubject();
-				message.setSubject(subject);
+			message.setFrom(new InternetAddress(sender));
+			message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(receiver));
 
-				message.setText(text);
+			String subject = currentEmailTemplate.getSubject();
+			message.setSubject(subject);
 
-				Transport.send(message);
+			message.setText(text);
 
-				return true;
+			return message;
 
-			} catch (MessagingException e) {
-				throw new RuntimeException(e);
-			} catch (NullPointerException e) {
-				if (receiver == null) {
-					Messagebox.show(_(currentWorker.getUser().getLoginName() + " - this user have not filled E-mail"),
-							_("Error"), Messagebox.OK, Messagebox.ERROR);
-				}
-			}
+		} catch (MessagingException e) {
+			throw new RuntimeException(e);
 		}
-		return false;
 	}
 
-	private EmailTemplate findCurrentEmailTemplate(EmailTemplateEnum templateEnum, Locale locale) {
-		List<EmailTemplate> emailTemplates;
-		emailTemplates = emailTemplateModel.getAll();
+	private int getPort() {
+		try {
+			return port == null ? -1 : Integer.parseInt(port.trim());
+		} catch (NumberFormatException e) {
+			// Default port of the protocol
+			return -1;
+		}
+	}
 
+	private EmailTemplate findCurrentEmailTemplate(List<EmailTemplate> emailTemplates,
+												   EmailTemplateEnum templateEnum, Locale locale) {
 		for (EmailTemplate item : emailTemplates) {
 			if (item.getType().equals(templateEnum) && item.getLanguage().getLocale().equals(locale)) {
 				return item;
@@ -0,0 +1,192 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.importers.notifications;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sends many messages through at most {@link #getConnections()} SMTP
+ * connections at the same time, each one of them used for all the messages of
+ * its share, instead of opening a connection per message as
+ * {@link Transport#send(javax.mail.Message)} does.<br />
+ *
+ * A message that cannot be sent is logged and skipped, so it can be tried
+ * again later.
+ */
+public class EmailSender {
+
+    private static final Log LOG = LogFactory.getLog(EmailSender.class);
+
+    public static final int DEFAULT_CONNECTIONS = 4;
+
+    private final Session session;
+
+    private final String host;
+
+    private final int port;
+
+    private final String username;
+
+    private final String password;
+
+    private final int connections;
+
+    public EmailSender(Session session, String host, int port, String username, String password,
+                       int connections) {
+
+        if ( connections < 1 ) {
+            throw new IllegalArgumentException("at least one connection is needed");
+        }
+        this.session = session;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.connections = connections;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    /**
+     * @return the keys of the messages that were sent, in the same order as
+     *         in <code>messages</code>
+     */
+    public <K> List<K> send(Map<K, MimeMessage> messages) {
+        List<Entry<K, MimeMessage>> entries = new ArrayList<>(messages.entrySet());
+        int shares = Math.min(connections, entries.size());
+        if ( shares == 0 ) {
+            return new ArrayList<>();
+        }
+        if ( shares == 1 ) {
+            return sendThroughOneConnection(entries);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(shares);
+        try {
+            List<Future<List<K>>> sent = new ArrayList<>();
+            for (int i = 0; i < shares; i++) {
+                final List<Entry<K, MimeMessage>> share = entries.subList(
+                        i * entries.size() / shares, (i + 1) * entries.size() / shares);
+
+                sent.add(executor.submit(new Callable<List<K>>() {
+                    @Override
+                    public List<K> call() {
+                        return sendThroughOneConnection(share);
+                    }
+                }));
+            }
+
+            List<K> result = new ArrayList<>();
+            for (Future<List<K>> each : sent) {
+                result.addAll(getShareResult(each));
+            }
+            return result;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static <K> List<K> getShareResult(Future<List<K>> share) {
+        try {
+            return share.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private <K> List<K> sendThroughOneConnection(List<Entry<K, MimeMessage>> share) {
+        List<K> result = new ArrayList<>();
+        Transport transport = null;
+        try {
+            transport = session.getTransport("smtp");
+            for (Entry<K, MimeMessage> each : share) {
+                if ( !transport.isConnected() ) {
+                    connect(transport);
+                }
+                if ( send(transport, each.getValue()) ) {
+                    result.add(each.getKey());
+                }
+            }
+        } catch (MessagingException e) {
+            LOG.error("Could not connect to the SMTP server " + host + ":" + port, e);
+        } finally {
+            close(transport);
+        }
+
+        return result;
+    }
+
+    /**
+     * The credentials are only given if the session requires authentication,
+     * as {@link Transport#send(javax.mail.Message)} does, since otherwise the
+     * transport tries them whenever the server supports it.
+     */
+    private void connect(Transport transport) throws MessagingException {
+        if ( Boolean.parseBoolean(session.getProperty("mail.smtp.auth")) ) {
+            transport.connect(host, port, username, password);
+        } else {
+            transport.connect(host, port, null, null);
+        }
+    }
+
+    private static boolean send(Transport transport, MimeMessage message) {
+        try {
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            return true;
+        } catch (MessagingException e) {
+            LOG.error("Could not send the E-mail", e);
+            return false;
+        }
+    }
+
+    private static void close(Transport transport) {
+        if ( transport == null || !transport.isConnected() ) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            LOG.warn("Could not close the SMTP connection", e);
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ import org.libreplan.business.email.entities.EmailNotification;
 import org.libreplan.business.email.entities.EmailTemplateEnum;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.planner.entities.TaskMilestone;
 import org.libreplan.business.users.daos.IUserDAO;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
@@ -93,11 +94,7 @@ public class SendEmailOnMilestoneReached implements IEmailNotificationJob {
                 List<EmailNotification> notifications =
                         emailNotificationModel.getAllByType(EmailTemplateEnum.TEMPLATE_MILESTONE_REACHED);
 
-                for (EmailNotification notification : notifications) {
-                    if ( composeMessageForUser(notification) ) {
-                        deleteSingleNotification(notification);
-                    }
-                }
+                emailNotificationModel.deleteAll(composeMessage.composeMessagesForUsers(notifications));
             }
         }
     }
@@ -107,10 +104,6 @@ public class SendEmailOnMilestoneReached implements IEmailNotificationJob {
         return composeMessage.composeMessageForUser(notification);
     }
 
-    private void deleteSingleNotification(EmailNotification notification){
-        emailNotificationModel.deleteById(notification);
-    }
-
     private void sendEmailNotificationToManager(TaskElement item) {
         String responsible = "";
         if ( item.getTopMost().getOrderElement().getOrder().getResponsible() != null ) {
@@ -138,27 +131,13 @@ public class SendEmailOnMilestoneReached implements IEmailNotificationJob {
 	    }
     }
 
+    /**
+     * Only the milestones with deadline today are loaded, with a query using
+     * the index of the deadlines.
+     */
     public void checkMilestoneDate() {
-        List<TaskElement> milestones = taskElementDAO.getTaskElementsWithMilestones();
-
-        LocalDate date = new LocalDate();
-        int currentYear = date.getYear();
-        int currentMonth = date.getMonthOfYear();
-        int currentDay = date.getDayOfMonth();
-
-        for (TaskElement item : milestones) {
-            if ( item.getDeadline() != null ) {
-
-                LocalDate deadline = item.getDeadline();
-                int deadlineYear = deadline.getYear();
-                int deadlineMonth = deadline.getMonthOfYear();
-                int deadlineDay = deadline.getDayOfMonth();
-
-                if (currentYear == deadlineYear && currentMonth == deadlineMonth && currentDay == deadlineDay) {
-                    sendEmailNotificationToManager(item);
-                }
-
-            }
+        for (TaskMilestone item : taskElementDAO.getMilestonesWithDeadlineOn(new LocalDate())) {
+            sendEmailNotificationToManager(item);
         }
     }
 
@@ -65,11 +65,7 @@ public class SendEmailOnResourceRemovedFromTask implements IEmailNotificationJob
                 List<EmailNotification> notifications =
                         emailNotificationModel.getAllByType(EmailTemplateEnum.TEMPLATE_RESOURCE_REMOVED_FROM_TASK);
 
-                for (int i = 0; i < notifications.size(); i++) {
-                    if ( composeMessageForUser(notifications.get(i)) ) {
-                        deleteSingleNotification(notifications.get(i));
-                    }
-                }
+                emailNotificationModel.deleteAll(composeMessage.composeMessagesForUsers(notifications));
             }
         }
     }
@@ -79,8 +75,4 @@ public class SendEmailOnResourceRemovedFromTask implements IEmailNotificationJob
         return composeMessage.composeMessageForUser(notification);
     }
 
-    private void deleteSingleNotification(EmailNotification notification){
-        emailNotificationModel.deleteById(notification);
-    }
-
 }
@@ -19,15 +19,14 @@
 
 package org.libreplan.importers.notifications.realization;
 
-import org.joda.time.DateTime;
-import org.joda.time.DateTimeComparator;
+import org.joda.time.LocalDate;
 import org.libreplan.business.common.Configuration;
 
 import org.libreplan.business.email.entities.EmailNotification;
 import org.libreplan.business.email.entities.EmailTemplateEnum;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.entities.ResourceAllocation;
-import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.resources.daos.IWorkerDAO;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.Worker;
@@ -47,7 +46,13 @@ import org.zkoss.zkplus.spring.SpringUtil;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 
 /**
@@ -97,10 +102,7 @@ public class SendEmailOnTaskShouldStart implements IEmailNotificationJob {
                 List<EmailNotification> notifications =
                         emailNotificationModel.getAllByType(EmailTemplateEnum.TEMPLATE_TODAY_TASK_SHOULD_START);
 
-                for (EmailNotification notification : notifications)
-                    if ( composeMessageForUser(notification) ) {
-                        deleteSingleNotification(notification);
-                    }
+                emailNotificationModel.deleteAll(composeMessage.composeMessagesForUsers(notifications));
             }
         }
     }
@@ -110,36 +112,50 @@ public class SendEmailOnTaskShouldStart implements IEmailNotificationJob {
         return composeMessage.composeMessageForUser(notification);
     }
 
-    private void deleteSingleNotification(EmailNotification notification){
-        emailNotificationModel.deleteById(notification);
-    }
-
+    /**
+     * Only the tasks starting today are loaded, with a query using the index of
+     * their start dates, and the workers of all of them are found at once.
+     */
     @Transactional
     public void taskShouldStart() {
-        // Check if current date equals with item date
-        DateTime currentDate = new DateTime();
-        DateTimeComparator dateTimeComparator = DateTimeComparator.getDateOnlyInstance();
+        List<Task> tasks = taskElementDAO.getTasksStartingOn(new LocalDate());
+
+        Map<Task, List<Resource>> resourcesByTask = new LinkedHashMap<>();
+        Set<Long> resourceIds = new HashSet<>();
+        for (Task item : tasks) {
+            List<Resource> resources = getResources(item);
+            resourcesByTask.put(item, resources);
+            for (Resource resource : resources) {
+                resourceIds.add(resource.getId());
+            }
+        }
 
-        List<TaskElement> tasks = taskElementDAO.getTaskElementsWithParentsWithoutMilestones();
-        for (TaskElement item : tasks) {
-            DateTime startDate = new DateTime(item.getStartDate());
+        Map<Long, Worker> workers = new HashMap<>();
+        for (Worker worker : workerDAO.getCurrentWorkers(resourceIds)) {
+            workers.put(worker.getId(), worker);
+        }
 
-            if ( dateTimeComparator.compare(currentDate, startDate) == 0 && item.isLeaf() ) {
-                // Get all resources for current task and send them email notification
-                sendEmailNotificationAboutTaskShouldStart(item);
-            }
+        for (Entry<Task, List<Resource>> each : resourcesByTask.entrySet()) {
+            // Get all resources for current task and send them email notification
+            sendEmailNotificationAboutTaskShouldStart(each.getKey(), each.getValue(), workers);
         }
     }
 
-    private void sendEmailNotificationAboutTaskShouldStart(TaskElement item) {
-        List<ResourceAllocation<?>> resourceAllocations = new ArrayList<>(item.getAllResourceAllocations());
-
-        List<Resource> resources = new ArrayList<>();
-        for (ResourceAllocation<?> allocation : resourceAllocations)
-            resources.add(allocation.getAssociatedResources().get(0));
+    private List<Resource> getResources(Task item) {
+        List<Resource> result = new ArrayList<>();
+        for (ResourceAllocation<?> allocation : item.getAllResourceAllocations()) {
+            List<Resource> associatedResources = allocation.getAssociatedResources();
+            if ( !associatedResources.isEmpty() ) {
+                result.add(associatedResources.get(0));
+            }
+        }
+        return result;
+    }
 
+    private void sendEmailNotificationAboutTaskShouldStart(Task item, List<Resource> resources,
+                                                          Map<Long, Worker> workers) {
         for (Resource resourceItem : resources) {
-            Worker currentWorker = workerDAO.getCurrentWorker(resourceItem.getId());
+            Worker currentWorker = workers.get(resourceItem.getId());
 
             if (currentWorker != null && (currentWorker.getUser() != null) && currentWorker.getUser().isInRole(UserRole.ROLE_EMAIL_TASK_SHOULD_START)) {
                 emailNotificationModel.setNewObject();
@@ -45,6 +45,7 @@ import org.libreplan.business.common.entities.Configuration;
 import org.libreplan.business.common.entities.Connector;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.common.entities.EntitySequence;
+import org.libreplan.business.common.entities.IEntityCodeAllocator;
 import org.libreplan.business.common.entities.LDAPConfiguration;
 import org.libreplan.business.common.entities.PersonalTimesheetsPeriodicityEnum;
 import org.libreplan.business.common.entities.ProgressType;
@@ -90,6 +91,9 @@ public class ConfigurationModel implements IConfigurationModel {
     @Autowired
     private IEntitySequenceDAO entitySequenceDAO;
 
+    @Autowired
+    private IEntityCodeAllocator entityCodeAllocator;
+
     @Autowired
     private IWorkReportDAO workReportDAO;
 
@@ -191,6 +195,8 @@ public class ConfigurationModel implements IConfigurationModel {
         } catch (IllegalStateException e) {
             throw new OptimisticLockingFailureException("concurrency problem in entity sequences");
         }
+        // The codes already reserved could belong to a sequence not active anymore
+        entityCodeAllocator.discardReservedCodes();
     }
 
     private void checkEntitySequences() {
@@ -36,6 +36,7 @@ import org.libreplan.business.planner.entities.Dependency.Type;
 import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.resources.daos.IResourcesSearcher;
+import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.scenarios.daos.IOrderVersionDAO;
 import org.libreplan.business.scenarios.daos.IScenarioDAO;
 import org.libreplan.business.scenarios.entities.OrderVersion;
@@ -43,6 +44,7 @@ import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.users.daos.IUserDAO;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.web.UserUtil;
+import org.libreplan.web.planner.order.ResourcesSearcherLoadingOnDemand;
 import org.libreplan.web.planner.tabs.GanttDiagramBuilder;
 import org.libreplan.web.security.SecurityUtils;
 import org.libreplan.web.users.bootstrap.PredefinedUsers;
@@ -344,18 +346,32 @@ public class TemplateModel implements ITemplateModel {
     private void doReassignationsOn(Order order, Scenario from, Scenario to) {
         copyAssignments(order, from, to);
 
+        IResourcesSearcher searcher = onScenario(to);
+
         GanttDiagramBuilder.createForcingDependencies(
                 order,
                 TemplateModelAdapter.create(
                         to,
                         asLocalDate(order.getInitDate()),
                         asLocalDate(order.getDeadline()),
-                        resourcesSearcher));
+                        searcher));
 
-        doReassignations(order, to);
+        doReassignations(order, to, searcher);
         doTheSaving(order);
     }
 
+    /**
+     * The resources found for the reassignments must use the day assignments
+     * of the scenario the orders are reassigned on
+     */
+    private IResourcesSearcher onScenario(final Scenario scenario) {
+        return new ResourcesSearcherLoadingOnDemand(resourcesSearcher, found -> {
+            for (Resource each : found) {
+                each.useScenario(scenario);
+            }
+        });
+    }
+
     private LocalDate asLocalDate(Date date) {
         return date != null ? LocalDate.fromDateFields(date) : null;
     }
@@ -366,9 +382,9 @@ public class TemplateModel implements ITemplateModel {
         }
     }
 
-    private void doReassignations(Order order, Scenario scenario) {
+    private void doReassignations(Order order, Scenario scenario, IResourcesSearcher searcher) {
         for (Task each : getTasksFrom(order)) {
-            each.reassignAllocationsWithNewResources(scenario, resourcesSearcher);
+            each.reassignAllocationsWithNewResources(scenario, searcher);
         }
     }
 
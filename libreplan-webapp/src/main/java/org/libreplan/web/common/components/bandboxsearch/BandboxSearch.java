@@ -31,7 +31,6 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.lang3.StringUtils;
 import org.libreplan.business.common.BaseEntity;
-import org.libreplan.business.labels.entities.Label;
 import org.libreplan.web.common.Util;
 import org.libreplan.web.common.components.finders.IBandboxFinder;
 import org.springframework.web.context.WebApplicationContext;
@@ -90,7 +89,7 @@ public class BandboxSearch extends HtmlMacroComponent {
         bandbox.addEventListener("onChanging", event -> {
             clearSelectedElement();
             final String inputText = ((InputEvent) event).getValue();
-            listbox.setModel(getSubModel(inputText));
+            listbox.setModel(finder.getSubModel(inputText));
             listbox.invalidate();
         });
 
@@ -175,25 +174,6 @@ public class BandboxSearch extends HtmlMacroComponent {
         return bandbox.getAttribute(SELECTED_ELEMENT_ATTRIBUTE, true);
     }
 
-    /**
-     * Find {@link Label} which name or type start with prefix.
-     *
-     * @param inputText
-     */
-    @SuppressWarnings("unchecked")
-    private ListModel<Object> getSubModel(String inputText) {
-        List<Object> result = new ArrayList<>();
-
-        final ListModel finderModel = finder.getModel();
-        for (int i = 0; i < finderModel.getSize(); i++) {
-            Object obj = finderModel.getElementAt(i);
-            if (finder.entryMatchesText(obj, inputText)) {
-                result.add(obj);
-            }
-        }
-        return new SimpleListModel<>(result);
-    }
-
     /**
      * Append headers to listbox header list.
      */
@@ -273,9 +253,8 @@ public class BandboxSearch extends HtmlMacroComponent {
      * @param obj
      */
     public void addElement(Object obj) {
-        List<Object> list = asList(finder.getModel());
-        list.add(obj);
-        setModel(new SimpleListModel<>(list));
+        finder.addToModel(obj);
+        listbox.setModel(finder.getModel());
         Util.reloadBindings(listbox);
     }
 
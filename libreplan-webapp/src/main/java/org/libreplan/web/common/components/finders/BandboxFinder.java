@@ -21,6 +21,9 @@
 
 package org.libreplan.web.common.components.finders;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.transaction.annotation.Transactional;
 import org.zkoss.zul.ListModel;
 import org.zkoss.zul.Listitem;
@@ -54,6 +57,32 @@ public abstract class BandboxFinder implements IBandboxFinder {
         this.model = model;
     }
 
+    @Override
+    public void addToModel(Object obj) {
+        List<Object> list = new ArrayList<>();
+        final ListModel finderModel = getModel();
+        for (int i = 0; i < finderModel.getSize(); i++) {
+            list.add(finderModel.getElementAt(i));
+        }
+        list.add(obj);
+        setModel(new SimpleListModel<>(list));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ListModel getSubModel(String text) {
+        List<Object> result = new ArrayList<>();
+
+        final ListModel finderModel = getModel();
+        for (int i = 0; i < finderModel.getSize(); i++) {
+            Object obj = finderModel.getElementAt(i);
+            if (entryMatchesText(obj, text)) {
+                result.add(obj);
+            }
+        }
+        return new SimpleListModel<>(result);
+    }
+
     @Override
     public ListitemRenderer getItemRenderer() {
         return _defRend;
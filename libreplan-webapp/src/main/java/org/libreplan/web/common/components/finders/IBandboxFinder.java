@@ -69,6 +69,21 @@ public interface IBandboxFinder {
      */
     void setModel(ListModel model);
 
+    /**
+     * Adds an element to the ones offered, as a new entity not saved yet
+     *
+     * @param obj
+     */
+    void addToModel(Object obj);
+
+    /**
+     * Returns a {@link ListModel} with the objects matching the input text
+     *
+     * @param text
+     * @return
+     */
+    ListModel getSubModel(String text);
+
     /**
      * Provides headers for {@link BandboxSearch}
      *
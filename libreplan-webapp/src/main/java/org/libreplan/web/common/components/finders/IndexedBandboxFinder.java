@@ -0,0 +1,137 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.common.components.finders;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.libreplan.business.common.BaseEntity;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
+import org.libreplan.business.util.SearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import org.zkoss.zul.ListModel;
+import org.zkoss.zul.SimpleListModel;
+
+/**
+ * {@link BandboxFinder} that looks for the matching entities in a
+ * {@link SearchIndex} shared by all the users, so only the first
+ * {@link #MAX_MATCHES} matching entities are loaded instead of all of them.
+ *
+ * When a model is set, as when the bandbox only offers some entities, the
+ * matching is done over it with {@link #entryMatchesText(Object, String)}.
+ * The elements added otherwise, as new entities not in the index yet, are
+ * kept apart and offered after the matching ones of the index.
+ */
+public abstract class IndexedBandboxFinder<T extends BaseEntity> extends BandboxFinder {
+
+    protected static final int MAX_MATCHES = 100;
+
+    @Autowired
+    protected PredefinedDatabaseSnapshots databaseSnapshots;
+
+    private ListModel model;
+
+    private final List<Object> added = new ArrayList<>();
+
+    /**
+     * Index with the entities of the finder
+     */
+    protected abstract SearchIndex getSearchIndex();
+
+    /**
+     * Loads the entities, and what is needed to show them, in any order
+     */
+    protected abstract List<T> findByIds(Collection<Long> ids);
+
+    /**
+     * The ids of the first matching entities. It can be overridden to look
+     * only in some of the fields of the index.
+     */
+    protected List<Long> search(SearchIndex index, String text) {
+        return index.search(text, MAX_MATCHES);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ListModel getModel() {
+        return model != null ? model : new SimpleListModel<>(withAdded(getMatching(""), ""));
+    }
+
+    @Override
+    public void setModel(ListModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public void addToModel(Object obj) {
+        if ( model != null ) {
+            super.addToModel(obj);
+        } else {
+            added.add(obj);
+        }
+    }
+
+    @Override
+    public void resetModel() {
+        this.model = null;
+        this.added.clear();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ListModel getSubModel(String text) {
+        return model != null ? super.getSubModel(text) : new SimpleListModel<>(withAdded(getMatching(text), text));
+    }
+
+    private List<Object> withAdded(List<T> matching, String text) {
+        List<Object> result = new ArrayList<Object>(matching);
+        for (Object each : added) {
+            if ( !result.contains(each) && entryMatchesText(each, text) ) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    private List<T> getMatching(String text) {
+        List<Long> ids = search(getSearchIndex(), text);
+        if ( ids.isEmpty() ) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, T> byId = new HashMap<>();
+        for (T each : findByIds(ids)) {
+            byId.put(each.getId(), each);
+        }
+
+        List<T> result = new ArrayList<>();
+        for (Long each : ids) {
+            if ( byId.containsKey(each) ) {
+                result.add(byId.get(each));
+            }
+        }
+        return result;
+    }
+
+}
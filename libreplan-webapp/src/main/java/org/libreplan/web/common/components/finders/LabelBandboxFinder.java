@@ -23,6 +23,7 @@ package org.libreplan.web.common.components.finders;
 
 import org.libreplan.business.labels.daos.ILabelDAO;
 import org.libreplan.business.labels.entities.Label;
+import org.libreplan.business.util.SearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,6 +32,7 @@ import org.zkoss.zul.Listcell;
 import org.zkoss.zul.Listitem;
 import org.zkoss.zul.ListitemRenderer;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -43,7 +45,7 @@ import java.util.List;
  * @author Diego Pino Garcia <dpino@igalia.com>
  */
 @Repository
-public class LabelBandboxFinder extends BandboxFinder implements IBandboxFinder {
+public class LabelBandboxFinder extends IndexedBandboxFinder<Label> implements IBandboxFinder {
 
     @Autowired
     private ILabelDAO labelDAO;
@@ -66,6 +68,19 @@ public class LabelBandboxFinder extends BandboxFinder implements IBandboxFinder
         return labels;
     }
 
+    @Override
+    protected SearchIndex getSearchIndex() {
+        return databaseSnapshots.snapshotLabelsSearchIndex();
+    }
+
+    @Override
+    protected List<Label> findByIds(Collection<Long> ids) {
+        List<Label> labels = labelDAO.listByIds(Label.class, ids);
+        initializeLabels(labels);
+
+        return labels;
+    }
+
     private void initializeLabels(List<Label> labels) {
         for (Label label : labels) {
             initializeLabel(label);
@@ -80,9 +95,9 @@ public class LabelBandboxFinder extends BandboxFinder implements IBandboxFinder
     @Override
     public boolean entryMatchesText(Object obj, String text) {
         final Label label = (Label) obj;
-        text = text.toLowerCase();
+        text = text.trim().toLowerCase();
 
-        return (label.getType().getName().toLowerCase().contains(text.toLowerCase()) ||
+        return (label.getType().getName().toLowerCase().contains(text) ||
                 label.getName().toLowerCase().contains(text));
     }
 
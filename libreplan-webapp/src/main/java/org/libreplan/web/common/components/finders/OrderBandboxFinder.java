@@ -22,12 +22,14 @@ package org.libreplan.web.common.components.finders;
 
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.util.SearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.zkoss.zul.Listcell;
 import org.zkoss.zul.ListitemRenderer;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -36,7 +38,7 @@ import java.util.List;
  * @author Susana Montes Pedreira <smontes@wirelessgalicia.com>
  */
 @Repository
-public class OrderBandboxFinder extends BandboxFinder implements IBandboxFinder {
+public class OrderBandboxFinder extends IndexedBandboxFinder<Order> implements IBandboxFinder {
 
     @Autowired
     private IOrderDAO orderDAO;
@@ -56,6 +58,16 @@ public class OrderBandboxFinder extends BandboxFinder implements IBandboxFinder
         return orderDAO.findAll();
     }
 
+    @Override
+    protected SearchIndex getSearchIndex() {
+        return databaseSnapshots.snapshotOrdersSearchIndex();
+    }
+
+    @Override
+    protected List<Order> findByIds(Collection<Long> ids) {
+        return orderDAO.listByIds(Order.class, ids);
+    }
+
     @Override
     public boolean entryMatchesText(Object obj, String text) {
         Order order = (Order) obj;
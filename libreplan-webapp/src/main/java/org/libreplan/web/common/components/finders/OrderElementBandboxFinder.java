@@ -25,6 +25,7 @@ import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.daos.IOrderElementDAO;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.util.SearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +33,7 @@ import org.zkoss.zul.Listcell;
 import org.zkoss.zul.Listitem;
 import org.zkoss.zul.ListitemRenderer;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -40,7 +42,7 @@ import java.util.List;
  * @author Manuel Rego Casasnovas <mrego@igalia.com>
  */
 @Repository
-public class OrderElementBandboxFinder extends BandboxFinder implements IBandboxFinder {
+public class OrderElementBandboxFinder extends IndexedBandboxFinder<OrderElement> implements IBandboxFinder {
 
     @Autowired
     private IOrderElementDAO orderElementDAO;
@@ -65,6 +67,18 @@ public class OrderElementBandboxFinder extends BandboxFinder implements IBandbox
         return orderElements;
     }
 
+    @Override
+    protected SearchIndex getSearchIndex() {
+        return databaseSnapshots.snapshotOrderElementsSearchIndex();
+    }
+
+    @Override
+    protected List<OrderElement> findByIds(Collection<Long> ids) {
+        List<OrderElement> orderElements = orderElementDAO.listByIds(OrderElement.class, ids);
+        forLoadOrderElements(orderElements);
+        return orderElements;
+    }
+
     private void forLoadOrderElements(List<OrderElement> orderElements) {
         for (OrderElement orderElement : orderElements) {
             orderElement.getName();
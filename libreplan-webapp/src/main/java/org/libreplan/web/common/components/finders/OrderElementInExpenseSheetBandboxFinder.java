@@ -22,6 +22,7 @@ package org.libreplan.web.common.components.finders;
 import org.libreplan.business.orders.daos.IOrderElementDAO;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.util.SearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +30,7 @@ import org.zkoss.zul.Listcell;
 import org.zkoss.zul.Listitem;
 import org.zkoss.zul.ListitemRenderer;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -37,7 +39,8 @@ import java.util.List;
  * @author Susana Montes Pedreira <smontes@wirelessgalicia.com>
  */
 @Repository
-public class OrderElementInExpenseSheetBandboxFinder extends BandboxFinder implements IBandboxFinder {
+public class OrderElementInExpenseSheetBandboxFinder extends IndexedBandboxFinder<OrderElement>
+        implements IBandboxFinder {
 
     @Autowired
     private IOrderElementDAO orderElementDAO;
@@ -57,6 +60,29 @@ public class OrderElementInExpenseSheetBandboxFinder extends BandboxFinder imple
         return orderElementDAO.findAll();
     }
 
+    @Override
+    protected SearchIndex getSearchIndex() {
+        return databaseSnapshots.snapshotOrderElementsSearchIndex();
+    }
+
+    /**
+     * Only the code and the name of the order element, not the ones of its
+     * order, are searched
+     */
+    @Override
+    protected List<Long> search(SearchIndex index, String text) {
+        return index.search(text, 2, MAX_MATCHES);
+    }
+
+    @Override
+    protected List<OrderElement> findByIds(Collection<Long> ids) {
+        List<OrderElement> orderElements = orderElementDAO.listByIds(OrderElement.class, ids);
+        for (OrderElement each : orderElements) {
+            each.getOrder().getName();
+        }
+        return orderElements;
+    }
+
     @Override
     public boolean entryMatchesText(Object obj, String text) {
         OrderElement order = (OrderElement) obj;
@@ -22,6 +22,7 @@ package org.libreplan.web.common.components.finders;
 import org.apache.commons.lang3.StringUtils;
 import org.libreplan.business.resources.daos.IResourceDAO;
 import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.util.SearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +31,7 @@ import org.zkoss.zul.Listcell;
 import org.zkoss.zul.Listitem;
 import org.zkoss.zul.ListitemRenderer;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -38,7 +40,7 @@ import java.util.List;
  * @author Manuel Rego Casasnovas <rego@igalia.com>
  */
 @Repository
-public class ResourceBandboxFinder extends BandboxFinder implements IBandboxFinder {
+public class ResourceBandboxFinder extends IndexedBandboxFinder<Resource> implements IBandboxFinder {
 
     @Autowired
     private IResourceDAO resourceDAO;
@@ -58,6 +60,16 @@ public class ResourceBandboxFinder extends BandboxFinder implements IBandboxFind
         return resourceDAO.findAll();
     }
 
+    @Override
+    protected SearchIndex getSearchIndex() {
+        return databaseSnapshots.snapshotResourcesSearchIndex();
+    }
+
+    @Override
+    protected List<Resource> findByIds(Collection<Long> ids) {
+        return resourceDAO.listByIds(Resource.class, ids);
+    }
+
     @Override
     public boolean entryMatchesText(Object obj, String text) {
         Resource resource = (Resource) obj;
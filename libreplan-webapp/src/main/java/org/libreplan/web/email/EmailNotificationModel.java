@@ -33,6 +33,7 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -97,6 +98,12 @@ public class EmailNotificationModel implements IEmailNotificationModel {
         return emailNotificationDAO.deleteById(notification);
     }
 
+    @Override
+    @Transactional
+    public void deleteAll(Collection<EmailNotification> notifications) {
+        emailNotificationDAO.deleteAll(notifications);
+    }
+
     @Override
     @Transactional
     public boolean deleteByProject(TaskElement taskElement) {
@@ -26,6 +26,7 @@ import org.libreplan.business.email.entities.EmailNotification;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.resources.entities.Resource;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -52,6 +53,8 @@ public interface IEmailNotificationModel {
 
     boolean deleteById(EmailNotification notification);
 
+    void deleteAll(Collection<EmailNotification> notifications);
+
     boolean deleteByProject(TaskElement taskElement);
 
     boolean deleteByTask(TaskElement taskElement);
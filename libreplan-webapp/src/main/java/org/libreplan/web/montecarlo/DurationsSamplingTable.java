@@ -0,0 +1,103 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Cumulative probabilities and durations, in real days, of the pessimistic,
+ * normal and optimistic estimations of a list of {@link MonteCarloTask} stored
+ * in primitive arrays. The task at position <code>i</code> of the list is
+ * sampled with the index <code>i</code>.
+ *
+ * A random value up to the pessimistic upper limit of the task selects the
+ * pessimistic duration, up to the normal upper limit the normal one and the
+ * rest the optimistic one.
+ */
+class DurationsSamplingTable {
+
+    /**
+     * The real durations are calculated with the calendar of each task, so
+     * the tasks must be attached to a session or already initialized.
+     */
+    static DurationsSamplingTable create(List<MonteCarloTask> tasks) {
+        int size = tasks.size();
+        double[] pessimisticUpperLimits = new double[size];
+        double[] normalUpperLimits = new double[size];
+        int[] durations = new int[size * 3];
+        for (int i = 0; i < size; i++) {
+            MonteCarloTask each = tasks.get(i);
+            pessimisticUpperLimits[i] = each.getPessimisticDurationPercentageUpperLimit().doubleValue();
+            normalUpperLimits[i] = each.getNormalDurationPercentageUpperLimit().doubleValue();
+            durations[i * 3] = realDays(each, each.getPessimisticDuration());
+            durations[i * 3 + 1] = realDays(each, each.getNormalDuration());
+            durations[i * 3 + 2] = realDays(each, each.getOptimisticDuration());
+        }
+        return new DurationsSamplingTable(pessimisticUpperLimits, normalUpperLimits, durations);
+    }
+
+    private static int realDays(MonteCarloTask task, BigDecimal days) {
+        return MonteCarloTask.calculateRealDurationFor(task, days).intValue();
+    }
+
+    private final double[] pessimisticUpperLimits;
+
+    private final double[] normalUpperLimits;
+
+    /**
+     * Pessimistic, normal and optimistic durations of each task, contiguous.
+     */
+    private final int[] durations;
+
+    DurationsSamplingTable(double[] pessimisticUpperLimits, double[] normalUpperLimits, int[] durations) {
+        this.pessimisticUpperLimits = pessimisticUpperLimits;
+        this.normalUpperLimits = normalUpperLimits;
+        this.durations = durations;
+    }
+
+    int size() {
+        return pessimisticUpperLimits.length;
+    }
+
+    /**
+     * @param random
+     *            a value in [0, 1)
+     * @return the duration in days of the task for the random value
+     */
+    int sample(int task, double random) {
+        if (random <= pessimisticUpperLimits[task]) {
+            return durations[task * 3];
+        }
+        if (random <= normalUpperLimits[task]) {
+            return durations[task * 3 + 1];
+        }
+        return durations[task * 3 + 2];
+    }
+
+    int maxDuration(int task) {
+        return Math.max(durations[task * 3], Math.max(durations[task * 3 + 1], durations[task * 3 + 2]));
+    }
+
+    int minDuration(int task) {
+        return Math.min(durations[task * 3], Math.min(durations[task * 3 + 1], durations[task * 3 + 2]));
+    }
+
+}
@@ -35,8 +35,18 @@ import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
  */
 public interface IMonteCarloModel {
 
-    Map<LocalDate, BigDecimal> calculateMonteCarlo(List<MonteCarloTask> tasks,
-            int times, IDesktopUpdatesEmitter<Integer> iterationProgress);
+    /**
+     * @param seed
+     *            the same seed gives the same result for the same tasks
+     */
+    Map<LocalDate, BigDecimal> calculateMonteCarlo(String criticalPathName,
+            int times, long seed, IDesktopUpdatesEmitter<Integer> iterationProgress);
+
+    /**
+     * @return the ratio of iterations of the last calculation in which the
+     *         task was critical or <code>null</code> if it was not simulated
+     */
+    BigDecimal getCriticalityIndex(MonteCarloTask task);
 
     void setCriticalPath(List<TaskElement> criticalPath);
 
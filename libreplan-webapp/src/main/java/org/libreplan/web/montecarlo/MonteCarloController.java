@@ -24,6 +24,7 @@ package org.libreplan.web.montecarlo;
 import static org.libreplan.web.I18nHelper._;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -119,8 +120,9 @@ public class MonteCarloController extends GenericForwardComposer {
                     int iterations = getIterations();
 
                     final Map<LocalDate, BigDecimal> monteCarloData = monteCarloModel
-                            .calculateMonteCarlo(getSelectedCriticalPath(),
+                            .calculateMonteCarlo(getSelectedCriticalPathName(),
                                     iterations,
+                                    System.currentTimeMillis(),
                                     percentageCompletedNotifier(updatesEmitter));
 
                     updatesEmitter.doUpdate(showCalculatedData(monteCarloData));
@@ -199,6 +201,7 @@ public class MonteCarloController extends GenericForwardComposer {
             }
 
             private void showMonteCarloGraph(Map<LocalDate, BigDecimal> data) {
+                reloadGridCriticalPathTasks();
                 monteCarloChartWindow = createMonteCarloGraphWindow(data);
                 monteCarloChartWindow.setMode("modal");
             }
@@ -246,10 +249,12 @@ public class MonteCarloController extends GenericForwardComposer {
     }
 
     public List<MonteCarloTask> getSelectedCriticalPath() {
-        Listitem selectedItem = lbCriticalPaths.getSelectedItem();
-        String selectedPath = selectedItem != null ? selectedItem.getLabel() : null;
+        return monteCarloModel.getCriticalPath(getSelectedCriticalPathName());
+    }
 
-        return monteCarloModel.getCriticalPath(selectedPath);
+    private String getSelectedCriticalPathName() {
+        Listitem selectedItem = lbCriticalPaths.getSelectedItem();
+        return selectedItem != null ? selectedItem.getLabel() : null;
     }
 
     public void setCriticalPath(List<TaskElement> criticalPath) {
@@ -276,7 +281,7 @@ public class MonteCarloController extends GenericForwardComposer {
         };
     }
 
-    private static class CriticalPathTasksRender implements RowRenderer {
+    private class CriticalPathTasksRender implements RowRenderer {
 
         @Override
         public void render(Row row, Object o, int i) throws Exception {
@@ -292,6 +297,7 @@ public class MonteCarloController extends GenericForwardComposer {
             row.appendChild(normalDurationPercentage(task));
             row.appendChild(pessimisticDuration(task));
             row.appendChild(pessimisticDurationPercentage(task));
+            row.appendChild(criticalityIndex(task));
         }
 
         private Label taskName(final MonteCarloTask task) {
@@ -304,6 +310,14 @@ public class MonteCarloController extends GenericForwardComposer {
             return new Label(duration.toString());
         }
 
+        private Label criticalityIndex(final MonteCarloTask task) {
+            BigDecimal criticalityIndex = monteCarloModel.getCriticalityIndex(task);
+
+            return new Label(criticalityIndex != null
+                    ? criticalityIndex.movePointRight(2).setScale(2, RoundingMode.HALF_UP).toString()
+                    : "-");
+        }
+
         private Decimalbox pessimisticDuration(final MonteCarloTask task) {
             Decimalbox result = new Decimalbox();
             Util.bind(result,
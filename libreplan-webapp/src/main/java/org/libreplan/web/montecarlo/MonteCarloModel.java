@@ -24,18 +24,13 @@ package org.libreplan.web.montecarlo;
 import static org.libreplan.web.I18nHelper._;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 
-import org.apache.commons.lang3.Validate;
 import org.hibernate.Hibernate;
 import org.joda.time.LocalDate;
 import org.libreplan.business.orders.entities.Order;
@@ -55,6 +50,8 @@ import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
  * Calculates the MonteCarlo function for a list of tasks.
  * Usually this list of tasks represents a critical path.
  * There could be many critical paths in scheduling.
+ * It can be calculated for the whole network of tasks of the order too, which
+ * also takes into account the paths that are close to be critical.
  *
  * @author Diego Pino Garcia <dpino@igalia.com>
  */
@@ -69,12 +66,20 @@ public class MonteCarloModel implements IMonteCarloModel {
 
     private static String defaultCriticalPath = criticalPath + " 1";
 
+    private static String wholeNetwork = _("Whole network");
+
     private Map<String, List<MonteCarloTask>> criticalPaths = new HashMap<>();
 
     private String orderName = "";
 
     private List<Task> tasksInCriticalPath;
 
+    private TasksNetwork network;
+
+    private List<MonteCarloTask> networkTasks;
+
+    private Map<MonteCarloTask, BigDecimal> criticalityIndexes = new HashMap<>();
+
     @Override
     @Transactional(readOnly = true)
     public void setCriticalPath(List<TaskElement> tasksInCriticalPath) {
@@ -92,6 +97,7 @@ public class MonteCarloModel implements IMonteCarloModel {
         initializeTasksInOrder(getOrderFor(this.tasksInCriticalPath));
         initializeOrderNameFor(this.tasksInCriticalPath);
         feedCriticalPaths(this.tasksInCriticalPath);
+        feedNetwork(getOrderFor(this.tasksInCriticalPath));
     }
 
     /**
@@ -112,6 +118,25 @@ public class MonteCarloModel implements IMonteCarloModel {
         }
     }
 
+    private void feedNetwork(Order order) {
+        network = null;
+        networkTasks = null;
+        criticalityIndexes.clear();
+
+        TaskElement root = order.getAssociatedTaskElement();
+        if (root == null) {
+            return;
+        }
+        List<TaskElement> taskElements = root.getAllChildren();
+        List<Task> tasks = onlyTasks(taskElements);
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Collections.sort(tasks, Task.getByStartDateComparator());
+        network = TasksNetwork.create(tasks, taskElements);
+        networkTasks = toMonteCarloTaskList(tasks);
+    }
+
     private List<List<Task>> buildAllPossibleCriticalPaths(List<Task> tasksInCriticalPath) {
         MonteCarloCriticalPathBuilder criticalPathBuilder = MonteCarloCriticalPathBuilder.create(tasksInCriticalPath);
 
@@ -161,6 +186,9 @@ public class MonteCarloModel implements IMonteCarloModel {
     public List<String> getCriticalPathNames() {
         ArrayList result = new ArrayList(criticalPaths.keySet());
         Collections.sort(result);
+        if (network != null) {
+            result.add(wholeNetwork);
+        }
         return result;
     }
 
@@ -169,9 +197,16 @@ public class MonteCarloModel implements IMonteCarloModel {
         if (name == null || name.isEmpty()) {
             return criticalPaths.get(defaultCriticalPath);
         }
+        if (isWholeNetwork(name)) {
+            return networkTasks;
+        }
         return criticalPaths.get(name);
     }
 
+    private boolean isWholeNetwork(String name) {
+        return network != null && wholeNetwork.equals(name);
+    }
+
     private List<Task> onlyTasks(List<TaskElement> tasks) {
         List<Task> result = new ArrayList<>();
 
@@ -195,32 +230,28 @@ public class MonteCarloModel implements IMonteCarloModel {
     }
 
     @Override
-    public Map<LocalDate, BigDecimal> calculateMonteCarlo(List<MonteCarloTask> tasks,
+    public Map<LocalDate, BigDecimal> calculateMonteCarlo(String criticalPathName,
                                                           int iterations,
+                                                          long seed,
                                                           IDesktopUpdatesEmitter<Integer> iterationProgress) {
 
-        MonteCarloCalculation monteCarloCalculation = new MonteCarloCalculation(
-                copyOf(tasks), iterations, iterationProgress);
-        Map<LocalDate, BigDecimal> monteCarloValues = monteCarloCalculation.doCalculation();
+        List<MonteCarloTask> tasks = getCriticalPath(criticalPathName);
+        MonteCarloSimulator simulator = isWholeNetwork(criticalPathName)
+                ? MonteCarloSimulator.overNetwork(network, tasks)
+                : MonteCarloSimulator.alongPath(tasks);
+        MonteCarloResult result = simulator.run(iterations, seed, iterationProgress);
 
-        // Convert number of times to probability
-        for (LocalDate key : monteCarloValues.keySet()) {
-            BigDecimal times = monteCarloValues.get(key);
-            BigDecimal probability = times.divide(BigDecimal.valueOf(iterations), 8, RoundingMode.HALF_UP);
-            monteCarloValues.put(key, probability);
+        criticalityIndexes.clear();
+        for (int i = 0; i < tasks.size(); i++) {
+            criticalityIndexes.put(tasks.get(i), result.getCriticalityIndex(i));
         }
 
-        return monteCarloValues;
+        return result.getEndDateProbabilities();
     }
 
-    private List<MonteCarloTask> copyOf(List<MonteCarloTask> tasks) {
-        List<MonteCarloTask> result = new ArrayList<>();
-
-        for (MonteCarloTask each: tasks) {
-            result.add(MonteCarloTask.copy(each));
-        }
-
-        return result;
+    @Override
+    public BigDecimal getCriticalityIndex(MonteCarloTask task) {
+        return criticalityIndexes.get(task);
     }
 
     @Override
@@ -228,128 +259,4 @@ public class MonteCarloModel implements IMonteCarloModel {
         return orderName;
     }
 
-    private static class MonteCarloCalculation {
-
-        private Map<MonteCarloTask, Set<EstimationRange>> estimationRangesForTasks = new HashMap<>();
-
-        private List<MonteCarloTask> tasks;
-
-        private int iterations;
-
-        private IDesktopUpdatesEmitter<Integer> iterationProgress;
-
-        public MonteCarloCalculation(List<MonteCarloTask> tasks,
-                                     int iterations,
-                                     IDesktopUpdatesEmitter<Integer> iterationProgress) {
-
-            adjustDurationDays(tasks);
-            initializeEstimationRanges(tasks);
-            this.tasks = tasks;
-            this.iterations = iterations;
-            this.iterationProgress = iterationProgress;
-        }
-
-        public Map<LocalDate, BigDecimal> doCalculation() {
-            Map<LocalDate, BigDecimal> result = new HashMap<>();
-
-            final int onePercent = iterations / 100;
-            Random randomGenerator = new Random((new Date()).getTime());
-
-            // Calculate number of times a date is repeated
-            for (int i = 0; i < iterations; i++) {
-                LocalDate endDate = calculateEndDateFor(tasks, randomGenerator);
-                BigDecimal times = result.get(endDate);
-
-                times = times != null ? times.add(BigDecimal.ONE) : BigDecimal.ONE;
-
-                result.put(endDate, times);
-
-                if (i % onePercent == 0) {
-                    increaseProgressMeter((i * 100) / iterations);
-                }
-            }
-
-            return result;
-        }
-
-        private void increaseProgressMeter(int completedPercent) {
-            iterationProgress.doUpdate(completedPercent);
-        }
-
-        private LocalDate calculateEndDateFor(List<MonteCarloTask> tasks, Random randomGenerator) {
-            Validate.notEmpty(tasks);
-            BigDecimal durationDays = BigDecimal.ZERO;
-            MonteCarloTask first = tasks.get(0);
-
-            for (MonteCarloTask each : tasks) {
-                BigDecimal randomNumber = generate(randomGenerator);
-                durationDays = durationDays.add(getDuration(each, randomNumber));
-            }
-
-            return first.getStartDate().plusDays(durationDays.intValue());
-        }
-
-        private BigDecimal generate(Random randomGenerator) {
-            return BigDecimal.valueOf(randomGenerator.nextDouble());
-        }
-
-        private BigDecimal getDuration(MonteCarloTask each, BigDecimal random) {
-            ESTIMATION_TYPE type = getEstimationType(each, random);
-            Validate.notNull(type);
-            switch (type) {
-
-                case PESSIMISTIC:
-                    return each.getPessimisticDuration();
-
-                case NORMAL:
-                    return each.getNormalDuration();
-
-                case OPTIMISTIC:
-                    return each.getOptimisticDuration();
-
-                default:
-                    break;
-            }
-
-            return BigDecimal.ZERO;
-        }
-
-        private void adjustDurationDays(List<MonteCarloTask> tasks) {
-            for (MonteCarloTask each : tasks) {
-                each.setPessimisticDuration(MonteCarloTask.calculateRealDurationFor(each, each.getPessimisticDuration()));
-                each.setNormalDuration(MonteCarloTask.calculateRealDurationFor(each, each.getNormalDuration()));
-                each.setOptimisticDuration(MonteCarloTask.calculateRealDurationFor(each, each.getOptimisticDuration()));
-            }
-        }
-
-        private void initializeEstimationRanges(List<MonteCarloTask> tasks) {
-            estimationRangesForTasks.clear();
-
-            for (MonteCarloTask each : tasks) {
-                createEstimationRangesFor(each);
-            }
-        }
-
-        private void createEstimationRangesFor(MonteCarloTask task) {
-            Set<EstimationRange> estimationRanges = new HashSet<>();
-            estimationRanges.add(EstimationRange.pessimisticRangeFor(task));
-            estimationRanges.add(EstimationRange.normalRangeFor(task));
-            estimationRanges.add(EstimationRange.optimisticRangeFor(task));
-            estimationRangesForTasks.put(task, estimationRanges);
-        }
-
-        public ESTIMATION_TYPE getEstimationType(MonteCarloTask task, BigDecimal random) {
-            Set<EstimationRange> estimationRanges = estimationRangesForTasks.get(task);
-
-            for (EstimationRange each : estimationRanges) {
-                if (each.contains(random)) {
-                    return each.getEstimationType();
-                }
-            }
-
-            return null;
-        }
-
-    }
-
 }
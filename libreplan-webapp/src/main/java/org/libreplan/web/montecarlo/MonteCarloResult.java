@@ -0,0 +1,93 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Result of a MonteCarlo simulation: the distribution of the end dates and the
+ * criticality index of each task, that is, the ratio of iterations in which
+ * the task was critical.
+ */
+public class MonteCarloResult {
+
+    private static final int SCALE = 8;
+
+    private final LocalDate start;
+
+    private final int iterations;
+
+    private final long[] endDaysHistogram;
+
+    private final long[] timesCritical;
+
+    MonteCarloResult(LocalDate start, int iterations, long[] endDaysHistogram, long[] timesCritical) {
+        this.start = start;
+        this.iterations = iterations;
+        this.endDaysHistogram = endDaysHistogram;
+        this.timesCritical = timesCritical;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return how many iterations have ended at each date
+     */
+    public Map<LocalDate, BigDecimal> getEndDateCounts() {
+        Map<LocalDate, BigDecimal> result = new HashMap<>();
+        for (int i = 0; i < endDaysHistogram.length; i++) {
+            if (endDaysHistogram[i] > 0) {
+                result.put(start.plusDays(i), BigDecimal.valueOf(endDaysHistogram[i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the probability of ending at each date
+     */
+    public Map<LocalDate, BigDecimal> getEndDateProbabilities() {
+        Map<LocalDate, BigDecimal> result = getEndDateCounts();
+        for (Map.Entry<LocalDate, BigDecimal> each : result.entrySet()) {
+            each.setValue(ratio(each.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * @param task
+     *            the index of the task in the simulation
+     */
+    public BigDecimal getCriticalityIndex(int task) {
+        return ratio(BigDecimal.valueOf(timesCritical[task]));
+    }
+
+    private BigDecimal ratio(BigDecimal times) {
+        return times.divide(BigDecimal.valueOf(iterations), SCALE, RoundingMode.HALF_UP);
+    }
+
+}
@@ -0,0 +1,286 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.LocalDate;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
+
+/**
+ * Runs the iterations of a MonteCarlo simulation in parallel.
+ *
+ * The iterations are split in a fixed number of chunks, each one with its own
+ * {@link SplittableRandom} seeded from the seed and the index of the chunk,
+ * so the result for a seed is always the same regardless of the number of
+ * processors. The chunks run in a pool shared by all the simulations, with a
+ * thread per processor and a bounded queue, so concurrent simulations don't
+ * take the common fork/join pool used by the rest of the application. The end dates are
+ * counted in a <code>long[]</code> histogram indexed by the days since the
+ * start and the times each task is critical in a <code>long[]</code> indexed by
+ * the task.
+ */
+public class MonteCarloSimulator {
+
+    private static final int CHUNKS = 64;
+
+    private static final int ITERATIONS_BETWEEN_PROGRESS_UPDATES = 1024;
+
+    private static final long MILLISECONDS_BETWEEN_PROGRESS_CHECKS = 200;
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Chunks waiting for a thread. When it is full the chunks are run by the
+     * thread asking for the simulation.
+     */
+    private static final int QUEUE_CAPACITY = 4 * CHUNKS;
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private static ExecutorService createExecutor() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor result = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "montecarlo-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    /**
+     * Mixes the seed with the index of the chunk, as SplitMix64 does, so the
+     * sequences of consecutive chunks are not correlated.
+     */
+    static long chunkSeed(long seed, int chunk) {
+        long result = seed + (chunk + 1) * 0x9E3779B97F4A7C15L;
+        result = (result ^ (result >>> 30)) * 0xBF58476D1CE4E5B9L;
+        result = (result ^ (result >>> 27)) * 0x94D049BB133111EBL;
+        return result ^ (result >>> 31);
+    }
+
+    /**
+     * Simulates iterations. Each chunk of iterations uses its own instance, so
+     * it can keep scratch arrays without synchronization.
+     */
+    interface IIterationRunner {
+
+        /**
+         * @param timesCritical
+         *            the counters of the tasks to increment for the tasks
+         *            critical in the simulated iteration
+         * @return the days since the start until the end of the simulated
+         *         iteration
+         */
+        int iterate(SplittableRandom random, long[] timesCritical);
+    }
+
+    interface IIterationRunnerFactory {
+
+        IIterationRunner create();
+
+        /**
+         * @return the biggest value {@link IIterationRunner#iterate} can return
+         */
+        int maxDays();
+    }
+
+    /**
+     * Simulates the tasks one after another, as the tasks of a critical path.
+     * All of them are critical in every iteration.
+     */
+    public static MonteCarloSimulator alongPath(List<MonteCarloTask> tasks) {
+        Validate.notEmpty(tasks);
+        return alongPath(tasks.get(0).getStartDate(), DurationsSamplingTable.create(tasks));
+    }
+
+    static MonteCarloSimulator alongPath(LocalDate start, final DurationsSamplingTable table) {
+        return new MonteCarloSimulator(start, table.size(), new IIterationRunnerFactory() {
+
+            @Override
+            public IIterationRunner create() {
+                return (random, timesCritical) -> {
+                    int result = 0;
+                    for (int i = 0; i < table.size(); i++) {
+                        result += table.sample(i, random.nextDouble());
+                        timesCritical[i]++;
+                    }
+                    return result;
+                };
+            }
+
+            @Override
+            public int maxDays() {
+                int result = 0;
+                for (int i = 0; i < table.size(); i++) {
+                    result += table.maxDuration(i);
+                }
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Simulates all the tasks of a network following their dependencies.
+     *
+     * @param tasks
+     *            the estimations of the tasks, in the order of the indexes of
+     *            the network
+     */
+    static MonteCarloSimulator overNetwork(TasksNetwork network, List<MonteCarloTask> tasks) {
+        Validate.isTrue(network.size() == tasks.size());
+        return overNetwork(network, DurationsSamplingTable.create(tasks));
+    }
+
+    static MonteCarloSimulator overNetwork(final TasksNetwork network, final DurationsSamplingTable table) {
+        final int size = network.size();
+        return new MonteCarloSimulator(network.getStart(), size, new IIterationRunnerFactory() {
+
+            @Override
+            public IIterationRunner create() {
+                final int[] durations = new int[size];
+                final int[] earlyEnds = new int[size];
+                final int[] lateEnds = new int[size];
+                return (random, timesCritical) -> {
+                    for (int i = 0; i < size; i++) {
+                        durations[i] = table.sample(i, random.nextDouble());
+                    }
+                    return network.simulate(durations, earlyEnds, lateEnds, timesCritical);
+                };
+            }
+
+            @Override
+            public int maxDays() {
+                return network.maxEnd(table);
+            }
+        });
+    }
+
+    private final LocalDate start;
+
+    private final int tasksNumber;
+
+    private final IIterationRunnerFactory runnerFactory;
+
+    MonteCarloSimulator(LocalDate start, int tasksNumber, IIterationRunnerFactory runnerFactory) {
+        Validate.notNull(start);
+        Validate.notNull(runnerFactory);
+        this.start = start;
+        this.tasksNumber = tasksNumber;
+        this.runnerFactory = runnerFactory;
+    }
+
+    public MonteCarloResult run(int iterations, long seed, IDesktopUpdatesEmitter<Integer> progress) {
+        Validate.isTrue(iterations > 0);
+        final int maxDays = runnerFactory.maxDays();
+        final AtomicLong done = new AtomicLong();
+        List<CompletableFuture<ChunkResult>> chunks = new ArrayList<>();
+        int chunksNumber = Math.min(CHUNKS, iterations);
+        for (int i = 0; i < chunksNumber; i++) {
+            final int chunkIterations = iterations / chunksNumber + (i < iterations % chunksNumber ? 1 : 0);
+            final SplittableRandom random = new SplittableRandom(chunkSeed(seed, i));
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> runChunk(chunkIterations, random, maxDays, done),
+                    EXECUTOR));
+        }
+        waitNotifyingProgress(chunks, iterations, done, progress);
+        long[] histogram = new long[maxDays + 1];
+        long[] timesCritical = new long[tasksNumber];
+        for (CompletableFuture<ChunkResult> each : chunks) {
+            ChunkResult chunkResult = each.join();
+            addTo(histogram, chunkResult.histogram);
+            addTo(timesCritical, chunkResult.timesCritical);
+        }
+        return new MonteCarloResult(start, iterations, histogram, timesCritical);
+    }
+
+    private static void addTo(long[] result, long[] values) {
+        for (int i = 0; i < result.length; i++) {
+            result[i] += values[i];
+        }
+    }
+
+    private static class ChunkResult {
+
+        private final long[] histogram;
+
+        private final long[] timesCritical;
+
+        private ChunkResult(long[] histogram, long[] timesCritical) {
+            this.histogram = histogram;
+            this.timesCritical = timesCritical;
+        }
+    }
+
+    private ChunkResult runChunk(int iterations, SplittableRandom random, int maxDays, AtomicLong done) {
+        IIterationRunner runner = runnerFactory.create();
+        long[] histogram = new long[maxDays + 1];
+        long[] timesCritical = new long[tasksNumber];
+        for (int i = 0; i < iterations; i++) {
+            histogram[runner.iterate(random, timesCritical)]++;
+            if ((i + 1) % ITERATIONS_BETWEEN_PROGRESS_UPDATES == 0) {
+                done.addAndGet(ITERATIONS_BETWEEN_PROGRESS_UPDATES);
+            }
+        }
+        done.addAndGet(iterations % ITERATIONS_BETWEEN_PROGRESS_UPDATES);
+        return new ChunkResult(histogram, timesCritical);
+    }
+
+    private void waitNotifyingProgress(List<CompletableFuture<ChunkResult>> chunks, int iterations, AtomicLong done,
+                                       IDesktopUpdatesEmitter<Integer> progress) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(chunks.toArray(new CompletableFuture[chunks.size()]));
+        int lastNotified = -1;
+        while (true) {
+            int completedPercent = (int) (done.get() * 100 / iterations);
+            if (progress != null && completedPercent != lastNotified) {
+                progress.doUpdate(completedPercent);
+                lastNotified = completedPercent;
+            }
+            try {
+                all.get(MILLISECONDS_BETWEEN_PROGRESS_CHECKS, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                // check the progress again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+}
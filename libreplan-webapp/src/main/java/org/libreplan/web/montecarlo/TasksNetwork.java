@@ -0,0 +1,374 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.libreplan.business.planner.entities.Dependency;
+import org.libreplan.business.planner.entities.PositionConstraintType;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.planner.entities.TaskMilestone;
+import org.libreplan.business.planner.entities.TaskPositionConstraint;
+
+/**
+ * Dependencies among the tasks of an order stored as a DAG over primitive
+ * arrays. The tasks are identified by their index and the dependencies are kept
+ * in compressed incoming and outgoing adjacency lists, so a simulation of the
+ * whole network is a forward and a backward pass in topological order.
+ *
+ * The dependencies of task groups are applied to all the tasks inside them.
+ * Milestones are not part of the network. As they take no time, the tasks
+ * after a milestone depend directly on the ones before it.
+ */
+class TasksNetwork {
+
+    static final byte END_START = 0;
+
+    static final byte START_START = 1;
+
+    static final byte END_END = 2;
+
+    static final byte START_END = 3;
+
+    /**
+     * @param tasks
+     *            the tasks of the network. The task at position <code>i</code>
+     *            has the index <code>i</code>
+     * @param taskElements
+     *            the elements whose dependencies are followed, including the
+     *            task groups
+     */
+    static TasksNetwork create(List<Task> tasks, List<TaskElement> taskElements) {
+        Validate.notEmpty(tasks);
+        Map<TaskElement, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            indexes.put(tasks.get(i), i);
+        }
+
+        List<int[]> edges = new ArrayList<>();
+        for (TaskElement each : taskElements) {
+            for (Dependency dependency : each.getDependenciesWithThisDestination()) {
+                boolean toStart = dependency.getType().modifiesDestinationStart();
+                List<int[]> origins = new ArrayList<>();
+                addOrigins(origins, indexes, dependency, new HashSet<>());
+                for (int[] origin : origins) {
+                    for (Task destination : tasksIn(each)) {
+                        Integer destinationIndex = indexes.get(destination);
+                        if (destinationIndex != null) {
+                            edges.add(new int[] { origin[0], destinationIndex, toType(origin[1] == 1, toStart) });
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] origins = new int[edges.size()];
+        int[] destinations = new int[edges.size()];
+        byte[] types = new byte[edges.size()];
+        boolean[] hasIncoming = new boolean[tasks.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            origins[i] = edges.get(i)[0];
+            destinations[i] = edges.get(i)[1];
+            types[i] = (byte) edges.get(i)[2];
+            hasIncoming[destinations[i]] = true;
+        }
+
+        LocalDate start = earliestStart(tasks);
+        int[] releases = new int[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            LocalDate release = releaseDate(tasks.get(i), hasIncoming[i]);
+            releases[i] = release != null ? Math.max(0, Days.daysBetween(start, release).getDays()) : 0;
+        }
+        return new TasksNetwork(start, releases, origins, destinations, types);
+    }
+
+    private static byte toType(boolean fromEnd, boolean toStart) {
+        if (fromEnd) {
+            return toStart ? END_START : END_END;
+        }
+        return toStart ? START_START : START_END;
+    }
+
+    private static boolean isFromEnd(Dependency.Type type) {
+        return type == Dependency.Type.END_START || type == Dependency.Type.END_END;
+    }
+
+    /**
+     * Adds the index of each task the dependency starts from, and
+     * <code>1</code> if it's from its end or <code>0</code> if it's from its
+     * start. A dependency from a milestone starts from the tasks the milestone
+     * depends on, from the point of them its own dependencies start from.
+     */
+    private static void addOrigins(List<int[]> result, Map<TaskElement, Integer> indexes, Dependency dependency,
+                                   Set<TaskElement> visitedMilestones) {
+        TaskElement origin = dependency.getOrigin();
+        if (!(origin instanceof TaskMilestone)) {
+            int fromEnd = isFromEnd(dependency.getType()) ? 1 : 0;
+            for (Task each : tasksIn(origin)) {
+                Integer index = indexes.get(each);
+                if (index != null) {
+                    result.add(new int[] { index, fromEnd });
+                }
+            }
+            return;
+        }
+        if (!visitedMilestones.add(origin)) {
+            return;
+        }
+        for (TaskElement each = origin; each != null; each = each.getParent()) {
+            for (Dependency previous : each.getDependenciesWithThisDestination()) {
+                addOrigins(result, indexes, previous, visitedMilestones);
+            }
+        }
+    }
+
+    private static List<Task> tasksIn(TaskElement element) {
+        if (element instanceof Task) {
+            return Collections.singletonList((Task) element);
+        }
+        if (element.isLeaf()) {
+            return Collections.emptyList();
+        }
+        List<Task> result = new ArrayList<>();
+        for (TaskElement each : element.getAllChildren()) {
+            if (each instanceof Task) {
+                result.add((Task) each);
+            }
+        }
+        return result;
+    }
+
+    private static LocalDate earliestStart(List<Task> tasks) {
+        LocalDate result = null;
+        for (Task each : tasks) {
+            LocalDate start = each.getStartAsLocalDate();
+            if (result == null || start.isBefore(result)) {
+                result = start;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The tasks without dependencies keep their planned start. The rest can
+     * start as soon as their dependencies allow it, unless they have a
+     * constraint on the start.
+     */
+    private static LocalDate releaseDate(Task task, boolean hasIncomingDependencies) {
+        if (!hasIncomingDependencies) {
+            return task.getStartAsLocalDate();
+        }
+        TaskPositionConstraint constraint = task.getPositionConstraint();
+        PositionConstraintType type = constraint.getConstraintType();
+        boolean constrainsStart = type == PositionConstraintType.START_NOT_EARLIER_THAN
+                || type == PositionConstraintType.START_IN_FIXED_DATE;
+        return constrainsStart && constraint.getConstraintDate() != null
+                ? constraint.getConstraintDate().getDate()
+                : null;
+    }
+
+    private final LocalDate start;
+
+    /**
+     * Days since the start before which each task cannot start.
+     */
+    private final int[] releases;
+
+    private final int[] topologicalOrder;
+
+    private final int[] incomingFrom;
+
+    private final int[] incomingOrigins;
+
+    private final byte[] incomingTypes;
+
+    private final int[] outgoingFrom;
+
+    private final int[] outgoingDestinations;
+
+    private final byte[] outgoingTypes;
+
+    TasksNetwork(LocalDate start, int[] releases, int[] origins, int[] destinations, byte[] types) {
+        Validate.notNull(start);
+        Validate.isTrue(origins.length == destinations.length && origins.length == types.length);
+        int size = releases.length;
+        this.start = start;
+        this.releases = releases.clone();
+
+        this.incomingFrom = offsets(size, destinations);
+        this.incomingOrigins = new int[origins.length];
+        this.incomingTypes = new byte[origins.length];
+        this.outgoingFrom = offsets(size, origins);
+        this.outgoingDestinations = new int[origins.length];
+        this.outgoingTypes = new byte[origins.length];
+
+        int[] incomingNext = Arrays.copyOf(incomingFrom, size);
+        int[] outgoingNext = Arrays.copyOf(outgoingFrom, size);
+        for (int i = 0; i < origins.length; i++) {
+            int in = incomingNext[destinations[i]]++;
+            incomingOrigins[in] = origins[i];
+            incomingTypes[in] = types[i];
+            int out = outgoingNext[origins[i]]++;
+            outgoingDestinations[out] = destinations[i];
+            outgoingTypes[out] = types[i];
+        }
+        this.topologicalOrder = sortTopologically();
+    }
+
+    private static int[] offsets(int size, int[] tasks) {
+        int[] result = new int[size + 1];
+        for (int each : tasks) {
+            result[each + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            result[i + 1] += result[i];
+        }
+        return result;
+    }
+
+    private int[] sortTopologically() {
+        int size = size();
+        int[] pendingIncoming = new int[size];
+        int[] result = new int[size];
+        int added = 0;
+        for (int i = 0; i < size; i++) {
+            pendingIncoming[i] = incomingFrom[i + 1] - incomingFrom[i];
+            if (pendingIncoming[i] == 0) {
+                result[added++] = i;
+            }
+        }
+        for (int visited = 0; visited < added; visited++) {
+            int task = result[visited];
+            for (int e = outgoingFrom[task]; e < outgoingFrom[task + 1]; e++) {
+                if (--pendingIncoming[outgoingDestinations[e]] == 0) {
+                    result[added++] = outgoingDestinations[e];
+                }
+            }
+        }
+        Validate.isTrue(added == size, "the dependencies among the tasks have cycles");
+        return result;
+    }
+
+    int size() {
+        return releases.length;
+    }
+
+    LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * Calculates the end of the network for some durations and increments the
+     * counter of the critical tasks, the ones with no total float. The rest of
+     * arrays are scratch space of {@link #size()} elements.
+     *
+     * @return the days since the start until the end of the last task
+     */
+    int simulate(int[] durations, int[] earlyEnds, int[] lateEnds, long[] timesCritical) {
+        int end = 0;
+        for (int task : topologicalOrder) {
+            int duration = durations[task];
+            int earlyStart = releases[task];
+            for (int e = incomingFrom[task]; e < incomingFrom[task + 1]; e++) {
+                int origin = incomingOrigins[e];
+                earlyStart = Math.max(earlyStart, earliestStartAfter(incomingTypes[e],
+                        earlyEnds[origin] - durations[origin], earlyEnds[origin], duration));
+            }
+            earlyEnds[task] = earlyStart + duration;
+            end = Math.max(end, earlyEnds[task]);
+        }
+        for (int i = topologicalOrder.length - 1; i >= 0; i--) {
+            int task = topologicalOrder[i];
+            int duration = durations[task];
+            int lateEnd = end;
+            for (int e = outgoingFrom[task]; e < outgoingFrom[task + 1]; e++) {
+                int destination = outgoingDestinations[e];
+                lateEnd = Math.min(lateEnd, latestEndBefore(outgoingTypes[e],
+                        lateEnds[destination] - durations[destination], lateEnds[destination], duration));
+            }
+            lateEnds[task] = lateEnd;
+            if (lateEnd == earlyEnds[task]) {
+                timesCritical[task]++;
+            }
+        }
+        return end;
+    }
+
+    private static int earliestStartAfter(byte type, int originStart, int originEnd, int duration) {
+        switch (type) {
+        case START_START:
+            return originStart;
+        case END_END:
+            return originEnd - duration;
+        case START_END:
+            return originStart - duration;
+        default:
+            return originEnd;
+        }
+    }
+
+    private static int latestEndBefore(byte type, int destinationStart, int destinationEnd, int duration) {
+        switch (type) {
+        case START_START:
+            return destinationStart + duration;
+        case END_END:
+            return destinationEnd;
+        case START_END:
+            return destinationEnd + duration;
+        default:
+            return destinationStart;
+        }
+    }
+
+    /**
+     * @return a bound of the value {@link #simulate} can return for the
+     *         durations of the table
+     */
+    int maxEnd(DurationsSamplingTable table) {
+        Validate.isTrue(table.size() == size());
+        int[] maxStarts = new int[size()];
+        int[] maxEnds = new int[size()];
+        int result = 0;
+        for (int task : topologicalOrder) {
+            int maxStart = releases[task];
+            for (int e = incomingFrom[task]; e < incomingFrom[task + 1]; e++) {
+                int origin = incomingOrigins[e];
+                maxStart = Math.max(maxStart, earliestStartAfter(incomingTypes[e],
+                        maxStarts[origin], maxEnds[origin], table.minDuration(task)));
+            }
+            maxStarts[task] = maxStart;
+            maxEnds[task] = maxStart + table.maxDuration(task);
+            result = Math.max(result, maxEnds[task]);
+        }
+        return result;
+    }
+
+}
@@ -555,7 +555,9 @@ public class TaskElementAdapter {
             }
 
             IDatesHandler getDatesHandler(TaskElement taskElement) {
-                return taskElement.getDatesHandler(currentScenario, searcher);
+                return taskElement.getDatesHandler(
+                        currentScenario,
+                        planningState != null ? planningState.registeringResourcesFoundBy(searcher) : searcher);
             }
 
             @Override
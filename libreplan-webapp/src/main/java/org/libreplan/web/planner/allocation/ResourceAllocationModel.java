@@ -102,7 +102,7 @@ public class ResourceAllocationModel implements IResourceAllocationModel {
             result.add((T) reloaded);
         }
 
-        return result;
+        return planningState.resourcesLoadedOnDemand(result);
     }
 
     @Override
@@ -235,7 +235,8 @@ public class ResourceAllocationModel implements IResourceAllocationModel {
         this.planningState = planningState;
         planningState.reassociateResourcesWithSession();
         loadDerivedAllocations(this.task.getSatisfiedResourceAllocations());
-        List<AllocationRow> initialRows = AllocationRow.toRows(task.getNonLimitingResourceAllocations(), searchModel);
+        List<AllocationRow> initialRows = AllocationRow.toRows(
+                task.getNonLimitingResourceAllocations(), planningState.registeringResourcesFoundBy(searchModel));
         allocationRowsHandler = AllocationRowsHandler.create(task, initialRows, createWorkerFinder());
 
         return allocationRowsHandler;
@@ -170,7 +170,7 @@ public class LimitingResourceAllocationModel implements ILimitingResourceAllocat
         for (Resource each: resources) {
             result.add(resourceDAO.findExistingEntity(each.getId()));
         }
-        return result;
+        return planningState != null ? planningState.resourcesLoadedOnDemand(result) : result;
     }
 
     private IMessagesForUser getMessagesForUser() {
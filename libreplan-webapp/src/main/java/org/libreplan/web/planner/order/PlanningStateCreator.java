@@ -34,6 +34,7 @@ import org.joda.time.LocalDate;
 import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
 import org.libreplan.business.advance.entities.IndirectAdvanceAssignment;
 import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.common.Configuration;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.entities.EntityNameEnum;
@@ -46,6 +47,7 @@ import org.libreplan.business.orders.entities.OrderStatusEnum;
 import org.libreplan.business.orders.entities.TaskSource;
 import org.libreplan.business.orders.entities.TaskSource.IOptionalPersistence;
 import org.libreplan.business.orders.entities.TaskSource.TaskSourceSynchronization;
+import org.libreplan.business.planner.daos.IDayAssignmentDAO;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.daos.ITaskSourceDAO;
 import org.libreplan.business.planner.entities.AssignmentFunction;
@@ -68,6 +70,7 @@ import org.libreplan.business.planner.entities.consolidations.CalculatedConsolid
 import org.libreplan.business.requirements.entities.CriterionRequirement;
 import org.libreplan.business.resources.daos.ICriterionDAO;
 import org.libreplan.business.resources.daos.IResourceDAO;
+import org.libreplan.business.resources.daos.IResourcesSearcher;
 import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.CriterionSatisfaction;
 import org.libreplan.business.resources.entities.IAssignmentsOnResourceCalculator;
@@ -151,6 +154,9 @@ public class PlanningStateCreator {
     @Autowired
     private ICriterionDAO criterionDAO;
 
+    @Autowired
+    private IDayAssignmentDAO dayAssignmentDAO;
+
     @Autowired
     private ITaskElementDAO taskDAO;
 
@@ -274,25 +280,35 @@ public class PlanningStateCreator {
     }
 
     private PlanningState createPlanning(Order orderReloaded) {
-        final List<Resource> allResources = resourceDAO.list(Resource.class);
-        criterionDAO.list(Criterion.class);
+        final boolean resourcesLoadedOnDemand = Configuration.isPlannerResourcesLoadedOnDemand();
+        final Set<Resource> initialResources = new HashSet<>();
+
+        if (!resourcesLoadedOnDemand) {
+            initialResources.addAll(resourceDAO.list(Resource.class));
+            criterionDAO.list(Criterion.class);
+        }
 
         forceLoadOfOrderAssociatedData(orderReloaded);
         TaskGroup rootTask = orderReloaded.getAssociatedTaskElement();
 
         if (rootTask != null) {
             forceLoadOf(rootTask);
-            forceLoadDayAssignments(orderReloaded.getResources(FilterType.KEEP_ALL));
+            Set<Resource> orderResources = orderReloaded.getResources(FilterType.KEEP_ALL);
+            orderResources.addAll(resourcesOfSpecificAllocations(rootTask));
+            forceLoadDayAssignments(orderResources);
             forceLoadOfDepedenciesCollections(rootTask);
             forceLoadOfLabels(Collections.singletonList(rootTask));
+
+            if (resourcesLoadedOnDemand) {
+                initialResources.addAll(orderResources);
+            }
         }
 
         if (orderReloaded.getCalendar() != null) {
             BaseCalendarModel.forceLoadBaseCalendar(orderReloaded.getCalendar());
         }
 
-        PlanningState result = new PlanningState(orderReloaded, allResources
-        );
+        PlanningState result = new PlanningState(orderReloaded, initialResources, resourcesLoadedOnDemand);
 
         forceLoadOfWorkingHours(result.getInitial());
 
@@ -333,11 +349,27 @@ public class PlanningStateCreator {
     }
 
     private void forceLoadDayAssignments(Set<Resource> resources) {
+        dayAssignmentDAO.initializeAssignmentsOf(resources);
         for (Resource resource : resources) {
             resource.getAssignments().size();
         }
     }
 
+    private static Set<Resource> resourcesOfSpecificAllocations(TaskElement taskElement) {
+        Set<Resource> result = new HashSet<>();
+        for (ResourceAllocation<?> each : taskElement.getAllResourceAllocations()) {
+            Resource resource = each instanceof SpecificResourceAllocation
+                    ? ((SpecificResourceAllocation) each).getResource()
+                    : null;
+
+            if (resource != null) {
+                result.add(resource);
+            }
+        }
+
+        return result;
+    }
+
     private void forceLoadOf(TaskElement taskElement) {
         forceLoadOfDataAssociatedTo(taskElement);
 
@@ -737,9 +769,24 @@ public class PlanningStateCreator {
 
         private PlannerConfiguration<TaskElement> cachedConfiguration;
 
-        public PlanningState(Order order, Collection<? extends Resource> initialResources) {
+        private List<TaskElement> cachedCriticalPath;
+
+        private Object criticalPathKey;
+
+        private final boolean resourcesLoadedOnDemand;
+
+        /**
+         * @param resourcesLoadedOnDemand
+         *            if <code>true</code> the initial resources are only the
+         *            ones related with the order and the rest must be
+         *            registered with {@link #resourcesLoadedOnDemand(List)}
+         *            when they are retrieved
+         */
+        public PlanningState(Order order, Collection<? extends Resource> initialResources,
+                             boolean resourcesLoadedOnDemand) {
             Validate.notNull(order);
             this.order = order;
+            this.resourcesLoadedOnDemand = resourcesLoadedOnDemand;
             rebuildTasksState();
             this.scenarioInfo = new ChangeScenarioInfoOnSave(buildScenarioInfo(order), order);
             this.resources = OrderPlanningModel.loadRequiredDataFor(new HashSet<>(initialResources));
@@ -848,6 +895,23 @@ public class PlanningStateCreator {
             return cachedConfiguration;
         }
 
+        /**
+         * @param key
+         *            the state of the tasks the critical path was calculated
+         *            for
+         * @return <code>null</code> if the critical path was not calculated
+         *         or it was for other state
+         */
+        public List<TaskElement> getCachedCriticalPath(Object key) {
+            return cachedCriticalPath != null && criticalPathKey.equals(key) ? cachedCriticalPath : null;
+        }
+
+        public void cacheCriticalPath(Object key, List<TaskElement> criticalPath) {
+            Validate.notNull(key);
+            this.criticalPathKey = key;
+            this.cachedCriticalPath = Collections.unmodifiableList(new ArrayList<>(criticalPath));
+        }
+
         public ISaveCommand getSaveCommand() {
             if (cachedCommand != null) {
                 return cachedCommand;
@@ -895,7 +959,41 @@ public class PlanningStateCreator {
             }
             // Ensuring no repeated instances of criterions
             reattachCriterions(getExistentCriterions(resources));
-            addingNewlyCreated(resourceDAO);
+            if (!resourcesLoadedOnDemand) {
+                addingNewlyCreated(resourceDAO);
+            }
+        }
+
+        /**
+         * Registers the resources retrieved from the current session after the
+         * creation of the planning state, so they are prepared for the current
+         * scenario and reattached along with the rest of resources.
+         *
+         * @return the same resources
+         */
+        public <T extends Resource> List<T> resourcesLoadedOnDemand(List<T> retrieved) {
+            Set<Resource> newResources = new HashSet<>(retrieved);
+            newResources.removeAll(resources);
+            if (!newResources.isEmpty()) {
+                OrderPlanningModel.loadRequiredDataFor(newResources);
+                associateWithScenario(newResources);
+                resources.addAll(newResources);
+            }
+
+            return retrieved;
+        }
+
+        /**
+         * @return a searcher that registers the resources it finds with
+         *         {@link #resourcesLoadedOnDemand(List)}, or the same searcher
+         *         if all the resources were loaded on creation
+         */
+        public IResourcesSearcher registeringResourcesFoundBy(IResourcesSearcher searcher) {
+            if (!resourcesLoadedOnDemand) {
+                return searcher;
+            }
+
+            return new ResourcesSearcherLoadingOnDemand(searcher, found -> resourcesLoadedOnDemand(found));
         }
 
         private Set<Criterion> getExistentCriterions(Set<Resource> resources) {
@@ -0,0 +1,133 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.planner.order;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.libreplan.business.resources.daos.IResourcesSearcher;
+import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.CriterionType;
+import org.libreplan.business.resources.entities.Machine;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.ResourceEnum;
+import org.libreplan.business.resources.entities.ResourceType;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.web.planner.order.PlanningStateCreator.PlanningState;
+
+/**
+ * {@link IResourcesSearcher} that hands the resources found to a
+ * {@link IOnResourcesFound} before returning them.<br />
+ *
+ * When the resources of the planner are loaded on demand, the resources found
+ * while planning, for example when the allocations of a task are reassigned,
+ * must be registered in the {@link PlanningState} as the ones picked in the
+ * allocation window are.
+ *
+ * @see PlanningState#registeringResourcesFoundBy(IResourcesSearcher)
+ */
+public class ResourcesSearcherLoadingOnDemand implements IResourcesSearcher {
+
+    public interface IOnResourcesFound {
+
+        void found(List<Resource> resources);
+
+    }
+
+    private final IResourcesSearcher searcher;
+
+    private final IOnResourcesFound onResourcesFound;
+
+    public ResourcesSearcherLoadingOnDemand(IResourcesSearcher searcher, IOnResourcesFound onResourcesFound) {
+        Validate.notNull(searcher);
+        Validate.notNull(onResourcesFound);
+        this.searcher = searcher;
+        this.onResourcesFound = onResourcesFound;
+    }
+
+    @Override
+    public IResourcesQuery<Worker> searchWorkers() {
+        return new Query<>(searcher.searchWorkers());
+    }
+
+    @Override
+    public IResourcesQuery<Machine> searchMachines() {
+        return new Query<>(searcher.searchMachines());
+    }
+
+    @Override
+    public IResourcesQuery<?> searchBy(ResourceEnum resourceType) {
+        return query(searcher.searchBy(resourceType));
+    }
+
+    private <T extends Resource> IResourcesQuery<T> query(IResourcesQuery<T> query) {
+        return new Query<>(query);
+    }
+
+    @Override
+    public IResourcesQuery<Resource> searchBoth() {
+        return new Query<>(searcher.searchBoth());
+    }
+
+    private class Query<T extends Resource> implements IResourcesQuery<T> {
+
+        private IResourcesQuery<T> query;
+
+        private Query(IResourcesQuery<T> query) {
+            this.query = query;
+        }
+
+        @Override
+        public IResourcesQuery<T> byName(String name) {
+            query = query.byName(name);
+            return this;
+        }
+
+        @Override
+        public IResourcesQuery<T> byCriteria(Collection<? extends Criterion> criteria) {
+            query = query.byCriteria(criteria);
+            return this;
+        }
+
+        @Override
+        public IResourcesQuery<T> byResourceType(ResourceType type) {
+            query = query.byResourceType(type);
+            return this;
+        }
+
+        @Override
+        public List<T> execute() {
+            List<T> result = query.execute();
+            onResourcesFound.found(new ArrayList<Resource>(result));
+            return result;
+        }
+
+        @Override
+        public Map<CriterionType, Set<Criterion>> getCriteria() {
+            return query.getCriteria();
+        }
+
+    }
+
+}
@@ -98,6 +98,7 @@ import org.zkoss.ganttz.data.DependencyType.Point;
 import org.zkoss.ganttz.data.GanttDate;
 import org.zkoss.ganttz.data.constraint.Constraint;
 import org.zkoss.ganttz.extensions.IContext;
+import org.zkoss.ganttz.util.ProfilingLogFactory;
 import org.zkoss.zk.ui.Executions;
 import org.zkoss.zul.Label;
 import org.zkoss.zul.Messagebox;
@@ -129,6 +130,8 @@ public class SaveCommandBuilder {
 
     private static final Log LOG = LogFactory.getLog(SaveCommandBuilder.class);
 
+    private static final Log PROFILING_LOG = ProfilingLogFactory.getLog(SaveCommandBuilder.class);
+
     public static TaskPropertiesController taskPropertiesController;
 
     @Autowired
@@ -277,6 +280,7 @@ public class SaveCommandBuilder {
         public void save(final IBeforeSaveActions beforeSaveActions, IAfterSaveActions afterSaveActions) {
             try {
                 if ( state.getScenarioInfo().isUsingTheOwnerScenario() || userAcceptsCreateANewOrderVersion() ) {
+                    long time = System.currentTimeMillis();
                     transactionService.runOnTransaction((IOnTransaction<Void>) () -> {
                         if (beforeSaveActions != null) {
                             beforeSaveActions.doActions();
@@ -285,6 +289,8 @@ public class SaveCommandBuilder {
 
                         return null;
                     });
+                    PROFILING_LOG.info("saving project " + state.getOrder().getCode() + " took: " +
+                            (System.currentTimeMillis() - time) + " ms");
 
                     dontPoseAsTransientObjectAnymore(state.getOrder());
                     dontPoseAsTransientObjectAnymore(state.getOrder().getEndDateCommunicationToCustomer());
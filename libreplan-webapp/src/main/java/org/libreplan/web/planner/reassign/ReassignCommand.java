@@ -305,7 +305,8 @@ public class ReassignCommand implements IReassignCommand {
 
     private void reassign(TaskElement taskElement) {
         org.libreplan.business.planner.entities.Task t = (org.libreplan.business.planner.entities.Task) taskElement;
-        t.reassignAllocationsWithNewResources(planningState.getCurrentScenario(), resourcesSearcher);
+        t.reassignAllocationsWithNewResources(
+                planningState.getCurrentScenario(), planningState.registeringResourcesFoundBy(resourcesSearcher));
     }
 
     @Override
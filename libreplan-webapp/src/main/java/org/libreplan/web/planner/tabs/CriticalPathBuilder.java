@@ -21,6 +21,7 @@
 
 package org.libreplan.web.planner.tabs;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -29,7 +30,11 @@ import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.Registry;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.planner.entities.Dependency;
+import org.libreplan.business.planner.entities.ITaskPositionConstrained;
 import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.planner.entities.TaskGroup;
+import org.libreplan.business.planner.entities.TaskPositionConstraint;
 import org.libreplan.business.resources.daos.IResourcesSearcher;
 import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.web.common.TemplateModel.DependencyWithVisibility;
@@ -50,7 +55,9 @@ import org.zkoss.zk.ui.Desktop;
  *
  *         To calculate the tasks that are in the critical path is necessary to
  *         create an empty graph filled with the tasks and dependencies of this
- *         order
+ *         order. The result is kept in the {@link PlanningState}, so it's only
+ *         calculated again if the tasks, their constraints or their
+ *         dependencies change
  */
 public class CriticalPathBuilder {
 
@@ -97,12 +104,65 @@ public class CriticalPathBuilder {
 
     private List<TaskElement> criticalPathFor(PlanningState state,
             IResourcesSearcher resourcesSearcher) {
+        List<TaskElement> cached = state.getCachedCriticalPath(keyOf(state));
+        if (cached != null) {
+            return cached;
+        }
+
+        List<TaskElement> result = calculateCriticalPath(state, resourcesSearcher);
+        // Forcing the dependencies can move the tasks, so the key is taken
+        // after calculating it
+        state.cacheCriticalPath(keyOf(state), result);
+        return result;
+    }
+
+    /**
+     * It returns a snapshot of everything the critical path depends on: the
+     * dates of the order and of its tasks, their position constraints and
+     * their dependencies.
+     */
+    private static List<Object> keyOf(PlanningState state) {
+        Order order = state.getOrder();
+        List<Object> result = new ArrayList<Object>();
+        result.add(state.getCurrentScenario());
+        result.add(order.getDependenciesConstraintsHavePriority());
+        result.add(asMillis(order.getInitDate()));
+        result.add(asMillis(order.getDeadline()));
+
+        TaskGroup rootTask = order.getAssociatedTaskElement();
+        if (rootTask == null) {
+            return result;
+        }
+        for (TaskElement each : rootTask.getAllChildren()) {
+            result.add(each);
+            result.add(each.getIntraDayStartDate());
+            result.add(each.getIntraDayEndDate());
+            if (each instanceof ITaskPositionConstrained) {
+                TaskPositionConstraint constraint = ((ITaskPositionConstrained) each).getPositionConstraint();
+                result.add(constraint.getConstraintType());
+                result.add(constraint.getConstraintDate());
+            }
+            for (Dependency dependency : each.getDependenciesWithThisOrigin()) {
+                result.add(dependency.getDestination());
+                result.add(dependency.getType());
+            }
+        }
+        return result;
+    }
+
+    private static Long asMillis(Date date) {
+        return date != null ? date.getTime() : null;
+    }
+
+    private List<TaskElement> calculateCriticalPath(PlanningState state,
+            IResourcesSearcher resourcesSearcher) {
         final Order order = state.getOrder();
         final Scenario currentScenario = state.getCurrentScenario();
 
         IAdapter<TaskElement, DependencyWithVisibility> adapter = TemplateModelAdapter
                 .create(currentScenario, asLocalDate(order.getInitDate()),
-                        asLocalDate(order.getDeadline()), resourcesSearcher);
+                        asLocalDate(order.getDeadline()),
+                        state.registeringResourcesFoundBy(resourcesSearcher));
         GanttDiagramGraph<TaskElement, DependencyWithVisibility> graph = GanttDiagramBuilder
                 .createForcingDependencies(order, adapter);
         CriticalPathCalculator<TaskElement, DependencyWithVisibility> criticalPathCalculator = CriticalPathCalculator
@@ -0,0 +1,102 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.resourceload;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate;
+
+/**
+ * Accumulated effort of each whole day of an interval, so the effort between
+ * two {@link IntraDayDate} is the difference of two sums plus the partial
+ * days at the start and the end, instead of going through all the days
+ * between them.<br />
+ *
+ * The efforts must be additive: the effort of an interval is the sum of the
+ * efforts of its days, as it happens with the capacity of the resources and
+ * the effort assigned to them. Out of the interval of the sums, the efforts
+ * are calculated again.
+ */
+class DailyEffortSums {
+
+    interface IEffortBetween {
+
+        EffortDuration between(IntraDayDate startInclusive, IntraDayDate endExclusive);
+
+    }
+
+    private final IEffortBetween effort;
+
+    private final LocalDate firstDay;
+
+    /**
+     * The seconds of the days from {@link #firstDay} until the one at each
+     * position, not included
+     */
+    private final long[] sums;
+
+    DailyEffortSums(IEffortBetween effort, LocalDate firstDay, LocalDate lastDayExclusive) {
+        this.effort = effort;
+        this.firstDay = firstDay;
+
+        int days = Math.max(0, Days.daysBetween(firstDay, lastDayExclusive).getDays());
+        sums = new long[days + 1];
+
+        IntraDayDate current = IntraDayDate.startOfDay(firstDay);
+        for (int i = 0; i < days; i++) {
+            IntraDayDate next = current.nextDayAtStart();
+            sums[i + 1] = sums[i] + effort.between(current, next).getSeconds();
+            current = next;
+        }
+    }
+
+    public EffortDuration between(IntraDayDate startInclusive, IntraDayDate endExclusive) {
+        LocalDate firstWholeDay = startInclusive.isStartOfDay()
+                ? startInclusive.getDate()
+                : startInclusive.getDate().plusDays(1);
+
+        LocalDate lastWholeDayExclusive = endExclusive.getDate();
+
+        if ( !firstWholeDay.isBefore(lastWholeDayExclusive) ) {
+            return effort.between(startInclusive, endExclusive);
+        }
+
+        EffortDuration result = wholeDays(firstWholeDay, lastWholeDayExclusive);
+        if ( !startInclusive.isStartOfDay() ) {
+            result = result.plus(effort.between(startInclusive, IntraDayDate.startOfDay(firstWholeDay)));
+        }
+        if ( !endExclusive.isStartOfDay() ) {
+            result = result.plus(effort.between(IntraDayDate.startOfDay(lastWholeDayExclusive), endExclusive));
+        }
+        return result;
+    }
+
+    private EffortDuration wholeDays(LocalDate startInclusive, LocalDate endExclusive) {
+        int from = Days.daysBetween(firstDay, startInclusive).getDays();
+        int to = Days.daysBetween(firstDay, endExclusive).getDays();
+
+        if ( from < 0 || to >= sums.length ) {
+            return effort.between(IntraDayDate.startOfDay(startInclusive), IntraDayDate.startOfDay(endExclusive));
+        }
+        return EffortDuration.seconds((int) (sums[to] - sums[from]));
+    }
+
+}
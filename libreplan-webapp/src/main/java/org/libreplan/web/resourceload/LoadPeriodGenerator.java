@@ -21,18 +21,18 @@
 
 package org.libreplan.web.resourceload;
 
-import static org.libreplan.business.workingday.IntraDayDate.max;
-import static org.libreplan.business.workingday.IntraDayDate.min;
-
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.math.Fraction;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.ICalendar;
 import org.libreplan.business.planner.entities.ResourceAllocation;
 import org.libreplan.business.resources.daos.IResourcesSearcher;
@@ -104,77 +104,53 @@ abstract class LoadPeriodGenerator {
     public static LoadPeriodGeneratorFactory onCriterion(
             final Criterion criterion, final IResourcesSearcher resourceSearch) {
 
-        final List<Resource> potentialResources =
-                resourceSearch.searchBoth().byCriteria(Collections.singletonList(criterion)).execute();
-
-        return allocation -> new LoadPeriodGeneratorOnCriterion(criterion, allocation, potentialResources);
+        return onCriterion(
+                criterion, resourceSearch.searchBoth().byCriteria(Collections.singletonList(criterion)).execute());
     }
 
-    public List<LoadPeriodGenerator> join(LoadPeriodGenerator next) {
-        if (!overlaps(next)) {
-            return stripEmpty(this, next);
-        }
+    /**
+     * Like {@link #onCriterion(Criterion, IResourcesSearcher)} but with the
+     * resources that can satisfy the criterion already searched
+     */
+    public static LoadPeriodGeneratorFactory onCriterion(
+            final Criterion criterion, final List<Resource> potentialResources) {
 
-        if (isIncluded(next)) {
-            return stripEmpty(this.until(next.start), intersect(next), this.from(next.end));
-        }
-        assert overlaps(next) && !isIncluded(next);
-        return stripEmpty(this.until(next.start), intersect(next), next.from(end));
+        return allocation -> new LoadPeriodGeneratorOnCriterion(criterion, allocation, potentialResources);
     }
 
     protected List<ResourceAllocation<?>> getAllocationsOnInterval() {
         return allocationsOnInterval;
     }
 
-    private List<LoadPeriodGenerator> stripEmpty(LoadPeriodGenerator... generators) {
-        List<LoadPeriodGenerator> result = new ArrayList<>();
-        for (LoadPeriodGenerator loadPeriodGenerator : generators) {
-            if (!loadPeriodGenerator.isEmpty()) {
-                result.add(loadPeriodGenerator);
-            }
-        }
-        return result;
-    }
-
-    private boolean isEmpty() {
-        return start.equals(end);
-    }
-
     protected abstract LoadPeriodGenerator create(
             IntraDayDate start, IntraDayDate end, List<ResourceAllocation<?>> allocationsOnInterval);
 
-    private LoadPeriodGenerator intersect(LoadPeriodGenerator other) {
-        return create(max(this.start, other.start), min(this.end, other.end), plusAllocations(other));
-    }
-
-    private List<ResourceAllocation<?>> plusAllocations(LoadPeriodGenerator other) {
-        List<ResourceAllocation<?>> result = new ArrayList<>();
-        result.addAll(allocationsOnInterval);
-        result.addAll(other.allocationsOnInterval);
-
-        return result;
-    }
-
-    private LoadPeriodGenerator from(IntraDayDate newStart) {
-        return create(newStart, end, allocationsOnInterval);
-    }
-
-    private LoadPeriodGenerator until(IntraDayDate newEnd) {
-        return create(start, newEnd, allocationsOnInterval);
-    }
+    /**
+     * @return <code>null</code> if the data is invalid
+     */
+    public LoadPeriod build() {
+        return build(new IPeriodEfforts() {
 
-    boolean overlaps(LoadPeriodGenerator other) {
-        return start.compareTo(other.end) < 0 && other.start.compareTo(this.end) < 0;
-    }
+            @Override
+            public EffortDuration getAvailable(IntraDayDate start, IntraDayDate end) {
+                return getTotalAvailableEffort(start, end);
+            }
 
-    private boolean isIncluded(LoadPeriodGenerator other) {
-        return other.start.compareTo(start) >= 0 && other.end.compareTo(end) <= 0;
+            @Override
+            public EffortDuration getAssigned(ResourceAllocation<?> allocation, IntraDayDate start, IntraDayDate end) {
+                return getAssignedEffortFor(allocation, start, end);
+            }
+        });
     }
 
     /**
+     * Like {@link #build()} but taking the efforts from
+     * <code>efforts</code>, as the ones created by
+     * {@link #summingDailyEfforts(List)}
+     *
      * @return <code>null</code> if the data is invalid
      */
-    public LoadPeriod build() {
+    LoadPeriod build(IPeriodEfforts efforts) {
         if (start.compareTo(end) > 0) {
 
             LOG.warn("the start date is after end date. Inconsistent state for " +
@@ -182,8 +158,8 @@ abstract class LoadPeriodGenerator {
 
             return null;
         }
-        EffortDuration totalEffort = getTotalAvailableEffort();
-        EffortDuration effortAssigned = getEffortAssigned();
+        EffortDuration totalEffort = efforts.getAvailable(start, end);
+        EffortDuration effortAssigned = getEffortAssigned(efforts);
 
         return new LoadPeriod(
                 asGantt(start),
@@ -193,6 +169,76 @@ abstract class LoadPeriodGenerator {
                 new LoadLevel(calculateLoadPercentage(totalEffort, effortAssigned)));
     }
 
+    /**
+     * Efforts of the periods built for the same resource or criterion
+     */
+    interface IPeriodEfforts {
+
+        EffortDuration getAvailable(IntraDayDate start, IntraDayDate end);
+
+        EffortDuration getAssigned(ResourceAllocation<?> allocation, IntraDayDate start, IntraDayDate end);
+
+    }
+
+    /**
+     * The efforts of the whole days are calculated once, when first needed,
+     * and accumulated with {@link DailyEffortSums}. So the efforts of a period
+     * only need to calculate again the partial days at its start and end.
+     * The available effort is calculated from the first to the last day of
+     * the allocations given and the assigned effort of each allocation
+     * between its start and end.
+     */
+    IPeriodEfforts summingDailyEfforts(List<? extends ResourceAllocation<?>> allocations) {
+        if (allocations.isEmpty()) {
+            return summingDailyEfforts(start.getDate(), end.asExclusiveEnd());
+        }
+
+        LocalDate firstDay = null;
+        LocalDate lastDayExclusive = null;
+        for (ResourceAllocation<?> each : allocations) {
+            LocalDate allocationStart = each.getIntraDayStartDate().getDate();
+            LocalDate allocationEnd = each.getIntraDayEndDate().asExclusiveEnd();
+            if (firstDay == null || allocationStart.isBefore(firstDay)) {
+                firstDay = allocationStart;
+            }
+            if (lastDayExclusive == null || allocationEnd.isAfter(lastDayExclusive)) {
+                lastDayExclusive = allocationEnd;
+            }
+        }
+        return summingDailyEfforts(firstDay, lastDayExclusive);
+    }
+
+    private IPeriodEfforts summingDailyEfforts(LocalDate firstDay, LocalDate lastDayExclusive) {
+        final DailyEffortSums available =
+                new DailyEffortSums(this::getTotalAvailableEffort, firstDay, lastDayExclusive);
+
+        final Map<ResourceAllocation<?>, DailyEffortSums> assigned = new IdentityHashMap<>();
+
+        return new IPeriodEfforts() {
+
+            @Override
+            public EffortDuration getAvailable(IntraDayDate start, IntraDayDate end) {
+                return available.between(start, end);
+            }
+
+            @Override
+            public EffortDuration getAssigned(
+                    final ResourceAllocation<?> allocation, IntraDayDate start, IntraDayDate end) {
+
+                DailyEffortSums sums = assigned.get(allocation);
+                if (sums == null) {
+                    sums = new DailyEffortSums(
+                            (from, to) -> getAssignedEffortFor(allocation, from, to),
+                            allocation.getIntraDayStartDate().getDate(),
+                            allocation.getIntraDayEndDate().asExclusiveEnd());
+
+                    assigned.put(allocation, sums);
+                }
+                return sums.between(start, end);
+            }
+        };
+    }
+
     private GanttDate asGantt(IntraDayDate date) {
         return TaskElementAdapter.toGantt(date, inferDayCapacity(allocationsOnInterval, PartialDay.wholeDay(date.getDate())));
     }
@@ -210,7 +256,7 @@ abstract class LoadPeriodGenerator {
         return result.divideBy(allocationsOnInterval.size());
     }
 
-    protected abstract EffortDuration getTotalAvailableEffort();
+    protected abstract EffortDuration getTotalAvailableEffort(IntraDayDate start, IntraDayDate end);
 
     private int calculateLoadPercentage(EffortDuration totalEffort, EffortDuration effortAssigned) {
         if (totalEffort.isZero()) {
@@ -219,7 +265,6 @@ abstract class LoadPeriodGenerator {
 
         if (effortAssigned.isZero()) {
             LOG.warn("total effort is " + totalEffort + " but effortAssigned is zero");
-            getEffortAssigned();
 
             return 0;
         }
@@ -229,13 +274,12 @@ abstract class LoadPeriodGenerator {
         return percentage.intValue();
     }
 
-    protected abstract EffortDuration getEffortAssigned();
-
-    protected final EffortDuration sumAllocations() {
-        return EffortDuration.sum(allocationsOnInterval, this::getAssignedEffortFor);
+    private EffortDuration getEffortAssigned(IPeriodEfforts efforts) {
+        return EffortDuration.sum(allocationsOnInterval, each -> efforts.getAssigned(each, start, end));
     }
 
-    protected abstract EffortDuration getAssignedEffortFor(ResourceAllocation<?> resourceAllocation);
+    protected abstract EffortDuration getAssignedEffortFor(
+            ResourceAllocation<?> resourceAllocation, IntraDayDate start, IntraDayDate end);
 
     public IntraDayDate getStart() {
         return start;
@@ -277,18 +321,15 @@ class LoadPeriodGeneratorOnResource extends LoadPeriodGenerator {
     }
 
     @Override
-    protected EffortDuration getTotalAvailableEffort() {
+    protected EffortDuration getTotalAvailableEffort(IntraDayDate start, IntraDayDate end) {
         return resource.getTotalEffortFor(start, end, criterion);
     }
 
     @Override
-    protected EffortDuration getAssignedEffortFor(ResourceAllocation<?> resourceAllocation) {
-        return resourceAllocation.getAssignedEffort(resource, start, end);
-    }
+    protected EffortDuration getAssignedEffortFor(
+            ResourceAllocation<?> resourceAllocation, IntraDayDate start, IntraDayDate end) {
 
-    @Override
-    protected EffortDuration getEffortAssigned() {
-        return sumAllocations();
+        return resourceAllocation.getAssignedEffort(resource, start, end);
     }
 
 }
@@ -330,21 +371,18 @@ class LoadPeriodGeneratorOnCriterion extends LoadPeriodGenerator {
     }
 
     @Override
-    protected EffortDuration getAssignedEffortFor(ResourceAllocation<?> resourceAllocation) {
+    protected EffortDuration getAssignedEffortFor(
+            ResourceAllocation<?> resourceAllocation, IntraDayDate start, IntraDayDate end) {
+
         return resourceAllocation.getAssignedEffort(criterion, start, end);
     }
 
     @Override
-    protected EffortDuration getTotalAvailableEffort() {
+    protected EffortDuration getTotalAvailableEffort(IntraDayDate start, IntraDayDate end) {
         return EffortDuration.sum(
                 resourcesSatisfyingCriterionAtSomePoint, resource -> resource.getTotalEffortFor(start, end, criterion));
     }
 
-    @Override
-    protected EffortDuration getEffortAssigned() {
-        return sumAllocations();
-    }
-
 }
 
 interface LoadPeriodGeneratorFactory {
@@ -28,26 +28,29 @@ import static org.libreplan.web.planner.order.PlanningStateCreator.and;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.ResourceCalendar;
 import org.libreplan.business.common.BaseEntity;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
-import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.planner.daos.IResourceAllocationDAO;
 import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
@@ -68,6 +71,7 @@ import org.libreplan.business.users.entities.OrderAuthorization;
 import org.libreplan.business.users.entities.OrderAuthorizationType;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
+import org.libreplan.business.workingday.IntraDayDate;
 import org.libreplan.web.calendars.BaseCalendarModel;
 import org.libreplan.web.planner.order.PlanningStateCreator.IAllocationCriteria;
 import org.libreplan.web.planner.order.PlanningStateCreator.PlanningState;
@@ -75,6 +79,7 @@ import org.libreplan.web.planner.order.PlanningStateCreator.RelatedWith;
 import org.libreplan.web.planner.order.PlanningStateCreator.RelatedWithResource;
 import org.libreplan.web.planner.order.PlanningStateCreator.SpecificRelatedWithCriterionOnInterval;
 import org.libreplan.web.planner.order.PlanningStateCreator.TaskOnInterval;
+import org.libreplan.web.resourceload.LoadPeriodGenerator.IPeriodEfforts;
 import org.libreplan.web.resourceload.ResourceLoadParameters.Paginator;
 import org.libreplan.web.security.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -93,6 +98,8 @@ public class ResourceLoadModel implements IResourceLoadModel {
 
     private String TYPE_RESOURCE = "resource";
 
+    private static final int MAX_CACHED_PAGES = 20;
+
     @Autowired
     private IResourceDAO resourcesDAO;
 
@@ -117,6 +124,21 @@ public class ResourceLoadModel implements IResourceLoadModel {
     @Autowired
     private IScenarioManager scenarioManager;
 
+    @Autowired
+    private PredefinedDatabaseSnapshots databaseSnapshots;
+
+    /**
+     * Time lines of the last pages shown, so going back to them doesn't build
+     * them again while the data shown doesn't change
+     */
+    private final Map<TimeLinesKey, List<LoadTimeLine>> cachedTimeLines =
+            new LinkedHashMap<TimeLinesKey, List<LoadTimeLine>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Entry<TimeLinesKey, List<LoadTimeLine>> eldest) {
+                    return size() > MAX_CACHED_PAGES;
+                }
+            };
+
     @Override
     @Transactional(readOnly = true)
     public ResourceLoadDisplayData calculateDataToDisplay(ResourceLoadParameters parameters) {
@@ -129,7 +151,7 @@ public class ResourceLoadModel implements IResourceLoadModel {
         }
 
         ResourceAllocationsFinder<?> allocationsFinder = create(parameters);
-        List<LoadTimeLine> loadTimeLines = allocationsFinder.buildTimeLines();
+        List<LoadTimeLine> loadTimeLines = getTimeLines(allocationsFinder);
 
         return new ResourceLoadDisplayData(
                 loadTimeLines,
@@ -138,6 +160,82 @@ public class ResourceLoadModel implements IResourceLoadModel {
                 allocationsFinder.lazilyGetAssignmentsShown());
     }
 
+    private List<LoadTimeLine> getTimeLines(ResourceAllocationsFinder<?> allocationsFinder) {
+        if ( allocationsFinder.parameters.getPlanningState() != null ) {
+            // The allocations of the order being planned can have changes not saved yet
+            return allocationsFinder.buildTimeLines();
+        }
+
+        TimeLinesKey key = new TimeLinesKey(
+                allocationsFinder.parameters,
+                allocationsFinder.getCurrentScenario(),
+                allocationsFinder.getPaginator().getForCurrentPage(),
+                databaseSnapshots.snapshotResourceLoadVersion());
+
+        List<LoadTimeLine> result = cachedTimeLines.get(key);
+        if ( result == null ) {
+            result = allocationsFinder.buildTimeLines();
+            cachedTimeLines.put(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Identifies the time lines built for a page with some filters
+     */
+    private static class TimeLinesKey {
+
+        private final boolean filterByResources;
+
+        private final LocalDate initDateFilter;
+
+        private final LocalDate endDateFilter;
+
+        private final Long scenarioId;
+
+        private final List<Long> entitiesOnPage = new ArrayList<>();
+
+        private final Long dataVersion;
+
+        TimeLinesKey(ResourceLoadParameters parameters,
+                     Scenario scenario,
+                     List<? extends BaseEntity> entitiesOnPage,
+                     Long dataVersion) {
+
+            this.filterByResources = parameters.isFilterByResources();
+            this.initDateFilter = parameters.getInitDateFilter();
+            this.endDateFilter = parameters.getEndDateFilter();
+            this.scenarioId = scenario.getId();
+            for (BaseEntity each : entitiesOnPage) {
+                this.entitiesOnPage.add(each.getId());
+            }
+            this.dataVersion = dataVersion;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if ( !(obj instanceof TimeLinesKey) ) {
+                return false;
+            }
+            TimeLinesKey other = (TimeLinesKey) obj;
+
+            return filterByResources == other.filterByResources &&
+                    Objects.equals(initDateFilter, other.initDateFilter) &&
+                    Objects.equals(endDateFilter, other.endDateFilter) &&
+                    Objects.equals(scenarioId, other.scenarioId) &&
+                    entitiesOnPage.equals(other.entitiesOnPage) &&
+                    Objects.equals(dataVersion, other.dataVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(
+                    filterByResources, initDateFilter, endDateFilter, scenarioId, entitiesOnPage, dataVersion);
+        }
+
+    }
+
 
     @Override
     @Transactional(readOnly = true)
@@ -541,6 +639,8 @@ public class ResourceLoadModel implements IResourceLoadModel {
 
         private final ResourceLoadParameters parameters;
 
+        private final Map<ResourceAllocation<?>, Order> orders = new IdentityHashMap<>();
+
         public LoadTimeLinesBuilder(ResourceLoadParameters parameters) {
             this.parameters = parameters;
 
@@ -548,6 +648,59 @@ public class ResourceLoadModel implements IResourceLoadModel {
                     new PeriodBuilderFactory(parameters.getInitDateFilter(), parameters.getEndDateFilter());
         }
 
+        /**
+         * Finds the order of each allocation once, since an allocation can be
+         * shown in several time lines
+         */
+        void loadOrders(Map<?, List<ResourceAllocation<?>>> allocations) {
+            for (List<ResourceAllocation<?>> each : allocations.values()) {
+                for (ResourceAllocation<?> allocation : each) {
+                    if ( allocation.isSatisfied() && allocation.getTask() != null ) {
+                        orders.put(
+                                allocation,
+                                orderDAO.loadOrderAvoidingProxyFor(allocation.getTask().getOrderElement()));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Builds the time lines of each entry, keeping the order of the
+         * entries. The <code>null</code> time lines are skipped.<br />
+         *
+         * The time lines are built in the request thread, since the entities
+         * they go through need its Hibernate session and its current
+         * scenario, and some of them fill caches that are not thread safe.
+         */
+        <T> List<LoadTimeLine> buildInOrder(
+                Map<T, List<ResourceAllocation<?>>> allocations,
+                BiFunction<T, List<ResourceAllocation<?>>, LoadTimeLine> timeLineBuilder) {
+
+            List<LoadTimeLine> result = new ArrayList<>();
+            for (Entry<T, List<ResourceAllocation<?>>> each : allocations.entrySet()) {
+                LoadTimeLine timeLine = timeLineBuilder.apply(each.getKey(), each.getValue());
+                if ( timeLine != null ) {
+                    result.add(timeLine);
+                }
+            }
+
+            return result;
+        }
+
+        Map<Order, List<ResourceAllocation<?>>> byOrder(Collection<? extends ResourceAllocation<?>> allocations) {
+            Map<Order, List<ResourceAllocation<?>>> result = new HashMap<>();
+
+            for (ResourceAllocation<?> resourceAllocation : allocations) {
+                Order order = orders.get(resourceAllocation);
+                if ( order != null ) {
+                    initializeIfNeeded(result, order);
+                    result.get(order).add(resourceAllocation);
+                }
+            }
+
+            return result;
+        }
+
         TimeLineRole<BaseEntity> getCurrentTimeLineRole(BaseEntity entity) {
             return new TimeLineRole<>(entity);
         }
@@ -741,13 +894,9 @@ public class ResourceLoadModel implements IResourceLoadModel {
         }
 
         List<LoadTimeLine> buildGroupsByResource(Map<Resource, List<ResourceAllocation<?>>> map) {
-            List<LoadTimeLine> result = new ArrayList<>();
-            for (Entry<Resource, List<ResourceAllocation<?>>> each : map.entrySet()) {
-                LoadTimeLine l = buildGroupFor(each.getKey(), each.getValue());
-                result.add(l);
-            }
+            loadOrders(map);
 
-            return result;
+            return buildInOrder(map, this::buildGroupFor);
         }
 
     }
@@ -756,6 +905,8 @@ public class ResourceLoadModel implements IResourceLoadModel {
 
         private String LOAD_TIMELINE_TYPE_GLOBAL = "global-generic";
 
+        private final Map<Criterion, LoadPeriodGeneratorFactory> periodGeneratorFactories = new HashMap<>();
+
         public ByCriterionLoadTimesLinesBuilder(ResourceLoadParameters parameters) {
             super(parameters);
         }
@@ -765,27 +916,32 @@ public class ResourceLoadModel implements IResourceLoadModel {
         }
 
         private List<LoadTimeLine> groupsFor(Map<Criterion, List<ResourceAllocation<?>>> allocationsByCriterion) {
-            List<LoadTimeLine> result = new ArrayList<>();
-            for (Entry<Criterion, List<ResourceAllocation<?>>> each : allocationsByCriterion.entrySet()) {
-                Criterion criterion = each.getKey();
-                List<ResourceAllocation<?>> allocations = ResourceAllocation.sortedByStartDate(each.getValue());
+            loadOrders(allocationsByCriterion);
 
-                if ( allocations == null ) {
-                    continue;
-                }
+            for (Criterion each : allocationsByCriterion.keySet()) {
+                List<Resource> potentialResources =
+                        resourcesSearchModel.searchBoth().byCriteria(Collections.singletonList(each)).execute();
+
+                periodGeneratorFactories.put(each, LoadPeriodGenerator.onCriterion(each, potentialResources));
+            }
 
-                TimeLineRole<BaseEntity> role = getCurrentTimeLineRole(criterion);
+            return buildInOrder(allocationsByCriterion, this::groupFor);
+        }
 
-                LoadTimeLine group = new LoadTimeLine(
-                        createMain(criterion, allocations, role),
-                        buildSecondaryLevels(criterion, allocations));
+        private LoadTimeLine groupFor(Criterion criterion, List<ResourceAllocation<?>> unsortedAllocations) {
+            List<ResourceAllocation<?>> allocations = ResourceAllocation.sortedByStartDate(unsortedAllocations);
 
-                if ( !group.isEmpty() ) {
-                    result.add(group);
-                }
+            if ( allocations == null ) {
+                return null;
             }
 
-            return result;
+            TimeLineRole<BaseEntity> role = getCurrentTimeLineRole(criterion);
+
+            LoadTimeLine group = new LoadTimeLine(
+                    createMain(criterion, allocations, role),
+                    buildSecondaryLevels(criterion, allocations));
+
+            return group.isEmpty() ? null : group;
         }
 
         private LoadTimeLine createMain(Criterion criterion,
@@ -798,7 +954,7 @@ public class ResourceLoadModel implements IResourceLoadModel {
         }
 
         private List<LoadPeriod> createPeriods(Criterion criterion, List<? extends ResourceAllocation<?>> value) {
-            return periodBuilderFactory.build(LoadPeriodGenerator.onCriterion(criterion, resourcesSearchModel), value);
+            return periodBuilderFactory.build(periodGeneratorFactories.get(criterion), value);
         }
 
         private List<LoadTimeLine> buildSecondaryLevels(
@@ -1021,21 +1177,6 @@ public class ResourceLoadModel implements IResourceLoadModel {
         return GenericResourceAllocation.byCriterions(genericAllocations);
     }
 
-    private Map<Order, List<ResourceAllocation<?>>> byOrder(Collection<? extends ResourceAllocation<?>> allocations) {
-        Map<Order, List<ResourceAllocation<?>>> result = new HashMap<>();
-
-        for (ResourceAllocation<?> resourceAllocation : allocations) {
-            if ( (resourceAllocation.isSatisfied()) && (resourceAllocation.getTask() != null) ) {
-                OrderElement orderElement = resourceAllocation.getTask().getOrderElement();
-                Order order = orderDAO.loadOrderAvoidingProxyFor(orderElement);
-                initializeIfNeeded(result, order);
-                result.get(order).add(resourceAllocation);
-            }
-        }
-
-        return result;
-    }
-
     private void initializeIfNeeded(Map<Order, List<ResourceAllocation<?>>> result, Order order) {
         if ( !result.containsKey(order) ) {
             result.put(order, new ArrayList<>());
@@ -1111,12 +1252,22 @@ class PeriodBuilderFactory {
 
 }
 
+/**
+ * Splits the intervals of the allocations in periods with the same
+ * allocations going through their start and end dates once, sorted, and
+ * keeping the allocations active at each one of them. The periods without
+ * allocations are not included.<br />
+ *
+ * The efforts of the periods are taken from the sums of the efforts of each
+ * day, see {@link LoadPeriodGenerator#summingDailyEfforts(List)}, so they are
+ * not calculated again for every period. It is used for both the load of a
+ * resource and the load of a criterion, depending on the
+ * {@link LoadPeriodGeneratorFactory}.
+ */
 class PeriodsBuilder {
 
     private final List<? extends ResourceAllocation<?>> sortedByStartDate;
 
-    private final List<LoadPeriodGenerator> loadPeriodsGenerators = new LinkedList<>();
-
     private final LoadPeriodGeneratorFactory factory;
 
     private PeriodsBuilder(
@@ -1174,18 +1325,28 @@ class PeriodsBuilder {
     }
 
     private List<LoadPeriod> buildPeriods() {
-        for (ResourceAllocation<?> resourceAllocation : sortedByStartDate) {
-            loadPeriodsGenerators.add(factory.create(resourceAllocation));
+        if ( sortedByStartDate.isEmpty() ) {
+            return new ArrayList<>();
         }
-        joinPeriodGenerators();
 
-        return toGenerators(loadPeriodsGenerators);
-    }
+        List<ResourceAllocation<?>> valid = new ArrayList<>();
+        List<LoadPeriodGenerator> generators = new ArrayList<>();
+        for (ResourceAllocation<?> each : sortedByStartDate) {
+            if ( isValid(each) ) {
+                valid.add(each);
+            } else {
+                // It will be ignored when building it, warning about it
+                generators.add(factory.create(each));
+            }
+        }
 
-    private List<LoadPeriod> toGenerators(List<LoadPeriodGenerator> generators) {
+        LoadPeriodGenerator prototype = factory.create(sortedByStartDate.get(0));
+        generators.addAll(sweep(prototype, valid));
+
+        IPeriodEfforts efforts = prototype.summingDailyEfforts(valid);
         List<LoadPeriod> result = new ArrayList<>();
-        for (LoadPeriodGenerator loadPeriodGenerator : generators) {
-            LoadPeriod period = loadPeriodGenerator.build();
+        for (LoadPeriodGenerator each : generators) {
+            LoadPeriod period = each.build(efforts);
 
             if ( period != null ) {
                 result.add(period);
@@ -1195,107 +1356,97 @@ class PeriodsBuilder {
         return result;
     }
 
-    private void joinPeriodGenerators() {
-        ListIterator<LoadPeriodGenerator> iterator = loadPeriodsGenerators.listIterator();
-
-        while (iterator.hasNext()) {
-            final LoadPeriodGenerator current = findNextOneOverlapping(iterator);
-
-            if ( current != null ) {
-                rewind(iterator, current);
-                iterator.remove();
-                LoadPeriodGenerator next = iterator.next();
-                iterator.remove();
-                List<LoadPeriodGenerator> generated = current.join(next);
-                final LoadPeriodGenerator positionToComeBack = generated.get(0);
+    /**
+     * An allocation without duration inside another one just splits it, as
+     * when the periods were joined by pairs. Otherwise it has its own period.
+     * The allocations whose start is after their end are ignored.
+     */
+    static List<LoadPeriodGenerator> sweep(
+            LoadPeriodGenerator prototype, List<? extends ResourceAllocation<?>> allocations) {
+
+        List<ResourceAllocation<?>> byStart = new ArrayList<>();
+        for (ResourceAllocation<?> each : allocations) {
+            if ( isValid(each) ) {
+                byStart.add(each);
+            }
+        }
+        Collections.sort(byStart, BY_START);
 
-                final List<LoadPeriodGenerator> remaining =
-                        loadPeriodsGenerators.subList(iterator.nextIndex(), loadPeriodsGenerators.size());
+        List<IntraDayDate> points = new ArrayList<>();
+        for (ResourceAllocation<?> each : byStart) {
+            points.add(each.getIntraDayStartDate());
+            points.add(each.getIntraDayEndDate());
+        }
+        Collections.sort(points);
 
-                List<LoadPeriodGenerator> generatorsSortedByStartDate =
-                        mergeListsKeepingByStartSortOrder(generated, remaining);
+        List<LoadPeriodGenerator> result = new ArrayList<>();
+        List<ResourceAllocation<?>> active = new ArrayList<>();
+        int nextToStart = 0;
 
-                final int takenFromRemaining = generatorsSortedByStartDate.size() - generated.size();
-                removeNextElements(iterator, takenFromRemaining);
-                addAtCurrentPosition(iterator, generatorsSortedByStartDate);
-                rewind(iterator, positionToComeBack);
+        for (int i = 0; i < points.size(); i++) {
+            IntraDayDate point = points.get(i);
+            if ( i > 0 && point.equals(points.get(i - 1)) ) {
+                continue;
             }
-        }
-    }
 
-    private LoadPeriodGenerator findNextOneOverlapping(ListIterator<LoadPeriodGenerator> iterator) {
-        while (iterator.hasNext()) {
-            LoadPeriodGenerator current = iterator.next();
+            removeFinished(active, point);
 
-            if ( !iterator.hasNext() ) {
-                return null;
+            while (nextToStart < byStart.size() && byStart.get(nextToStart).getIntraDayStartDate().equals(point)) {
+                ResourceAllocation<?> starting = byStart.get(nextToStart++);
+
+                if ( !starting.getIntraDayEndDate().equals(point) ) {
+                    active.add(starting);
+                } else if ( !anyStartedBefore(active, point) ) {
+                    result.add(prototype.create(point, point, Collections.singletonList(starting)));
+                }
             }
 
-            LoadPeriodGenerator next = peekNext(iterator);
-            if ( current.overlaps(next) ) {
-                return current;
+            IntraDayDate next = nextPoint(points, i);
+            if ( next != null && !active.isEmpty() ) {
+                result.add(prototype.create(point, next, new ArrayList<>(active)));
             }
         }
 
-        return null;
+        return result;
     }
 
-    private void addAtCurrentPosition(
-            ListIterator<LoadPeriodGenerator> iterator, List<LoadPeriodGenerator> sortedByStartDate) {
-
-        for (LoadPeriodGenerator l : sortedByStartDate) {
-            iterator.add(l);
-        }
+    private static boolean isValid(ResourceAllocation<?> allocation) {
+        return allocation.getIntraDayStartDate().compareTo(allocation.getIntraDayEndDate()) <= 0;
     }
 
-    private void removeNextElements(ListIterator<LoadPeriodGenerator> iterator, final int elementsNumber) {
-        for (int i = 0; i < elementsNumber; i++) {
-            iterator.next();
-            iterator.remove();
+    private static final Comparator<ResourceAllocation<?>> BY_START = new Comparator<ResourceAllocation<?>>() {
+        @Override
+        public int compare(ResourceAllocation<?> o1, ResourceAllocation<?> o2) {
+            return o1.getIntraDayStartDate().compareTo(o2.getIntraDayStartDate());
         }
-    }
+    };
 
-    private void rewind(ListIterator<LoadPeriodGenerator> iterator, LoadPeriodGenerator nextOne) {
-        while (peekNext(iterator) != nextOne) {
-            iterator.previous();
+    private static void removeFinished(List<ResourceAllocation<?>> active, IntraDayDate point) {
+        Iterator<ResourceAllocation<?>> iterator = active.iterator();
+        while (iterator.hasNext()) {
+            if ( iterator.next().getIntraDayEndDate().compareTo(point) <= 0 ) {
+                iterator.remove();
+            }
         }
     }
 
-    private List<LoadPeriodGenerator> mergeListsKeepingByStartSortOrder(
-            List<LoadPeriodGenerator> joined, List<LoadPeriodGenerator> remaining) {
-
-        List<LoadPeriodGenerator> result = new ArrayList<>();
-        ListIterator<LoadPeriodGenerator> joinedIterator = joined.listIterator();
-        ListIterator<LoadPeriodGenerator> remainingIterator = remaining.listIterator();
-
-        while (joinedIterator.hasNext() && remainingIterator.hasNext()) {
-            LoadPeriodGenerator fromJoined = peekNext(joinedIterator);
-            LoadPeriodGenerator fromRemaining = peekNext(remainingIterator);
-
-            if ( fromJoined.getStart().compareTo(fromRemaining.getStart()) <= 0 ) {
-                result.add(fromJoined);
-                joinedIterator.next();
-            } else {
-                result.add(fromRemaining);
-                remainingIterator.next();
+    private static boolean anyStartedBefore(List<ResourceAllocation<?>> active, IntraDayDate point) {
+        for (ResourceAllocation<?> each : active) {
+            if ( each.getIntraDayStartDate().compareTo(point) < 0 ) {
+                return true;
             }
         }
-        if ( joinedIterator.hasNext() ) {
-            result.addAll(joined.subList(joinedIterator.nextIndex(), joined.size()));
-        }
-
-        return result;
+        return false;
     }
 
-    private LoadPeriodGenerator peekNext(ListIterator<LoadPeriodGenerator> iterator) {
-        if ( !iterator.hasNext() ) {
-            return null;
+    private static IntraDayDate nextPoint(List<IntraDayDate> points, int index) {
+        IntraDayDate point = points.get(index);
+        for (int i = index + 1; i < points.size(); i++) {
+            if ( !points.get(i).equals(point) ) {
+                return points.get(i);
+            }
         }
-
-        LoadPeriodGenerator result = iterator.next();
-        iterator.previous();
-
-        return result;
+        return null;
     }
 
 }
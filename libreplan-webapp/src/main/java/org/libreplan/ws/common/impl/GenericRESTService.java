@@ -21,12 +21,37 @@
 
 package org.libreplan.ws.common.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
-
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.lang3.StringUtils;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.IntegrationEntity;
@@ -37,6 +62,8 @@ import org.libreplan.ws.common.api.InstanceConstraintViolationsDTO;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsListDTO;
 import org.libreplan.ws.common.api.IntegrationEntityDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 
 /**
  * This class provides generic support for implementing REST services
@@ -47,6 +74,40 @@ import org.springframework.beans.factory.annotation.Autowired;
 public abstract class GenericRESTService<E extends IntegrationEntity,
     DTO extends IntegrationEntityDTO> {
 
+    /**
+     * Name of the HTTP header with the cursor to ask for the next window of
+     * entities. It isn't sent with the last window.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    public static final int MAX_WINDOW_SIZE = 1000;
+
+    /**
+     * Number of entities read in each transaction while streaming.
+     */
+    private static final int STREAMING_WINDOW_SIZE = 100;
+
+    /**
+     * Number of entities saved in the same transaction by a bulk import.
+     */
+    protected static final int BULK_IMPORT_CHUNK_SIZE = 100;
+
+    /**
+     * Contexts used to stream each list DTO class. Creating them is expensive
+     * and they are thread safe, unlike their marshallers.
+     */
+    private static final ConcurrentMap<Class<?>, JAXBContext> streamingContexts =
+        new ConcurrentHashMap<Class<?>, JAXBContext>();
+
+    /**
+     * Shared by all the services, see the bean in the Spring configuration.
+     */
+    @Autowired
+    @Qualifier("bulkImportExecutor")
+    private ExecutorService bulkImportExecutor;
+
     @Autowired
     protected IAdHocTransactionService transactionService;
 
@@ -57,16 +118,219 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
         return toDTO(getIntegrationEntityDAO().findAll());
     }
 
+    /**
+     * It retrieves at most <code>maxResults</code> entities with code after
+     * <code>after</code> ordered by code. If <code>after</code> is
+     * <code>null</code> it starts from the first entity.
+     *
+     * Default implementation uses
+     * {@link IIntegrationEntityDAO#findAfterCode(String, int)}.
+     */
+    protected List<E> findAfterCode(String after, int maxResults) {
+        return getIntegrationEntityDAO().findAfterCode(after, maxResults);
+    }
+
+    private static class Window<DTO> {
+
+        private final List<DTO> dtos;
+
+        private final String nextCursor;
+
+        Window(List<DTO> dtos, String nextCursor) {
+            this.dtos = dtos;
+            this.nextCursor = nextCursor;
+        }
+
+    }
+
+    private Window<DTO> readWindow(String after, int size) {
+        List<E> entities = findAfterCode(after, size);
+        String nextCursor = entities.size() < size ? null : entities.get(entities.size() - 1).getCode();
+
+        return new Window<>(toDTO(entities), nextCursor);
+    }
+
+    /**
+     * Wraps within a {@link Response} object a window of the entities, as
+     * returned by {@link #findAfterCode(String, int)}. If there could be more
+     * entities the response has the {@link #NEXT_CURSOR_HEADER} header with
+     * the value to use as <code>after</code> in the next request.
+     *
+     * @param limit
+     *            the size of the window. If it is <code>null</code>
+     *            {@link #DEFAULT_WINDOW_SIZE} is used. It can't be greater
+     *            than {@link #MAX_WINDOW_SIZE}.
+     * @param toListDTO
+     *            builds the list DTO returned to the client
+     */
+    protected Response getDTOsWindow(String after, Integer limit, Function<List<DTO>, ?> toListDTO) {
+        int size = limit == null ? DEFAULT_WINDOW_SIZE : limit;
+        if (size <= 0 || size > MAX_WINDOW_SIZE) {
+            return Response.status(Status.BAD_REQUEST).build();
+        }
+
+        Window<DTO> window = readWindow(after, size);
+        ResponseBuilder result = Response.ok(toListDTO.apply(window.dtos));
+        if (window.nextCursor != null) {
+            result.header(NEXT_CURSOR_HEADER, window.nextCursor);
+        }
+
+        return result.build();
+    }
+
+    /**
+     * Returns the same document as marshalling the list DTO with all the
+     * entities but writing it while the entities are read. They are read in
+     * windows of {@link #STREAMING_WINDOW_SIZE} entities, each one in its own
+     * read only transaction, so the loaded entities and DTOs are discarded
+     * after writing them and memory doesn't grow with the number of entities.
+     *
+     * The method returning it must not be transactional, as it's written after
+     * it returns.
+     *
+     * @param emptyListDTO
+     *            an instance of the list DTO, used to get the root element of
+     *            the document
+     */
+    protected StreamingOutput streamAll(final Object emptyListDTO) {
+        return new StreamingOutput() {
+
+            @Override
+            public void write(OutputStream output) throws IOException {
+                try {
+                    JAXBContext context = getStreamingContext(emptyListDTO.getClass());
+                    Marshaller marshaller = context.createMarshaller();
+                    marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+
+                    XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(output, "UTF-8");
+                    writer.writeStartDocument("UTF-8", "1.0");
+                    writeStartElement(writer, context.createJAXBIntrospector().getElementName(emptyListDTO));
+
+                    String cursor = null;
+                    do {
+                        Window<DTO> window = readWindowOnTransaction(cursor);
+                        for (DTO each : window.dtos) {
+                            marshaller.marshal(each, writer);
+                        }
+                        writer.flush();
+                        cursor = window.nextCursor;
+                    } while (cursor != null);
+
+                    writer.writeEndElement();
+                    writer.writeEndDocument();
+                    writer.flush();
+                } catch (JAXBException | XMLStreamException e) {
+                    throw new IOException(e);
+                }
+            }
+
+        };
+    }
+
+    private static JAXBContext getStreamingContext(Class<?> listDTOClass) throws JAXBException {
+        JAXBContext result = streamingContexts.get(listDTOClass);
+        if (result == null) {
+            result = JAXBContext.newInstance(listDTOClass);
+            JAXBContext previous = streamingContexts.putIfAbsent(listDTOClass, result);
+            if (previous != null) {
+                result = previous;
+            }
+        }
+
+        return result;
+    }
+
+    private static void writeStartElement(XMLStreamWriter writer, QName name) throws XMLStreamException {
+        if (name.getNamespaceURI().isEmpty()) {
+            writer.writeStartElement(name.getLocalPart());
+        } else {
+            writer.setDefaultNamespace(name.getNamespaceURI());
+            writer.writeStartElement(name.getNamespaceURI(), name.getLocalPart());
+            writer.writeDefaultNamespace(name.getNamespaceURI());
+        }
+    }
+
+    private Window<DTO> readWindowOnTransaction(final String after) {
+        return transactionService.runOnReadOnlyTransaction(new IOnTransaction<Window<DTO>>() {
+
+            @Override
+            public Window<DTO> execute() {
+                return readWindow(after, STREAMING_WINDOW_SIZE);
+            }
+
+        });
+    }
+
     /**
      * It saves (inserts or updates) a list of entities. Each entity is
      * saved in a separate transaction.
+     *
+     * If {@link #isBulkImportAllowed()}, big lists are split in chunks of
+     * {@link #BULK_IMPORT_CHUNK_SIZE} entities saved concurrently, each chunk
+     * in a transaction. The entities of a chunk that fails are saved again
+     * each one in a separate transaction, so the constraint violations
+     * reported are the same.
      */
     protected InstanceConstraintViolationsListDTO save(
         List<? extends DTO> entityDTOs) {
 
+        if (isBulkImportAllowed()
+                && entityDTOs.size() > BULK_IMPORT_CHUNK_SIZE
+                && !hasRepeatedUniqueKeys(entityDTOs)) {
+            return new InstanceConstraintViolationsListDTO(
+                saveInChunks(entityDTOs));
+        }
+
+        return new InstanceConstraintViolationsListDTO(
+            saveOneByOne(entityDTOs, 1));
+
+    }
+
+    /**
+     * If it returns <code>true</code>, {@link #save(List)} could save several
+     * entities concurrently and in the same transaction. It must only be
+     * allowed if saving an entity doesn't depend on the other entities of
+     * the list, apart from the keys returned by {@link #getUniqueKeys}.
+     *
+     * Default implementation returns <code>false</code>.
+     */
+    protected boolean isBulkImportAllowed() {
+        return false;
+    }
+
+    /**
+     * It returns the values of the DTO that must be unique among the
+     * entities, as they are checked against the ones already saved. If two
+     * DTOs of a list share any of them, the list is saved entity by entity.
+     *
+     * Default implementation returns the code.
+     */
+    protected Collection<String> getUniqueKeys(DTO entityDTO) {
+        return Collections.singletonList(toKey(entityDTO.code));
+    }
+
+    protected static String toKey(String value) {
+        return value == null ? null : value.trim().toLowerCase();
+    }
+
+    private boolean hasRepeatedUniqueKeys(List<? extends DTO> entityDTOs) {
+        Set<String> keys = new HashSet<String>();
+        for (DTO entityDTO : entityDTOs) {
+            for (String each : getUniqueKeys(entityDTO)) {
+                if (each != null && !keys.add(each)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<InstanceConstraintViolationsDTO> saveOneByOne(
+        List<? extends DTO> entityDTOs, long firstNumItem) {
+
         List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList =
             new ArrayList<InstanceConstraintViolationsDTO>();
-        long numItem = 1;
+        long numItem = firstNumItem;
 
         for (DTO entityDTO : entityDTOs) {
 
@@ -101,8 +365,135 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
 
         }
 
-        return new InstanceConstraintViolationsListDTO(
-            instanceConstraintViolationsList);
+        return instanceConstraintViolationsList;
+
+    }
+
+    private List<InstanceConstraintViolationsDTO> saveInChunks(
+        List<? extends DTO> entityDTOs) {
+
+        ExecutorService executor =
+            new DelegatingSecurityContextExecutorService(bulkImportExecutor);
+        List<Future<List<InstanceConstraintViolationsDTO>>> chunks =
+            new ArrayList<Future<List<InstanceConstraintViolationsDTO>>>();
+
+        for (int i = 0; i < entityDTOs.size(); i += BULK_IMPORT_CHUNK_SIZE) {
+            final List<? extends DTO> chunk = entityDTOs.subList(i,
+                Math.min(i + BULK_IMPORT_CHUNK_SIZE, entityDTOs.size()));
+            final long firstNumItem = i + 1;
+
+            chunks.add(executor.submit(
+                new Callable<List<InstanceConstraintViolationsDTO>>() {
+
+                    @Override
+                    public List<InstanceConstraintViolationsDTO> call() {
+                        return saveChunk(chunk, firstNumItem);
+                    }
+
+                }));
+        }
+
+        List<InstanceConstraintViolationsDTO> result =
+            new ArrayList<InstanceConstraintViolationsDTO>();
+        for (Future<List<InstanceConstraintViolationsDTO>> each : chunks) {
+            result.addAll(getChunkResult(each));
+        }
+
+        return result;
+
+    }
+
+    private List<InstanceConstraintViolationsDTO> getChunkResult(
+        Future<List<InstanceConstraintViolationsDTO>> chunk) {
+
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
+    }
+
+    /**
+     * It saves all the entities of the chunk in a new transaction. If any of
+     * them fails, the transaction is rolled back and they are saved one by one
+     * to report the failures as {@link #saveOneByOne(List, long)} does.
+     */
+    private List<InstanceConstraintViolationsDTO> saveChunk(
+        final List<? extends DTO> chunk, long firstNumItem) {
+
+        IOnTransaction<Void> save = new IOnTransaction<Void>() {
+
+            @Override
+            public Void execute() {
+
+                prefetchReferencedEntities(chunk);
+                try {
+                    Map<String, E> existing = findExistingByCode(chunk);
+                    for (DTO each : chunk) {
+                        insertOrUpdateOnCurrentTransaction(
+                            each, existing.get(toKey(each.code)));
+                    }
+                } finally {
+                    clearReferencedEntities();
+                }
+
+                return null;
+
+            }
+
+        };
+
+        try {
+            transactionService.runOnAnotherTransaction(save);
+            return Collections.emptyList();
+        } catch (RuntimeException e) {
+            return saveOneByOne(chunk, firstNumItem);
+        }
+
+    }
+
+    /**
+     * It allows to load at once the entities referenced by the DTOs of a
+     * chunk saved by {@link #saveInChunks(List)}, so {@link #toEntity} and
+     * {@link #updateEntity} don't look them up for each DTO. It's called in
+     * the transaction of the chunk, by the thread saving it.
+     *
+     * Default implementation is empty.
+     */
+    protected void prefetchReferencedEntities(List<? extends DTO> chunk) {
+
+    }
+
+    /**
+     * It's called when the chunk passed to
+     * {@link #prefetchReferencedEntities(List)} is done, even if it failed,
+     * as the loaded entities mustn't be used outside its transaction.
+     *
+     * Default implementation is empty.
+     */
+    protected void clearReferencedEntities() {
+
+    }
+
+    private Map<String, E> findExistingByCode(List<? extends DTO> entityDTOs) {
+
+        List<String> codes = new ArrayList<String>();
+        for (DTO each : entityDTOs) {
+            if (!StringUtils.isBlank(each.code)) {
+                codes.add(each.code);
+            }
+        }
+
+        Map<String, E> result = new HashMap<String, E>();
+        for (E each : getIntegrationEntityDAO().findByCodes(codes)) {
+            result.put(toKey(each.getCode()), each);
+        }
+
+        return result;
 
     }
 
@@ -126,24 +517,16 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
             public Void execute() {
 
                 E entity = null;
-                IIntegrationEntityDAO<E> entityDAO =
-                    getIntegrationEntityDAO();
 
                 /* Insert or update? */
                 try {
-                    entity = entityDAO.findByCode(entityDTO.code);
-                    updateEntity(entity, entityDTO);
+                    entity = getIntegrationEntityDAO().findByCode(
+                        entityDTO.code);
                 } catch (InstanceNotFoundException e) {
-                    entity = toEntity(entityDTO);
+                    entity = null;
                 }
 
-                /*
-                 * Validate and save (insert or update) the entity.
-                 */
-                entity.validate();
-                beforeSaving(entity);
-                entityDAO.saveWithoutValidating(entity);
-                afterSaving(entity);
+                insertOrUpdateOnCurrentTransaction(entityDTO, entity);
 
                 return null;
 
@@ -155,6 +538,28 @@ public abstract class GenericRESTService<E extends IntegrationEntity,
 
     }
 
+    /**
+     * It updates <code>entity</code> from the DTO or, if it's
+     * <code>null</code>, creates a new one. Then it validates and saves it.
+     */
+    private void insertOrUpdateOnCurrentTransaction(DTO entityDTO, E entity) {
+
+        if (entity != null) {
+            updateEntity(entity, entityDTO);
+        } else {
+            entity = toEntity(entityDTO);
+        }
+
+        /*
+         * Validate and save (insert or update) the entity.
+         */
+        entity.validate();
+        beforeSaving(entity);
+        getIntegrationEntityDAO().saveWithoutValidating(entity);
+        afterSaving(entity);
+
+    }
+
     /**
      * It allows to add operations that must be done before saving.
      *
@@ -37,6 +37,19 @@ public interface IOrderElementService {
 
     OrderListDTO getOrders();
 
+    /**
+     * Returns at most <code>limit</code> orders with code after
+     * <code>after</code>. The cursor for the next window is sent in the
+     * <code>X-Next-Cursor</code> header.
+     */
+    Response getOrdersWindow(String after, Integer limit);
+
+    /**
+     * Returns the same as {@link #getOrders()} but writing the orders while
+     * they are read.
+     */
+    Response streamOrders();
+
     Response getOrderElement(String code);
 
     Response removeOrderElement(String code);
@@ -29,6 +29,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -83,6 +84,21 @@ public class OrderElementServiceREST
         return new OrderListDTO(findAll());
     }
 
+    @Override
+    @GET
+    @Path("/window/")
+    @Transactional(readOnly = true)
+    public Response getOrdersWindow(@QueryParam("after") String after, @QueryParam("limit") Integer limit) {
+        return getDTOsWindow(after, limit, OrderListDTO::new);
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamOrders() {
+        return Response.ok(streamAll(new OrderListDTO())).build();
+    }
+
     @Override
     @POST
     @Consumes("application/xml")
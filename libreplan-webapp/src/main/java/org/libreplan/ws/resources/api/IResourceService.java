@@ -43,6 +43,19 @@ public interface IResourceService {
 
     public ResourceListDTO getResources();
 
+    /**
+     * Returns at most <code>limit</code> resources with code after
+     * <code>after</code>. The cursor for the next window is sent in the
+     * <code>X-Next-Cursor</code> header.
+     */
+    public Response getResourcesWindow(String after, Integer limit);
+
+    /**
+     * Returns the same as {@link #getResources()} but writing the resources
+     * while they are read.
+     */
+    public Response streamResources();
+
     Response getResource(String code);
 
 }
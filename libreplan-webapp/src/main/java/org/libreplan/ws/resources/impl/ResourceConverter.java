@@ -27,11 +27,13 @@ import java.util.Date;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.calendars.entities.CalendarAvailability;
 import org.libreplan.business.calendars.entities.ResourceCalendar;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.MultipleInstancesException;
 import org.libreplan.business.common.exceptions.ValidationException;
+import org.libreplan.business.costcategories.entities.CostCategory;
 import org.libreplan.business.costcategories.entities.ResourcesCostCategoryAssignment;
 import org.libreplan.business.resources.entities.CriterionSatisfaction;
 import org.libreplan.business.resources.entities.CriterionType;
@@ -65,6 +67,14 @@ public class ResourceConverter {
     }
 
     public static final Resource toEntity(ResourceDTO resourceDTO) {
+        return toEntity(resourceDTO, ResourceReferences.NONE);
+    }
+
+    /**
+     * The calendars, criterion types and cost categories referenced by the DTO
+     * are taken from <code>references</code> if they were loaded there.
+     */
+    static Resource toEntity(ResourceDTO resourceDTO, ResourceReferences references) {
 
         checkResourceDTOType(resourceDTO);
 
@@ -76,14 +86,18 @@ public class ResourceConverter {
             resource = createResourceWithBasicData((WorkerDTO) resourceDTO);
         }
 
-        addCriterionSatisfactions(resource, resourceDTO.criterionSatisfactions);
-        setResourceCalendar(resource, resourceDTO.calendar);
-        addResourcesCostCategoryAssignments(resource, resourceDTO.resourcesCostCategoryAssignments);
+        addCriterionSatisfactions(resource, resourceDTO.criterionSatisfactions, references);
+        setResourceCalendar(resource, resourceDTO.calendar, references);
+        addResourcesCostCategoryAssignments(resource, resourceDTO.resourcesCostCategoryAssignments, references);
 
         return resource;
     }
 
     public static final void updateResource(Resource resource, ResourceDTO resourceDTO) {
+        updateResource(resource, resourceDTO, ResourceReferences.NONE);
+    }
+
+    static void updateResource(Resource resource, ResourceDTO resourceDTO, ResourceReferences references) {
 
         checkResourceDTOType(resourceDTO);
 
@@ -91,9 +105,9 @@ public class ResourceConverter {
 
         updateResourceCalendar(resource, resourceDTO.calendar);
 
-        updateCriterionSatisfactions(resource, resourceDTO.criterionSatisfactions);
+        updateCriterionSatisfactions(resource, resourceDTO.criterionSatisfactions, references);
 
-        updateResourcesCostCategoryAssignments(resource, resourceDTO.resourcesCostCategoryAssignments);
+        updateResourcesCostCategoryAssignments(resource, resourceDTO.resourcesCostCategoryAssignments, references);
 
     }
 
@@ -116,17 +130,19 @@ public class ResourceConverter {
 
     }
 
-    private static void addCriterionSatisfactions(Resource resource, List<CriterionSatisfactionDTO> criterionSatisfactions) {
+    private static void addCriterionSatisfactions(Resource resource, List<CriterionSatisfactionDTO> criterionSatisfactions,
+                                                  ResourceReferences references) {
 
         for (CriterionSatisfactionDTO criterionSatisfactionDTO : criterionSatisfactions) {
 
-            CriterionSatisfaction criterionSatisfaction = toEntity(criterionSatisfactionDTO, resource);
+            CriterionSatisfaction criterionSatisfaction = toEntity(criterionSatisfactionDTO, resource, references);
 
             resource.addUnvalidatedSatisfaction(criterionSatisfaction);
         }
     }
 
-    private static CriterionSatisfaction toEntity(CriterionSatisfactionDTO criterionSatisfactionDTO, Resource resource) {
+    private static CriterionSatisfaction toEntity(CriterionSatisfactionDTO criterionSatisfactionDTO, Resource resource,
+                                                  ResourceReferences references) {
 
         if (StringUtils.isBlank(criterionSatisfactionDTO.criterionTypeName)) {
             throw new ValidationException("criterion type name not specified");
@@ -138,6 +154,17 @@ public class ResourceConverter {
 
         try {
 
+            CriterionType criterionType = references.getCriterionType(criterionSatisfactionDTO.criterionTypeName);
+            if (criterionType != null) {
+                return CriterionSatisfaction.createUnvalidated(
+                    StringUtils.trim(criterionSatisfactionDTO.code),
+                    criterionType,
+                    StringUtils.trim(criterionSatisfactionDTO.criterionName),
+                    resource,
+                    DateConverter.toLocalDate(criterionSatisfactionDTO.startDate),
+                    DateConverter.toLocalDate(criterionSatisfactionDTO.endDate));
+            }
+
             return CriterionSatisfaction.createUnvalidated(
                 StringUtils.trim(criterionSatisfactionDTO.code),
                 StringUtils.trim(criterionSatisfactionDTO.criterionTypeName),
@@ -158,14 +185,20 @@ public class ResourceConverter {
 
     }
 
-    private static void setResourceCalendar(Resource resource, ResourceCalendarDTO calendar) {
+    private static void setResourceCalendar(Resource resource, ResourceCalendarDTO calendar,
+                                            ResourceReferences references) {
         String calendarCode = null;
         if (calendar != null) {
             calendarCode = calendar.parent;
         }
 
         try {
-            resource.setResourceCalendar(StringUtils.trim(calendarCode));
+            BaseCalendar parent = references.getCalendar(calendarCode);
+            if (parent != null) {
+                resource.setCalendar(parent.newDerivedResourceCalendar());
+            } else {
+                resource.setResourceCalendar(StringUtils.trim(calendarCode));
+            }
 
             // Copy the data of the resource calendar DTO
             updateBasicPropertiesResourceCalendar(calendar, resource.getCalendar());
@@ -199,21 +232,30 @@ public class ResourceConverter {
     }
 
     private static void addResourcesCostCategoryAssignments(
-        Resource resource, List<ResourcesCostCategoryAssignmentDTO> resourcesCostCategoryAssignments) {
+        Resource resource, List<ResourcesCostCategoryAssignmentDTO> resourcesCostCategoryAssignments,
+        ResourceReferences references) {
 
         for (ResourcesCostCategoryAssignmentDTO assignmentDTO : resourcesCostCategoryAssignments) {
-            ResourcesCostCategoryAssignment assignment = toEntity(assignmentDTO, resource);
+            ResourcesCostCategoryAssignment assignment = toEntity(assignmentDTO, resource, references);
             resource.addUnvalidatedResourcesCostCategoryAssignment(assignment);
         }
     }
 
     private static ResourcesCostCategoryAssignment toEntity(
-        ResourcesCostCategoryAssignmentDTO assignmentDTO, Resource resource) {
+        ResourcesCostCategoryAssignmentDTO assignmentDTO, Resource resource, ResourceReferences references) {
 
         if (StringUtils.isBlank(assignmentDTO.costCategoryName)) {
             throw new ValidationException("cost category name not specified");
         }
 
+        CostCategory costCategory = references.getCostCategory(assignmentDTO.costCategoryName);
+        if (costCategory != null) {
+            return ResourcesCostCategoryAssignment.createUnvalidated(
+                assignmentDTO.code, costCategory, resource,
+                DateConverter.toLocalDate(assignmentDTO.startDate),
+                DateConverter.toLocalDate(assignmentDTO.endDate));
+        }
+
         try {
             return ResourcesCostCategoryAssignment.createUnvalidated(
                 assignmentDTO.code,
@@ -262,7 +304,7 @@ public class ResourceConverter {
     }
 
     private static void updateCriterionSatisfactions(
-            Resource resource, List<CriterionSatisfactionDTO> criterionSatisfactions) {
+            Resource resource, List<CriterionSatisfactionDTO> criterionSatisfactions, ResourceReferences references) {
 
         for (CriterionSatisfactionDTO i : criterionSatisfactions) {
 
@@ -271,7 +313,7 @@ public class ResourceConverter {
                 updateCriterionSatisfaction(criterionSatisfaction, i);
 
             } catch (InstanceNotFoundException e) {
-                CriterionSatisfaction criterionSatisfaction = toEntity(i, resource);
+                CriterionSatisfaction criterionSatisfaction = toEntity(i, resource, references);
                 resource.addUnvalidatedSatisfaction(criterionSatisfaction);
             }
 
@@ -303,7 +345,8 @@ public class ResourceConverter {
     }
 
     private static void updateResourcesCostCategoryAssignments(
-        Resource resource, List<ResourcesCostCategoryAssignmentDTO> resourcesCostCategoryAssignments) {
+        Resource resource, List<ResourcesCostCategoryAssignmentDTO> resourcesCostCategoryAssignments,
+        ResourceReferences references) {
 
         for (ResourcesCostCategoryAssignmentDTO i : resourcesCostCategoryAssignments) {
 
@@ -314,7 +357,7 @@ public class ResourceConverter {
 
             } catch (InstanceNotFoundException e) {
 
-                ResourcesCostCategoryAssignment assignment = toEntity(i, resource);
+                ResourcesCostCategoryAssignment assignment = toEntity(i, resource, references);
 
                 resource.addUnvalidatedResourcesCostCategoryAssignment(assignment);
 
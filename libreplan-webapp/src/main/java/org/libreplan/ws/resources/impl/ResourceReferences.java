@@ -0,0 +1,139 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.ws.resources.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.costcategories.daos.ICostCategoryDAO;
+import org.libreplan.business.costcategories.entities.CostCategory;
+import org.libreplan.business.resources.daos.ICriterionTypeDAO;
+import org.libreplan.business.resources.entities.CriterionType;
+import org.libreplan.ws.resources.api.CriterionSatisfactionDTO;
+import org.libreplan.ws.resources.api.ResourceDTO;
+import org.libreplan.ws.resources.api.ResourcesCostCategoryAssignmentDTO;
+
+/**
+ * Entities referenced by a list of resource DTOs, loaded with a query per
+ * type so {@link ResourceConverter} doesn't look them up for each DTO.<br />
+ *
+ * They belong to the session they were loaded in, so they must only be used
+ * in its transaction. The references not found here are looked up as usual.
+ */
+class ResourceReferences {
+
+    static final ResourceReferences NONE = new ResourceReferences(
+            Collections.<String, BaseCalendar> emptyMap(),
+            Collections.<String, CriterionType> emptyMap(),
+            Collections.<String, CostCategory> emptyMap());
+
+    static ResourceReferences load(List<? extends ResourceDTO> resourceDTOs,
+            IBaseCalendarDAO baseCalendarDAO,
+            ICriterionTypeDAO criterionTypeDAO,
+            ICostCategoryDAO costCategoryDAO) {
+
+        Set<String> calendarCodes = new HashSet<String>();
+        Set<String> criterionTypeNames = new HashSet<String>();
+        Set<String> costCategoryNames = new HashSet<String>();
+
+        for (ResourceDTO each : resourceDTOs) {
+            if (each.calendar != null) {
+                addIfNotBlank(calendarCodes, each.calendar.parent);
+            }
+            for (CriterionSatisfactionDTO satisfaction : each.criterionSatisfactions) {
+                addIfNotBlank(criterionTypeNames, satisfaction.criterionTypeName);
+            }
+            for (ResourcesCostCategoryAssignmentDTO assignment : each.resourcesCostCategoryAssignments) {
+                addIfNotBlank(costCategoryNames, assignment.costCategoryName);
+            }
+        }
+
+        Map<String, BaseCalendar> calendars = new HashMap<String, BaseCalendar>();
+        for (BaseCalendar each : baseCalendarDAO.findByCodes(calendarCodes)) {
+            calendars.put(toKey(each.getCode()), each);
+        }
+
+        Map<String, CriterionType> criterionTypes = new HashMap<String, CriterionType>();
+        for (CriterionType each : criterionTypeDAO.findByNamesWithCriterions(criterionTypeNames)) {
+            criterionTypes.put(toKey(each.getName()), each);
+        }
+
+        Map<String, CostCategory> costCategories = new HashMap<String, CostCategory>();
+        for (CostCategory each : costCategoryDAO.findByNames(costCategoryNames)) {
+            costCategories.put(toKey(each.getName()), each);
+        }
+
+        return new ResourceReferences(calendars, criterionTypes, costCategories);
+
+    }
+
+    private static void addIfNotBlank(Set<String> values, String value) {
+        if (!StringUtils.isBlank(value)) {
+            values.add(value);
+        }
+    }
+
+    private static String toKey(String value) {
+        return value == null ? null : value.trim().toLowerCase();
+    }
+
+    private final Map<String, BaseCalendar> calendarsByCode;
+
+    private final Map<String, CriterionType> criterionTypesByName;
+
+    private final Map<String, CostCategory> costCategoriesByName;
+
+    private ResourceReferences(Map<String, BaseCalendar> calendarsByCode,
+            Map<String, CriterionType> criterionTypesByName,
+            Map<String, CostCategory> costCategoriesByName) {
+        this.calendarsByCode = calendarsByCode;
+        this.criterionTypesByName = criterionTypesByName;
+        this.costCategoriesByName = costCategoriesByName;
+    }
+
+    /**
+     * @return <code>null</code> if it wasn't loaded
+     */
+    BaseCalendar getCalendar(String code) {
+        return code == null ? null : calendarsByCode.get(toKey(code));
+    }
+
+    /**
+     * @return <code>null</code> if it wasn't loaded
+     */
+    CriterionType getCriterionType(String name) {
+        return name == null ? null : criterionTypesByName.get(toKey(name));
+    }
+
+    /**
+     * @return <code>null</code> if it wasn't loaded
+     */
+    CostCategory getCostCategory(String name) {
+        return name == null ? null : costCategoriesByName.get(toKey(name));
+    }
+
+}
@@ -22,6 +22,7 @@
 package org.libreplan.ws.resources.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.List;
 
@@ -30,16 +31,24 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang3.StringUtils;
+import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
+import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.IntegrationEntity;
+import org.libreplan.business.common.daos.IConfigurationDAO;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
+import org.libreplan.business.common.entities.Configuration;
 import org.libreplan.business.common.entities.EntityNameEnum;
+import org.libreplan.business.common.entities.IEntityCodeAllocator;
 import org.libreplan.business.common.exceptions.ValidationException;
+import org.libreplan.business.costcategories.daos.ICostCategoryDAO;
 import org.libreplan.business.costcategories.entities.ResourcesCostCategoryAssignment;
+import org.libreplan.business.resources.daos.ICriterionTypeDAO;
 import org.libreplan.business.resources.daos.IMachineDAO;
 import org.libreplan.business.resources.daos.IResourceDAO;
 import org.libreplan.business.resources.daos.IWorkerDAO;
@@ -51,6 +60,7 @@ import org.libreplan.ws.common.impl.RecoverableErrorException;
 import org.libreplan.ws.resources.api.IResourceService;
 import org.libreplan.ws.resources.api.ResourceDTO;
 import org.libreplan.ws.resources.api.ResourceListDTO;
+import org.libreplan.ws.resources.api.WorkerDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -73,6 +83,26 @@ public class ResourceServiceREST
     @Autowired
     private IEntitySequenceDAO entitySequenceDAO;
 
+    @Autowired
+    private IEntityCodeAllocator entityCodeAllocator;
+
+    @Autowired
+    private IConfigurationDAO configurationDAO;
+
+    @Autowired
+    private IBaseCalendarDAO baseCalendarDAO;
+
+    @Autowired
+    private ICriterionTypeDAO criterionTypeDAO;
+
+    @Autowired
+    private ICostCategoryDAO costCategoryDAO;
+
+    /**
+     * The references loaded for the chunk being saved by each thread
+     */
+    private final ThreadLocal<ResourceReferences> chunkReferences = new ThreadLocal<ResourceReferences>();
+
     @Override
     @POST
     @Consumes("application/xml")
@@ -83,12 +113,54 @@ public class ResourceServiceREST
 
     }
 
+    /**
+     * Resources can be imported in bulk unless the number of resources is
+     * limited, as the limit is checked against the resources already saved.
+     */
+    @Override
+    protected boolean isBulkImportAllowed() {
+        Integer maxResources = transactionService.runOnReadOnlyTransaction(new IOnTransaction<Integer>() {
+
+            @Override
+            public Integer execute() {
+                Configuration configuration = configurationDAO.getConfiguration();
+                return configuration == null ? null : configuration.getMaxResources();
+            }
+        });
+
+        return maxResources == null || maxResources <= 0;
+    }
+
+    @Override
+    protected Collection<String> getUniqueKeys(ResourceDTO entityDTO) {
+        List<String> result = new ArrayList<String>(super.getUniqueKeys(entityDTO));
+        if (entityDTO instanceof WorkerDTO && !StringUtils.isBlank(((WorkerDTO) entityDTO).nif)) {
+            result.add("nif:" + toKey(((WorkerDTO) entityDTO).nif));
+        }
+        return result;
+    }
+
+    @Override
+    protected void prefetchReferencedEntities(List<? extends ResourceDTO> chunk) {
+        chunkReferences.set(ResourceReferences.load(chunk, baseCalendarDAO, criterionTypeDAO, costCategoryDAO));
+    }
+
+    @Override
+    protected void clearReferencedEntities() {
+        chunkReferences.remove();
+    }
+
+    private ResourceReferences getReferences() {
+        ResourceReferences references = chunkReferences.get();
+        return references == null ? ResourceReferences.NONE : references;
+    }
+
     @Override
     @Transactional
     protected Resource toEntity(ResourceDTO entityDTO)
         throws ValidationException, RecoverableErrorException {
 
-        Resource resource = ResourceConverter.toEntity(entityDTO);
+        Resource resource = ResourceConverter.toEntity(entityDTO, getReferences());
 
         // set the generated code to its criterion satisfaction, its resources
         // cost categories assignment and its resource calendar
@@ -112,7 +184,7 @@ public class ResourceServiceREST
     protected void updateEntity(Resource entity, ResourceDTO entityDTO)
         throws ValidationException, RecoverableErrorException {
 
-        ResourceConverter.updateResource(entity, entityDTO);
+        ResourceConverter.updateResource(entity, entityDTO, getReferences());
         // set the generated code to its criterion satisfaction, its resources
         // cost categories assignment and its resource calendar
         generateCodes(entity);
@@ -139,6 +211,26 @@ public class ResourceServiceREST
         return toDTO(result);
     }
 
+    @Override
+    protected List<Resource> findAfterCode(String after, int maxResults) {
+        return resourceDAO.getRealResourcesAfterCode(after, maxResults);
+    }
+
+    @Override
+    @GET
+    @Path("/window/")
+    @Transactional(readOnly = true)
+    public Response getResourcesWindow(@QueryParam("after") String after, @QueryParam("limit") Integer limit) {
+        return getDTOsWindow(after, limit, ResourceListDTO::new);
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamResources() {
+        return Response.ok(streamAll(new ResourceListDTO())).build();
+    }
+
     private void generateCodes(Resource resource) {
         // set autogenerated code to CriterionSatisfaction
         for (CriterionSatisfaction satisfaction : resource
@@ -173,7 +265,7 @@ public class ResourceServiceREST
 
     private void setDefaultCode(EntityNameEnum entityName,
             IntegrationEntity entity) throws ConcurrentModificationException {
-        String code = entitySequenceDAO.getNextEntityCode(entityName);
+        String code = entityCodeAllocator.nextCode(entityName);
         if (code == null) {
             throw new ConcurrentModificationException(
                     "Could not get code, please try again later");
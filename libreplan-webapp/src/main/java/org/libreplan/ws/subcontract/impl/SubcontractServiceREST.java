@@ -44,6 +44,7 @@ import org.libreplan.business.common.daos.IConfigurationDAO;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
 import org.libreplan.business.common.entities.EntityNameEnum;
 import org.libreplan.business.common.entities.EntitySequence;
+import org.libreplan.business.common.entities.IEntityCodeAllocator;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
 import org.libreplan.business.externalcompanies.daos.ICustomerCommunicationDAO;
@@ -102,6 +103,9 @@ public class SubcontractServiceREST implements ISubcontractService {
     @Autowired
     private IEntitySequenceDAO entitySequenceDAO;
 
+    @Autowired
+    private IEntityCodeAllocator entityCodeAllocator;
+
     @Autowired
     private IScenarioDAO scenarioDAO;
 
@@ -308,7 +312,7 @@ public class SubcontractServiceREST implements ISubcontractService {
         addOrderToDerivedScenarios(current, version, order);
 
         order.setCodeAutogenerated(true);
-        String code = entitySequenceDAO.getNextEntityCode(EntityNameEnum.ORDER);
+        String code = entityCodeAllocator.nextCode(EntityNameEnum.ORDER);
         if (code == null) {
             throw new ViolationError(subcontractedTaskDataDTO.orderElementDTO.code,
                     "unable to generate the code for the new project, please try again later");
@@ -34,6 +34,19 @@ public interface IWorkReportService {
 
     public WorkReportListDTO getWorkReports();
 
+    /**
+     * Returns at most <code>limit</code> work reports with code after
+     * <code>after</code>. The cursor for the next window is sent in the
+     * <code>X-Next-Cursor</code> header.
+     */
+    public Response getWorkReportsWindow(String after, Integer limit);
+
+    /**
+     * Returns the same as {@link #getWorkReports()} but writing the work
+     * reports while they are read.
+     */
+    public Response streamWorkReports();
+
     public InstanceConstraintViolationsListDTO addWorkReports(
             WorkReportListDTO workReportListDTO);
 
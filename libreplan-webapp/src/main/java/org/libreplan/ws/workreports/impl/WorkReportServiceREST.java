@@ -31,6 +31,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -81,6 +82,21 @@ public class WorkReportServiceREST extends GenericRESTService<WorkReport, WorkRe
         return new WorkReportListDTO(findAll());
     }
 
+    @Override
+    @GET
+    @Path("/window/")
+    @Transactional(readOnly = true)
+    public Response getWorkReportsWindow(@QueryParam("after") String after, @QueryParam("limit") Integer limit) {
+        return getDTOsWindow(after, limit, WorkReportListDTO::new);
+    }
+
+    @Override
+    @GET
+    @Path("/stream/")
+    public Response streamWorkReports() {
+        return Response.ok(streamAll(new WorkReportListDTO())).build();
+    }
+
     @Override
     @POST
     @Consumes("application/xml")
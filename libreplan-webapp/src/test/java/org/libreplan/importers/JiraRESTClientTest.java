@@ -19,12 +19,20 @@
 
 package org.libreplan.importers;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import javax.ws.rs.ProcessingException;
@@ -35,6 +43,10 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.libreplan.importers.jira.IssueDTO;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
 /**
  * Test for {@link JiraRESTClient }
  *
@@ -102,4 +114,74 @@ public class JiraRESTClientTest {
 
         assertTrue(issues.size() > 0);
     }
+
+    @Test
+    public void testGetIssuesReadsAllThePagesFromAStubServer() throws IOException {
+        final int total = 5;
+        final int pageSize = 2;
+        final List<String> queries = new ArrayList<>();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/" + JiraRESTClient.PATH_AUTH_SESSION, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, "{}");
+            }
+        });
+        server.createContext("/" + JiraRESTClient.PATH_SEARCH, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+                queries.add(parameters.get("jql"));
+
+                // Like JIRA, the page size is limited regardless of maxResults
+                int startAt = Integer.parseInt(parameters.get("startAt"));
+                StringBuilder issues = new StringBuilder();
+                for (int i = startAt; i < Math.min(startAt + pageSize, total); i++) {
+                    if ( i > startAt ) {
+                        issues.append(",");
+                    }
+                    issues.append("{\"id\":").append(i).append(",\"key\":\"LP-").append(i)
+                            .append("\",\"fields\":{\"summary\":\"Issue ").append(i).append("\"}}");
+                }
+                respond(exchange, "{\"startAt\":" + startAt + ",\"maxResults\":" + pageSize +
+                        ",\"total\":" + total + ",\"issues\":[" + issues + "]}");
+            }
+        });
+        server.start();
+
+        try {
+            String url = "http://localhost:" + server.getAddress().getPort() + "/";
+            List<IssueDTO> issues = JiraRESTClient.getIssues(
+                    url, "user", "password", JiraRESTClient.PATH_SEARCH, getJiraLabel("label"));
+
+            assertEquals(total, issues.size());
+            for (int i = 0; i < total; i++) {
+                assertEquals("LP-" + i, issues.get(i).getKey());
+            }
+            assertEquals(Arrays.asList(getJiraLabel("label"), getJiraLabel("label"), getJiraLabel("label")), queries);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) throws IOException {
+        Map<String, String> result = new HashMap<>();
+        for (String each : StringUtils.split(query, "&")) {
+            String[] parameter = each.split("=", 2);
+            result.put(URLDecoder.decode(parameter[0], "UTF-8"),
+                    parameter.length > 1 ? URLDecoder.decode(parameter[1], "UTF-8") : "");
+        }
+        return result;
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
 }
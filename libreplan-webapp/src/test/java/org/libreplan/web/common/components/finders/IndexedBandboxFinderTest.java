@@ -0,0 +1,176 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.common.components.finders;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.libreplan.business.common.BaseEntity;
+import org.libreplan.business.util.SearchIndex;
+import org.zkoss.zul.ListModel;
+import org.zkoss.zul.SimpleListModel;
+
+/**
+ * Tests for {@link IndexedBandboxFinder}.
+ */
+public class IndexedBandboxFinderTest {
+
+    private static final int ENTITIES = 250;
+
+    private static class Named extends BaseEntity {
+
+        private final String name;
+
+        private Named(Long id, String name) {
+            setId(id);
+            this.name = name;
+        }
+
+    }
+
+    private static class NamedFinder extends IndexedBandboxFinder<Named> {
+
+        private final Map<Long, Named> byId = new HashMap<>();
+
+        private final SearchIndex index;
+
+        private NamedFinder(int size) {
+            SearchIndex.Builder builder = SearchIndex.builder();
+            for (long id = 1; id <= size; id++) {
+                Named each = new Named(id, "entity " + id);
+                byId.put(id, each);
+                builder.add(id, each.name);
+            }
+            index = builder.build();
+        }
+
+        @Override
+        protected SearchIndex getSearchIndex() {
+            return index;
+        }
+
+        @Override
+        protected List<Named> findByIds(Collection<Long> ids) {
+            List<Named> result = new ArrayList<>();
+            for (Long each : ids) {
+                result.add(byId.get(each));
+            }
+            return result;
+        }
+
+        @Override
+        public boolean entryMatchesText(Object obj, String text) {
+            return ((Named) obj).name.contains(text.trim().toLowerCase());
+        }
+
+        @Override
+        public List<Named> getAll() {
+            return new ArrayList<>(byId.values());
+        }
+
+        @Override
+        public String objectToString(Object obj) {
+            return ((Named) obj).name;
+        }
+
+        @Override
+        public String[] getHeaders() {
+            return new String[] { "Name" };
+        }
+
+    }
+
+    private static List<Object> asObjects(ListModel model) {
+        List<Object> result = new ArrayList<>();
+        for (int i = 0; i < model.getSize(); i++) {
+            result.add(model.getElementAt(i));
+        }
+        return result;
+    }
+
+    private static List<String> names(ListModel model) {
+        List<String> result = new ArrayList<>();
+        for (Object each : asObjects(model)) {
+            result.add(((Named) each).name);
+        }
+        return result;
+    }
+
+    @Test
+    public void onlyTheFirstMatchingEntitiesAreOffered() {
+        NamedFinder finder = new NamedFinder(ENTITIES);
+
+        assertEquals(IndexedBandboxFinder.MAX_MATCHES, finder.getModel().getSize());
+    }
+
+    @Test
+    public void theIndexIsStillSearchedAfterAddingAnElement() {
+        NamedFinder finder = new NamedFinder(ENTITIES);
+        Named added = new Named(null, "entity new");
+
+        finder.addToModel(added);
+
+        assertEquals(asList("entity 249"), names(finder.getSubModel("entity 249")));
+        assertEquals(asList("entity 250"), names(finder.getSubModel("entity 250")));
+    }
+
+    @Test
+    public void theAddedElementsMatchingTheTextAreOfferedAfterTheIndexedOnes() {
+        NamedFinder finder = new NamedFinder(3);
+        Named added = new Named(null, "entity new");
+
+        finder.addToModel(added);
+
+        assertEquals(asList("entity 1", "entity 2", "entity 3", "entity new"), names(finder.getModel()));
+        assertEquals(asList("entity new"), names(finder.getSubModel(" NEW ")));
+        assertEquals(asList("entity 2"), names(finder.getSubModel("entity 2")));
+    }
+
+    @Test
+    public void resettingTheModelForgetsTheAddedElements() {
+        NamedFinder finder = new NamedFinder(3);
+        finder.addToModel(new Named(null, "entity new"));
+
+        finder.resetModel();
+
+        assertEquals(asList("entity 1", "entity 2", "entity 3"), names(finder.getModel()));
+    }
+
+    @Test
+    public void theElementsAreAddedToAModelSetOnTheFinder() {
+        NamedFinder finder = new NamedFinder(ENTITIES);
+        Named some = new Named(7L, "entity 7");
+        Named added = new Named(null, "entity new");
+        finder.setModel(new SimpleListModel<>(asList(some)));
+
+        finder.addToModel(added);
+
+        assertEquals(asList((Object) some, added), asObjects(finder.getModel()));
+        assertEquals(asList("entity new"), names(finder.getSubModel("new")));
+    }
+
+}
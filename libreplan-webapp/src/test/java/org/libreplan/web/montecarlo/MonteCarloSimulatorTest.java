@@ -0,0 +1,222 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.montecarlo;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.Dependency;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.planner.entities.TaskMilestone;
+import org.libreplan.business.workingday.IntraDayDate;
+
+/**
+ * Tests for {@link MonteCarloSimulator} along a path and over a
+ * {@link TasksNetwork}.
+ */
+public class MonteCarloSimulatorTest {
+
+    private static final LocalDate start = new LocalDate(2011, 3, 1);
+
+    /**
+     * Each task always takes the same days.
+     */
+    private static DurationsSamplingTable fixedDurations(int... days) {
+        double[] pessimisticUpperLimits = new double[days.length];
+        double[] normalUpperLimits = new double[days.length];
+        int[] durations = new int[days.length * 3];
+        for (int i = 0; i < days.length; i++) {
+            pessimisticUpperLimits[i] = 0.3;
+            normalUpperLimits[i] = 0.8;
+            durations[i * 3] = days[i];
+            durations[i * 3 + 1] = days[i];
+            durations[i * 3 + 2] = days[i];
+        }
+        return new DurationsSamplingTable(pessimisticUpperLimits, normalUpperLimits, durations);
+    }
+
+    private static Task taskPlannedAtTheStart() {
+        Task result = new Task();
+        result.setIntraDayStartDate(IntraDayDate.startOfDay(start));
+        return result;
+    }
+
+    private static BigDecimal all() {
+        return BigDecimal.ONE.setScale(8);
+    }
+
+    private static BigDecimal none() {
+        return BigDecimal.ZERO.setScale(8);
+    }
+
+    @Test
+    public void theTasksOfAPathAreSimulatedOneAfterAnother() {
+        MonteCarloResult result = MonteCarloSimulator
+                .alongPath(start, fixedDurations(2, 5, 3))
+                .run(1000, 1L, null);
+
+        assertThat(result.getEndDateCounts(),
+                equalTo(Collections.singletonMap(start.plusDays(10), BigDecimal.valueOf(1000))));
+        assertThat(result.getCriticalityIndex(0), equalTo(all()));
+        assertThat(result.getCriticalityIndex(2), equalTo(all()));
+    }
+
+    @Test
+    public void theSameSeedGivesTheSameResultAlongAPath() {
+        DurationsSamplingTable table = new DurationsSamplingTable(
+                new double[] { 0.3, 0.3 },
+                new double[] { 0.8, 0.8 },
+                new int[] { 6, 4, 2, 9, 6, 3 });
+
+        assertThat(MonteCarloSimulator.alongPath(start, table).run(5000, 7L, null).getEndDateCounts(),
+                equalTo(MonteCarloSimulator.alongPath(start, table).run(5000, 7L, null).getEndDateCounts()));
+    }
+
+    @Test
+    public void concurrentSimulationsGiveTheSameResultsAsOneByOne() throws Exception {
+        final DurationsSamplingTable table = new DurationsSamplingTable(
+                new double[] { 0.3, 0.3 },
+                new double[] { 0.8, 0.8 },
+                new int[] { 6, 4, 2, 9, 6, 3 });
+        Map<LocalDate, BigDecimal> expected = MonteCarloSimulator.alongPath(start, table)
+                .run(20000, 3L, null).getEndDateCounts();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Map<LocalDate, BigDecimal>>> simulations = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                simulations.add(executor.submit(new Callable<Map<LocalDate, BigDecimal>>() {
+                    @Override
+                    public Map<LocalDate, BigDecimal> call() {
+                        return MonteCarloSimulator.alongPath(start, table).run(20000, 3L, null).getEndDateCounts();
+                    }
+                }));
+            }
+            for (Future<Map<LocalDate, BigDecimal>> each : simulations) {
+                assertThat(each.get(), equalTo(expected));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void eachChunkHasItsOwnSeed() {
+        Set<Long> seeds = new HashSet<>();
+        for (int chunk = 0; chunk < 64; chunk++) {
+            seeds.add(MonteCarloSimulator.chunkSeed(7L, chunk));
+            seeds.add(MonteCarloSimulator.chunkSeed(8L, chunk));
+        }
+
+        assertThat(seeds.size(), equalTo(128));
+    }
+
+    @Test
+    public void theLongestBranchOfTheNetworkIsCritical() {
+        // 0 -> 1 -> 3 and 0 -> 2 -> 3, the branch through 1 is longer
+        TasksNetwork network = new TasksNetwork(start, new int[4],
+                new int[] { 0, 0, 1, 2 },
+                new int[] { 1, 2, 3, 3 },
+                new byte[] { TasksNetwork.END_START, TasksNetwork.END_START,
+                        TasksNetwork.END_START, TasksNetwork.END_START });
+
+        MonteCarloResult result = MonteCarloSimulator
+                .overNetwork(network, fixedDurations(2, 5, 3, 1))
+                .run(100, 1L, null);
+
+        assertThat(result.getEndDateCounts(),
+                equalTo(Collections.singletonMap(start.plusDays(8), BigDecimal.valueOf(100))));
+        assertThat(result.getCriticalityIndex(0), equalTo(all()));
+        assertThat(result.getCriticalityIndex(1), equalTo(all()));
+        assertThat(result.getCriticalityIndex(2), equalTo(none()));
+        assertThat(result.getCriticalityIndex(3), equalTo(all()));
+    }
+
+    @Test
+    public void startStartAndEndEndDependenciesAreFollowed() {
+        // 0 starts with 1 and 2 ends with 1
+        TasksNetwork network = new TasksNetwork(start, new int[] { 0, 3, 0 },
+                new int[] { 1, 1 },
+                new int[] { 0, 2 },
+                new byte[] { TasksNetwork.START_START, TasksNetwork.END_END });
+
+        MonteCarloResult result = MonteCarloSimulator
+                .overNetwork(network, fixedDurations(2, 4, 1))
+                .run(10, 1L, null);
+
+        assertThat(result.getEndDateCounts(),
+                equalTo(Collections.singletonMap(start.plusDays(7), BigDecimal.valueOf(10))));
+        assertThat(result.getCriticalityIndex(0), equalTo(none()));
+        assertThat(result.getCriticalityIndex(1), equalTo(all()));
+        assertThat(result.getCriticalityIndex(2), equalTo(all()));
+    }
+
+    @Test
+    public void theSameSeedGivesTheSameResult() {
+        TasksNetwork network = new TasksNetwork(start, new int[3],
+                new int[] { 0, 1 },
+                new int[] { 1, 2 },
+                new byte[] { TasksNetwork.END_START, TasksNetwork.END_START });
+        DurationsSamplingTable table = new DurationsSamplingTable(
+                new double[] { 0.3, 0.3, 0.3 },
+                new double[] { 0.8, 0.8, 0.8 },
+                new int[] { 6, 4, 2, 9, 6, 3, 3, 2, 1 });
+
+        assertThat(MonteCarloSimulator.overNetwork(network, table).run(5000, 7L, null).getEndDateCounts(),
+                equalTo(MonteCarloSimulator.overNetwork(network, table).run(5000, 7L, null).getEndDateCounts()));
+    }
+
+    @Test
+    public void theTasksAroundAMilestoneDependOnEachOther() {
+        Task before = taskPlannedAtTheStart();
+        TaskMilestone milestone = new TaskMilestone();
+        Task after = taskPlannedAtTheStart();
+        Dependency.create(before, milestone, Dependency.Type.END_START);
+        Dependency.create(milestone, after, Dependency.Type.END_START);
+
+        TasksNetwork network = TasksNetwork.create(Arrays.asList(before, after),
+                Arrays.<TaskElement> asList(before, milestone, after));
+        MonteCarloResult result = MonteCarloSimulator
+                .overNetwork(network, fixedDurations(2, 3))
+                .run(10, 1L, null);
+
+        assertThat(result.getEndDateCounts(),
+                equalTo(Collections.singletonMap(start.plusDays(5), BigDecimal.valueOf(10))));
+        assertThat(result.getCriticalityIndex(0), equalTo(all()));
+        assertThat(result.getCriticalityIndex(1), equalTo(all()));
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.planner.order;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.libreplan.business.planner.entities.GenericResourceAllocation;
+import org.libreplan.business.resources.daos.IResourcesSearcher;
+import org.libreplan.business.resources.daos.IResourcesSearcher.IResourcesQuery;
+import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.CriterionType;
+import org.libreplan.business.resources.entities.Machine;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.ResourceEnum;
+import org.libreplan.business.resources.entities.ResourceType;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.web.planner.order.ResourcesSearcherLoadingOnDemand.IOnResourcesFound;
+
+/**
+ * Tests for {@link ResourcesSearcherLoadingOnDemand}.
+ */
+public class ResourcesSearcherLoadingOnDemandTest {
+
+    private final List<Resource> registered = new ArrayList<>();
+
+    private final IOnResourcesFound registering = new IOnResourcesFound() {
+        @Override
+        public void found(List<Resource> resources) {
+            registered.addAll(resources);
+        }
+    };
+
+    @Test
+    public void theResourcesFoundAreRegisteredBeforeBeingReturned() {
+        List<Resource> resources = Arrays.asList(resource(1L), resource(2L));
+        IResourcesSearcher searcher = new ResourcesSearcherLoadingOnDemand(searcherFinding(resources), registering);
+
+        List<Resource> found = searcher.searchBoth().byCriteria(Collections.<Criterion> emptyList()).execute();
+
+        assertSame(resources, found);
+        assertEquals(resources, registered);
+    }
+
+    @Test
+    public void nothingIsRegisteredUntilTheQueryIsExecuted() {
+        IResourcesSearcher searcher =
+                new ResourcesSearcherLoadingOnDemand(searcherFinding(Arrays.asList(resource(1L))), registering);
+
+        searcher.searchBoth().byName("name").byResourceType(ResourceType.NON_LIMITING_RESOURCE);
+
+        assertTrue(registered.isEmpty());
+    }
+
+    @Test
+    public void theRestrictionsAreAppliedToTheDecoratedQuery() {
+        @SuppressWarnings("unchecked")
+        IResourcesQuery<Resource> query = createNiceMock(IResourcesQuery.class);
+        expect(query.byName("name")).andReturn(query);
+        expect(query.byResourceType(ResourceType.LIMITING_RESOURCE)).andReturn(query);
+        expect(query.execute()).andReturn(Collections.<Resource> emptyList());
+        replay(query);
+
+        IResourcesSearcher decorated = createNiceMock(IResourcesSearcher.class);
+        expect(decorated.searchBoth()).andReturn(query);
+        replay(decorated);
+
+        new ResourcesSearcherLoadingOnDemand(decorated, registering)
+                .searchBoth()
+                .byName("name")
+                .byResourceType(ResourceType.LIMITING_RESOURCE)
+                .execute();
+
+        verify(query);
+    }
+
+    @Test
+    public void theResourcesSuitableForAReassignedGenericAllocationAreRegistered() {
+        List<Resource> suitable = Arrays.asList(resource(1L), resource(2L), resource(3L));
+        IResourcesSearcher searcher = new ResourcesSearcherLoadingOnDemand(searcherFinding(suitable), registering);
+
+        List<Resource> result = GenericResourceAllocation.create().querySuitableResources(searcher);
+
+        assertEquals(suitable, result);
+        assertEquals(suitable, registered);
+    }
+
+    private static Resource resource(long id) {
+        Resource result = createNiceMock(Resource.class);
+        expect(result.getId()).andReturn(id).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    /**
+     * Searcher whose queries always find the same resources, like the ones
+     * of the current session not loaded yet by the planner
+     */
+    private static IResourcesSearcher searcherFinding(final List<Resource> resources) {
+        return new IResourcesSearcher() {
+
+            @Override
+            public IResourcesQuery<Worker> searchWorkers() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public IResourcesQuery<Machine> searchMachines() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public IResourcesQuery<?> searchBy(ResourceEnum resourceType) {
+                return searchBoth();
+            }
+
+            @Override
+            public IResourcesQuery<Resource> searchBoth() {
+                return new IResourcesQuery<Resource>() {
+
+                    @Override
+                    public IResourcesQuery<Resource> byName(String name) {
+                        return this;
+                    }
+
+                    @Override
+                    public IResourcesQuery<Resource> byCriteria(Collection<? extends Criterion> criteria) {
+                        return this;
+                    }
+
+                    @Override
+                    public IResourcesQuery<Resource> byResourceType(ResourceType type) {
+                        return this;
+                    }
+
+                    @Override
+                    public List<Resource> execute() {
+                        return resources;
+                    }
+
+                    @Override
+                    public Map<CriterionType, Set<Criterion>> getCriteria() {
+                        return Collections.emptyMap();
+                    }
+                };
+            }
+        };
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.resourceload;
+
+import static org.junit.Assert.assertEquals;
+
+import org.joda.time.DateTimeConstants;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+import org.libreplan.web.resourceload.DailyEffortSums.IEffortBetween;
+
+/**
+ * Tests for {@link DailyEffortSums}.
+ */
+public class DailyEffortSumsTest {
+
+    private static final LocalDate FIRST_DAY = new LocalDate(2026, 3, 2);
+
+    /**
+     * Eight hours from Monday to Friday, going through all the days
+     */
+    private static final IEffortBetween WORKING_WEEK = new IEffortBetween() {
+        @Override
+        public EffortDuration between(IntraDayDate startInclusive, IntraDayDate endExclusive) {
+            EffortDuration result = EffortDuration.zero();
+            for (PartialDay each : startInclusive.daysUntil(endExclusive)) {
+                int dayOfWeek = each.getDate().getDayOfWeek();
+                if ( dayOfWeek != DateTimeConstants.SATURDAY && dayOfWeek != DateTimeConstants.SUNDAY ) {
+                    result = result.plus(each.limitWorkingDay(EffortDuration.hours(8)));
+                }
+            }
+            return result;
+        }
+    };
+
+    private final DailyEffortSums sums = new DailyEffortSums(WORKING_WEEK, FIRST_DAY, FIRST_DAY.plusDays(60));
+
+    @Test
+    public void wholeDaysAreTakenFromTheSums() {
+        assertSameAsGoingThroughTheDays(startOfDay(0), startOfDay(1));
+        assertSameAsGoingThroughTheDays(startOfDay(0), startOfDay(7));
+        assertSameAsGoingThroughTheDays(startOfDay(3), startOfDay(45));
+        assertEquals(EffortDuration.hours(40), sums.between(startOfDay(0), startOfDay(7)));
+    }
+
+    @Test
+    public void partialDaysAtTheStartAndTheEndAreAdded() {
+        assertSameAsGoingThroughTheDays(at(0, 3), startOfDay(10));
+        assertSameAsGoingThroughTheDays(startOfDay(1), at(9, 5));
+        assertSameAsGoingThroughTheDays(at(2, 6), at(20, 2));
+        assertSameAsGoingThroughTheDays(at(4, 10), at(5, 1));
+    }
+
+    @Test
+    public void intervalsInsideADayAreCalculatedDirectly() {
+        assertSameAsGoingThroughTheDays(at(1, 2), at(1, 6));
+        assertSameAsGoingThroughTheDays(startOfDay(1), at(1, 6));
+        assertSameAsGoingThroughTheDays(at(1, 2), at(1, 2));
+    }
+
+    @Test
+    public void intervalsOutOfTheSumsAreCalculatedDirectly() {
+        assertSameAsGoingThroughTheDays(startOfDay(-10), startOfDay(10));
+        assertSameAsGoingThroughTheDays(at(50, 4), startOfDay(80));
+        assertSameAsGoingThroughTheDays(startOfDay(-20), at(-15, 3));
+    }
+
+    private void assertSameAsGoingThroughTheDays(IntraDayDate start, IntraDayDate end) {
+        assertEquals(WORKING_WEEK.between(start, end), sums.between(start, end));
+    }
+
+    private static IntraDayDate startOfDay(int day) {
+        return IntraDayDate.startOfDay(FIRST_DAY.plusDays(day));
+    }
+
+    private static IntraDayDate at(int day, int hours) {
+        return IntraDayDate.create(FIRST_DAY.plusDays(day), EffortDuration.hours(hours));
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.resourceload;
+
+import static java.util.Arrays.asList;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate;
+
+/**
+ * Tests for {@link PeriodsBuilder#sweep(LoadPeriodGenerator, List)}. The
+ * expected periods are the ones the allocations got when the periods were
+ * joined by pairs, unless told otherwise.
+ */
+public class PeriodsBuilderTest {
+
+    private static final LocalDate FIRST_DAY = new LocalDate(2026, 3, 2);
+
+    private static class Generator extends LoadPeriodGenerator {
+
+        private Generator(IntraDayDate start, IntraDayDate end, List<ResourceAllocation<?>> allocationsOnInterval) {
+            super(start, end, allocationsOnInterval);
+        }
+
+        @Override
+        protected LoadPeriodGenerator create(
+                IntraDayDate start, IntraDayDate end, List<ResourceAllocation<?>> allocationsOnInterval) {
+
+            return new Generator(start, end, allocationsOnInterval);
+        }
+
+        @Override
+        protected EffortDuration getTotalAvailableEffort(IntraDayDate start, IntraDayDate end) {
+            return EffortDuration.zero();
+        }
+
+        @Override
+        protected EffortDuration getAssignedEffortFor(
+                ResourceAllocation<?> resourceAllocation, IntraDayDate start, IntraDayDate end) {
+
+            return EffortDuration.zero();
+        }
+    }
+
+    private final Map<ResourceAllocation<?>, String> names = new IdentityHashMap<>();
+
+    private ResourceAllocation<?> allocation(String name, int startDay, int endDay) {
+        ResourceAllocation<?> result = createNiceMock(SpecificResourceAllocation.class);
+        expect(result.getIntraDayStartDate()).andReturn(day(startDay)).anyTimes();
+        expect(result.getIntraDayEndDate()).andReturn(day(endDay)).anyTimes();
+        expect(result.isSatisfied()).andReturn(true).anyTimes();
+        replay(result);
+        names.put(result, name);
+
+        return result;
+    }
+
+    private static IntraDayDate day(int days) {
+        return IntraDayDate.startOfDay(FIRST_DAY.plusDays(days));
+    }
+
+    private static int days(IntraDayDate date) {
+        return Days.daysBetween(FIRST_DAY, date.getDate()).getDays();
+    }
+
+    /**
+     * Describes each period as <code>"[start, end) names"</code>, with the
+     * days counted from {@link #FIRST_DAY} and the names sorted
+     */
+    private List<String> sweep(ResourceAllocation<?>... allocations) {
+        Generator prototype = new Generator(day(0), day(0), Collections.<ResourceAllocation<?>> emptyList());
+        List<String> result = new ArrayList<>();
+
+        for (LoadPeriodGenerator each : PeriodsBuilder.sweep(prototype, asList(allocations))) {
+            List<String> allocationNames = new ArrayList<>();
+            for (ResourceAllocation<?> allocation : each.getAllocationsOnInterval()) {
+                allocationNames.add(names.get(allocation));
+            }
+            Collections.sort(allocationNames);
+            result.add("[" + days(each.getStart()) + ", " + days(each.getEnd()) + ") " + allocationNames);
+        }
+
+        return result;
+    }
+
+    @Test
+    public void overlappingAllocationsAreSplitWhereTheyOverlap() {
+        assertEquals(
+                asList("[0, 2) [a]", "[2, 4) [a, b]", "[4, 6) [b]"),
+                sweep(allocation("a", 0, 4), allocation("b", 2, 6)));
+    }
+
+    @Test
+    public void aNestedAllocationSplitsTheOneContainingIt() {
+        assertEquals(
+                asList("[0, 2) [a]", "[2, 4) [a, b]", "[4, 6) [a]"),
+                sweep(allocation("a", 0, 6), allocation("b", 2, 4)));
+    }
+
+    @Test
+    public void allocationsOnTheSameIntervalShareOnePeriod() {
+        assertEquals(asList("[0, 4) [a, b]"), sweep(allocation("a", 0, 4), allocation("b", 0, 4)));
+    }
+
+    @Test
+    public void consecutiveAllocationsAreNotJoined() {
+        assertEquals(
+                asList("[0, 2) [a]", "[2, 4) [b]"),
+                sweep(allocation("a", 0, 2), allocation("b", 2, 4)));
+    }
+
+    @Test
+    public void anAllocationWithoutDurationAloneHasItsOwnPeriod() {
+        assertEquals(asList("[3, 3) [z]"), sweep(allocation("z", 3, 3)));
+    }
+
+    @Test
+    public void anAllocationWithoutDurationInsideAnotherJustSplitsIt() {
+        assertEquals(
+                asList("[0, 3) [a]", "[3, 6) [a]"),
+                sweep(allocation("a", 0, 6), allocation("z", 3, 3)));
+    }
+
+    @Test
+    public void anAllocationWithoutDurationAtTheStartOfAnotherHasItsOwnPeriod() {
+        List<String> expected = asList("[2, 2) [z]", "[2, 6) [a]");
+
+        assertEquals(expected, sweep(allocation("a", 2, 6), allocation("z", 2, 2)));
+        assertEquals(expected, sweep(allocation("z", 2, 2), allocation("a", 2, 6)));
+    }
+
+    @Test
+    public void anAllocationWithoutDurationAtTheEndOfAnotherHasItsOwnPeriod() {
+        assertEquals(
+                asList("[2, 6) [a]", "[6, 6) [z]"),
+                sweep(allocation("a", 2, 6), allocation("z", 6, 6)));
+    }
+
+    /**
+     * Joining by pairs only compared each period with the next one, so an
+     * allocation without duration between them left the overlapping periods
+     * of the others unsplit
+     */
+    @Test
+    public void anAllocationWithoutDurationDoesNotKeepTheOthersFromBeingSplit() {
+        assertEquals(
+                asList("[0, 0) [z]", "[0, 1) [a]", "[1, 2) [a, b]", "[2, 4) [b]"),
+                sweep(allocation("a", 0, 2), allocation("z", 0, 0), allocation("b", 1, 4)));
+    }
+
+    @Test
+    public void anAllocationStartingAfterItsEndHasNoPeriods() {
+        assertEquals(Collections.<String> emptyList(), sweep(allocation("x", 4, 2)));
+    }
+
+    /**
+     * Joining by pairs split the valid allocation by the dates of the invalid
+     * one, leaving overlapping periods
+     */
+    @Test
+    public void anAllocationStartingAfterItsEndDoesNotSplitTheOthers() {
+        assertEquals(asList("[0, 6) [a]"), sweep(allocation("a", 0, 6), allocation("x", 4, 2)));
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2026 LibrePlan
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.test.ws.email;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.importers.notifications.EmailSender;
+
+/**
+ * Tests for {@link EmailSender} against a local SMTP stub.
+ */
+public class EmailSenderTest {
+
+    private static final int MESSAGES = 50;
+
+    private SmtpStub smtpStub;
+
+    private Session session;
+
+    @Before
+    public void startSmtpStub() throws IOException {
+        smtpStub = new SmtpStub();
+        session = Session.getInstance(new Properties());
+    }
+
+    @After
+    public void stopSmtpStub() throws IOException {
+        smtpStub.stop();
+    }
+
+    @Test
+    public void allTheMessagesAreSentThroughAFewConnections() throws MessagingException {
+        EmailSender sender = new EmailSender(session, "localhost", smtpStub.getPort(), null, null, 3);
+
+        Map<Integer, MimeMessage> messages = createMessages();
+        List<Integer> sent = sender.send(messages);
+
+        assertEquals(new ArrayList<>(messages.keySet()), sent);
+        assertEquals(MESSAGES, smtpStub.getReceivedMessages().size());
+        assertTrue(smtpStub.getConnections() <= 3);
+    }
+
+    @Test
+    public void aSingleConnectionIsUsedForAllTheMessages() throws MessagingException {
+        EmailSender sender = new EmailSender(session, "localhost", smtpStub.getPort(), null, null, 1);
+
+        assertEquals(MESSAGES, sender.send(createMessages()).size());
+        assertEquals(1, smtpStub.getConnections());
+    }
+
+    @Test
+    public void noMessageIsSentIfTheServerIsNotAvailable() throws MessagingException, IOException {
+        int port = smtpStub.getPort();
+        smtpStub.stop();
+        EmailSender sender = new EmailSender(session, "localhost", port, null, null, 3);
+
+        assertTrue(sender.send(createMessages()).isEmpty());
+    }
+
+    @Test
+    public void theCredentialsAreNotUsedIfAuthenticationIsNotConfigured() throws MessagingException {
+        EmailSender sender = new EmailSender(session, "localhost", smtpStub.getPort(), "user", "password", 1);
+
+        assertEquals(MESSAGES, sender.send(createMessages()).size());
+        assertEquals(0, smtpStub.getAuthentications());
+    }
+
+    private Map<Integer, MimeMessage> createMessages() throws MessagingException {
+        Map<Integer, MimeMessage> result = new LinkedHashMap<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            MimeMessage message = new MimeMessage(session);
+            message.setFrom(new InternetAddress("libreplan@example.org"));
+            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse("user" + i + "@example.org"));
+            message.setSubject("Task should start " + i);
+            message.setText("Task " + i);
+            result.put(i, message);
+        }
+        return result;
+    }
+
+    /**
+     * SMTP server accepting any message, just to count the connections, the
+     * authentications and the messages received
+     */
+    private static class SmtpStub {
+
+        private final ServerSocket serverSocket;
+
+        private final AtomicInteger connections = new AtomicInteger();
+
+        private final AtomicInteger authentications = new AtomicInteger();
+
+        private final Queue<String> receivedMessages = new ConcurrentLinkedQueue<>();
+
+        SmtpStub() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread acceptor = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    acceptConnections();
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        int getAuthentications() {
+            return authentications.get();
+        }
+
+        Queue<String> getReceivedMessages() {
+            return receivedMessages;
+        }
+
+        void stop() throws IOException {
+            serverSocket.close();
+        }
+
+        private void acceptConnections() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread handler = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            handle(socket);
+                        }
+                    });
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    // Stopped
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (Socket each = socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(each.getInputStream(), "US-ASCII"));
+                 PrintWriter out = new PrintWriter(each.getOutputStream(), true)) {
+
+                reply(out, "220 localhost SMTP stub");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if ( command.startsWith("DATA") ) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        receivedMessages.add(readData(in));
+                        reply(out, "250 OK");
+                    } else if ( command.startsWith("QUIT") ) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else if ( command.startsWith("EHLO") || command.startsWith("HELO") ) {
+                        reply(out, "250-localhost");
+                        reply(out, "250 AUTH PLAIN");
+                    } else if ( command.startsWith("AUTH") ) {
+                        authentications.incrementAndGet();
+                        reply(out, "235 Authentication successful");
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Connection closed by the client
+            }
+        }
+
+        private static String readData(BufferedReader in) throws IOException {
+            StringBuilder result = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null && !".".equals(line)) {
+                result.append(line).append("\n");
+            }
+            return result.toString();
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+    }
+
+}
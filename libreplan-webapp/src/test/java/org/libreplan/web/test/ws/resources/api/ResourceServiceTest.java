@@ -23,6 +23,7 @@ package org.libreplan.web.test.ws.resources.api;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
@@ -36,12 +37,20 @@ import static org.libreplan.web.test.ws.common.Util.assertOneConstraintViolation
 import static org.libreplan.web.test.ws.common.Util.assertOneRecoverableError;
 import static org.libreplan.web.test.ws.common.Util.getUniqueName;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashSet;
 import java.util.List;
 
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.bind.JAXBContext;
 import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeConstants;
 import javax.xml.datatype.DatatypeFactory;
@@ -73,6 +82,7 @@ import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.ResourceEnum;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.ws.common.api.InstanceConstraintViolationsDTO;
+import org.libreplan.ws.common.impl.GenericRESTService;
 import org.libreplan.ws.resources.api.CriterionSatisfactionDTO;
 import org.libreplan.ws.resources.api.IResourceService;
 import org.libreplan.ws.resources.api.MachineDTO;
@@ -843,6 +853,183 @@ constraintViolations
 
     }
 
+    @Test
+    @Transactional
+    public void testAddResourcesInBulkReportsTheSameConstraintViolations() {
+
+        /* Create resource DTOs, one of them without name. */
+        List<ResourceDTO> resources = new ArrayList<ResourceDTO>();
+        for (int i = 0; i < 250; i++) {
+            resources.add(new MachineDTO(getUniqueName(), "desc"));
+        }
+        resources.set(120, new MachineDTO(" ", null));
+
+        /* Test. */
+        List<InstanceConstraintViolationsDTO> instanceConstraintViolationsList =
+            resourceService.addResources(new ResourceListDTO(resources)).
+                instanceConstraintViolationsList;
+
+        assertEquals(instanceConstraintViolationsList.toString(), 1,
+            instanceConstraintViolationsList.size());
+        assertEquals(Long.valueOf(121),
+            instanceConstraintViolationsList.get(0).numItem);
+        for (int i = 0; i < resources.size(); i++) {
+            assertEquals(i != 120, resourceDAO.existsByCode(resources.get(i).code));
+        }
+
+    }
+
+    @Test
+    @Transactional
+    public void testGetResourcesByWindows() {
+
+        /* Create resource DTOs. */
+        MachineDTO m1 = new MachineDTO(getUniqueName(), "desc");
+        MachineDTO m2 = new MachineDTO(getUniqueName(), "desc");
+        WorkerDTO w1 = new WorkerDTO(getUniqueName(), "w1-surname", "w1-nif");
+        assertNoConstraintViolations(
+            resourceService.addResources(createResourceListDTO(m1, m2, w1)));
+
+        /* Test. */
+        List<String> codes = new ArrayList<String>();
+        String cursor = null;
+        do {
+            Response response = resourceService.getResourcesWindow(cursor, 2);
+            assertEquals(Status.OK.getStatusCode(), response.getStatus());
+            for (ResourceDTO each : ((ResourceListDTO) response.getEntity()).resources) {
+                codes.add(each.code);
+            }
+            cursor = response.getHeaderString(GenericRESTService.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertTrue(codes.containsAll(Arrays.asList(m1.code, m2.code, w1.code)));
+        assertEquals(codes.size(), new HashSet<String>(codes).size());
+
+        assertEquals(Status.BAD_REQUEST.getStatusCode(),
+            resourceService.getResourcesWindow(null, 0).getStatus());
+
+    }
+
+    @Test
+    @Transactional
+    public void testResourcesWindowsAreSortedByCodeAcrossTheirBoundaries() {
+
+        /* Create resources with consecutive codes. */
+        String prefix = getUniqueName();
+        List<String> created = givenMachinesWithCodesStartingWith(prefix, 5);
+
+        /* Test. */
+        List<String> codes = new ArrayList<String>();
+        String cursor = prefix;
+        while (cursor != null && codes.size() < created.size()) {
+            Response response = resourceService.getResourcesWindow(cursor, 2);
+            List<String> window = codesOf(response);
+            assertTrue(window.size() <= 2);
+            codes.addAll(window);
+            cursor = response.getHeaderString(GenericRESTService.NEXT_CURSOR_HEADER);
+        }
+
+        assertEquals(created, codes.subList(0, created.size()));
+
+    }
+
+    @Test
+    @Transactional
+    public void testTheLastResourcesWindowHasNoCursor() {
+
+        /* Create resource DTOs. */
+        givenMachinesWithCodesStartingWith(getUniqueName(), 3);
+
+        /* Test. */
+        Response response;
+        String lastCode = null;
+        String cursor = null;
+        do {
+            response = resourceService.getResourcesWindow(cursor, 2);
+            List<String> window = codesOf(response);
+            if (!window.isEmpty()) {
+                lastCode = window.get(window.size() - 1);
+            }
+            cursor = response.getHeaderString(GenericRESTService.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertTrue(codesOf(response).size() < 2);
+
+        Response empty = resourceService.getResourcesWindow(lastCode, 2);
+        assertEquals(Status.OK.getStatusCode(), empty.getStatus());
+        assertTrue(codesOf(empty).isEmpty());
+        assertNull(empty.getHeaderString(GenericRESTService.NEXT_CURSOR_HEADER));
+
+    }
+
+    @Test
+    @Transactional
+    public void testStreamedResourcesAreTheSameAsTheWindows() throws Exception {
+
+        /* Create more resources than the ones read in each streaming window. */
+        String prefix = getUniqueName();
+        List<String> created = givenMachinesWithCodesStartingWith(prefix, 205);
+
+        /* Test. */
+        List<String> windowed = new ArrayList<String>();
+        String cursor = null;
+        do {
+            Response response = resourceService.getResourcesWindow(cursor, GenericRESTService.MAX_WINDOW_SIZE);
+            windowed.addAll(codesOf(response));
+            cursor = response.getHeaderString(GenericRESTService.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) resourceService.streamResources().getEntity()).write(output);
+        ResourceListDTO streamed = (ResourceListDTO) JAXBContext.newInstance(ResourceListDTO.class)
+                .createUnmarshaller().unmarshal(new ByteArrayInputStream(output.toByteArray()));
+
+        List<String> streamedCodes = codesOf(streamed.resources);
+        assertEquals(windowed, streamedCodes);
+
+        List<String> streamedCreated = new ArrayList<String>();
+        for (String each : streamedCodes) {
+            if (each.startsWith(prefix)) {
+                streamedCreated.add(each);
+            }
+        }
+        assertEquals(created, streamedCreated);
+
+    }
+
+    /**
+     * Adds machines with codes sorted as the returned list, at most a bulk
+     * import chunk in each call, so they are saved in the transaction of the
+     * test.
+     */
+    private List<String> givenMachinesWithCodesStartingWith(String prefix, int number) {
+        List<String> result = new ArrayList<String>();
+        List<ResourceDTO> machines = new ArrayList<ResourceDTO>();
+        for (int i = 0; i < number; i++) {
+            String code = prefix + "-" + String.format("%03d", i);
+            result.add(code);
+            machines.add(new MachineDTO(code, "machine " + i, "desc"));
+            if (machines.size() == 100 || i == number - 1) {
+                assertNoConstraintViolations(resourceService.addResources(new ResourceListDTO(machines)));
+                machines = new ArrayList<ResourceDTO>();
+            }
+        }
+        return result;
+    }
+
+    private static List<String> codesOf(Response response) {
+        assertEquals(Status.OK.getStatusCode(), response.getStatus());
+        return codesOf(((ResourceListDTO) response.getEntity()).resources);
+    }
+
+    private static List<String> codesOf(List<ResourceDTO> resources) {
+        List<String> result = new ArrayList<String>();
+        for (ResourceDTO each : resources) {
+            result.add(each.code);
+        }
+        return result;
+    }
+
     private CriterionType createCriterionType() {
         return createCriterionType(ResourceEnum.WORKER, true);
     }